@@ -79,6 +79,13 @@ public abstract class AbstractOwbBean<T>
     
     protected final WebBeansContext webBeansContext;
 
+    /**
+     * Index of the slot of this bean in the {@link org.apache.webbeans.context.RequestContext},
+     * only assigned for &#064;RequestScoped beans, -1 otherwise.
+     * @see org.apache.webbeans.container.BeanManagerImpl#assignRequestScopedOrdinal(AbstractOwbBean)
+     */
+    private volatile int requestScopedOrdinal = -1;
+
     protected AbstractOwbBean(WebBeansContext webBeansContext,
                               WebBeansType webBeansType,
                               BeanAttributes<T> beanAttributes,
@@ -106,6 +113,16 @@ public abstract class AbstractOwbBean<T>
     {
         return beanClass;
     }
+
+    public int getRequestScopedOrdinal()
+    {
+        return requestScopedOrdinal;
+    }
+
+    public void setRequestScopedOrdinal(int requestScopedOrdinal)
+    {
+        this.requestScopedOrdinal = requestScopedOrdinal;
+    }
     
     /**
      * {@inheritDoc}
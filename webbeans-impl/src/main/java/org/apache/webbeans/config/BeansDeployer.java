@@ -20,6 +20,7 @@ package org.apache.webbeans.config;
 
 import org.apache.webbeans.annotation.AnnotationManager;
 import org.apache.webbeans.annotation.AnyLiteral;
+import org.apache.webbeans.component.AbstractOwbBean;
 import org.apache.webbeans.component.AbstractProducerBean;
 import org.apache.webbeans.component.BeanAttributesImpl;
 import org.apache.webbeans.component.BuiltInOwbBean;
@@ -86,6 +87,7 @@ import org.apache.webbeans.spi.plugins.OpenWebBeansJavaEEPlugin;
 import org.apache.webbeans.util.AnnotationUtil;
 import org.apache.webbeans.util.ClassUtil;
 import org.apache.webbeans.util.ExceptionUtil;
+import org.apache.webbeans.util.ForkJoinPoolUtil;
 import org.apache.webbeans.util.GenericsUtil;
 import org.apache.webbeans.util.InjectionExceptionUtil;
 import org.apache.webbeans.util.SpecializationUtil;
@@ -93,6 +95,7 @@ import org.apache.webbeans.util.WebBeansConstants;
 import org.apache.webbeans.util.WebBeansUtil;
 import org.apache.webbeans.xml.DefaultBeanArchiveInformation;
 
+import jakarta.enterprise.context.RequestScoped;
 import jakarta.enterprise.inject.AmbiguousResolutionException;
 import jakarta.enterprise.inject.Model;
 import jakarta.enterprise.inject.UnproxyableResolutionException;
@@ -110,6 +113,7 @@ import jakarta.enterprise.inject.spi.Producer;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
@@ -127,9 +131,13 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static java.util.Arrays.asList;
 import static org.apache.webbeans.spi.BeanArchiveService.BeanDiscoveryMode;
@@ -167,6 +175,13 @@ public class BeansDeployer
     protected boolean skipVetoedOnPackages;
     protected boolean skipNoClassDefFoundTriggers;
     protected boolean skipValidations;
+    protected boolean parallelDeployment;
+
+    /**
+     * Only set during {@link #deploy(ScannerService)} if the parallel deployment is enabled.
+     * @see OpenWebBeansConfiguration#PARALLEL_DEPLOYMENT
+     */
+    private ForkJoinPool deploymentPool;
 
     /**
      * This BdaInfo is used for all manually added annotated types or in case
@@ -194,6 +209,7 @@ public class BeansDeployer
         skipValidations = Boolean.parseBoolean(this.webBeansContext.getOpenWebBeansConfiguration().getProperty(
                 "org.apache.webbeans.spi.deployer.skipValidations"));
         skipNoClassDefFoundTriggers = this.webBeansContext.getOpenWebBeansConfiguration().isSkipNoClassDefFoundErrorTriggers();
+        parallelDeployment = this.webBeansContext.getOpenWebBeansConfiguration().isParallelDeployment();
 
         defaultBeanArchiveInformation = new DefaultBeanArchiveInformation("default");
 
@@ -214,7 +230,12 @@ public class BeansDeployer
         try
         {
             if (!deployed)
-            {                
+            {
+                if (parallelDeployment)
+                {
+                    deploymentPool = newDeploymentPool();
+                }
+
                 //Load Extensions
                 webBeansContext.getExtensionLoader().loadExtensionServices();
 
@@ -317,6 +338,8 @@ public class BeansDeployer
                 // activate InjectionResolver cache now
                 webBeansContext.getBeanManagerImpl().getInjectionResolver().setStartup(false);
 
+                assignRequestScopedOrdinals();
+
                 if (!skipValidations)
                 {
                     validateAlternatives(beanAttributesPerBda);
@@ -386,6 +409,11 @@ public class BeansDeployer
                 // fire event
                 fireAfterDeploymentValidationEvent();
 
+                if (webBeansContext.getOpenWebBeansConfiguration().isProxyWarmUp())
+                {
+                    warmUpProxies();
+                }
+
 
                 // do some cleanup after the deployment
                 scanner.release();
@@ -412,6 +440,90 @@ public class BeansDeployer
             //if bootstrapping failed, it doesn't make sense to do it again
             //esp. because #addInternalBean might have been called already and would cause an exception in the next run
             deployed = true;
+
+            if (deploymentPool != null)
+            {
+                deploymentPool.shutdown();
+                deploymentPool = null;
+            }
+        }
+    }
+
+    private ForkJoinPool newDeploymentPool()
+    {
+        // the workers need the same TCCL to find the WebBeansContext
+        return ForkJoinPoolUtil.newForkJoinPool("OpenWebBeans-deployment-", Thread.currentThread().getContextClassLoader());
+    }
+
+    /**
+     * Runs the task for all items in the {@link #deploymentPool}.
+     * Exceptions don't stop the other tasks but get collected to be rethrown by the caller
+     * in the same order a sequential deployment would do.
+     *
+     * The tasks only must touch state which is either immutable once the beans got registered
+     * or safe for concurrent use: the {@link org.apache.webbeans.container.InjectionResolver} caches,
+     * the bean type index, the {@link org.apache.webbeans.inject.AlternativesManager} and
+     * {@link org.apache.webbeans.util.PriorityClasses}, the caches of {@link org.apache.webbeans.util.WebBeansUtil}
+     * and {@link org.apache.webbeans.annotation.AnnotationManager} as well as the lazily computed type closures of the annotated types.
+     * Everything which registers beans or fires container events must stay sequential.
+     *
+     * @return the exception of each item or {@code null} if it succeeded
+     */
+    private <T> RuntimeException[] runParallel(List<T> items, Consumer<T> task)
+    {
+        RuntimeException[] errors = new RuntimeException[items.size()];
+        try
+        {
+            deploymentPool.submit(() -> IntStream.range(0, items.size()).parallel().forEach(i ->
+            {
+                try
+                {
+                    task.accept(items.get(i));
+                }
+                catch (RuntimeException e)
+                {
+                    errors[i] = e;
+                }
+            })).get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new WebBeansDeploymentException(e);
+        }
+        catch (ExecutionException e)
+        {
+            throw ExceptionUtil.throwAsRuntimeException(e.getCause());
+        }
+        return errors;
+    }
+
+    /**
+     * Loads all the classes referenced by the members of the given class and fills the reflection caches,
+     * that's the expensive part of creating the AnnotatedType.
+     * Failures get ignored here, they show up again and get handled when the AnnotatedType gets created.
+     */
+    private static void introspect(Class<?> beanClass)
+    {
+        try
+        {
+            beanClass.getAnnotations();
+            for (Field field : beanClass.getDeclaredFields())
+            {
+                field.getAnnotations();
+            }
+            for (Method method : beanClass.getDeclaredMethods())
+            {
+                method.getAnnotations();
+            }
+            for (Constructor<?> constructor : beanClass.getDeclaredConstructors())
+            {
+                constructor.getAnnotations();
+            }
+        }
+        catch (LinkageError | RuntimeException e)
+        {
+            // handled by the sequential part
         }
     }
 
@@ -572,6 +684,47 @@ public class BeansDeployer
         return false;
     }
 
+    /**
+     * Numbers the &#064;RequestScoped beans so the RequestContext can store their instances in an array.
+     */
+    private void assignRequestScopedOrdinals()
+    {
+        BeanManagerImpl beanManager = webBeansContext.getBeanManagerImpl();
+        for (Bean<?> bean : beanManager.getBeans())
+        {
+            if (bean instanceof AbstractOwbBean && RequestScoped.class == bean.getScope())
+            {
+                beanManager.assignRequestScopedOrdinal((AbstractOwbBean<?>) bean);
+            }
+        }
+    }
+
+    /**
+     * Generates the proxies of all normal scoped beans in parallel instead of on the first access of each bean.
+     * The interceptor and decorator proxies already got generated together with the interceptor stacks.
+     */
+    private void warmUpProxies()
+    {
+        BeanManagerImpl beanManager = webBeansContext.getBeanManagerImpl();
+        List<Bean<?>> normalScopedBeans = beanManager.getBeans().stream()
+                .filter(bean -> beanManager.isNormalScope(bean.getScope()))
+                .collect(Collectors.toList());
+
+        ForkJoinPool pool = deploymentPool != null ? deploymentPool : newDeploymentPool();
+        try
+        {
+            int generated = webBeansContext.getNormalScopeProxyFactory().warmUp(normalScopedBeans, pool);
+            logger.fine(() -> "Generated the proxies of " + generated + " of " + normalScopedBeans.size() + " normal scoped beans upfront");
+        }
+        finally
+        {
+            if (pool != deploymentPool)
+            {
+                pool.shutdown();
+            }
+        }
+    }
+
     private void validateDisposeParameters()
     {
         WebBeansUtil webBeansUtil = webBeansContext.getWebBeansUtil();
@@ -674,7 +827,7 @@ public class BeansDeployer
      */
     private void removeDisabledBeans()
     {
-        webBeansContext.getBeanManagerImpl().getBeans().removeIf(bean -> !((OwbBean) bean).isEnabled());
+        webBeansContext.getBeanManagerImpl().removeBeans(bean -> !((OwbBean) bean).isEnabled());
     }
 
     private void registerAlternativesDecoratorsAndInterceptorsWithPriority(List<AnnotatedType<?>> annotatedTypes)
@@ -1198,9 +1351,13 @@ public class BeansDeployer
 
         if (beans != null && beans.size() > 0)
         {
+            List<B> beanList = new ArrayList<>(beans);
+            RuntimeException[] injectionPointErrors = deploymentPool != null ? runParallel(beanList, this::validateInjectionPoints) : null;
+
             LinkedList<String> beanNames = new LinkedList<>();
-            for (Bean<?> bean : beans)
+            for (int i = 0; i < beanList.size(); i++)
             {
+                Bean<?> bean = beanList.get(i);
                 try
                 {
 
@@ -1260,13 +1417,14 @@ public class BeansDeployer
                         }
                     }
 
-                    //Bean injection points
-                    Set<InjectionPoint> injectionPoints = bean.getInjectionPoints();
-
                     //Check injection points
-                    if (injectionPoints != null)
+                    if (injectionPointErrors == null)
+                    {
+                        validateInjectionPoints(bean);
+                    }
+                    else if (injectionPointErrors[i] != null)
                     {
-                        webBeansContext.getWebBeansUtil().validate(injectionPoints, bean);
+                        throw injectionPointErrors[i];
                     }
 
                     //Check passivation scope
@@ -1287,15 +1445,49 @@ public class BeansDeployer
         
     }
     
+    private void validateInjectionPoints(Bean<?> bean)
+    {
+        if (bean instanceof OwbBean && !((OwbBean) bean).isEnabled() ||
+                bean.getBeanClass().getName().startsWith(JAVAX_ENTERPRISE_PACKAGE))
+        {
+            // skipped by validate(beans)
+            return;
+        }
+
+        //Bean injection points
+        Set<InjectionPoint> injectionPoints = bean.getInjectionPoints();
+        if (injectionPoints != null)
+        {
+            webBeansContext.getWebBeansUtil().validate(injectionPoints, bean);
+        }
+    }
+
     private void validateObservers(Collection<ObserverMethod<?>> observerMethods)
     {
-        for (ObserverMethod<?> observerMethod: observerMethods)
+        if (deploymentPool != null)
         {
-            if (observerMethod instanceof OwbObserverMethod)
+            for (RuntimeException error : runParallel(new ArrayList<>(observerMethods), this::validateObserver))
             {
-                OwbObserverMethod<?> owbObserverMethod = (OwbObserverMethod<?>)observerMethod;
-                webBeansContext.getWebBeansUtil().validate(owbObserverMethod.getInjectionPoints(), null);
+                if (error != null)
+                {
+                    throw error;
+                }
             }
+            return;
+        }
+
+        for (ObserverMethod<?> observerMethod: observerMethods)
+        {
+            validateObserver(observerMethod);
+        }
+    }
+
+    private void validateObserver(ObserverMethod<?> observerMethod)
+    {
+        if (observerMethod instanceof OwbObserverMethod)
+        {
+            OwbObserverMethod<?> owbObserverMethod = (OwbObserverMethod<?>)observerMethod;
+            webBeansContext.getWebBeansUtil().validate(owbObserverMethod.getInjectionPoints(), null);
         }
     }
 
@@ -1394,6 +1586,11 @@ public class BeansDeployer
         //Iterating over each class
         if (classIndex != null)
         {
+            if (deploymentPool != null && classIndex.size() > 1)
+            {
+                runParallel(new ArrayList<>(classIndex), BeansDeployer::introspect);
+            }
+
             AnnotatedElementFactory annotatedElementFactory = webBeansContext.getAnnotatedElementFactory();
             boolean hasPATObserver = webBeansContext.getNotificationManager().hasProcessAnnotatedTypeObservers();
             for (Class<?> implClass : classIndex)
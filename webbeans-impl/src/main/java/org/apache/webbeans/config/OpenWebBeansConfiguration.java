@@ -27,6 +27,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
@@ -34,6 +35,7 @@ import java.util.logging.Level;
 import java.util.stream.Stream;
 
 import org.apache.webbeans.exception.WebBeansConfigurationException;
+import org.apache.webbeans.inject.instance.DependentTracking;
 import org.apache.webbeans.logger.WebBeansLoggerFacade;
 import org.apache.webbeans.spi.BeanArchiveService;
 
@@ -216,6 +218,116 @@ public class OpenWebBeansConfiguration
      */
     public static final String DEFAULT_BEAN_DISCOVERY_MODE = "org.apache.webbeans.defaultBeanDiscoveryMode";
 
+    /**
+     * If {@code true} observer methods get invoked via a generated {@link org.apache.webbeans.proxy.MethodInvoker}
+     * instead of reflection.
+     * Default is {@code false}.
+     */
+    public static final String GENERATED_OBSERVER_INVOKERS = "org.apache.webbeans.event.generatedObserverInvokers";
+
+    /**
+     * If {@code true} the around-invoke interceptor chain of each intercepted business method
+     * gets precomputed once per bean and the target method gets invoked via a generated
+     * {@link org.apache.webbeans.proxy.MethodInvoker} instead of reflection.
+     * Default is {@code false}.
+     */
+    public static final String COMPILED_INTERCEPTOR_CHAINS = "org.apache.webbeans.intercept.compiledInterceptorChains";
+
+    /**
+     * If {@code true} the asynchronous observer methods run with the session and conversation context
+     * of the thread which fired the event and see its request scoped instances as long as its request is active.
+     * Each delivery still runs in its own request context which never destroys the inherited instances.
+     * Default is {@code false}.
+     */
+    public static final String PROPAGATE_CONTEXTS_TO_ASYNC_OBSERVERS = "org.apache.webbeans.event.propagateContextsToAsyncObservers";
+
+    /**
+     * Path of the file the scanner stores the bean classes per bean archive in.
+     * If the checksum of the bean archives did not change since the snapshot got written,
+     * the classes get read from this file instead of scanning the archives again.
+     * Not set by default.
+     */
+    public static final String DEPLOYMENT_SNAPSHOT = "org.apache.webbeans.scanner.deploymentSnapshot";
+
+    /**
+     * If {@code true} the {@link BeansDeployer} uses all available cores for the reflection heavy parts
+     * of the class path deployment and for the injection point validation.
+     * All container lifecycle events still get fired from the deploying thread in a deterministic order.
+     * Default is {@code false}.
+     */
+    public static final String PARALLEL_DEPLOYMENT = "org.apache.webbeans.spi.deployer.parallelDeployment";
+
+    /**
+     * If {@code true} the web SessionContext stores each session scoped bean in its own
+     * session attribute and only sets the attributes of the beans used during a request again,
+     * see {@link org.apache.webbeans.context.ReplicatedSessionContext}.
+     * Default is {@code false}.
+     */
+    public static final String SESSION_BEAN_REPLICATION = "org.apache.webbeans.web.sessionBeanReplication";
+
+    /**
+     * If {@code true} the scanner loads the classes of each bean archive and probes them for
+     * a NoClassDefFoundError using all available cores, as long as the ClassLoader is parallel capable.
+     * Default is {@code false}.
+     */
+    public static final String PARALLEL_CLASS_LOADING = "org.apache.webbeans.scanner.parallelClassLoading";
+
+    /**
+     * If {@code true} all jars and directories of the deployment get read in parallel by the
+     * {@link org.apache.webbeans.corespi.scanner.xbean.ParallelArchiveScanner} instead of getting
+     * parsed one after the other by the AnnotationFinder.
+     * The AnnotationFinder of the scanner then doesn't contain the classes of those archives.
+     * Default is {@code false}.
+     */
+    public static final String PARALLEL_SCANNING = "org.apache.webbeans.scanner.parallelScanning";
+
+    /**
+     * If {@code true} the parallel scanning maps the jars into memory and streams over their entries.
+     * Default is {@code false}.
+     */
+    public static final String MEMORY_MAPPED_SCANNING = "org.apache.webbeans.scanner.memoryMappedJars";
+
+    /**
+     * If {@code false} the bean archive indexes contained in the archives get ignored and all archives get scanned,
+     * see {@link org.apache.webbeans.corespi.scanner.xbean.BeanArchiveIndex}.
+     * Default is {@code true}.
+     */
+    public static final String USE_BEAN_ARCHIVE_INDEX = "org.apache.webbeans.scanner.useBeanArchiveIndex";
+
+    /**
+     * Maximum number of classes the InjectionTargets for non-contextual instances get cached for,
+     * see {@link org.apache.webbeans.container.BeanManagerImpl#getNonContextualInjectionTarget(Class)}.
+     * {@code 0} disables the cache. Default is {@code 1000}.
+     */
+    public static final String INJECTION_TARGET_CACHE_SIZE = "org.apache.webbeans.inject.injectionTargetCacheSize";
+
+    /**
+     * Maximum number of entries in each of the caches for the resolution of beans by type and by name.
+     * The limit applies once the container got started, a value &lt;= 0 keeps the caches unbounded.
+     * Default is {@code 10000}.
+     */
+    public static final String RESOLUTION_CACHE_SIZE = "org.apache.webbeans.container.resolutionCacheSize";
+
+    /**
+     * How {@link jakarta.enterprise.inject.Instance} keeps the &#064;Dependent instances it created until they get destroyed,
+     * one of {@code strong}, {@code weak} or {@code destroyable}, see {@link DependentTracking}.
+     * Default is {@code strong}.
+     */
+    public static final String INSTANCE_DEPENDENT_TRACKING = "org.apache.webbeans.instance.dependentTracking";
+
+    /**
+     * Tick interval in ms of the {@link org.apache.webbeans.conversation.ConversationReaper} which destroys
+     * timed out conversations in the background, also in sessions which don't get any requests anymore.
+     * Default is 0 which disables the reaper, timed out conversations then only get destroyed by the next request of their session.
+     */
+    public static final String CONVERSATION_REAPER_INTERVAL = "org.apache.webbeans.conversation.reaperInterval";
+
+    /**
+     * If {@code true} the proxies of all normal scoped beans get generated in parallel at the end of the deployment
+     * instead of on the first access of each bean. Default is {@code false}.
+     */
+    public static final String PROXY_WARM_UP = "org.apache.webbeans.proxy.warmUp";
+
 
 
     /**Default configuration files*/
@@ -612,6 +724,142 @@ public class OpenWebBeansConfiguration
         return proxyReservedPackages;
     }
 
+    /**
+     * @see #GENERATED_OBSERVER_INVOKERS
+     */
+    public boolean isGeneratedObserverInvokers()
+    {
+        return Boolean.parseBoolean(getProperty(GENERATED_OBSERVER_INVOKERS));
+    }
+
+    /**
+     * @see #COMPILED_INTERCEPTOR_CHAINS
+     */
+    public boolean isCompiledInterceptorChains()
+    {
+        return Boolean.parseBoolean(getProperty(COMPILED_INTERCEPTOR_CHAINS));
+    }
+
+    /**
+     * @see #PROPAGATE_CONTEXTS_TO_ASYNC_OBSERVERS
+     */
+    public boolean isPropagateContextsToAsyncObservers()
+    {
+        return Boolean.parseBoolean(getProperty(PROPAGATE_CONTEXTS_TO_ASYNC_OBSERVERS));
+    }
+
+    /**
+     * @see #DEPLOYMENT_SNAPSHOT
+     */
+    public String getDeploymentSnapshot()
+    {
+        return getProperty(DEPLOYMENT_SNAPSHOT);
+    }
+
+    /**
+     * @see #PARALLEL_DEPLOYMENT
+     */
+    public boolean isParallelDeployment()
+    {
+        return Boolean.parseBoolean(getProperty(PARALLEL_DEPLOYMENT));
+    }
+
+    /**
+     * @see #SESSION_BEAN_REPLICATION
+     */
+    public boolean isSessionBeanReplication()
+    {
+        return Boolean.parseBoolean(getProperty(SESSION_BEAN_REPLICATION));
+    }
+
+    /**
+     * @see #PARALLEL_CLASS_LOADING
+     */
+    public boolean isParallelClassLoading()
+    {
+        return Boolean.parseBoolean(getProperty(PARALLEL_CLASS_LOADING));
+    }
+
+    /**
+     * @see #PARALLEL_SCANNING
+     */
+    public boolean isParallelScanning()
+    {
+        return Boolean.parseBoolean(getProperty(PARALLEL_SCANNING));
+    }
+
+    /**
+     * @see #MEMORY_MAPPED_SCANNING
+     */
+    public boolean isMemoryMappedScanning()
+    {
+        return Boolean.parseBoolean(getProperty(MEMORY_MAPPED_SCANNING));
+    }
+
+    /**
+     * @see #USE_BEAN_ARCHIVE_INDEX
+     */
+    public boolean isUseBeanArchiveIndex()
+    {
+        return Boolean.parseBoolean(getProperty(USE_BEAN_ARCHIVE_INDEX, "true"));
+    }
+
+    /**
+     * @see #INJECTION_TARGET_CACHE_SIZE
+     */
+    public int getInjectionTargetCacheSize()
+    {
+        String value = getProperty(INJECTION_TARGET_CACHE_SIZE);
+        return value == null ? 1000 : Integer.parseInt(value.trim());
+    }
+
+    /**
+     * @see #RESOLUTION_CACHE_SIZE
+     */
+    public int getResolutionCacheSize()
+    {
+        String value = getProperty(RESOLUTION_CACHE_SIZE);
+        return value == null ? 10000 : Integer.parseInt(value.trim());
+    }
+
+    /**
+     * @see #INSTANCE_DEPENDENT_TRACKING
+     */
+    public DependentTracking getInstanceDependentTracking()
+    {
+        String value = getProperty(INSTANCE_DEPENDENT_TRACKING);
+        if (value == null || value.trim().isEmpty())
+        {
+            return DependentTracking.STRONG;
+        }
+        try
+        {
+            return DependentTracking.valueOf(value.trim().toUpperCase(Locale.ENGLISH));
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new WebBeansConfigurationException("Invalid value " + value + " for " + INSTANCE_DEPENDENT_TRACKING
+                + ", use one of strong, weak or destroyable");
+        }
+    }
+
+    /**
+     * @see #CONVERSATION_REAPER_INTERVAL
+     */
+    public long getConversationReaperInterval()
+    {
+        String value = getProperty(CONVERSATION_REAPER_INTERVAL);
+        return value == null || value.trim().isEmpty() ? 0L : Long.parseLong(value.trim());
+    }
+
+    /**
+     * @see #PROXY_WARM_UP
+     */
+    public boolean isProxyWarmUp()
+    {
+        return Boolean.parseBoolean(getProperty(PROXY_WARM_UP));
+    }
+
     /**
      * @see #DEFAULT_BEAN_DISCOVERY_MODE
      */
@@ -56,6 +56,7 @@ import org.apache.webbeans.portable.AnnotatedElementFactory;
 import org.apache.webbeans.portable.events.ExtensionLoader;
 import org.apache.webbeans.proxy.SubclassProxyFactory;
 import org.apache.webbeans.proxy.InterceptorDecoratorProxyFactory;
+import org.apache.webbeans.proxy.MethodInvokerFactory;
 import org.apache.webbeans.proxy.NormalScopeProxyFactory;
 import org.apache.webbeans.service.DefaultInjectionPointService;
 import org.apache.webbeans.service.DefaultLoaderService;
@@ -98,6 +99,7 @@ public class WebBeansContext
     private final InterceptorDecoratorProxyFactory interceptorDecoratorProxyFactory;
     private final NormalScopeProxyFactory normalScopeProxyFactory;
     private final SubclassProxyFactory subclassProxyFactory;
+    private final MethodInvokerFactory methodInvokerFactory;
     private final OpenWebBeansConfiguration openWebBeansConfiguration;
     private final PluginLoader pluginLoader = new PluginLoader();
     private final SerializableBeanVault serializableBeanVault = new SerializableBeanVault();
@@ -170,6 +172,7 @@ public class WebBeansContext
         interceptorDecoratorProxyFactory = new InterceptorDecoratorProxyFactory(this);
         normalScopeProxyFactory = new NormalScopeProxyFactory(this);
         subclassProxyFactory = new SubclassProxyFactory(this);
+        methodInvokerFactory = new MethodInvokerFactory(this);
 
         beanArchiveService = getService(BeanArchiveService.class);
         conversationManager = new ConversationManager(this);
@@ -359,6 +362,11 @@ public class WebBeansContext
         return subclassProxyFactory;
     }
 
+    public MethodInvokerFactory getMethodInvokerFactory()
+    {
+        return methodInvokerFactory;
+    }
+
     public TransactionService getTransactionService() // used in event bus so ensure it is a plain getter at runtime
     {
         if (transactionService == null)
@@ -531,6 +539,10 @@ public class WebBeansContext
         {
             return clazz.cast(subclassProxyFactory);
         }
+        if (clazz == MethodInvokerFactory.class)
+        {
+            return clazz.cast(methodInvokerFactory);
+        }
         if (clazz == OpenWebBeansConfiguration.class)
         {
             return clazz.cast(openWebBeansConfiguration);
@@ -26,13 +26,17 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
@@ -144,9 +148,26 @@ public class BeanManagerImpl implements BeanManager, Referenceable
     /**Deployment archive beans*/
     private Set<Bean<?>> deploymentBeans = new HashSet<>();
 
+    /**
+     * Gets incremented whenever beans get added or removed,
+     * lets caches derived from the {@link #deploymentBeans} detect changes.
+     */
+    private final AtomicInteger beansModificationCount = new AtomicInteger();
+
     /**Normal scoped cache proxies*/
     private Map<Contextual<?>, Object> cacheProxies = new ConcurrentHashMap<>();
 
+    /**
+     * Per bean data for {@link #getReference(Bean, Type, CreationalContext)}, holds the cached proxies too.
+     */
+    private Map<Bean<?>, ReferenceDescriptor> referenceDescriptors = new ConcurrentHashMap<>();
+
+    /**
+     * Number of the assigned request scoped ordinals, only written while holding the lock of this BeanManager.
+     * @see #assignRequestScopedOrdinal(AbstractOwbBean)
+     */
+    private volatile int requestScopedBeanCount;
+
     /**Injection resolver instance*/
     private InjectionResolver injectionResolver;
 
@@ -185,6 +206,25 @@ public class BeanManagerImpl implements BeanManager, Referenceable
     private Map<Class<?>, Producer<?>> producersForJavaEeComponents =
         new ConcurrentHashMap<>();
 
+    /**
+     * InjectionTargets for non-contextual instances, see {@link #getNonContextualInjectionTarget(Class)}.
+     * A ClassValue as the InjectionTarget references its class, so it must not keep the class or its ClassLoader alive.
+     */
+    private final ClassValue<CachedInjectionTarget> nonContextualInjectionTargets = new ClassValue<CachedInjectionTarget>()
+    {
+        @Override
+        protected CachedInjectionTarget computeValue(Class<?> type)
+        {
+            return new CachedInjectionTarget(createNonContextualInjectionTarget(type));
+        }
+    };
+
+    /**The classes with a tracked non-contextual InjectionTarget, only weakly referenced, guarded by itself*/
+    private final Set<Class<?>> nonContextualInjectionTargetClasses = Collections.newSetFromMap(new WeakHashMap<>());
+
+    /**Lazily read from the configuration, -1 if not yet known*/
+    private volatile int nonContextualInjectionTargetCacheSize = -1;
+
     private AnnotatedElementFactory annotatedElementFactory;
 
     /**
@@ -259,6 +299,67 @@ public class BeanManagerImpl implements BeanManager, Referenceable
         return (Producer<T>) producersForJavaEeComponents.get(javaEeComponentClass);
     }
 
+    /**
+     * Returns a ready to use InjectionTarget for non-contextual instances of the given class,
+     * e.g. servlets, filters, listeners or JSP tag handlers.
+     * The InjectionTargets get cached per class, up to
+     * {@link org.apache.webbeans.config.OpenWebBeansConfiguration#INJECTION_TARGET_CACHE_SIZE} classes.
+     * If the limit is reached another class gets evicted. The cache doesn't prevent classes of discarded
+     * ClassLoaders, e.g. of recompiled JSPs, from getting garbage collected.
+     */
+    public <T> InjectionTarget<T> getNonContextualInjectionTarget(Class<T> clazz)
+    {
+        Asserts.assertNotNull(clazz);
+
+        int cacheSize = nonContextualInjectionTargetCacheSize;
+        if (cacheSize < 0)
+        {
+            cacheSize = webBeansContext.getOpenWebBeansConfiguration().getInjectionTargetCacheSize();
+            nonContextualInjectionTargetCacheSize = cacheSize;
+        }
+        if (cacheSize <= 0)
+        {
+            return (InjectionTarget<T>) createNonContextualInjectionTarget(clazz);
+        }
+
+        CachedInjectionTarget cached = nonContextualInjectionTargets.get(clazz);
+        if (cached.tracked)
+        {
+            return (InjectionTarget<T>) cached.injectionTarget;
+        }
+
+        synchronized (nonContextualInjectionTargetClasses)
+        {
+            // it might have been evicted meanwhile
+            cached = nonContextualInjectionTargets.get(clazz);
+            if (!cached.tracked)
+            {
+                cached.tracked = true;
+                nonContextualInjectionTargetClasses.add(clazz);
+            }
+            if (nonContextualInjectionTargetClasses.size() > cacheSize)
+            {
+                Iterator<Class<?>> classes = nonContextualInjectionTargetClasses.iterator();
+                while (classes.hasNext())
+                {
+                    Class<?> cachedClass = classes.next();
+                    if (cachedClass != null && cachedClass != clazz)
+                    {
+                        classes.remove();
+                        nonContextualInjectionTargets.remove(cachedClass);
+                        break;
+                    }
+                }
+            }
+        }
+        return (InjectionTarget<T>) cached.injectionTarget;
+    }
+
+    private <T> InjectionTarget<T> createNonContextualInjectionTarget(Class<T> clazz)
+    {
+        return getInjectionTargetFactory(createAnnotatedType(clazz)).createInjectionTarget(null);
+    }
+
     public ErrorStack getErrorStack()
     {
         return errorStack;
@@ -373,6 +474,7 @@ public class BeanManagerImpl implements BeanManager, Referenceable
         {
             addPassivationInfo(newBean);
             deploymentBeans.add(newBean);
+            beansModificationCount.incrementAndGet();
         }
         else
         {
@@ -388,6 +490,7 @@ public class BeanManagerImpl implements BeanManager, Referenceable
             addPassivationInfo(bean);
             deploymentBeans.add(bean);
             thirdPartyMapping.put(newBean, bean);
+            beansModificationCount.incrementAndGet();
         }
 
         return this;
@@ -542,11 +645,34 @@ public class BeanManagerImpl implements BeanManager, Referenceable
     }
 
 
+    /**
+     * Changes to the bean set have to be done via {@link #addBean(Bean)} or {@link #removeBeans(Predicate)}
+     * to get tracked by {@link #getBeansModificationCount()}.
+     */
     public Set<Bean<?>> getBeans()
     {
         return deploymentBeans;
     }
 
+    /**
+     * Removes all beans matching the given filter.
+     */
+    public void removeBeans(Predicate<Bean<?>> filter)
+    {
+        if (deploymentBeans.removeIf(filter))
+        {
+            beansModificationCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return a counter which changes whenever beans got added or removed
+     */
+    public int getBeansModificationCount()
+    {
+        return beansModificationCount.get();
+    }
+
     private void addContext(Class<? extends Annotation> scopeType, jakarta.enterprise.context.spi.Context context)
     {
         Asserts.assertNotNull(scopeType, "scopeType");
@@ -736,19 +862,16 @@ public class BeanManagerImpl implements BeanManager, Referenceable
     {
         Asserts.assertNotNull(providedBean, "bean parameter");
 
-        Context context = null;
-        Object instance = null;
+        ReferenceDescriptor descriptor = getReferenceDescriptor(providedBean);
 
-        Bean<?> bean =  !OwbBean.class.isInstance(providedBean) ? thirdPartyMapping.get(providedBean) : providedBean;
-        if (bean == null) // more than unlikely but still possible and not invalid (user could create new instance of bean each time, not forbidden)
+        Object instance = descriptor.getNormalScopedProxy();
+        if (instance != null && descriptor.isValidated(beanType))
         {
-            bean = providedBean;
-        }
-        if (bean instanceof SerializableBean)
-        {
-            bean = ((SerializableBean)bean).getBean();
+            return instance;
         }
 
+        Bean<?> bean = descriptor.getBean();
+
         if(!(creationalContext instanceof CreationalContextImpl))
         {
             creationalContext = webBeansContext.getCreationalContextFactory().wrappedCreationalContext(creationalContext, bean);
@@ -762,15 +885,18 @@ public class BeanManagerImpl implements BeanManager, Referenceable
         //Check type if bean type is given
         if(beanType != null && beanType != Object.class)
         {
-            boolean isProducer = AbstractProducerBean.class.isInstance(bean);
-            if(!isProducer && // we have different rules for producers
-               !isBeanTypeAssignableToGivenType(bean.getTypes(), beanType, isProducer) &&
-               !GenericsUtil.satisfiesDependency(false, isProducer, beanType, bean.getBeanClass(), new HashMap<>()) &&
-               !GenericsUtil.satisfiesDependencyRaw(false, isProducer, beanType, bean.getBeanClass(), new HashMap<>()))
+            if (!descriptor.isValidated(beanType))
             {
-                throw new IllegalArgumentException("Given bean type : " + beanType + " is not applicable for the bean instance : " + bean);
+                boolean isProducer = AbstractProducerBean.class.isInstance(bean);
+                if(!isProducer && // we have different rules for producers
+                   !isBeanTypeAssignableToGivenType(bean.getTypes(), beanType, isProducer) &&
+                   !GenericsUtil.satisfiesDependency(false, isProducer, beanType, bean.getBeanClass(), new HashMap<>()) &&
+                   !GenericsUtil.satisfiesDependencyRaw(false, isProducer, beanType, bean.getBeanClass(), new HashMap<>()))
+                {
+                    throw new IllegalArgumentException("Given bean type : " + beanType + " is not applicable for the bean instance : " + bean);
+                }
+                descriptor.validated(beanType);
             }
-
         }
         else if (bean instanceof OwbBean)
         {
@@ -784,13 +910,16 @@ public class BeanManagerImpl implements BeanManager, Referenceable
         }
 
         //Scope is normal
-        if (isNormalScope(bean.getScope()))
+        if (descriptor.isNormalScoped())
         {
-            instance = getEjbOrJmsProxyReference(bean, beanType,creationalContext);
-
-            if(instance != null)
+            if (descriptor.isPluginProxied())
             {
-                return instance;
+                instance = getEjbOrJmsProxyReference(bean, beanType,creationalContext);
+
+                if(instance != null)
+                {
+                    return instance;
+                }
             }
 
             instance = cacheProxies.get(bean);
@@ -804,19 +933,26 @@ public class BeanManagerImpl implements BeanManager, Referenceable
                 cacheProxies.put(bean, instance);
             }
 
+            if (!descriptor.isPluginProxied())
+            {
+                descriptor.setNormalScopedProxy(instance);
+            }
         }
         //Create Pseudo-Scope Bean Instance
         else
         {
             //Get bean context
-            context = getContext(bean.getScope());
+            Context context = getContext(bean.getScope());
 
             //Get instance for ejb or jms
-            instance = getEjbOrJmsProxyReference(bean, beanType, creationalContext);
-
-            if(instance != null)
+            if (descriptor.isPluginProxied())
             {
-                return instance;
+                instance = getEjbOrJmsProxyReference(bean, beanType, creationalContext);
+
+                if(instance != null)
+                {
+                    return instance;
+                }
             }
 
             //Get dependent from DependentContex that create contextual instance
@@ -826,6 +962,36 @@ public class BeanManagerImpl implements BeanManager, Referenceable
         return instance;
     }
 
+    private ReferenceDescriptor getReferenceDescriptor(Bean<?> providedBean)
+    {
+        ReferenceDescriptor descriptor = referenceDescriptors.get(providedBean);
+        if (descriptor == null)
+        {
+            Bean<?> bean =  !OwbBean.class.isInstance(providedBean) ? thirdPartyMapping.get(providedBean) : providedBean;
+            if (bean == null) // more than unlikely but still possible and not invalid (user could create new instance of bean each time, not forbidden)
+            {
+                bean = providedBean;
+            }
+            if (bean instanceof SerializableBean)
+            {
+                bean = ((SerializableBean)bean).getBean();
+            }
+
+            descriptor = new ReferenceDescriptor(bean, isNormalScope(bean.getScope()),
+                    bean instanceof EnterpriseBeanMarker || bean instanceof JmsBeanMarker);
+            if (OwbBean.class.isInstance(providedBean) || thirdPartyMapping.containsKey(providedBean))
+            {
+                // new instances of foreign beans per call would only fill the map
+                ReferenceDescriptor existing = referenceDescriptors.putIfAbsent(providedBean, descriptor);
+                if (existing != null)
+                {
+                    descriptor = existing;
+                }
+            }
+        }
+        return descriptor;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -993,7 +1159,13 @@ public class BeanManagerImpl implements BeanManager, Referenceable
                 throw new IllegalStateException("There is no JMS plugin provider. Injection is failed for bean : " + bean);
             }
 
-            return jmsPlugin.getJmsBeanProxy(bean, ClassUtil.getClass(beanType));
+            Object proxy = jmsPlugin.getJmsBeanProxy(bean, ClassUtil.getClass(beanType));
+            if (creationalContext instanceof CreationalContextImpl)
+            {
+                // destroying the injecting instance gives the pooled JMS session of the proxy back
+                ((CreationalContextImpl<?>) creationalContext).addDependent(bean, proxy);
+            }
+            return proxy;
         }
 
         return null;
@@ -1475,8 +1647,20 @@ public class BeanManagerImpl implements BeanManager, Referenceable
         singleContextMap.clear();
         contextMap.clear();
         deploymentBeans.clear();
+        beansModificationCount.incrementAndGet();
         errorStack.clear();
         producersForJavaEeComponents.clear();
+        synchronized (nonContextualInjectionTargetClasses)
+        {
+            for (Class<?> cachedClass : nonContextualInjectionTargetClasses)
+            {
+                if (cachedClass != null)
+                {
+                    nonContextualInjectionTargets.remove(cachedClass);
+                }
+            }
+            nonContextualInjectionTargetClasses.clear();
+        }
         passivationBeans.clear();
         webBeansContext.getInterceptorsManager().clear();
         webBeansContext.getDecoratorsManager().clear();
@@ -1489,9 +1673,35 @@ public class BeanManagerImpl implements BeanManager, Referenceable
         webBeansContext.clear();
     }
 
+    /**
+     * Assigns the dense index the contextual instances of the given &#064;RequestScoped bean
+     * get stored at in the {@link org.apache.webbeans.context.RequestContext}.
+     *
+     * @return the ordinal of the bean
+     */
+    public synchronized int assignRequestScopedOrdinal(AbstractOwbBean<?> bean)
+    {
+        int ordinal = bean.getRequestScopedOrdinal();
+        if (ordinal < 0)
+        {
+            ordinal = requestScopedBeanCount++;
+            bean.setRequestScopedOrdinal(ordinal);
+        }
+        return ordinal;
+    }
+
+    /**
+     * @return the number of &#064;RequestScoped beans with an ordinal
+     */
+    public int getRequestScopedBeanCount()
+    {
+        return requestScopedBeanCount;
+    }
+
     public void clearCacheProxies()
     {
         cacheProxies.clear();
+        referenceDescriptors.clear();
     }
 
     public boolean isInUse()
@@ -1533,4 +1743,21 @@ public class BeanManagerImpl implements BeanManager, Referenceable
     {
         BEFORE_DISCOVERY, DISCOVERY, AFTER_DISCOVERY
     }
+
+    /**
+     * A cached non-contextual InjectionTarget. Only tracked ones count against the cache size,
+     * so hits neither lock nor touch the eviction bookkeeping.
+     */
+    private static final class CachedInjectionTarget
+    {
+        private final InjectionTarget<?> injectionTarget;
+
+        /**set once the class got added to the tracked classes, guarded by them*/
+        private volatile boolean tracked;
+
+        private CachedInjectionTarget(InjectionTarget<?> injectionTarget)
+        {
+            this.injectionTarget = injectionTarget;
+        }
+    }
 }
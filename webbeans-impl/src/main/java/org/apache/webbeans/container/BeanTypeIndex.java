@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.container;
+
+import org.apache.webbeans.util.ClassUtil;
+
+import jakarta.enterprise.inject.spi.Bean;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of the beans by the raw classes of their bean types.
+ * A bean type can only satisfy an injection point if both have the same raw type,
+ * so the type resolution only needs to check the full generic assignability for those beans.
+ *
+ * <p>The beans are numbered in the iteration order of the bean set the index got built from,
+ * the beans of each raw type are kept as BitSet over those ordinals.
+ * Beans with a type variable, wildcard or generic array bean type match any raw type.</p>
+ *
+ * <p>The index is immutable, it gets replaced as a whole if the set of beans changes.</p>
+ */
+final class BeanTypeIndex
+{
+    /**
+     * The {@link BeanManagerImpl#getBeansModificationCount()} the index got built for.
+     */
+    private final int modificationCount;
+
+    private final Bean<?>[] beans;
+
+    private final Map<Class<?>, BitSet> beansByRawType = new HashMap<>();
+
+    /**
+     * Beans with a bean type which has no raw class.
+     */
+    private final BitSet genericBeans = new BitSet();
+
+    BeanTypeIndex(Collection<Bean<?>> allBeans, int modificationCount)
+    {
+        this.modificationCount = modificationCount;
+        beans = allBeans.toArray(new Bean<?>[0]);
+        for (int ordinal = 0; ordinal < beans.length; ordinal++)
+        {
+            for (Type type : beans[ordinal].getTypes())
+            {
+                Class<?> rawType = rawType(type);
+                if (rawType == null)
+                {
+                    genericBeans.set(ordinal);
+                }
+                else
+                {
+                    beansByRawType.computeIfAbsent(rawType, k -> new BitSet()).set(ordinal);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param modificationCount the current {@link BeanManagerImpl#getBeansModificationCount()}
+     * @return whether no beans got added or removed since the index got built
+     */
+    boolean isUpToDate(int modificationCount)
+    {
+        return this.modificationCount == modificationCount;
+    }
+
+    /**
+     * @return all beans which have a bean type with the same raw type as the given type
+     */
+    List<Bean<?>> getCandidates(Type injectionPointType)
+    {
+        Class<?> rawType = rawType(injectionPointType);
+        if (rawType == null)
+        {
+            return Arrays.asList(beans);
+        }
+
+        BitSet byRawType = beansByRawType.get(rawType);
+        BitSet candidates;
+        if (genericBeans.isEmpty())
+        {
+            if (byRawType == null)
+            {
+                return Collections.emptyList();
+            }
+            candidates = byRawType;
+        }
+        else
+        {
+            candidates = (BitSet) genericBeans.clone();
+            if (byRawType != null)
+            {
+                candidates.or(byRawType);
+            }
+        }
+
+        List<Bean<?>> result = new ArrayList<>(candidates.cardinality());
+        for (int ordinal = candidates.nextSetBit(0); ordinal >= 0; ordinal = candidates.nextSetBit(ordinal + 1))
+        {
+            result.add(beans[ordinal]);
+        }
+        return result;
+    }
+
+    /**
+     * @return the raw class with primitives replaced by their wrapper, {@code null} for
+     *         type variables, wildcards and generic arrays
+     */
+    private static Class<?> rawType(Type type)
+    {
+        Type rawType = type instanceof ParameterizedType ? ((ParameterizedType) type).getRawType() : type;
+        if (!(rawType instanceof Class))
+        {
+            return null;
+        }
+
+        Class<?> rawClass = (Class<?>) rawType;
+        return rawClass.isPrimitive() ? ClassUtil.getPrimitiveWrapper(rawClass) : rawClass;
+    }
+}
@@ -50,14 +50,13 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.lang.reflect.WildcardType;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -85,17 +84,24 @@ public class InjectionResolver
     private AlternativesManager alternativesManager;
     
     /**
-     * This Map contains all resolved beans via it's type and qualifiers.
+     * This cache contains all resolved beans via it's type and qualifiers.
      * If a bean have resolved as not existing, the entry will contain <code>null</code> as value.
      * The Long key is a hashCode, see
      * {@link BeanCacheKey#BeanCacheKey(boolean, Type, String, java.util.function.Function, Annotation...)}
+     * Unbounded during the startup, limited to {@link org.apache.webbeans.config.OpenWebBeansConfiguration#RESOLUTION_CACHE_SIZE} afterwards.
      */
-    private Map<BeanCacheKey, Set<Bean<?>>> resolvedBeansByType = new ConcurrentHashMap<>();
+    private final ResolutionCache<BeanCacheKey, Set<Bean<?>>> resolvedBeansByType = new ResolutionCache<>(0);
 
     /**
-     * This Map contains all resolved beans via it's ExpressionLanguage name.
+     * This cache contains all resolved beans via it's ExpressionLanguage name.
      */
-    private Map<String, Set<Bean<?>>> resolvedBeansByName = new ConcurrentHashMap<>();
+    private final ResolutionCache<String, Set<Bean<?>>> resolvedBeansByName = new ResolutionCache<>(0);
+
+    /**
+     * The beans by the raw classes of their bean types, built on the first lookup after the bean discovery.
+     * @see #getBeanTypeIndex()
+     */
+    private volatile BeanTypeIndex beanTypeIndex;
 
     /**
      * Whether the container is in startup mode.
@@ -128,9 +134,40 @@ public class InjectionResolver
         this.fastMatching = fastMatching;
     }
 
+    /**
+     * @return {@code true} as long as beans might still get added, resolution results must not be kept then
+     */
+    public boolean isStartup()
+    {
+        return startup;
+    }
+
     public void setStartup(boolean startup)
     {
         this.startup = startup;
+        beanTypeIndex = null;
+        if (!startup)
+        {
+            int maximumSize = webBeansContext.getOpenWebBeansConfiguration().getResolutionCacheSize();
+            resolvedBeansByType.setMaximumSize(maximumSize);
+            resolvedBeansByName.setMaximumSize(maximumSize);
+        }
+    }
+
+    /**
+     * @return the counters of the cache for the resolution by type and qualifiers
+     */
+    public ResolutionCache.Statistics getResolvedBeansByTypeStatistics()
+    {
+        return resolvedBeansByType.getStatistics();
+    }
+
+    /**
+     * @return the counters of the cache for the resolution by EL name
+     */
+    public ResolutionCache.Statistics getResolvedBeansByNameStatistics()
+    {
+        return resolvedBeansByName.getStatistics();
     }
     
     /**
@@ -140,6 +177,7 @@ public class InjectionResolver
     {
         resolvedBeansByName.clear();
         resolvedBeansByType.clear();
+        beanTypeIndex = null;
     }
 
     /**
@@ -424,7 +462,12 @@ public class InjectionResolver
 
         boolean returnAll = injectionPointType.equals(Object.class) && currentQualifier;
 
-        for (Bean<?> component : webBeansContext.getBeanManagerImpl().getBeans())
+        // once the set of beans is final only the beans with the same raw type need to get checked
+        Collection<Bean<?>> candidates = returnAll || startup
+                ? webBeansContext.getBeanManagerImpl().getBeans()
+                : getBeanTypeIndex().getCandidates(injectionPointType);
+
+        for (Bean<?> component : candidates)
         {
             // no need to check instanceof OwbBean as we always wrap in a
             // ThirdpartyBeanImpl at least
@@ -509,6 +552,23 @@ public class InjectionResolver
         return resolvedComponents;
     }
 
+    /**
+     * @return the index of the current beans, rebuilt if beans got added or removed since it got created
+     */
+    private BeanTypeIndex getBeanTypeIndex()
+    {
+        BeanManagerImpl beanManager = webBeansContext.getBeanManagerImpl();
+        // read the counter first, a concurrent change then leads to a rebuild on the next lookup
+        int modificationCount = beanManager.getBeansModificationCount();
+        BeanTypeIndex index = beanTypeIndex;
+        if (index == null || !index.isUpToDate(modificationCount))
+        {
+            index = new BeanTypeIndex(beanManager.getBeans(), modificationCount);
+            beanTypeIndex = index;
+        }
+        return index;
+    }
+
     private Set<Bean<?>> findByBeanType(Set<Bean<?>> allComponents, Type injectionPointType, boolean isDelegate)
     {
         if (allComponents == null || allComponents.isEmpty())
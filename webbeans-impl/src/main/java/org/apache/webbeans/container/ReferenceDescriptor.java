@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.container;
+
+import java.lang.reflect.Type;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.enterprise.inject.spi.Bean;
+
+/**
+ * What {@link BeanManagerImpl#getReference(Bean, Type, jakarta.enterprise.context.spi.CreationalContext)}
+ * needs to know about a bean, computed on the first call for it.
+ * Once the client proxy of a normal scoped bean got created, further calls with an already
+ * validated type only need the lookup of this descriptor.
+ */
+final class ReferenceDescriptor
+{
+    /**
+     * Maximum number of validated types kept per bean.
+     */
+    private static final int MAX_VALIDATED_TYPES = 32;
+
+    /**
+     * The internal bean, third party beans and SerializableBeans already got unwrapped.
+     */
+    private final Bean<?> bean;
+
+    private final boolean normalScoped;
+
+    /**
+     * EJB and JMS beans get their references from the plugins, they are never taken from the cache.
+     */
+    private final boolean pluginProxied;
+
+    /**
+     * The requested types the bean already got checked to be assignable to.
+     */
+    private final Set<Type> validatedTypes = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The cached client proxy, only set for normal scoped beans which are not {@link #pluginProxied}.
+     */
+    private volatile Object normalScopedProxy;
+
+    ReferenceDescriptor(Bean<?> bean, boolean normalScoped, boolean pluginProxied)
+    {
+        this.bean = bean;
+        this.normalScoped = normalScoped;
+        this.pluginProxied = pluginProxied;
+    }
+
+    Bean<?> getBean()
+    {
+        return bean;
+    }
+
+    boolean isNormalScoped()
+    {
+        return normalScoped;
+    }
+
+    boolean isPluginProxied()
+    {
+        return pluginProxied;
+    }
+
+    /**
+     * @return whether the bean type doesn't need to get checked (anymore)
+     */
+    boolean isValidated(Type beanType)
+    {
+        return beanType == null || beanType == Object.class || validatedTypes.contains(beanType);
+    }
+
+    void validated(Type beanType)
+    {
+        if (validatedTypes.size() < MAX_VALIDATED_TYPES)
+        {
+            validatedTypes.add(beanType);
+        }
+    }
+
+    Object getNormalScopedProxy()
+    {
+        return normalScopedProxy;
+    }
+
+    void setNormalScopedProxy(Object normalScopedProxy)
+    {
+        this.normalScopedProxy = normalScopedProxy;
+    }
+}
@@ -0,0 +1,328 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.container;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size bounded cache for the results of the bean resolution.
+ *
+ * <p>Lookups are lock free, they only mark the entry as used. Adding an entry takes a lock and evicts
+ * following a segmented LRU policy with CLOCK style access bits: new entries start in the probation segment
+ * and only get promoted to the protected segment if they got used again before they reached its head.
+ * So keys which get resolved only once, e.g. a TypeLiteral per tenant, can't push out the frequently used ones.
+ * At most {@value #PROTECTED_PERCENT}% of the entries are protected, the oldest ones get demoted again.</p>
+ *
+ * <p>As long as the cache is unbounded, e.g. during the startup, nothing gets evicted. Adding an entry
+ * then neither locks nor tracks it in the segments, that only happens once a limit gets set.</p>
+ *
+ * @param <K> cache key
+ * @param <V> resolved value
+ */
+public final class ResolutionCache<K, V>
+{
+    private static final int PROTECTED_PERCENT = 80;
+
+    private final ConcurrentMap<K, Node<K, V>> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Guarded by {@code this} like all modifications of {@link #entries}.
+     */
+    private final Deque<Node<K, V>> probation = new ArrayDeque<>();
+    private final Deque<Node<K, V>> protectedSegment = new ArrayDeque<>();
+
+    /**
+     * Whether all entries got added to the segments, entries added while the cache was unbounded are not.
+     * Guarded by {@code this}.
+     */
+    private boolean tracking;
+
+    /**
+     * Values &lt;= 0 disable the limit.
+     */
+    private volatile int maximumSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ResolutionCache(int maximumSize)
+    {
+        this.maximumSize = maximumSize;
+    }
+
+    public V get(K key)
+    {
+        Node<K, V> node = entries.get(key);
+        if (node == null)
+        {
+            misses.increment();
+            return null;
+        }
+
+        if (!node.accessed)
+        {
+            node.accessed = true;
+        }
+        hits.increment();
+        return node.value;
+    }
+
+    public void put(K key, V value)
+    {
+        if (maximumSize <= 0)
+        {
+            // nothing gets evicted, no need to track the entry
+            replace(key, new Node<>(key, value));
+            return;
+        }
+
+        synchronized (this)
+        {
+            if (!tracking)
+            {
+                trackUntracked();
+                tracking = true;
+            }
+            Node<K, V> node = new Node<>(key, value);
+            node.tracked = true;
+            replace(key, node);
+            probation.addLast(node);
+            evict();
+        }
+    }
+
+    public synchronized void clear()
+    {
+        entries.clear();
+        probation.clear();
+        protectedSegment.clear();
+    }
+
+    /**
+     * Changes the limit, surplus entries get evicted with the next {@link #put(Object, Object)}.
+     */
+    public synchronized void setMaximumSize(int maximumSize)
+    {
+        this.maximumSize = maximumSize;
+        if (maximumSize <= 0)
+        {
+            tracking = false;
+        }
+    }
+
+    public int size()
+    {
+        return entries.size();
+    }
+
+    public Statistics getStatistics()
+    {
+        return new Statistics(hits.sum(), misses.sum(), evictions.sum(), entries.size(), maximumSize);
+    }
+
+    private void replace(K key, Node<K, V> node)
+    {
+        Node<K, V> replaced = entries.put(key, node);
+        if (replaced != null)
+        {
+            replaced.removed = true;
+        }
+    }
+
+    /**
+     * Adds the entries which got cached while the cache was unbounded to the probation segment.
+     *
+     * @return {@code false} if all entries were tracked already
+     */
+    private boolean trackUntracked()
+    {
+        boolean added = false;
+        for (Node<K, V> node : entries.values())
+        {
+            if (!node.tracked)
+            {
+                node.tracked = true;
+                probation.addLast(node);
+                added = true;
+            }
+        }
+        return added;
+    }
+
+    private void evict()
+    {
+        int limit = maximumSize;
+        if (limit <= 0)
+        {
+            return;
+        }
+
+        int protectedLimit = Math.max(1, limit * PROTECTED_PERCENT / 100);
+        while (entries.size() > limit)
+        {
+            Node<K, V> candidate = probation.pollFirst();
+            if (candidate == null)
+            {
+                // an unbounded put might have raced with setting the limit
+                if (!demote() && !trackUntracked())
+                {
+                    return;
+                }
+                continue;
+            }
+            if (candidate.removed)
+            {
+                continue;
+            }
+
+            if (candidate.accessed)
+            {
+                // used again while on probation
+                candidate.accessed = false;
+                protectedSegment.addLast(candidate);
+                if (protectedSegment.size() > protectedLimit)
+                {
+                    demote();
+                }
+            }
+            else
+            {
+                entries.remove(candidate.key, candidate);
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Moves the oldest protected entry back to probation, entries which got used since
+     * their promotion get another round in the protected segment.
+     *
+     * @return {@code false} if there was nothing to demote
+     */
+    private boolean demote()
+    {
+        Node<K, V> node;
+        while ((node = protectedSegment.pollFirst()) != null)
+        {
+            if (node.removed)
+            {
+                continue;
+            }
+            if (node.accessed)
+            {
+                node.accessed = false;
+                protectedSegment.addLast(node);
+                continue;
+            }
+            probation.addLast(node);
+            return true;
+        }
+        return false;
+    }
+
+    private static final class Node<K, V>
+    {
+        private final K key;
+        private final V value;
+        private volatile boolean accessed;
+
+        /**
+         * Set if the key got cached again, the node only waits to be dropped from its segment then.
+         */
+        private volatile boolean removed;
+
+        /**
+         * Whether the node got added to a segment. Guarded by the cache.
+         */
+        private boolean tracked;
+
+        private Node(K key, V value)
+        {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Snapshot of the counters of a {@link ResolutionCache}.
+     */
+    public static final class Statistics
+    {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final int size;
+        private final int maximumSize;
+
+        public Statistics(long hits, long misses, long evictions, int size, int maximumSize)
+        {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.size = size;
+            this.maximumSize = maximumSize;
+        }
+
+        public long getHits()
+        {
+            return hits;
+        }
+
+        public long getMisses()
+        {
+            return misses;
+        }
+
+        public long getEvictions()
+        {
+            return evictions;
+        }
+
+        public int getSize()
+        {
+            return size;
+        }
+
+        /**
+         * @return the configured limit, &lt;= 0 if the cache is unbounded
+         */
+        public int getMaximumSize()
+        {
+            return maximumSize;
+        }
+
+        public double getHitRate()
+        {
+            long requests = hits + misses;
+            return requests == 0 ? 1.0 : (double) hits / requests;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "hits=" + hits + ", misses=" + misses + ", evictions=" + evictions
+                    + ", size=" + size + ", maximumSize=" + maximumSize;
+        }
+    }
+}
@@ -56,7 +56,7 @@ public abstract class AbstractContext implements AlterableContext, Serializable
     protected volatile boolean active;
 
 
-    /**Context contextual instances*/
+    /**Context contextual instances, {@code null} until the first instance if the context got created lazily*/
     protected Map<Contextual<?>, BeanInstanceBag<?>> componentInstanceMap;
 
     /**Contextual Scope Type*/
@@ -66,7 +66,11 @@ public abstract class AbstractContext implements AlterableContext, Serializable
     private <T> BeanInstanceBag<T> createContextualBag(Contextual<T> contextual, CreationalContext<T> creationalContext)
     {
         BeanInstanceBag<T> bag = new BeanInstanceBag<>(creationalContext);
-        
+
+        if (componentInstanceMap == null)
+        {
+            setComponentInstanceMap();
+        }
         if(componentInstanceMap instanceof ConcurrentMap)
         {
             BeanInstanceBag<?> existingBag = ((ConcurrentMap<Contextual<?>, BeanInstanceBag<?>>) componentInstanceMap).putIfAbsent(contextual, bag);
@@ -90,9 +94,21 @@ public abstract class AbstractContext implements AlterableContext, Serializable
      */
     protected AbstractContext(Class<? extends Annotation> scopeType)
     {
-        this.scopeType = scopeType;
-        setComponentInstanceMap();
+        this(scopeType, false);
+    }
 
+    /**
+     * @param scopeType context scope type
+     * @param lazy whether the {@link #componentInstanceMap} only gets created with the first contextual instance,
+     *             only for contexts which don't get used concurrently
+     */
+    protected AbstractContext(Class<? extends Annotation> scopeType, boolean lazy)
+    {
+        this.scopeType = scopeType;
+        if (!lazy)
+        {
+            setComponentInstanceMap();
+        }
     }
 
     /**
@@ -104,7 +120,7 @@ public abstract class AbstractContext implements AlterableContext, Serializable
     {
         checkActive();
 
-        BeanInstanceBag bag = componentInstanceMap.get(component);
+        BeanInstanceBag bag = componentInstanceMap == null ? null : componentInstanceMap.get(component);
         
         if(bag != null)
         {
@@ -134,7 +150,7 @@ public abstract class AbstractContext implements AlterableContext, Serializable
         T instance;
         
         //Look for bag
-        BeanInstanceBag<T> bag = (BeanInstanceBag<T>)componentInstanceMap.get(contextual);
+        BeanInstanceBag<T> bag = componentInstanceMap == null ? null : (BeanInstanceBag<T>) componentInstanceMap.get(contextual);
         if(bag == null)
         {
             bag = createContextualBag(contextual, creationalContext);
@@ -175,7 +191,7 @@ public abstract class AbstractContext implements AlterableContext, Serializable
     public void destroyInstance(Contextual<?> contextual)
     {
         
-        BeanInstanceBag<?> instance = componentInstanceMap.get(contextual);
+        BeanInstanceBag<?> instance = componentInstanceMap == null ? null : componentInstanceMap.get(contextual);
         if (instance == null)
         {
             // just exit if people manually invoke destroy after the bean already got ditched
@@ -212,10 +228,13 @@ public abstract class AbstractContext implements AlterableContext, Serializable
      */
     public void destroy()
     {
-        Set<Contextual<?>> keySet = new HashSet<>(componentInstanceMap.keySet());
-        for (Contextual<?> contextual: keySet)
+        if (componentInstanceMap != null)
         {
-            destroyInstance(contextual);
+            Set<Contextual<?>> keySet = new HashSet<>(componentInstanceMap.keySet());
+            for (Contextual<?> contextual: keySet)
+            {
+                destroyInstance(contextual);
+            }
         }
         setActive(false);
     }
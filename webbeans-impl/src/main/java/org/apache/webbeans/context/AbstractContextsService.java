@@ -118,10 +118,10 @@ public abstract class AbstractContextsService implements ContextsService
                     ConversationContext conversationContext = convIt.next();
 
                     ConversationImpl conv = conversationContext.getConversation();
-                    if (conversationManager.conversationTimedOut(conv))
+                    // only destroy it if the ConversationReaper didn't remove it concurrently
+                    if (conversationManager.conversationTimedOut(conv) && conversationContexts.remove(conversationContext))
                     {
                         conversationManager.destroyConversationContext(conversationContext);
-                        convIt.remove();
                     }
                 }
             }
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.context;
+
+/**
+ * The request, session and conversation context of a thread as captured by
+ * {@link org.apache.webbeans.spi.ContextsService#captureContexts()}.
+ * Any of them might be {@code null} if it was not active.
+ */
+public final class CapturedContexts
+{
+    private final RequestContext requestContext;
+    private final SessionContext sessionContext;
+    private final ConversationContext conversationContext;
+    private final RequestContext handedOverRequestContext;
+
+    public CapturedContexts(RequestContext requestContext, SessionContext sessionContext,
+                            ConversationContext conversationContext)
+    {
+        this(requestContext, sessionContext, conversationContext, null);
+    }
+
+    /**
+     * @param handedOverRequestContext the request context which got handed over by
+     *                                 {@link org.apache.webbeans.spi.ContextsService#activateContexts(Object)}
+     *                                 and has to be released when these contexts get restored
+     */
+    public CapturedContexts(RequestContext requestContext, SessionContext sessionContext,
+                            ConversationContext conversationContext, RequestContext handedOverRequestContext)
+    {
+        this.requestContext = requestContext;
+        this.sessionContext = sessionContext;
+        this.conversationContext = conversationContext;
+        this.handedOverRequestContext = handedOverRequestContext;
+    }
+
+    public RequestContext getRequestContext()
+    {
+        return requestContext;
+    }
+
+    public SessionContext getSessionContext()
+    {
+        return sessionContext;
+    }
+
+    public ConversationContext getConversationContext()
+    {
+        return conversationContext;
+    }
+
+    /**
+     * @return the request context which got handed over instead of these contexts or {@code null}
+     */
+    public RequestContext getHandedOverRequestContext()
+    {
+        return handedOverRequestContext;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.context;
+
+import java.util.concurrent.Executor;
+
+import org.apache.webbeans.spi.ContextsService;
+
+/**
+ * An {@link Executor} which runs each task with the contexts which were active
+ * in the thread submitting the task.
+ *
+ * The contexts get captured via {@link ContextsService#captureContexts()} when a task gets submitted.
+ * If the ContextsService doesn't support context propagation the tasks get executed unchanged.
+ *
+ * A RequestContext is only meant to be used by one thread at a time, so it only gets handed over
+ * sequentially: the submitting thread must not use its request context while such a task runs,
+ * e.g. it hands over to the task and waits for its completion. A task which gets executed while another
+ * one with the same request context is running doesn't get run, it fails with an IllegalStateException.
+ * For tasks running in parallel use {@link #ContextPropagatingExecutor(ContextsService, Executor, boolean)}
+ * without the request context.
+ */
+public class ContextPropagatingExecutor implements Executor
+{
+    private final ContextsService contextsService;
+    private final Executor delegate;
+    private final boolean includeRequestContext;
+
+    public ContextPropagatingExecutor(ContextsService contextsService, Executor delegate)
+    {
+        this(contextsService, delegate, true);
+    }
+
+    /**
+     * @param includeRequestContext {@code false} to only propagate the session and conversation context,
+     *                              the tasks then might run in parallel
+     */
+    public ContextPropagatingExecutor(ContextsService contextsService, Executor delegate, boolean includeRequestContext)
+    {
+        this.contextsService = contextsService;
+        this.delegate = delegate;
+        this.includeRequestContext = includeRequestContext;
+    }
+
+    @Override
+    public void execute(Runnable command)
+    {
+        delegate.execute(wrap(contextsService, command, includeRequestContext));
+    }
+
+    /**
+     * @return a Runnable which runs the given task with the contexts which are active right now
+     */
+    public static Runnable wrap(ContextsService contextsService, Runnable task)
+    {
+        return wrap(contextsService, task, true);
+    }
+
+    /**
+     * @param includeRequestContext whether the request context gets handed over as well
+     * @return a Runnable which runs the given task with the contexts which are active right now
+     */
+    public static Runnable wrap(ContextsService contextsService, Runnable task, boolean includeRequestContext)
+    {
+        Object captured = contextsService.captureContexts(includeRequestContext);
+        if (captured == null)
+        {
+            return task;
+        }
+        return () ->
+        {
+            Object previous = contextsService.activateContexts(captured);
+            try
+            {
+                task.run();
+            }
+            finally
+            {
+                contextsService.restoreContexts(previous);
+            }
+        };
+    }
+}
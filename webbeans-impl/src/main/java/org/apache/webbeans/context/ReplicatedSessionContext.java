@@ -0,0 +1,316 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.context;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jakarta.enterprise.context.spi.Contextual;
+import jakarta.enterprise.context.spi.CreationalContext;
+
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.context.creational.BeanInstanceBag;
+import org.apache.webbeans.logger.WebBeansLoggerFacade;
+import org.apache.webbeans.util.WebBeansUtil;
+
+/**
+ * SessionContext for clustered sessions which get replicated attribute by attribute.
+ *
+ * <p>The context itself gets serialized without its beans. Each bean instance gets stored
+ * in its own session attribute named {@link #BEAN_ATTRIBUTE_PREFIX} + passivation id instead.
+ * Each request tracks the beans it used on its own thread and writes them to the session
+ * with {@link #replicate(BiConsumer, Consumer)} when it ends, together with the beans which got
+ * {@link #markDirty(Contextual) marked dirty}. So the replication traffic only depends on the beans
+ * a request worked with and concurrent requests of the same session don't consume each others beans.</p>
+ *
+ * <p>After a failover the context gets deserialized empty and has to be filled with
+ * {@link #restore(Iterable, Function)} from the bean attributes of the session.</p>
+ *
+ * @see org.apache.webbeans.config.OpenWebBeansConfiguration#SESSION_BEAN_REPLICATION
+ */
+public class ReplicatedSessionContext extends SessionContext
+{
+    public static final String BEAN_ATTRIBUTE_PREFIX = "openWebBeansSessionBean.";
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger logger = WebBeansLoggerFacade.getLogger(ReplicatedSessionContext.class);
+
+    /**
+     * The beans used by the request running on the current thread.
+     * The session scoped proxies cache their instance for the rest of the request,
+     * so a bean only gets seen the first time a request uses it.
+     */
+    private final transient ThreadLocal<Set<Contextual<?>>> requestBeans = new ThreadLocal<>();
+
+    /**
+     * Beans which have to get written by the next request ending in this session.
+     */
+    private final Set<Contextual<?>> dirtyBeans = ConcurrentHashMap.newKeySet();
+    private final Set<String> removedBeans = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Guards the restoring of the beans, the HttpSession facade is no stable lock.
+     */
+    private final transient Object restoreLock = new Object();
+
+    /**
+     * {@code true} if this instance got deserialized and its beans still need to get restored
+     */
+    private volatile boolean restoreNeeded;
+
+    @Override
+    public <T> T get(Contextual<T> component)
+    {
+        T instance = super.get(component);
+        if (instance != null)
+        {
+            used(component);
+        }
+        return instance;
+    }
+
+    @Override
+    protected <T> T getInstance(Contextual<T> contextual, CreationalContext<T> creationalContext)
+    {
+        T instance = super.getInstance(contextual, creationalContext);
+        if (instance != null)
+        {
+            used(contextual);
+        }
+        return instance;
+    }
+
+    @Override
+    public void destroyInstance(Contextual<?> contextual)
+    {
+        super.destroyInstance(contextual);
+
+        Set<Contextual<?>> beans = requestBeans.get();
+        if (beans != null)
+        {
+            beans.remove(contextual);
+        }
+        dirtyBeans.remove(contextual);
+        String id = WebBeansUtil.getPassivationId(contextual);
+        if (id != null)
+        {
+            removedBeans.add(id);
+        }
+    }
+
+    @Override
+    public void destroy()
+    {
+        super.destroy();
+        requestBeans.remove();
+    }
+
+    /**
+     * Replicate the given bean with the next {@link #replicate(BiConsumer, Consumer)} of this session
+     * even if it didn't get used, e.g. after it got changed by a background thread.
+     */
+    public void markDirty(Contextual<?> contextual)
+    {
+        if (componentInstanceMap.containsKey(contextual))
+        {
+            dirtyBeans.add(contextual);
+        }
+    }
+
+    /**
+     * @return the beans which will get written by the next {@link #replicate(BiConsumer, Consumer)} on this thread
+     */
+    public Set<Contextual<?>> getDirtyBeans()
+    {
+        Set<Contextual<?>> beans = new HashSet<>(dirtyBeans);
+        Set<Contextual<?>> usedBeans = requestBeans.get();
+        if (usedBeans != null)
+        {
+            beans.addAll(usedBeans);
+        }
+        return Collections.unmodifiableSet(beans);
+    }
+
+    /**
+     * Writes all beans used by the current request and the dirty beans and removes the destroyed ones.
+     * Called at the end of a request on the thread which ran the request.
+     *
+     * @param setAttribute e.g. {@code HttpSession::setAttribute}
+     * @param removeAttribute e.g. {@code HttpSession::removeAttribute}
+     */
+    public void replicate(BiConsumer<String, Object> setAttribute, Consumer<String> removeAttribute)
+    {
+        Set<Contextual<?>> usedBeans = requestBeans.get();
+        requestBeans.remove();
+
+        for (String id : removedBeans)
+        {
+            removedBeans.remove(id);
+            removeAttribute.accept(BEAN_ATTRIBUTE_PREFIX + id);
+        }
+
+        if (usedBeans != null)
+        {
+            for (Contextual<?> contextual : usedBeans)
+            {
+                write(contextual, setAttribute);
+            }
+        }
+
+        for (Contextual<?> contextual : dirtyBeans)
+        {
+            if (dirtyBeans.remove(contextual) && (usedBeans == null || !usedBeans.contains(contextual)))
+            {
+                write(contextual, setAttribute);
+            }
+        }
+    }
+
+    /**
+     * Hands the beans used by the current request over to the next {@link #replicate(BiConsumer, Consumer)}
+     * of this session, e.g. if the request ended without access to the session.
+     */
+    public void deferReplication()
+    {
+        Set<Contextual<?>> usedBeans = requestBeans.get();
+        requestBeans.remove();
+        if (usedBeans != null)
+        {
+            dirtyBeans.addAll(usedBeans);
+        }
+    }
+
+    /**
+     * Forgets the beans used by the current request without replicating them,
+     * e.g. if the session got destroyed with the request.
+     */
+    public void discardReplication()
+    {
+        requestBeans.remove();
+    }
+
+    public boolean isRestoreNeeded()
+    {
+        return restoreNeeded;
+    }
+
+    /**
+     * Restores the beans from the session attributes after a failover.
+     * Only the first caller restores, attributes which don't belong to this context get ignored.
+     *
+     * @param attributeNames the names of all session attributes
+     * @param attributes e.g. {@code HttpSession::getAttribute}
+     */
+    public void restore(Iterable<String> attributeNames, Function<String, Object> attributes)
+    {
+        synchronized (restoreLock)
+        {
+            if (!restoreNeeded)
+            {
+                return;
+            }
+
+            for (String attributeName : attributeNames)
+            {
+                if (attributeName != null && attributeName.startsWith(BEAN_ATTRIBUTE_PREFIX))
+                {
+                    restore(attributeName, attributes.apply(attributeName));
+                }
+            }
+            restoreNeeded = false;
+        }
+    }
+
+    private void restore(String attributeName, Object value)
+    {
+        if (!(value instanceof BeanInstanceBag))
+        {
+            return;
+        }
+
+        String id = attributeName.substring(BEAN_ATTRIBUTE_PREFIX.length());
+        Contextual<?> contextual = WebBeansContext.currentInstance().getBeanManagerImpl().getPassivationCapableBean(id);
+        if (contextual == null)
+        {
+            logger.warning("Can't restore session bean " + id + ", no such bean in this deployment");
+            return;
+        }
+        componentInstanceMap.putIfAbsent(contextual, (BeanInstanceBag<?>) value);
+    }
+
+    private void used(Contextual<?> contextual)
+    {
+        Set<Contextual<?>> beans = requestBeans.get();
+        if (beans == null)
+        {
+            beans = new HashSet<>();
+            requestBeans.set(beans);
+        }
+        beans.add(contextual);
+    }
+
+    private void write(Contextual<?> contextual, BiConsumer<String, Object> setAttribute)
+    {
+        BeanInstanceBag<?> bag = componentInstanceMap.get(contextual);
+        if (bag == null)
+        {
+            return;
+        }
+        String id = WebBeansUtil.getPassivationId(contextual);
+        if (id == null)
+        {
+            // session scoped beans have to be passivation capable, so that's just a custom Context usage
+            if (logger.isLoggable(Level.FINE))
+            {
+                logger.fine("Not replicating " + contextual + " as it is not passivation capable");
+            }
+            return;
+        }
+        setAttribute.accept(BEAN_ATTRIBUTE_PREFIX + id, bag);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException
+    {
+        super.readExternal(in);
+        restoreNeeded = true;
+    }
+
+    /**
+     * Only writes the scope, the beans get replicated in their own session attributes.
+     */
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException
+    {
+        out.writeObject(scopeType);
+        out.writeObject(new HashMap<String, BeanInstanceBag<?>>());
+    }
+}
@@ -18,16 +18,33 @@
  */
 package org.apache.webbeans.context;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.enterprise.context.spi.Contextual;
+import jakarta.enterprise.context.spi.CreationalContext;
 
+import org.apache.webbeans.component.AbstractOwbBean;
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.container.SerializableBean;
+import org.apache.webbeans.container.SerializableBeanVault;
 import org.apache.webbeans.intercept.RequestScopedBeanInterceptorHandler;
 
 /**
  * Request context implementation.
  *
+ * <p>The instances of beans with a request scoped ordinal are kept in plain arrays indexed by it,
+ * see {@link org.apache.webbeans.container.BeanManagerImpl#assignRequestScopedOrdinal(AbstractOwbBean)}.
+ * A request is only served by one thread at a time, so there is no need for locking.
+ * Other Contextuals are kept in the map of the {@link AbstractContext}.</p>
  */
 public class RequestContext extends AbstractContext
 {
@@ -44,12 +61,41 @@ public class RequestContext extends AbstractContext
      */
     private Object httpSession;
 
+    /**
+     * The slots of the beans with a request scoped ordinal, all created on the first instance.
+     * They get serialized via {@link #writeObject(ObjectOutputStream)}.
+     */
+    private transient Contextual<?>[] contextuals;
+    private transient Object[] instances;
+    private transient CreationalContext<?>[] creationalContexts;
+
+    /**
+     * Instances of another request this context got started with, see {@link #inheritInstances(RequestContext, Map)}.
+     * They are visible in this context as long as the other request is active but get neither created nor destroyed by it.
+     * The map might be shared with other contexts and is never modified, {@link #releasedInstances} are hidden instead.
+     */
+    private transient Map<Contextual<?>, Object> inheritedInstances;
+    private transient RequestContext inheritedFrom;
+    private transient Set<Contextual<?>> releasedInstances;
+
+    /**
+     * Set as soon as {@link #destroy()} starts, other requests must not use the inherited instances from then on.
+     */
+    private transient volatile boolean destroying;
+
+    /**
+     * The thread this context is handed over to right now, see {@link #beginHandOver()}.
+     */
+    private transient Thread handOverThread;
+    private transient int handOverCount;
+
     /*
     * Constructor
     */
     public RequestContext()
     {
-        super(RequestScoped.class);
+        // most requests only use beans with a request scoped ordinal, they don't need the map
+        super(RequestScoped.class, true);
     }
 
     @Override
@@ -87,6 +133,37 @@ public class RequestContext extends AbstractContext
         return propagatedSessionContext;
     }
 
+    /**
+     * Marks this context as handed over to the current thread, e.g. by
+     * {@link org.apache.webbeans.spi.ContextsService#activateContexts(Object)}.
+     * A request context has no locking, so it only gets handed over to one thread at a time.
+     * Nested hand-overs to the same thread are fine, each of them needs an {@link #endHandOver()}.
+     *
+     * @throws IllegalStateException if this context is handed over to another thread right now
+     */
+    public synchronized void beginHandOver()
+    {
+        Thread current = Thread.currentThread();
+        if (handOverThread != null && handOverThread != current)
+        {
+            throw new IllegalStateException("The RequestContext is already handed over to thread " + handOverThread.getName()
+                    + ", it can only be handed over sequentially");
+        }
+        handOverThread = current;
+        handOverCount++;
+    }
+
+    /**
+     * Ends a hand-over started via {@link #beginHandOver()} on the current thread.
+     */
+    public synchronized void endHandOver()
+    {
+        if (handOverThread == Thread.currentThread() && --handOverCount == 0)
+        {
+            handOverThread = null;
+        }
+    }
+
     public Object getHttpSession()
     {
         return httpSession;
@@ -97,10 +174,303 @@ public class RequestContext extends AbstractContext
         this.httpSession = httpSession;
     }
 
+    /**
+     * Takes a snapshot of the contextual instances of this request.
+     * Must be invoked by the thread serving the request.
+     *
+     * @return the contextual instances which exist right now, see {@link #inheritInstances(RequestContext, Map)}
+     */
+    public Map<Contextual<?>, Object> snapshotInstances()
+    {
+        Map<Contextual<?>, Object> snapshot = new HashMap<>();
+        if (inheritedInstances != null && inheritedFrom.isInheritable())
+        {
+            inheritedInstances.forEach((contextual, instance) ->
+            {
+                if (releasedInstances == null || !releasedInstances.contains(contextual))
+                {
+                    snapshot.put(contextual, instance);
+                }
+            });
+        }
+        if (contextuals != null)
+        {
+            for (int i = 0; i < contextuals.length; i++)
+            {
+                if (instances[i] != null)
+                {
+                    snapshot.put(contextuals[i], instances[i]);
+                }
+            }
+        }
+        if (componentInstanceMap != null)
+        {
+            componentInstanceMap.forEach((contextual, bag) ->
+            {
+                Object instance = bag.getBeanInstance();
+                if (instance != null)
+                {
+                    snapshot.put(contextual, instance);
+                }
+            });
+        }
+        return snapshot;
+    }
+
+    /**
+     * Makes the given instances of another request visible in this context.
+     * This context never destroys them, that stays up to the request which created them.
+     * Once that request isn't active anymore its instances get ignored, as they are destroyed.
+     * Instances of other Contextuals still get created and destroyed by this context.
+     *
+     * @param source the request the snapshot got taken from
+     * @param snapshot instances taken via {@link #snapshotInstances()}, can be shared by several contexts
+     */
+    public void inheritInstances(RequestContext source, Map<Contextual<?>, Object> snapshot)
+    {
+        inheritedFrom = source;
+        inheritedInstances = snapshot;
+    }
+
+    private boolean isInheritable()
+    {
+        return !destroying && isActive();
+    }
+
+    private Object getInheritedInstance(Contextual<?> contextual)
+    {
+        if (inheritedInstances == null || !inheritedFrom.isInheritable())
+        {
+            return null;
+        }
+        Object inherited = inheritedInstances.get(contextual);
+        if (inherited == null || releasedInstances != null && releasedInstances.contains(contextual))
+        {
+            return null;
+        }
+        return inherited;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Contextual<T> component)
+    {
+        if (inheritedInstances != null)
+        {
+            Object inherited = getInheritedInstance(component);
+            if (inherited != null)
+            {
+                return (T) inherited;
+            }
+        }
+
+        int ordinal = getOrdinal(component);
+        if (ordinal < 0)
+        {
+            return super.get(component);
+        }
+
+        checkActive();
+        return instances != null && ordinal < instances.length ? (T) instances[ordinal] : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected <T> T getInstance(Contextual<T> contextual, CreationalContext<T> creationalContext)
+    {
+        if (inheritedInstances != null)
+        {
+            Object inherited = getInheritedInstance(contextual);
+            if (inherited != null)
+            {
+                return (T) inherited;
+            }
+        }
+
+        int ordinal = getOrdinal(contextual);
+        if (ordinal < 0)
+        {
+            return super.getInstance(contextual, creationalContext);
+        }
+
+        if (instances != null && ordinal < instances.length && instances[ordinal] != null)
+        {
+            return (T) instances[ordinal];
+        }
+        if (creationalContext == null)
+        {
+            return null;
+        }
+
+        T instance = contextual.create(creationalContext);
+
+        // creating the instance might already have grown the slots
+        ensureCapacity(ordinal, contextual);
+        contextuals[ordinal] = contextual;
+        instances[ordinal] = instance;
+        creationalContexts[ordinal] = creationalContext;
+        return instance;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void destroyInstance(Contextual<?> contextual)
+    {
+        if (inheritedInstances != null && getInheritedInstance(contextual) != null)
+        {
+            // owned by another request, only hide it from this one
+            if (releasedInstances == null)
+            {
+                releasedInstances = new HashSet<>();
+            }
+            releasedInstances.add(contextual);
+            return;
+        }
+
+        int ordinal = getOrdinal(contextual);
+        if (ordinal < 0)
+        {
+            super.destroyInstance(contextual);
+            return;
+        }
+        if (instances == null || ordinal >= instances.length || instances[ordinal] == null)
+        {
+            // just exit if people manually invoke destroy after the bean already got ditched
+            return;
+        }
+
+        ((Contextual<Object>) contextual).destroy(instances[ordinal], (CreationalContext<Object>) creationalContexts[ordinal]);
+        contextuals[ordinal] = null;
+        instances[ordinal] = null;
+        creationalContexts[ordinal] = null;
+    }
+
+    @Override
+    public void destroy()
+    {
+        destroying = true;
+        inheritedInstances = null;
+        inheritedFrom = null;
+        releasedInstances = null;
+        if (contextuals != null)
+        {
+            // the length gets read for each slot as destroying an instance might create others
+            for (int i = 0; i < contextuals.length; i++)
+            {
+                Contextual<?> contextual = contextuals[i];
+                if (contextual != null)
+                {
+                    destroyInstance(contextual);
+                }
+            }
+        }
+        super.destroy();
+    }
+
     @Override
     public void destroy(Contextual<?> contextual)
     {
         super.destroy(contextual);
         RequestScopedBeanInterceptorHandler.removeThreadLocals();
     }
+
+    private void ensureCapacity(int ordinal, Contextual<?> contextual)
+    {
+        if (instances == null || ordinal >= instances.length)
+        {
+            int length = Math.max(ordinal + 1,
+                    ((AbstractOwbBean<?>) contextual).getWebBeansContext().getBeanManagerImpl().getRequestScopedBeanCount());
+            if (instances == null)
+            {
+                contextuals = new Contextual<?>[length];
+                instances = new Object[length];
+                creationalContexts = new CreationalContext<?>[length];
+            }
+            else
+            {
+                contextuals = Arrays.copyOf(contextuals, length);
+                instances = Arrays.copyOf(instances, length);
+                creationalContexts = Arrays.copyOf(creationalContexts, length);
+            }
+        }
+    }
+
+    /**
+     * @return the slot of the given Contextual or -1 if it doesn't get stored in the slots
+     */
+    private static int getOrdinal(Contextual<?> contextual)
+    {
+        if (!(contextual instanceof AbstractOwbBean))
+        {
+            return -1;
+        }
+
+        AbstractOwbBean<?> bean = (AbstractOwbBean<?>) contextual;
+        int ordinal = bean.getRequestScopedOrdinal();
+        if (ordinal < 0 && RequestScoped.class == bean.getScope())
+        {
+            // added after the deployment
+            ordinal = bean.getWebBeansContext().getBeanManagerImpl().assignRequestScopedOrdinal(bean);
+        }
+        return ordinal;
+    }
+
+    private void writeObject(ObjectOutputStream s) throws IOException
+    {
+        s.defaultWriteObject();
+
+        // like the componentInstanceMap of the AbstractContext the Contextuals get repacked into Serializable ones
+        int count = 0;
+        if (contextuals != null)
+        {
+            for (Contextual<?> contextual : contextuals)
+            {
+                if (contextual != null)
+                {
+                    count++;
+                }
+            }
+        }
+        s.writeInt(count);
+        if (count > 0)
+        {
+            SerializableBeanVault sbv = WebBeansContext.getInstance().getSerializableBeanVault();
+            for (int i = 0; i < contextuals.length; i++)
+            {
+                if (contextuals[i] != null)
+                {
+                    s.writeObject(sbv.getSerializableBean(contextuals[i]));
+                    s.writeObject(instances[i]);
+                    s.writeObject(creationalContexts[i]);
+                }
+            }
+        }
+    }
+
+    private void readObject(ObjectInputStream s) throws IOException, ClassNotFoundException
+    {
+        s.defaultReadObject();
+
+        int count = s.readInt();
+        for (int i = 0; i < count; i++)
+        {
+            Contextual<?> contextual = (Contextual<?>) s.readObject();
+            if (contextual instanceof SerializableBean)
+            {
+                contextual = ((SerializableBean<?>) contextual).getBean();
+            }
+            Object instance = s.readObject();
+            CreationalContext<?> creationalContext = (CreationalContext<?>) s.readObject();
+
+            int ordinal = getOrdinal(contextual);
+            if (ordinal < 0)
+            {
+                throw new InvalidObjectException("No request scoped bean " + contextual);
+            }
+            ensureCapacity(ordinal, contextual);
+            contextuals[ordinal] = contextual;
+            instances[ordinal] = instance;
+            creationalContexts[ordinal] = creationalContext;
+        }
+    }
 }
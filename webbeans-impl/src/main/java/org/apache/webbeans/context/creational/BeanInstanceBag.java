@@ -20,24 +20,51 @@ package org.apache.webbeans.context.creational;
 
 import jakarta.enterprise.context.spi.Contextual;
 import jakarta.enterprise.context.spi.CreationalContext;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Stores the CreationalContext and the Contextual Instance.
  * This also makes sure that we don't create the same bean
  * twice.
+ *
+ * <p>Reading the instance is a plain volatile read. The first thread which needs the instance
+ * swaps a {@link Creating} marker in and creates it. Other threads asking for it meanwhile
+ * spin shortly and then park until the creator published the instance or failed and unparks them.</p>
  */
 public class BeanInstanceBag<T> implements Serializable
 {
     private static final long serialVersionUID = 1656996021599122499L;
+
+    private static final VarHandle BEAN_INSTANCE;
+    private static final VarHandle WAITERS;
+    static
+    {
+        try
+        {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            BEAN_INSTANCE = lookup.findVarHandle(BeanInstanceBag.class, "beanInstance", Object.class);
+            WAITERS = lookup.findVarHandle(Creating.class, "waiters", Waiter.class);
+        }
+        catch (ReflectiveOperationException e)
+        {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static final int SPINS = 100;
+
     private final CreationalContext<T> beanCreationalContext;
-    
-    private T beanInstance;
-    
-    private final Lock lock = new ReentrantLock();
-    
+
+    /**
+     * {@code null}, a {@link Creating} marker while the instance gets created, or the instance.
+     */
+    private volatile Object beanInstance;
+
     public BeanInstanceBag(CreationalContext<T> beanCreationalContext)
     {
         this.beanCreationalContext = beanCreationalContext;
@@ -52,11 +79,13 @@ public class BeanInstanceBag<T> implements Serializable
     }
 
     /**
-     * @return the beanInstance
+     * @return the beanInstance or {@code null} if it doesn't exist (yet)
      */
+    @SuppressWarnings("unchecked")
     public T getBeanInstance()
     {
-        return beanInstance;
+        Object instance = beanInstance;
+        return instance instanceof Creating ? null : (T) instance;
     }
 
     /**
@@ -64,30 +93,147 @@ public class BeanInstanceBag<T> implements Serializable
      * @param contextual
      * @return the single contextual instance for the context
      */
+    @SuppressWarnings("unchecked")
     public T create(Contextual<T> contextual)
     {
-        try
+        int spins = 0;
+        while (true)
         {
-            lock.lock();
-            
-            // we need to check again, maybe we got blocked by a previous invocation
-            if (beanInstance == null)
+            Object instance = beanInstance;
+            if (instance == null)
             {
-                beanInstance = contextual.create(beanCreationalContext);
+                Creating creating = new Creating();
+                if (BEAN_INSTANCE.compareAndSet(this, null, creating))
+                {
+                    return create(contextual, creating);
+                }
+                continue;
             }
-            
+            if (!(instance instanceof Creating))
+            {
+                return (T) instance;
+            }
+
+            Creating creating = (Creating) instance;
+            if (creating.creator == Thread.currentThread())
+            {
+                // a circular creation on the same thread, like the former reentrant lock the outer instance wins
+                return contextual.create(beanCreationalContext);
+            }
+
+            if (spins < SPINS)
+            {
+                spins++;
+                Thread.onSpinWait();
+            }
+            else
+            {
+                creating.await(this);
+            }
+        }
+    }
+
+    private T create(Contextual<T> contextual, Creating creating)
+    {
+        T instance = null;
+        try
+        {
+            instance = contextual.create(beanCreationalContext);
         }
         finally
         {
-            lock.unlock();
+            // on failure the next caller tries again
+            BEAN_INSTANCE.compareAndSet(this, creating, instance);
+            creating.signalAll();
         }
-        
-        return beanInstance; 
+        return instance;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException
+    {
+        // never write a Creating marker
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("beanCreationalContext", beanCreationalContext);
+        fields.put("beanInstance", getBeanInstance());
+        out.writeFields();
     }
 
     @Override
     public String toString()
     {
-        return "Bag:" + beanCreationalContext + ", Instance: " + beanInstance;
+        return "Bag:" + beanCreationalContext + ", Instance: " + getBeanInstance();
+    }
+
+    /**
+     * Marks a bag whose instance gets created right now.
+     */
+    private static final class Creating
+    {
+        /**
+         * Marks a Creating which got signalled, no more waiters can get added then.
+         */
+        private static final Waiter SIGNALLED = new Waiter(null, null);
+
+        private final Thread creator = Thread.currentThread();
+
+        /**
+         * Stack of the parked threads.
+         */
+        private volatile Waiter waiters;
+
+        private void await(BeanInstanceBag<?> bag)
+        {
+            Waiter head;
+            Waiter waiter;
+            do
+            {
+                head = waiters;
+                if (head == SIGNALLED)
+                {
+                    return;
+                }
+                waiter = new Waiter(Thread.currentThread(), head);
+            }
+            while (!WAITERS.compareAndSet(this, head, waiter));
+
+            // like AbstractQueuedSynchronizer#acquireUninterruptibly an interrupt doesn't end the wait,
+            // but the flag must be cleared meanwhile, park returns right away otherwise
+            boolean interrupted = false;
+            while (waiters != SIGNALLED)
+            {
+                // spurious wakeups just loop
+                LockSupport.park(bag);
+                if (Thread.interrupted())
+                {
+                    interrupted = true;
+                }
+            }
+            if (interrupted)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void signalAll()
+        {
+            Waiter waiter = (Waiter) WAITERS.getAndSet(this, SIGNALLED);
+            while (waiter != null)
+            {
+                LockSupport.unpark(waiter.thread);
+                waiter = waiter.next;
+            }
+        }
+    }
+
+    private static final class Waiter
+    {
+        private final Thread thread;
+        private final Waiter next;
+
+        private Waiter(Thread thread, Waiter next)
+        {
+            this.thread = thread;
+            this.next = next;
+        }
     }
 }
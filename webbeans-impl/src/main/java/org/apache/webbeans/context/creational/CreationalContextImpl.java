@@ -231,6 +231,44 @@ public class CreationalContextImpl<T> implements CreationalContext<T>, Serializa
         }
     }
 
+    /**
+     * @param instance the instance this CreationalContext got created for
+     * @return whether any dependent objects beside the given instance got registered
+     */
+    public synchronized boolean hasDependentsOtherThan(Object instance)
+    {
+        if (dependentObjects != null)
+        {
+            for (DependentCreationalContext<?> dependentCreationalContext : dependentObjects)
+            {
+                if (dependentCreationalContext.getInstance() != instance)
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Drops the given instance of the given contextual from the dependent objects without destroying it.
+     */
+    public synchronized void removeDependent(Contextual<?> contextual, Object instance)
+    {
+        if (dependentObjects != null)
+        {
+            for (Iterator<DependentCreationalContext<?>> i = dependentObjects.iterator(); i.hasNext();)
+            {
+                DependentCreationalContext<?> dependentCreationalContext = i.next();
+                if (dependentCreationalContext.getInstance() == instance && dependentCreationalContext.getContextual().equals(contextual))
+                {
+                    i.remove();
+                    return;
+                }
+            }
+        }
+    }
+
     public <X> void destroyDependent(X instance)
     {
         if (dependentObjects == null)
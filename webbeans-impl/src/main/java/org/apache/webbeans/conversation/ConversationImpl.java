@@ -60,12 +60,12 @@ public class ConversationImpl implements Conversation, Serializable
     /**
      * Default timeout is 30mins
      */
-    private long timeout;
+    private volatile long timeout;
 
     /**
      * Active duration of the conversation
      */
-    private long lastAccessTime;
+    private volatile long lastAccessTime;
 
     private transient RuntimeException problemDuringCreation;
 
@@ -252,13 +252,30 @@ public class ConversationImpl implements Conversation, Serializable
         return lastAccessTime;
     }
 
+    /**
+     * @return the timestamp after which this Conversation is timed out, {@link Long#MAX_VALUE} if it never times out
+     */
+    long getExpiryTime()
+    {
+        long currentTimeout = timeout;
+        return currentTimeout == 0L ? Long.MAX_VALUE : lastAccessTime + currentTimeout;
+    }
+
+    /**
+     * @return whether a request currently uses this Conversation
+     */
+    synchronized boolean isInUse()
+    {
+        return !threadsUsingIt.isEmpty();
+    }
+
     /**
      * Update conversation timeout value.
      * Basically a 'touch' for the access time
      */
     public void updateLastAccessTime()
     {
-        lastAccessTime = System.currentTimeMillis();
+        lastAccessTime = webBeansContext.getConversationManager().currentTimeMillis();
     }
 
     @Override
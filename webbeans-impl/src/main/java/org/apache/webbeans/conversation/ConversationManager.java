@@ -19,6 +19,7 @@
 package org.apache.webbeans.conversation;
 
 import java.util.Set;
+import java.util.function.LongSupplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -41,6 +42,7 @@ import org.apache.webbeans.context.ConversationContext;
 import org.apache.webbeans.context.RequestContext;
 import org.apache.webbeans.context.creational.CreationalContextImpl;
 import org.apache.webbeans.logger.WebBeansLoggerFacade;
+import org.apache.webbeans.spi.ContextsService;
 import org.apache.webbeans.spi.ConversationService;
 import org.apache.webbeans.util.Asserts;
 
@@ -60,6 +62,22 @@ public class ConversationManager
     private final WebBeansContext webBeansContext;
     private final Bean<Set<ConversationContext>> conversationStorageBean;
 
+    /**
+     * Lazily started with the first long running conversation, {@code null} if disabled.
+     */
+    private volatile ConversationReaper conversationReaper;
+
+    /**
+     * Set if the reaper is disabled in the configuration or got shut down already.
+     */
+    private volatile boolean reaperDisabled;
+
+    /**
+     * The time source of the conversation timeouts, {@code null} for the system clock.
+     * @see #setClock(LongSupplier)
+     */
+    private volatile LongSupplier clock;
+
     /**
      * Creates new conversation manager
      */
@@ -107,6 +125,12 @@ public class ConversationManager
                                     " is used by other request. It creates a new transient conversation");
                             conversationContext.getConversation().setProblemDuringCreation(problem);
                         }
+                        else if (!conversationContexts.contains(conversationContext))
+                        {
+                            // the ConversationReaper destroyed it in the meantime
+                            conversationContext.getConversation().iDontUseItAnymore();
+                            break;
+                        }
                         else
                         {
                             conversationContext.getConversation().updateLastAccessTime();
@@ -150,6 +174,78 @@ public class ConversationManager
 
         // if not, then simply add this conversation
         sessionConversations.add(conversationContext);
+
+        ConversationReaper reaper = getConversationReaper(true);
+        if (reaper != null)
+        {
+            // the session the conversation belongs to, for destroying it on the reaper thread
+            reaper.schedule(conversationContext, sessionConversations,
+                    webBeansContext.getContextsService().captureContexts(false));
+        }
+    }
+
+    /**
+     * @param start whether the reaper shall get started if it is enabled but not running yet
+     * @return the reaper which destroys timed out conversations in the background
+     *         or {@code null} if it is disabled or not started
+     * @see org.apache.webbeans.config.OpenWebBeansConfiguration#CONVERSATION_REAPER_INTERVAL
+     */
+    public ConversationReaper getConversationReaper(boolean start)
+    {
+        ConversationReaper reaper = conversationReaper;
+        if (reaper != null || !start || reaperDisabled)
+        {
+            return reaper;
+        }
+
+        synchronized (this)
+        {
+            if (conversationReaper == null && !reaperDisabled)
+            {
+                long interval = webBeansContext.getOpenWebBeansConfiguration().getConversationReaperInterval();
+                if (interval > 0)
+                {
+                    conversationReaper = new ConversationReaper(this, interval, clock == null);
+                }
+                else
+                {
+                    reaperDisabled = true;
+                }
+            }
+            return conversationReaper;
+        }
+    }
+
+    /**
+     * @return the current time in milliseconds, the conversation timeouts are based on it
+     */
+    public long currentTimeMillis()
+    {
+        LongSupplier currentClock = clock;
+        return currentClock == null ? System.currentTimeMillis() : currentClock.getAsLong();
+    }
+
+    /**
+     * Replaces the time source of the conversation timeouts, only meant for tests.
+     * A {@link ConversationReaper} started afterwards doesn't tick in the background,
+     * only if {@link ConversationReaper#tick()} gets invoked.
+     */
+    void setClock(LongSupplier clock)
+    {
+        this.clock = clock;
+    }
+
+    /**
+     * Stops the {@link ConversationReaper} if it got started.
+     */
+    public synchronized void shutdown()
+    {
+        reaperDisabled = true;
+        if (conversationReaper != null)
+        {
+            conversationReaper.shutdown();
+            conversationReaper = null;
+        }
     }
 
     /**
@@ -198,7 +294,7 @@ public class ConversationManager
             return false;
         }
 
-        if (timeout != 0L && (System.currentTimeMillis() - conv.getLastAccessTime()) > timeout)
+        if (timeout != 0L && (currentTimeMillis() - conv.getLastAccessTime()) > timeout)
         {
             logger.log(Level.FINE, OWBLogConst.INFO_0011, conv.getId());
             return true;
@@ -213,13 +309,55 @@ public class ConversationManager
      */
     public void destroyConversationContext(ConversationContext ctx)
     {
-        webBeansContext.getBeanManagerImpl().fireEvent(
-                getLifecycleEventPayload(ctx), BeforeDestroyedLiteral.INSTANCE_CONVERSATION_SCOPED);
+        // both events get the same payload, the request might be gone once the context got destroyed
+        Object payload = getLifecycleEventPayload(ctx);
+
+        webBeansContext.getBeanManagerImpl().fireEvent(payload, BeforeDestroyedLiteral.INSTANCE_CONVERSATION_SCOPED);
 
         ctx.destroy();
 
-        webBeansContext.getBeanManagerImpl().fireEvent(
-            getLifecycleEventPayload(ctx), DestroyedLiteral.INSTANCE_CONVERSATION_SCOPED);
+        webBeansContext.getBeanManagerImpl().fireEvent(payload, DestroyedLiteral.INSTANCE_CONVERSATION_SCOPED);
+    }
+
+    /**
+     * Destroys a timed out conversation outside of any request, e.g. on the thread of the {@link ConversationReaper}.
+     * The &#064;PreDestroy methods of its beans and the observers of its lifecycle events might use
+     * &#064;RequestScoped and &#064;SessionScoped beans. So the session context the conversation belongs to gets activated
+     * and a request context gets started for the destruction, unless the current thread already has one.
+     *
+     * @param capturedContexts the contexts the conversation began in, see {@link ContextsService#captureContexts(boolean)},
+     *                         or {@code null} if the ContextsService doesn't support that
+     */
+    void destroyTimedOutConversationContext(ConversationContext ctx, Object capturedContexts)
+    {
+        ContextsService contextsService = webBeansContext.getContextsService();
+        Object previousContexts = capturedContexts != null ? contextsService.activateContexts(capturedContexts) : null;
+        try
+        {
+            Context requestContext = contextsService.getCurrentContext(RequestScoped.class, false);
+            if (requestContext != null && requestContext.isActive())
+            {
+                destroyConversationContext(ctx);
+                return;
+            }
+
+            contextsService.startContext(RequestScoped.class, null);
+            try
+            {
+                destroyConversationContext(ctx);
+            }
+            finally
+            {
+                contextsService.endContext(RequestScoped.class, null);
+            }
+        }
+        finally
+        {
+            if (capturedContexts != null)
+            {
+                contextsService.restoreContexts(previousContexts);
+            }
+        }
     }
 
     public Object getLifecycleEventPayload(ConversationContext ctx)
@@ -0,0 +1,349 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.conversation;
+
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.webbeans.config.OWBLogConst;
+import org.apache.webbeans.context.ConversationContext;
+import org.apache.webbeans.logger.WebBeansLoggerFacade;
+
+/**
+ * Destroys timed out long running conversations in the background,
+ * so their beans don't stay on the heap until the whole session expires if the session doesn't get any further request.
+ *
+ * <p>The conversations get tracked in a hashed timing wheel with {@value #WHEEL_SIZE} buckets of one tick each.
+ * Scheduling a conversation only enqueues it, each tick only looks at the conversations in its bucket.
+ * Expiry times further away than one turn of the wheel are handled by counting down the remaining rounds.
+ * A conversation which got used since it was scheduled isn't destroyed but moved to the bucket of its new expiry time.</p>
+ *
+ * <p>A conversation only gets destroyed by whoever manages to remove it from the conversation storage of its session,
+ * so the reaper never races with {@link jakarta.enterprise.context.Conversation#end()}, the cleanup at the end of a request or the destruction
+ * of the session. See {@link ConversationManager#getConversationContext(jakarta.enterprise.context.spi.Context)}
+ * for the other half of the handshake with requests which resume the conversation.</p>
+ *
+ * @see org.apache.webbeans.config.OpenWebBeansConfiguration#CONVERSATION_REAPER_INTERVAL
+ */
+public final class ConversationReaper
+{
+    private static final Logger logger = WebBeansLoggerFacade.getLogger(ConversationReaper.class);
+
+    private static final int WHEEL_SIZE = 512;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private final ConversationManager conversationManager;
+    private final long tickInterval;
+    private final long startTime;
+
+    /**
+     * Only touched by the reaper thread.
+     */
+    private final Entry[] wheel = new Entry[WHEEL_SIZE];
+    private long currentTick;
+
+    /**
+     * Conversations scheduled by request threads, they get moved to the wheel with the next tick.
+     */
+    private final Queue<Entry> pending = new ConcurrentLinkedQueue<>();
+
+    /**
+     * {@code null} if the ticks get driven manually.
+     */
+    private final ScheduledExecutorService executor;
+
+    private final AtomicInteger trackedConversations = new AtomicInteger();
+    private final LongAdder reapedConversations = new LongAdder();
+    private final LongAdder rescheduledConversations = new LongAdder();
+    private final LongAdder ticks = new LongAdder();
+
+    /**
+     * @param scheduled whether to tick in the background, otherwise only {@link #tick()} drives the reaper
+     */
+    ConversationReaper(ConversationManager conversationManager, long tickInterval, boolean scheduled)
+    {
+        this.conversationManager = conversationManager;
+        this.tickInterval = tickInterval;
+        startTime = conversationManager.currentTimeMillis();
+
+        if (!scheduled)
+        {
+            executor = null;
+            return;
+        }
+
+        ClassLoader applicationLoader = Thread.currentThread().getContextClassLoader();
+        executor = Executors.newSingleThreadScheduledExecutor(r ->
+        {
+            Thread thread = new Thread(r, "OpenWebBeans-ConversationReaper");
+            thread.setDaemon(true);
+            thread.setContextClassLoader(applicationLoader);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(this::tick, tickInterval, tickInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Tracks a conversation which just became long running.
+     *
+     * @param conversationContext the context of the conversation
+     * @param sessionConversations the conversation storage of the session the conversation got stored in
+     * @param capturedContexts the contexts of the request which began the conversation, without its request context,
+     *                         see {@link ConversationManager#destroyTimedOutConversationContext(ConversationContext, Object)}
+     */
+    void schedule(ConversationContext conversationContext, Set<ConversationContext> sessionConversations, Object capturedContexts)
+    {
+        trackedConversations.incrementAndGet();
+        pending.add(new Entry(conversationContext, sessionConversations, capturedContexts,
+                conversationContext.getConversation().getExpiryTime()));
+    }
+
+    void shutdown()
+    {
+        if (executor != null)
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    public Statistics getStatistics()
+    {
+        return new Statistics(trackedConversations.get(), reapedConversations.sum(), rescheduledConversations.sum(),
+                ticks.sum(), conversationManager.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Processes all ticks which passed since the last invocation.
+     * Only invoked by the reaper thread, or by the caller if the reaper doesn't tick in the background.
+     */
+    void tick()
+    {
+        try
+        {
+            long now = conversationManager.currentTimeMillis();
+            Entry entry;
+            while ((entry = pending.poll()) != null)
+            {
+                place(entry, entry.expiryTime, currentTick);
+            }
+
+            // catch up with the ticks we missed, e.g. after a long GC pause
+            long lastTick = (now - startTime) / tickInterval;
+            while (currentTick <= lastTick)
+            {
+                expireBucket(now);
+                currentTick++;
+                ticks.increment();
+            }
+        }
+        catch (RuntimeException e)
+        {
+            // never let an exception cancel the scheduled task
+            logger.log(Level.SEVERE, "Error while destroying timed out conversations", e);
+        }
+    }
+
+    private void expireBucket(long now)
+    {
+        int slot = (int) (currentTick & WHEEL_MASK);
+        Entry entry = wheel[slot];
+        wheel[slot] = null;
+        while (entry != null)
+        {
+            Entry next = entry.next;
+            entry.next = null;
+            if (entry.remainingRounds > 0)
+            {
+                entry.remainingRounds--;
+                entry.next = wheel[slot];
+                wheel[slot] = entry;
+            }
+            else
+            {
+                expire(entry, now);
+            }
+            entry = next;
+        }
+    }
+
+    private void expire(Entry entry, long now)
+    {
+        ConversationContext conversationContext = entry.conversationContext;
+        ConversationImpl conversation = conversationContext.getConversation();
+        boolean reap;
+
+        // the monitor of the conversation also guards iUseIt(), so a request either sees the conversation removed
+        // from the storage or we see it in use
+        synchronized (conversation)
+        {
+            long expiryTime = conversation.getExpiryTime();
+            if (conversation.isInUse() || now <= expiryTime)
+            {
+                if (entry.sessionConversations.contains(conversationContext))
+                {
+                    rescheduledConversations.increment();
+                    place(entry, Math.max(expiryTime, now), currentTick + 1);
+                    return;
+                }
+                reap = false;
+            }
+            else
+            {
+                reap = entry.sessionConversations.remove(conversationContext);
+            }
+        }
+
+        // in any case we don't track it anymore
+        trackedConversations.decrementAndGet();
+        if (reap)
+        {
+            logger.log(Level.FINE, OWBLogConst.INFO_0011, conversation.getId());
+            try
+            {
+                conversationManager.destroyTimedOutConversationContext(conversationContext, entry.capturedContexts);
+            }
+            catch (RuntimeException e)
+            {
+                logger.log(Level.WARNING, "Error while destroying timed out " + conversation, e);
+            }
+            reapedConversations.increment();
+        }
+    }
+
+    private void place(Entry entry, long expiryTime, long minimumTick)
+    {
+        long tick;
+        if (expiryTime == Long.MAX_VALUE)
+        {
+            // never times out unless the timeout gets changed, have another look after one turn of the wheel
+            tick = currentTick + WHEEL_SIZE;
+        }
+        else
+        {
+            tick = (expiryTime - startTime) / tickInterval + 1;
+        }
+        tick = Math.max(tick, minimumTick);
+
+        int slot = (int) (tick & WHEEL_MASK);
+        entry.remainingRounds = (tick - currentTick) / WHEEL_SIZE;
+        entry.next = wheel[slot];
+        wheel[slot] = entry;
+    }
+
+    private static final class Entry
+    {
+        private final ConversationContext conversationContext;
+        private final Set<ConversationContext> sessionConversations;
+        private final Object capturedContexts;
+        private final long expiryTime;
+
+        private long remainingRounds;
+        private Entry next;
+
+        private Entry(ConversationContext conversationContext, Set<ConversationContext> sessionConversations,
+                      Object capturedContexts, long expiryTime)
+        {
+            this.conversationContext = conversationContext;
+            this.sessionConversations = sessionConversations;
+            this.capturedContexts = capturedContexts;
+            this.expiryTime = expiryTime;
+        }
+    }
+
+    /**
+     * Snapshot of the counters of a {@link ConversationReaper}.
+     */
+    public static final class Statistics
+    {
+        private final int trackedConversations;
+        private final long reapedConversations;
+        private final long rescheduledConversations;
+        private final long ticks;
+        private final long uptime;
+
+        public Statistics(int trackedConversations, long reapedConversations, long rescheduledConversations, long ticks, long uptime)
+        {
+            this.trackedConversations = trackedConversations;
+            this.reapedConversations = reapedConversations;
+            this.rescheduledConversations = rescheduledConversations;
+            this.ticks = ticks;
+            this.uptime = uptime;
+        }
+
+        /**
+         * @return the long running conversations the reaper currently keeps an eye on
+         */
+        public int getTrackedConversations()
+        {
+            return trackedConversations;
+        }
+
+        /**
+         * @return the conversations the reaper destroyed because they timed out
+         */
+        public long getReapedConversations()
+        {
+            return reapedConversations;
+        }
+
+        /**
+         * @return how often a conversation got moved to a later bucket because it got used in the meantime
+         */
+        public long getRescheduledConversations()
+        {
+            return rescheduledConversations;
+        }
+
+        public long getTicks()
+        {
+            return ticks;
+        }
+
+        /**
+         * @return ms since the reaper got started
+         */
+        public long getUptime()
+        {
+            return uptime;
+        }
+
+        /**
+         * @return reaped conversations per minute since the reaper got started
+         */
+        public double getReapRate()
+        {
+            return uptime <= 0 ? 0.0 : reapedConversations * 60000.0 / uptime;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "tracked=" + trackedConversations + ", reaped=" + reapedConversations
+                    + ", rescheduled=" + rescheduledConversations + ", ticks=" + ticks + ", uptime=" + uptime;
+        }
+    }
+}
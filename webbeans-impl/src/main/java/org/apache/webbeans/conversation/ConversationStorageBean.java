@@ -70,7 +70,11 @@ public class ConversationStorageBean implements Bean<Set<ConversationContext>>,
         ConversationManager conversationManager = webBeansContext.getConversationManager();
         for (ConversationContext conversationContext : instance)
         {
-            conversationManager.destroyConversationContext(conversationContext);
+            // removing it first tells the ConversationReaper that it's gone
+            if (instance.remove(conversationContext))
+            {
+                conversationManager.destroyConversationContext(conversationContext);
+            }
         }
     }
 
@@ -18,8 +18,12 @@
  */
 package org.apache.webbeans.corespi;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
 import java.util.Map;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.webbeans.config.WebBeansContext;
 import org.apache.webbeans.spi.SingletonService;
@@ -28,11 +32,24 @@ import org.apache.webbeans.util.Asserts;
 public class DefaultSingletonService implements SingletonService<WebBeansContext>
 {
     /**
-     * Keys --> ClassLoaders
+     * Keys --> ClassLoaders, weakly referenced to not leak redeployed applications
      * Values --> WebBeansContext
+     *
+     * Reads are lock-free, all modifications happen while holding {@link #writeLock}.
      */
-    private final Map<ClassLoader, WebBeansContext> singletonMap = new WeakHashMap<>();
-    
+    private final Map<LoaderKey, WebBeansContext> singletonMap = new ConcurrentHashMap<>();
+
+    private final ReferenceQueue<ClassLoader> collectedLoaders = new ReferenceQueue<>();
+
+    private final Object writeLock = new Object();
+
+    /**
+     * The only registered entry, {@code null} if there is none or more than one.
+     * Most SE and fat-jar setups have exactly one WebBeansContext, then a lookup
+     * is just a volatile read and an identity check.
+     */
+    private volatile SoleEntry soleEntry;
+
     /**
      * Gets singleton instance for deployment.
      * @return singleton instance for this deployment
@@ -42,31 +59,47 @@ public class DefaultSingletonService implements SingletonService<WebBeansContext
     {
         assertClassLoaderKey(key);
         ClassLoader classLoader = (ClassLoader) key;
-        synchronized (singletonMap)
+
+        SoleEntry sole = soleEntry;
+        if (sole != null && sole.key.get() == classLoader)
         {
-            //util.Track.sync(key);
-            
-            WebBeansContext webBeansContext = singletonMap.get(classLoader);
-            //util.Track.get(key);
+            return sole.webBeansContext;
+        }
 
+        WebBeansContext webBeansContext = singletonMap.get(new LoaderKey(classLoader));
+        if (webBeansContext != null)
+        {
+            return webBeansContext;
+        }
+
+        synchronized (writeLock)
+        {
+            LoaderKey loaderKey = new LoaderKey(classLoader, collectedLoaders);
+            webBeansContext = singletonMap.get(loaderKey);
             if (webBeansContext == null)
             {
+                // not computeIfAbsent as creating the WebBeansContext might already look it up
                 webBeansContext = new WebBeansContext();
-                singletonMap.put(classLoader, webBeansContext);
+                singletonMap.put(loaderKey, webBeansContext);
+                updateSoleEntry();
             }
 
             return webBeansContext;
-
         }
     }
 
     public void register(ClassLoader key, WebBeansContext context)
     {
-        if (singletonMap.containsKey(key))
+        synchronized (writeLock)
         {
-            throw new IllegalArgumentException(key + " is already registered");
+            LoaderKey loaderKey = new LoaderKey(key, collectedLoaders);
+            if (singletonMap.containsKey(loaderKey))
+            {
+                throw new IllegalArgumentException(key + " is already registered");
+            }
+            singletonMap.put(loaderKey, context);
+            updateSoleEntry();
         }
-        singletonMap.putIfAbsent(key, context);
     }
 
     /**
@@ -76,9 +109,10 @@ public class DefaultSingletonService implements SingletonService<WebBeansContext
     public void clearInstances(ClassLoader classLoader)
     {
         Asserts.assertNotNull(classLoader, "classloader");
-        synchronized (singletonMap)
+        synchronized (writeLock)
         {
-            singletonMap.remove(classLoader);
+            singletonMap.remove(new LoaderKey(classLoader));
+            updateSoleEntry();
         }
     }
 
@@ -106,6 +140,84 @@ public class DefaultSingletonService implements SingletonService<WebBeansContext
 
     public boolean exists(final Object key)
     {
-        return ClassLoader.class.isInstance(key) && singletonMap.containsKey(key);
+        return ClassLoader.class.isInstance(key) && singletonMap.containsKey(new LoaderKey((ClassLoader) key));
+    }
+
+    /**
+     * Must be called while holding the {@link #writeLock}.
+     */
+    private void updateSoleEntry()
+    {
+        Reference<? extends ClassLoader> collected;
+        while ((collected = collectedLoaders.poll()) != null)
+        {
+            singletonMap.remove(collected);
+        }
+
+        SoleEntry sole = null;
+        if (singletonMap.size() == 1)
+        {
+            Iterator<Map.Entry<LoaderKey, WebBeansContext>> entries = singletonMap.entrySet().iterator();
+            if (entries.hasNext())
+            {
+                Map.Entry<LoaderKey, WebBeansContext> entry = entries.next();
+                sole = new SoleEntry(entry.getKey(), entry.getValue());
+            }
+        }
+        soleEntry = sole;
+    }
+
+    /**
+     * Weak ClassLoader reference with identity semantics.
+     * Keys used for lookups only don't get enqueued.
+     */
+    private static final class LoaderKey extends WeakReference<ClassLoader>
+    {
+        private final int hash;
+
+        private LoaderKey(ClassLoader classLoader)
+        {
+            super(classLoader);
+            hash = System.identityHashCode(classLoader);
+        }
+
+        private LoaderKey(ClassLoader classLoader, ReferenceQueue<ClassLoader> queue)
+        {
+            super(classLoader, queue);
+            hash = System.identityHashCode(classLoader);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other)
+        {
+            if (this == other)
+            {
+                return true;
+            }
+            if (!(other instanceof LoaderKey))
+            {
+                return false;
+            }
+            ClassLoader classLoader = get();
+            return classLoader != null && classLoader == ((LoaderKey) other).get();
+        }
+    }
+
+    private static final class SoleEntry
+    {
+        private final LoaderKey key;
+        private final WebBeansContext webBeansContext;
+
+        private SoleEntry(LoaderKey key, WebBeansContext webBeansContext)
+        {
+            this.key = key;
+            this.webBeansContext = webBeansContext;
+        }
     }
 }
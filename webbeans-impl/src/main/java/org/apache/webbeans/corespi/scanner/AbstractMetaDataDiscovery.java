@@ -27,6 +27,7 @@ import org.apache.webbeans.config.OpenWebBeansConfiguration;
 import org.apache.webbeans.config.WebBeansContext;
 import org.apache.webbeans.corespi.scanner.xbean.CdiArchive;
 import org.apache.webbeans.corespi.scanner.xbean.OwbAnnotationFinder;
+import org.apache.webbeans.corespi.scanner.xbean.ParallelArchiveScanner;
 import org.apache.webbeans.exception.WebBeansDeploymentException;
 import org.apache.webbeans.logger.WebBeansLoggerFacade;
 import org.apache.webbeans.spi.BDABeansXmlScanner;
@@ -34,6 +35,8 @@ import org.apache.webbeans.spi.BdaScannerService;
 import org.apache.webbeans.spi.BeanArchiveService;
 import org.apache.webbeans.spi.BeanArchiveService.BeanDiscoveryMode;
 import org.apache.webbeans.util.ClassUtil;
+import org.apache.webbeans.util.ExceptionUtil;
+import org.apache.webbeans.util.ForkJoinPoolUtil;
 import org.apache.webbeans.util.UrlSet;
 import org.apache.webbeans.util.WebBeansUtil;
 import org.apache.xbean.finder.AnnotationFinder;
@@ -50,6 +53,10 @@ import java.io.File;
 import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
@@ -58,8 +65,11 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.IntStream;
 
 public abstract class AbstractMetaDataDiscovery implements BdaScannerService
 {
@@ -98,11 +108,25 @@ public abstract class AbstractMetaDataDiscovery implements BdaScannerService
      */
     private Map<BeanArchiveService.BeanArchiveInformation, Set<Class<?>>> beanClassesPerBda;
 
+    /**
+     * Where to store the scanned classes, {@code null} if no deployment snapshot is configured.
+     * @see OpenWebBeansConfiguration#DEPLOYMENT_SNAPSHOT
+     */
+    private Path deploymentSnapshot;
+    private long deploymentChecksum;
+    private boolean loadedFromSnapshot;
+
     protected String[] scanningExcludes;
 
     protected ClassLoader loader;
     protected CdiArchive archive;
     protected OwbAnnotationFinder finder;
+
+    /**
+     * All archives including the ones the {@link #finder} did not parse, {@code null} if the finder is complete.
+     * @see CdiArchive#getCompleteArchive()
+     */
+    private Archive completeArchive;
     protected boolean isBDAScannerEnabled;
     protected BDABeansXmlScanner bdaBeansXmlScanner;
     protected WebBeansContext webBeansContext;
@@ -132,14 +156,57 @@ public abstract class AbstractMetaDataDiscovery implements BdaScannerService
                     .collect(toMap(Map.Entry::getKey, Map.Entry::getValue));
             extensionJars.clear(); // no more needed
         }
-        archive = new CdiArchive(
+        OpenWebBeansConfiguration configuration = webBeansContext.getOpenWebBeansConfiguration();
+        CdiArchive scannedArchive = new CdiArchive(
                 beanArchiveService, WebBeansUtil.getCurrentClassLoader(),
-                beanDeploymentUrls, userFilter, getAdditionalArchive());
-        finder = new OwbAnnotationFinder(archive);
+                beanDeploymentUrls, userFilter, getAdditionalArchive(),
+                configuration.isParallelScanning() ? new ParallelArchiveScanner(configuration.isMemoryMappedScanning()) : null,
+                configuration.isUseBeanArchiveIndex());
+        if (!loadedFromSnapshot)
+        {
+            // the bean classes got already read from the deployment snapshot otherwise
+            archive = scannedArchive;
+        }
+        finder = new OwbAnnotationFinder(scannedArchive);
+        completeArchive = scannedArchive.getCompleteArchive();
 
         return finder;
     }
 
+    /**
+     * If the bean classes got read from a deployment snapshot the archives did not get scanned.
+     * In this case they get scanned now, the first time the finder gets requested.
+     * Archives which got read from an index or by the parallel scanner get parsed now as well.
+     *
+     * @return the finder over the scanned archives or {@code null} if it got released already
+     */
+    protected OwbAnnotationFinder getOrInitFinder()
+    {
+        if (finder == null && loadedFromSnapshot && archive != null)
+        {
+            initFinder();
+        }
+        if (finder != null && completeArchive != null)
+        {
+            finder = new OwbAnnotationFinder(completeArchive);
+            completeArchive = null;
+        }
+        return finder;
+    }
+
+    /**
+     * Only parses the archives the finder skipped if the class is not known otherwise.
+     */
+    private AnnotationFinder.ClassInfo getClassInfo(String className)
+    {
+        AnnotationFinder.ClassInfo classInfo = finder.getClassInfo(className);
+        if (classInfo == null && completeArchive != null)
+        {
+            classInfo = getOrInitFinder().getClassInfo(className);
+        }
+        return classInfo;
+    }
+
     protected Archive getAdditionalArchive()
     {
         return null;
@@ -174,7 +241,10 @@ public abstract class AbstractMetaDataDiscovery implements BdaScannerService
         try
         {
             configure();
-            initFinder();
+            if (!initFromDeploymentSnapshot())
+            {
+                initFinder();
+            }
         }
         catch (Exception e)
         {
@@ -184,6 +254,108 @@ public abstract class AbstractMetaDataDiscovery implements BdaScannerService
 
     protected abstract void configure();
 
+    /**
+     * Reads the bean classes per bean archive from the configured deployment snapshot
+     * instead of scanning the archives, as long as the archives did not change.
+     *
+     * @return {@code true} if the snapshot got used
+     * @see OpenWebBeansConfiguration#DEPLOYMENT_SNAPSHOT
+     */
+    protected boolean initFromDeploymentSnapshot()
+    {
+        String snapshotLocation = webBeansContext().getOpenWebBeansConfiguration().getDeploymentSnapshot();
+        if (snapshotLocation == null || snapshotLocation.isEmpty() || finder != null)
+        {
+            return false;
+        }
+
+        deploymentSnapshot = Paths.get(snapshotLocation);
+        deploymentChecksum = DeploymentSnapshot.checksum(getBeanDeploymentUrls().values(), getScanConfiguration());
+
+        DeploymentSnapshot snapshot;
+        try
+        {
+            snapshot = DeploymentSnapshot.read(deploymentSnapshot);
+        }
+        catch (IOException e)
+        {
+            logger.log(Level.WARNING, "Can't read deployment snapshot " + deploymentSnapshot + ", scanning the bean archives", e);
+            return false;
+        }
+        if (snapshot == null || snapshot.getChecksum() != deploymentChecksum)
+        {
+            logger.info("Deployment snapshot " + deploymentSnapshot + " is missing or outdated, scanning the bean archives");
+            return false;
+        }
+
+        if (beanArchiveService == null)
+        {
+            beanArchiveService = webBeansContext().getBeanArchiveService();
+        }
+        archive = new CdiArchive(beanArchiveService, WebBeansUtil.getCurrentClassLoader(), Collections.emptyMap(), null, null);
+        for (Map.Entry<String, DeploymentSnapshot.Archive> entry : snapshot.getArchives().entrySet())
+        {
+            URL url = entry.getValue().getUrl();
+            archive.classesByUrl().put(entry.getKey(), new CdiArchive.FoundClasses(
+                    url, entry.getValue().getClassNames(), beanArchiveService.getBeanArchiveInformation(url)));
+        }
+        loadedFromSnapshot = true;
+
+        logger.info("Using deployment snapshot " + deploymentSnapshot);
+        return true;
+    }
+
+    /**
+     * Everything besides the content of the archives which influences the bean classes we find.
+     * The user Filter can only be taken into account by its type.
+     */
+    protected String getScanConfiguration()
+    {
+        OpenWebBeansConfiguration configuration = webBeansContext().getOpenWebBeansConfiguration();
+        StringBuilder builder = new StringBuilder();
+        for (String key : new String[]{
+            OpenWebBeansConfiguration.SCAN_EXCLUSION_PATHS, OpenWebBeansConfiguration.SCAN_ONLY_BEANS_XML_JARS,
+            OpenWebBeansConfiguration.SCAN_EXTENSION_JARS, OpenWebBeansConfiguration.DEFAULT_BEAN_DISCOVERY_MODE,
+            OpenWebBeansConfiguration.USE_BDA_BEANSXML_SCANNER, OpenWebBeansConfiguration.USE_BEAN_ARCHIVE_INDEX,
+            "org.apache.webbeans.spi.deployer.skipNoClassDefFoundTriggers"})
+        {
+            builder.append(key).append('=').append(configuration.getProperty(key)).append('\n');
+        }
+
+        Filter userFilter = webBeansContext().getService(Filter.class);
+        builder.append(Filter.class.getName()).append('=')
+                .append(userFilter == null ? null : userFilter.getClass().getName()).append('\n');
+
+        Archive additionalArchive = getAdditionalArchive();
+        if (additionalArchive != null)
+        {
+            for (Archive.Entry entry : additionalArchive)
+            {
+                builder.append(entry.getName()).append('\n');
+            }
+        }
+        return builder.toString();
+    }
+
+    private void writeDeploymentSnapshot(Map<String, List<String>> classNamesPerUrl)
+    {
+        Map<String, DeploymentSnapshot.Archive> archives = new HashMap<>();
+        for (Map.Entry<String, CdiArchive.FoundClasses> entry : archive.classesByUrl().entrySet())
+        {
+            archives.put(entry.getKey(), new DeploymentSnapshot.Archive(
+                    entry.getValue().getUrl(), classNamesPerUrl.get(entry.getKey())));
+        }
+
+        try
+        {
+            new DeploymentSnapshot(deploymentChecksum, archives).write(deploymentSnapshot);
+        }
+        catch (IOException e)
+        {
+            logger.log(Level.WARNING, "Can't write deployment snapshot " + deploymentSnapshot, e);
+        }
+    }
+
     /**
      * Since CDI-1.1 this is actually more a 'findBdaBases' as it also
      * picks up jars without marker file.
@@ -374,6 +546,7 @@ public abstract class AbstractMetaDataDiscovery implements BdaScannerService
     public void release()
     {
         finder = null;
+        completeArchive = null;
         archive = null;
         loader = null;
         annotationCache.clear();
@@ -469,61 +642,202 @@ public abstract class AbstractMetaDataDiscovery implements BdaScannerService
             boolean dontSkipNCDFT = !(webBeansContext != null &&
                     webBeansContext.getOpenWebBeansConfiguration().isSkipNoClassDefFoundErrorTriggers());
 
-            for (CdiArchive.FoundClasses foundClasses : archive.classesByUrl().values())
+            // the snapshot only contains the classes we kept, they don't need to get filtered again
+            Map<String, List<String>> snapshotClassNames = deploymentSnapshot != null && !loadedFromSnapshot ? new HashMap<>() : null;
+
+            ForkJoinPool classLoadingPool = newClassLoadingPool(loader);
+            try
             {
-                Set<Class<?>> classSet = new HashSet<>();
-                boolean scanModeAnnotated = BeanDiscoveryMode.ANNOTATED == foundClasses.getBeanArchiveInfo().getBeanDiscoveryMode();
-                for (String className : foundClasses.getClassNames())
+                for (Map.Entry<String, CdiArchive.FoundClasses> foundClassesEntry : archive.classesByUrl().entrySet())
                 {
-                    try
-                    {
-                        if (scanModeAnnotated)
-                        {
-                            // in this case we need to find out whether we should keep this class in the Archive
-                            AnnotationFinder.ClassInfo classInfo = finder.getClassInfo(className);
-                            if (classInfo == null || !isBeanAnnotatedClass(classInfo))
-                            {
-                                continue;
-                            }
-                        }
+                    CdiArchive.FoundClasses foundClasses = foundClassesEntry.getValue();
+                    List<String> classNames = getCandidateClassNames(foundClasses);
 
-                        Class<?> clazz = ClassUtil.getClassFromName(className, loader, dontSkipNCDFT);
-                        if (clazz != null)
-                        {
-                            if (dontSkipNCDFT)
-                            {
-                                // try to provoke a NoClassDefFoundError exception which is thrown
-                                // if some dependencies of the class are missing
-                                clazz.getDeclaredFields();
-                            }
+                    Class<?>[] classes = classLoadingPool != null
+                            ? loadClassesParallel(classLoadingPool, classNames, loader, dontSkipNCDFT)
+                            : loadClasses(classNames, loader, dontSkipNCDFT);
 
-                            // we can add this class cause it has been loaded completely
-                            classSet.add(clazz);
-                        }
-                    }
-                    catch (NoClassDefFoundError e)
+                    // merge in the order of the class names, so the result does not depend on the thread scheduling
+                    Set<Class<?>> classSet = new HashSet<>();
+                    List<String> keptClassNames = snapshotClassNames != null ? new ArrayList<>() : null;
+                    for (int i = 0; i < classes.length; i++)
                     {
-                        if (isAnonymous(className))
+                        if (classes[i] != null)
                         {
-                            if (logger.isLoggable(Level.FINE))
+                            classSet.add(classes[i]);
+                            if (keptClassNames != null)
                             {
-                                logger.log(Level.FINE, OWBLogConst.WARN_0018, new Object[]{className, e.toString()});
+                                keptClassNames.add(classNames.get(i));
                             }
                         }
-                        else if (logger.isLoggable(Level.WARNING))
-                        {
-                            logger.log(Level.WARNING, OWBLogConst.WARN_0018, new Object[]{className, e.toString()});
-                        }
+                    }
+
+                    beanClassesPerBda.put(foundClasses.getBeanArchiveInfo(), classSet);
+                    if (snapshotClassNames != null)
+                    {
+                        snapshotClassNames.put(foundClassesEntry.getKey(), keptClassNames);
                     }
                 }
+            }
+            finally
+            {
+                if (classLoadingPool != null)
+                {
+                    classLoadingPool.shutdown();
+                }
+            }
 
-                beanClassesPerBda.put(foundClasses.getBeanArchiveInfo(), classSet);
+            if (snapshotClassNames != null)
+            {
+                writeDeploymentSnapshot(snapshotClassNames);
             }
 
         }
         return beanClassesPerBda;
     }
 
+    /**
+     * @return the names of the classes of the archive which need to get loaded,
+     *         for bean-discovery-mode 'annotated' only the ones with a bean defining annotation
+     */
+    private List<String> getCandidateClassNames(CdiArchive.FoundClasses foundClasses)
+    {
+        boolean scanModeAnnotated = !loadedFromSnapshot &&
+                BeanDiscoveryMode.ANNOTATED == foundClasses.getBeanArchiveInfo().getBeanDiscoveryMode();
+        if (!scanModeAnnotated)
+        {
+            return new ArrayList<>(foundClasses.getClassNames());
+        }
+
+        // in this case we need to find out whether we should keep this class in the Archive
+        List<String> classNames = new ArrayList<>();
+        for (String className : foundClasses.getClassNames())
+        {
+            if (foundClasses.getIndexedAnnotations() != null)
+            {
+                List<String> annotationNames = foundClasses.getIndexedAnnotations().get(className);
+                if (annotationNames != null && isBeanAnnotatedClass(annotationNames))
+                {
+                    classNames.add(className);
+                }
+            }
+            else
+            {
+                AnnotationFinder.ClassInfo classInfo = getClassInfo(className);
+                if (classInfo != null && isBeanAnnotatedClass(classInfo))
+                {
+                    classNames.add(className);
+                }
+            }
+        }
+        return classNames;
+    }
+
+    /**
+     * Creates the pool for loading the bean classes in parallel if
+     * {@link OpenWebBeansConfiguration#PARALLEL_CLASS_LOADING} is enabled.
+     * ClassLoaders which are not parallel capable would serialize the loading anyway,
+     * so the classes get loaded sequentially for them.
+     *
+     * @return the pool or {@code null} if the classes should get loaded sequentially
+     */
+    private ForkJoinPool newClassLoadingPool(ClassLoader loader)
+    {
+        if (webBeansContext == null || !webBeansContext.getOpenWebBeansConfiguration().isParallelClassLoading())
+        {
+            return null;
+        }
+        if (loader == null || !loader.isRegisteredAsParallelCapable())
+        {
+            logger.fine("ClassLoader " + loader + " is not parallel capable, loading the bean classes sequentially");
+            return null;
+        }
+
+        return ForkJoinPoolUtil.newForkJoinPool("OpenWebBeans-classloading-", loader);
+    }
+
+    private Class<?>[] loadClasses(List<String> classNames, ClassLoader loader, boolean dontSkipNCDFT)
+    {
+        Class<?>[] classes = new Class<?>[classNames.size()];
+        for (int i = 0; i < classes.length; i++)
+        {
+            classes[i] = loadClass(classNames.get(i), loader, dontSkipNCDFT, dontSkipNCDFT);
+        }
+        return classes;
+    }
+
+    /**
+     * Loads the classes in parallel without initializing them, running static initializers
+     * concurrently could deadlock if they depend on each other. Like {@link #loadClasses(List, ClassLoader, boolean)}
+     * they get initialized afterwards if {@code dontSkipNCDFT} is set, one after the other in the order of the class names.
+     */
+    private Class<?>[] loadClassesParallel(ForkJoinPool pool, List<String> classNames, ClassLoader loader, boolean dontSkipNCDFT)
+    {
+        Class<?>[] classes = new Class<?>[classNames.size()];
+        try
+        {
+            pool.submit(() -> IntStream.range(0, classes.length).parallel()
+                    .forEach(i -> classes[i] = loadClass(classNames.get(i), loader, false, dontSkipNCDFT)))
+                .get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new WebBeansDeploymentException(e);
+        }
+        catch (ExecutionException e)
+        {
+            throw ExceptionUtil.throwAsRuntimeException(e.getCause());
+        }
+
+        if (dontSkipNCDFT)
+        {
+            for (int i = 0; i < classes.length; i++)
+            {
+                if (classes[i] != null)
+                {
+                    classes[i] = loadClass(classNames.get(i), loader, true, false);
+                }
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * @return the completely loaded class or {@code null} if it or one of its dependencies is missing
+     */
+    private Class<?> loadClass(String className, ClassLoader loader, boolean initialize, boolean dontSkipNCDFT)
+    {
+        try
+        {
+            Class<?> clazz = ClassUtil.getClassFromName(className, loader, initialize);
+            if (clazz != null && dontSkipNCDFT)
+            {
+                // try to provoke a NoClassDefFoundError exception which is thrown
+                // if some dependencies of the class are missing
+                clazz.getDeclaredFields();
+            }
+
+            // we can add this class cause it has been loaded completely
+            return clazz;
+        }
+        catch (NoClassDefFoundError e)
+        {
+            if (isAnonymous(className))
+            {
+                if (logger.isLoggable(Level.FINE))
+                {
+                    logger.log(Level.FINE, OWBLogConst.WARN_0018, new Object[]{className, e.toString()});
+                }
+            }
+            else if (logger.isLoggable(Level.WARNING))
+            {
+                logger.log(Level.WARNING, OWBLogConst.WARN_0018, new Object[]{className, e.toString()});
+            }
+            return null;
+        }
+    }
+
     private boolean isAnonymous(final String className)
     {
         final int start = className.lastIndexOf('$');
@@ -577,10 +891,34 @@ public abstract class AbstractMetaDataDiscovery implements BdaScannerService
         return false;
     }
 
+    /**
+     * Same as {@link #isBeanAnnotatedClass(AnnotationFinder.ClassInfo)} for classes of bean archives
+     * which got read from a {@link org.apache.webbeans.corespi.scanner.xbean.BeanArchiveIndex}.
+     *
+     * @param annotationNames the class annotations
+     * @return true if this class should be kept and further get picked up as CDI Bean
+     */
+    protected boolean isBeanAnnotatedClass(Collection<String> annotationNames)
+    {
+        for (String annotationName : annotationNames)
+        {
+            if (Interceptor.class.getName().equals(annotationName) ||
+                    Decorator.class.getName().equals(annotationName) ||
+                    isBeanAnnotation(annotationName))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
     protected boolean isBeanAnnotation(AnnotationFinder.AnnotationInfo annotationInfo)
     {
-        String annotationName = annotationInfo.getName();
+        return isBeanAnnotation(annotationInfo.getName());
+    }
 
+    protected boolean isBeanAnnotation(String annotationName)
+    {
         Boolean isBeanAnnotation = annotationCache.get(annotationName);
         if (isBeanAnnotation != null)
         {
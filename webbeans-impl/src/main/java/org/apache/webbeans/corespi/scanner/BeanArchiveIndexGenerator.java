@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.corespi.scanner;
+
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.config.WebBeansFinder;
+import org.apache.webbeans.corespi.DefaultSingletonService;
+import org.apache.webbeans.corespi.scanner.xbean.BeanArchiveIndex;
+import org.apache.webbeans.logger.WebBeansLoggerFacade;
+import org.apache.webbeans.spi.BeanArchiveService.BeanDiscoveryMode;
+import org.apache.webbeans.spi.SingletonService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * Writes a {@link BeanArchiveIndex} into compiled bean archive directories.
+ *
+ * <p>The bean-discovery-mode gets evaluated from the {@code META-INF/beans.xml} of the archive,
+ * an archive without beans.xml counts as implicit bean archive. The classes of an archive with
+ * an index do not get scanned at runtime anymore, so the index has to get regenerated whenever
+ * the archive changes.</p>
+ *
+ * <p>Usage, e.g. from the exec-maven-plugin or a Gradle JavaExec task after the classes got compiled:
+ * {@code java -cp <application classpath> org.apache.webbeans.corespi.scanner.BeanArchiveIndexGenerator target/classes}</p>
+ */
+public class BeanArchiveIndexGenerator
+{
+    private static final Logger logger = WebBeansLoggerFacade.getLogger(BeanArchiveIndexGenerator.class);
+
+    private final Properties configuration = new Properties();
+
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length == 0)
+        {
+            throw new IllegalArgumentException("Usage: " + BeanArchiveIndexGenerator.class.getName() + " <classes directory>...");
+        }
+        BeanArchiveIndexGenerator generator = new BeanArchiveIndexGenerator();
+        for (String directory : args)
+        {
+            BeanArchiveIndex index = generator.generate(Paths.get(directory));
+            logger.info("Indexed " + index.getAnnotationsPerClass().size() + " classes of " + directory);
+        }
+    }
+
+    /**
+     * Additional container configuration for the build, e.g. the default bean-discovery-mode.
+     */
+    public BeanArchiveIndexGenerator withConfiguration(String key, String value)
+    {
+        configuration.setProperty(key, value);
+        return this;
+    }
+
+    /**
+     * Index the given classes directory and write the index into it.
+     */
+    public BeanArchiveIndex generate(Path classesDirectory) throws IOException
+    {
+        URL archiveUrl = classesDirectory.toUri().toURL();
+        Path beansXml = classesDirectory.resolve(AbstractMetaDataDiscovery.META_INF_BEANS_XML);
+
+        BeanArchiveIndex index;
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{ archiveUrl }, Thread.currentThread().getContextClassLoader()))
+        {
+            BeanDiscoveryMode discoveryMode = discoveryMode(loader, Files.exists(beansXml) ? beansXml.toUri().toURL() : archiveUrl);
+            index = BeanArchiveIndex.create(loader, archiveUrl, discoveryMode);
+        }
+
+        Path indexFile = classesDirectory.resolve(BeanArchiveIndex.INDEX_LOCATION);
+        Files.createDirectories(indexFile.getParent());
+        try (OutputStream stream = Files.newOutputStream(indexFile))
+        {
+            index.write(stream);
+        }
+        return index;
+    }
+
+    private BeanDiscoveryMode discoveryMode(ClassLoader loader, URL beanArchiveUrl)
+    {
+        SingletonService<WebBeansContext> singletonService = WebBeansFinder.getSingletonService();
+        if (!DefaultSingletonService.class.isInstance(singletonService))
+        {
+            throw new IllegalStateException("BeanArchiveIndexGenerator needs the " + DefaultSingletonService.class.getName());
+        }
+
+        // the BeanArchiveService looks up the default bean-discovery-mode via the current WebBeansContext
+        ClassLoader oldLoader = Thread.currentThread().getContextClassLoader();
+        WebBeansContext webBeansContext = new WebBeansContext(Collections.emptyMap(), configuration);
+        DefaultSingletonService.class.cast(singletonService).register(loader, webBeansContext);
+        Thread.currentThread().setContextClassLoader(loader);
+        try
+        {
+            return webBeansContext.getBeanArchiveService().getBeanArchiveInformation(beanArchiveUrl).getBeanDiscoveryMode();
+        }
+        finally
+        {
+            Thread.currentThread().setContextClassLoader(oldLoader);
+            WebBeansFinder.clearInstances(loader);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.corespi.scanner;
+
+import org.apache.webbeans.corespi.scanner.xbean.CdiArchive;
+import org.apache.webbeans.hash.XxHash64;
+import org.apache.xbean.finder.util.Files;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * The bean classes found per bean archive during a scan together with a checksum
+ * of the scanned archives. Used to skip the scanning on restarts of unchanged deployments.
+ *
+ * @see org.apache.webbeans.config.OpenWebBeansConfiguration#DEPLOYMENT_SNAPSHOT
+ */
+public final class DeploymentSnapshot
+{
+    private static final int MAGIC = 0x4F574253; // OWBS
+    private static final int VERSION = 1;
+
+    private final long checksum;
+
+    /**
+     * key: URL#toExternalForm of the scanned classpath entry, see {@link CdiArchive#classesByUrl()}
+     * value: the archive and the bean class names found in it
+     */
+    private final Map<String, Archive> archives;
+
+    public DeploymentSnapshot(long checksum, Map<String, Archive> archives)
+    {
+        this.checksum = checksum;
+        this.archives = archives;
+    }
+
+    public long getChecksum()
+    {
+        return checksum;
+    }
+
+    public Map<String, Archive> getArchives()
+    {
+        return archives;
+    }
+
+    /**
+     * Computes a checksum over the given archives.
+     * For directories all contained files are taken into account, for jars the jar file itself.
+     * Only names, sizes and modification dates are used, the content is not read.
+     *
+     * @param scanConfiguration the configuration which filters the found classes
+     */
+    public static long checksum(Collection<URL> urls, String scanConfiguration)
+    {
+        StringBuilder builder = new StringBuilder(scanConfiguration).append('\n');
+        Collection<String> sortedUrls = new TreeSet<>();
+        for (URL url : urls)
+        {
+            sortedUrls.add(url.toExternalForm());
+        }
+        for (String url : sortedUrls)
+        {
+            builder.append(url).append('\n');
+
+            File file = toFile(url);
+            if (file == null)
+            {
+                continue;
+            }
+            if (file.isDirectory())
+            {
+                Path root = file.toPath();
+                try (Stream<Path> files = java.nio.file.Files.walk(root))
+                {
+                    files.filter(java.nio.file.Files::isRegularFile)
+                            .map(Path::toFile)
+                            .sorted()
+                            .forEach(f -> append(builder, root.relativize(f.toPath()).toString(), f));
+                }
+                catch (IOException e)
+                {
+                    // changed while walking it, the next boot will not match anyway
+                    builder.append(e.getMessage()).append('\n');
+                }
+            }
+            else
+            {
+                append(builder, file.getName(), file);
+            }
+        }
+        return XxHash64.apply(builder.toString());
+    }
+
+    private static void append(StringBuilder builder, String name, File file)
+    {
+        builder.append(name).append(':').append(file.length()).append(':').append(file.lastModified()).append('\n');
+    }
+
+    private static File toFile(String url)
+    {
+        try
+        {
+            return Files.toFile(new URL(url));
+        }
+        catch (IOException | RuntimeException e)
+        {
+            // not a file based url, only the url itself is part of the checksum
+            return null;
+        }
+    }
+
+    /**
+     * @return the snapshot stored in the given file or {@code null} if there is none or it can't be read
+     */
+    public static DeploymentSnapshot read(Path path) throws IOException
+    {
+        if (!java.nio.file.Files.isRegularFile(path))
+        {
+            return null;
+        }
+
+        try (InputStream stream = java.nio.file.Files.newInputStream(path);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream)))
+        {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION)
+            {
+                return null;
+            }
+
+            long checksum = in.readLong();
+            int archiveCount = in.readInt();
+            Map<String, Archive> archives = new LinkedHashMap<>(archiveCount);
+            for (int i = 0; i < archiveCount; i++)
+            {
+                String key = in.readUTF();
+                URL url = new URL(in.readUTF());
+                int classCount = in.readInt();
+                List<String> classNames = new ArrayList<>(classCount);
+                for (int c = 0; c < classCount; c++)
+                {
+                    classNames.add(in.readUTF());
+                }
+                archives.put(key, new Archive(url, classNames));
+            }
+            return new DeploymentSnapshot(checksum, archives);
+        }
+    }
+
+    /**
+     * Writes the snapshot to a temporary file first to not leave a broken snapshot behind.
+     */
+    public void write(Path path) throws IOException
+    {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null)
+        {
+            java.nio.file.Files.createDirectories(parent);
+        }
+
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (OutputStream stream = java.nio.file.Files.newOutputStream(tmp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream)))
+        {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(checksum);
+            out.writeInt(archives.size());
+            for (Map.Entry<String, Archive> archive : archives.entrySet())
+            {
+                out.writeUTF(archive.getKey());
+                out.writeUTF(archive.getValue().getUrl().toExternalForm());
+                out.writeInt(archive.getValue().getClassNames().size());
+                for (String className : archive.getValue().getClassNames())
+                {
+                    out.writeUTF(className);
+                }
+            }
+        }
+        java.nio.file.Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public static final class Archive
+    {
+        private final URL url;
+        private final List<String> classNames;
+
+        public Archive(URL url, List<String> classNames)
+        {
+            this.url = url;
+            this.classNames = Collections.unmodifiableList(classNames);
+        }
+
+        public URL getUrl()
+        {
+            return url;
+        }
+
+        public List<String> getClassNames()
+        {
+            return classNames;
+        }
+    }
+}
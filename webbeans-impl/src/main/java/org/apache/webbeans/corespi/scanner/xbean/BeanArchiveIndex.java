@@ -0,0 +1,328 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.corespi.scanner.xbean;
+
+import org.apache.webbeans.hash.XxHash64;
+import org.apache.webbeans.spi.BeanArchiveService.BeanDiscoveryMode;
+import org.apache.xbean.finder.AnnotationFinder;
+import org.apache.xbean.finder.archive.ClasspathArchive;
+import org.apache.xbean.finder.util.Files;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+/**
+ * Build-time index of a single bean archive.
+ * It lists all classes of the archive together with the names of their annotations and the
+ * bean-discovery-mode the archive had when the index got generated.
+ * If an archive contains an index at {@link #INDEX_LOCATION} then {@link CdiArchive} uses it
+ * instead of reading the bytecode of the archive.
+ *
+ * <p>The index also stores a {@link #checksum(URL) checksum} over the class files of the archive.
+ * If the classes changed after the index got generated it doesn't match anymore and the archive gets scanned.</p>
+ *
+ * <p>The format is a simple UTF-8 text file:</p>
+ * <pre>
+ * # comment
+ * discovery-mode=ANNOTATED
+ * checksum=5f3a1c0e9b7d2a48
+ * org.acme.MyBean=jakarta.enterprise.context.ApplicationScoped,org.acme.MyQualifier
+ * org.acme.MyHelper=
+ * </pre>
+ */
+public final class BeanArchiveIndex
+{
+    public static final String INDEX_LOCATION = "META-INF/openwebbeans/bean-archive.idx";
+
+    private static final String DISCOVERY_MODE = "discovery-mode";
+    private static final String CHECKSUM = "checksum";
+
+    private final BeanDiscoveryMode discoveryMode;
+
+    /**
+     * See {@link #checksum(URL)}, {@code null} for an index without one.
+     */
+    private final Long checksum;
+
+    /**
+     * key: class name
+     * value: names of the class annotations
+     */
+    private final Map<String, List<String>> annotationsPerClass;
+
+    public BeanArchiveIndex(BeanDiscoveryMode discoveryMode, Long checksum, Map<String, List<String>> annotationsPerClass)
+    {
+        this.discoveryMode = discoveryMode;
+        this.checksum = checksum;
+        this.annotationsPerClass = annotationsPerClass;
+    }
+
+    public BeanDiscoveryMode getDiscoveryMode()
+    {
+        return discoveryMode;
+    }
+
+    public Long getChecksum()
+    {
+        return checksum;
+    }
+
+    public Map<String, List<String>> getAnnotationsPerClass()
+    {
+        return annotationsPerClass;
+    }
+
+    /**
+     * Reads the bytecode of the given archive.
+     */
+    public static BeanArchiveIndex create(ClassLoader loader, URL archiveUrl, BeanDiscoveryMode discoveryMode)
+    {
+        OwbAnnotationFinder finder = new OwbAnnotationFinder(ClasspathArchive.archive(loader, archiveUrl));
+        Map<String, List<String>> annotationsPerClass = new TreeMap<>();
+        for (AnnotationFinder.ClassInfo classInfo : finder.getClassInfos())
+        {
+            List<String> annotations = new ArrayList<>();
+            for (AnnotationFinder.AnnotationInfo annotationInfo : classInfo.getAnnotations())
+            {
+                annotations.add(annotationInfo.getName());
+            }
+            annotationsPerClass.put(classInfo.getName(), annotations);
+        }
+        return new BeanArchiveIndex(discoveryMode, checksum(archiveUrl), annotationsPerClass);
+    }
+
+    /**
+     * Computes a checksum over the names, sizes and CRC-32s of all class files of the given archive.
+     * It is the same for a classes directory and the jar it got packaged into.
+     * For jars the CRC-32s are taken from the zip directory, so no class file gets read.
+     *
+     * @return the checksum or {@code null} if the archive is not file based
+     */
+    public static Long checksum(URL archiveUrl)
+    {
+        File file = toFile(archiveUrl);
+        if (file == null)
+        {
+            return null;
+        }
+
+        // sorted by name, the order of the files in a directory or jar doesn't matter
+        Map<String, String> classFiles = new TreeMap<>();
+        try
+        {
+            if (file.isDirectory())
+            {
+                Path root = file.toPath();
+                try (Stream<Path> files = java.nio.file.Files.walk(root))
+                {
+                    for (Path path : (Iterable<Path>) files::iterator)
+                    {
+                        String name = root.relativize(path).toString().replace(File.separatorChar, '/');
+                        if (name.endsWith(".class") && java.nio.file.Files.isRegularFile(path))
+                        {
+                            byte[] content = java.nio.file.Files.readAllBytes(path);
+                            CRC32 crc = new CRC32();
+                            crc.update(content);
+                            classFiles.put(name, content.length + ":" + crc.getValue());
+                        }
+                    }
+                }
+            }
+            else if (file.isFile())
+            {
+                try (JarFile jar = new JarFile(file))
+                {
+                    Enumeration<? extends ZipEntry> entries = jar.entries();
+                    while (entries.hasMoreElements())
+                    {
+                        ZipEntry entry = entries.nextElement();
+                        if (!entry.isDirectory() && entry.getName().endsWith(".class"))
+                        {
+                            classFiles.put(entry.getName(), entry.getSize() + ":" + entry.getCrc());
+                        }
+                    }
+                }
+            }
+            else
+            {
+                return null;
+            }
+        }
+        catch (IOException e)
+        {
+            // changed while reading it, no index can match then
+            return null;
+        }
+
+        StringBuilder builder = new StringBuilder();
+        classFiles.forEach((name, content) -> builder.append(name).append(':').append(content).append('\n'));
+        return XxHash64.apply(builder.toString());
+    }
+
+    private static File toFile(URL archiveUrl)
+    {
+        try
+        {
+            return Files.toFile(archiveUrl);
+        }
+        catch (RuntimeException e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * @return the index contained in the given archive or {@code null} if it has none or is not file based
+     */
+    public static BeanArchiveIndex find(URL archiveUrl) throws IOException
+    {
+        File file = toFile(archiveUrl);
+        if (file == null)
+        {
+            return null;
+        }
+
+        if (file.isDirectory())
+        {
+            File index = new File(file, INDEX_LOCATION);
+            if (!index.isFile())
+            {
+                return null;
+            }
+            try (InputStream stream = java.nio.file.Files.newInputStream(index.toPath()))
+            {
+                return read(stream);
+            }
+        }
+        if (file.isFile())
+        {
+            try (JarFile jar = new JarFile(file))
+            {
+                ZipEntry index = jar.getEntry(INDEX_LOCATION);
+                if (index == null)
+                {
+                    return null;
+                }
+                try (InputStream stream = jar.getInputStream(index))
+                {
+                    return read(stream);
+                }
+            }
+        }
+        return null;
+    }
+
+    public static BeanArchiveIndex read(InputStream stream) throws IOException
+    {
+        BeanDiscoveryMode discoveryMode = null;
+        Long checksum = null;
+        Map<String, List<String>> annotationsPerClass = new LinkedHashMap<>();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null)
+        {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#"))
+            {
+                continue;
+            }
+
+            int separator = line.indexOf('=');
+            if (separator <= 0)
+            {
+                throw new IOException("Invalid bean archive index line: '" + line + "'");
+            }
+            String key = line.substring(0, separator);
+            String value = line.substring(separator + 1);
+            if (DISCOVERY_MODE.equals(key))
+            {
+                discoveryMode = BeanDiscoveryMode.valueOf(value);
+            }
+            else if (CHECKSUM.equals(key))
+            {
+                checksum = Long.parseUnsignedLong(value, 16);
+            }
+            else
+            {
+                annotationsPerClass.put(key, value.isEmpty() ? Collections.emptyList() : splitAnnotations(value));
+            }
+        }
+
+        if (discoveryMode == null)
+        {
+            throw new IOException("Bean archive index without " + DISCOVERY_MODE);
+        }
+        return new BeanArchiveIndex(discoveryMode, checksum, annotationsPerClass);
+    }
+
+    private static List<String> splitAnnotations(String value)
+    {
+        List<String> annotations = new ArrayList<>();
+        int start = 0;
+        int end;
+        while ((end = value.indexOf(',', start)) >= 0)
+        {
+            annotations.add(value.substring(start, end));
+            start = end + 1;
+        }
+        annotations.add(value.substring(start));
+        return annotations;
+    }
+
+    public void write(OutputStream stream) throws IOException
+    {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+        writer.write("# OpenWebBeans bean archive index, class=annotations\n");
+        writer.write(DISCOVERY_MODE + '=' + discoveryMode.name() + '\n');
+        if (checksum != null)
+        {
+            writer.write(CHECKSUM + '=' + Long.toHexString(checksum) + '\n');
+        }
+        for (Map.Entry<String, List<String>> entry : annotationsPerClass.entrySet())
+        {
+            writer.write(entry.getKey());
+            writer.write('=');
+            writer.write(String.join(",", entry.getValue()));
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+}
@@ -18,23 +18,30 @@
  */
 package org.apache.webbeans.corespi.scanner.xbean;
 
+import org.apache.webbeans.logger.WebBeansLoggerFacade;
 import org.apache.webbeans.spi.BeanArchiveService;
 import org.apache.webbeans.spi.BeanArchiveService.BeanArchiveInformation;
+import org.apache.webbeans.spi.BeanArchiveService.BeanDiscoveryMode;
 import org.apache.xbean.finder.archive.Archive;
 import org.apache.xbean.finder.archive.ClasspathArchive;
 import org.apache.xbean.finder.archive.CompositeArchive;
 import org.apache.xbean.finder.archive.FilteredArchive;
 import org.apache.xbean.finder.filter.Filter;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * this delegate pattern is interesting
@@ -44,6 +51,8 @@ import java.util.Map;
  */
 public class CdiArchive implements Archive
 {
+    private static final Logger logger = WebBeansLoggerFacade.getLogger(CdiArchive.class);
+
     /**
      * key: URL#toExternalForm of the scanned classpath entry
      * value: small data container with URL and class names
@@ -52,10 +61,36 @@ public class CdiArchive implements Archive
 
     private final Archive delegate;
 
+    /**
+     * The archives which did not get parsed by the AnnotationFinder as their classes
+     * got read from a {@link BeanArchiveIndex} or by the {@link ParallelArchiveScanner}.
+     */
+    private final Map<URL, BeanArchiveInformation> skippedArchives = new LinkedHashMap<>();
+    private final Collection<Archive> archives = new ArrayList<>();
+    private final ClassLoader loader;
+    private final Filter userFilter;
+
     public CdiArchive(BeanArchiveService beanArchiveService, ClassLoader loader, Map<String, URL> urls,
                       Filter userFilter, Archive customArchive)
     {
-        Collection<Archive> archives = new ArrayList<>();
+        this(beanArchiveService, loader, urls, userFilter, customArchive, null, true);
+    }
+
+    /**
+     * @param parallelScanner if not {@code null} all file based archives without a {@link BeanArchiveIndex}
+     *                        get read in parallel by it instead of getting parsed by the AnnotationFinder
+     * @param useIndex whether a {@link BeanArchiveIndex} contained in an archive gets used
+     */
+    public CdiArchive(BeanArchiveService beanArchiveService, ClassLoader loader, Map<String, URL> urls,
+                      Filter userFilter, Archive customArchive, ParallelArchiveScanner parallelScanner,
+                      boolean useIndex)
+    {
+        Map<URL, Map<String, List<String>>> scannedAnnotations = parallelScanner != null
+                ? scanInParallel(parallelScanner, beanArchiveService, urls.values(), useIndex)
+                : Collections.emptyMap();
+
+        this.loader = loader;
+        this.userFilter = userFilter;
         boolean customAdded = false;
         for (URL url : urls.values())
         {
@@ -63,6 +98,26 @@ public class CdiArchive implements Archive
 
             BeanArchiveInformation beanArchiveInfo = beanArchiveService.getBeanArchiveInformation(url);
             final boolean custom = "openwebbeans".equals(url.getProtocol());
+
+            Map<String, List<String>> annotationsPerClass = scannedAnnotations.get(url);
+            if (annotationsPerClass == null && !custom && parallelScanner == null && useIndex)
+            {
+                BeanArchiveIndex index = findIndex(url, beanArchiveInfo);
+                annotationsPerClass = index != null ? index.getAnnotationsPerClass() : null;
+            }
+            if (annotationsPerClass != null)
+            {
+                // no need to read the bytecode, the index or the parallel scan already know the classes and their annotations
+                BeanArchiveFilter filter = new BeanArchiveFilter(beanArchiveInfo, urlClasses, userFilter);
+                for (String className : annotationsPerClass.keySet())
+                {
+                    filter.accept(className);
+                }
+                classesByUrl.put(url.toExternalForm(), new FoundClasses(url, urlClasses, beanArchiveInfo, annotationsPerClass));
+                skippedArchives.put(url, beanArchiveInfo);
+                continue;
+            }
+
             Archive archive = new FilteredArchive(
                     custom ? customArchive : ClasspathArchive.archive(loader, url),
                     new BeanArchiveFilter(beanArchiveInfo, urlClasses, userFilter));
@@ -81,11 +136,105 @@ public class CdiArchive implements Archive
         delegate = new CompositeArchive(archives);
     }
 
+    /**
+     * Reads all file based archives which have no {@link BeanArchiveIndex} with the given scanner.
+     *
+     * @return the annotation names per class of all archives with an index or which got scanned
+     */
+    private static Map<URL, Map<String, List<String>>> scanInParallel(ParallelArchiveScanner parallelScanner,
+                                                                     BeanArchiveService beanArchiveService,
+                                                                     Collection<URL> urls, boolean useIndex)
+    {
+        Map<URL, Map<String, List<String>>> annotationsPerUrl = new HashMap<>();
+        Map<File, BeanDiscoveryMode> files = new LinkedHashMap<>();
+        Map<File, URL> urlsByFile = new HashMap<>();
+        for (URL url : urls)
+        {
+            if ("openwebbeans".equals(url.getProtocol()))
+            {
+                continue;
+            }
+
+            BeanArchiveInformation beanArchiveInfo = beanArchiveService.getBeanArchiveInformation(url);
+            BeanArchiveIndex index = useIndex ? findIndex(url, beanArchiveInfo) : null;
+            if (index != null)
+            {
+                annotationsPerUrl.put(url, index.getAnnotationsPerClass());
+                continue;
+            }
+
+            File file = ParallelArchiveScanner.toScannableFile(url);
+            if (file != null && beanArchiveInfo.getBeanDiscoveryMode() != BeanDiscoveryMode.NONE)
+            {
+                files.put(file, beanArchiveInfo.getBeanDiscoveryMode());
+                urlsByFile.put(file, url);
+            }
+        }
+
+        for (Map.Entry<File, Map<String, List<String>>> scanned : parallelScanner.scan(files).entrySet())
+        {
+            annotationsPerUrl.put(urlsByFile.get(scanned.getKey()), scanned.getValue());
+        }
+        return annotationsPerUrl;
+    }
+
+    private static BeanArchiveIndex findIndex(URL url, BeanArchiveInformation beanArchiveInfo)
+    {
+        BeanArchiveIndex index;
+        try
+        {
+            index = BeanArchiveIndex.find(url);
+        }
+        catch (IOException e)
+        {
+            logger.log(Level.WARNING, "Can't read the bean archive index of " + url + ", scanning it", e);
+            return null;
+        }
+
+        if (index != null && index.getDiscoveryMode() != beanArchiveInfo.getBeanDiscoveryMode())
+        {
+            // e.g. a different default bean-discovery-mode got configured, the index can't be trusted then
+            logger.info("Ignoring the bean archive index of " + url + " as it got generated for bean-discovery-mode "
+                    + index.getDiscoveryMode() + " but the archive uses " + beanArchiveInfo.getBeanDiscoveryMode());
+            return null;
+        }
+        if (index != null && (index.getChecksum() == null || !index.getChecksum().equals(BeanArchiveIndex.checksum(url))))
+        {
+            // the classes changed after the index got generated or it is an index without checksum
+            logger.info("Ignoring the outdated bean archive index of " + url + ", scanning it");
+            return null;
+        }
+        return index;
+    }
+
     public Map<String, FoundClasses> classesByUrl()
     {
         return classesByUrl;
     }
 
+    /**
+     * The AnnotationFinder over this archive has no ClassInfos for the classes of archives
+     * which got read from a {@link BeanArchiveIndex} or by the {@link ParallelArchiveScanner}.
+     *
+     * @return an archive which also contains those archives, {@code null} if this archive is complete already
+     */
+    public Archive getCompleteArchive()
+    {
+        if (skippedArchives.isEmpty())
+        {
+            return null;
+        }
+
+        Collection<Archive> completeArchives = new ArrayList<>(archives);
+        for (Map.Entry<URL, BeanArchiveInformation> skipped : skippedArchives.entrySet())
+        {
+            completeArchives.add(new FilteredArchive(
+                    ClasspathArchive.archive(loader, skipped.getKey()),
+                    new BeanArchiveFilter(skipped.getValue(), new ArrayList<>(), userFilter)));
+        }
+        return new CompositeArchive(completeArchives);
+    }
+
     @Override
     public InputStream getBytecode(String className) throws IOException, ClassNotFoundException
     {
@@ -109,12 +258,20 @@ public class CdiArchive implements Archive
         private URL url;
         private Collection<String> classNames;
         private BeanArchiveInformation beanArchiveInfo;
+        private Map<String, List<String>> indexedAnnotations;
 
         public FoundClasses(URL url, Collection<String> classNames, BeanArchiveInformation beanArchiveInfo)
+        {
+            this(url, classNames, beanArchiveInfo, null);
+        }
+
+        public FoundClasses(URL url, Collection<String> classNames, BeanArchiveInformation beanArchiveInfo,
+                            Map<String, List<String>> indexedAnnotations)
         {
             this.url = url;
             this.classNames = classNames;
             this.beanArchiveInfo = beanArchiveInfo;
+            this.indexedAnnotations = indexedAnnotations;
         }
 
         public URL getUrl()
@@ -131,5 +288,14 @@ public class CdiArchive implements Archive
         {
             return classNames;
         }
+
+        /**
+         * @return the annotation names per class if the archive got read from a {@link BeanArchiveIndex}
+         *         or by the {@link ParallelArchiveScanner}, {@code null} if it got scanned by the AnnotationFinder
+         */
+        public Map<String, List<String>> getIndexedAnnotations()
+        {
+            return indexedAnnotations;
+        }
     }
 }
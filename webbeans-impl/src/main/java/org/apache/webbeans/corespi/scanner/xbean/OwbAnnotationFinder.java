@@ -23,6 +23,7 @@ import org.apache.xbean.finder.archive.Archive;
 import org.apache.xbean.finder.archive.ClassesArchive;
 
 import java.lang.reflect.Field;
+import java.util.Collection;
 import java.util.stream.Stream;
 
 /**
@@ -65,4 +66,9 @@ public class OwbAnnotationFinder extends AnnotationFinder
         return classInfos.get(className);
     }
 
+    public Collection<ClassInfo> getClassInfos()
+    {
+        return classInfos.values();
+    }
+
 }
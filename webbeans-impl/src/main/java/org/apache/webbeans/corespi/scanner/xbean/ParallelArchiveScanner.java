@@ -0,0 +1,419 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.corespi.scanner.xbean;
+
+import org.apache.webbeans.exception.WebBeansDeploymentException;
+import org.apache.webbeans.logger.WebBeansLoggerFacade;
+import org.apache.webbeans.spi.BeanArchiveService.BeanDiscoveryMode;
+import org.apache.webbeans.util.ExceptionUtil;
+import org.apache.webbeans.util.ForkJoinPoolUtil;
+import org.apache.xbean.asm9.AnnotationVisitor;
+import org.apache.xbean.asm9.ClassReader;
+import org.apache.xbean.asm9.ClassVisitor;
+import org.apache.xbean.asm9.Opcodes;
+import org.apache.xbean.asm9.Type;
+import org.apache.xbean.finder.util.Files;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Reads file based bean archives in parallel, one task per archive, as an alternative to
+ * letting the {@link OwbAnnotationFinder} parse all of them one after the other.
+ *
+ * <p>The result has the same shape as a {@link BeanArchiveIndex}: the class names of each archive
+ * together with the names of their class annotations. No {@link org.apache.xbean.finder.AnnotationFinder.ClassInfo}
+ * gets built for those archives.</p>
+ *
+ * <ul>
+ *     <li>bean-discovery-mode 'all' only needs the class names, the bytecode doesn't get read at all</li>
+ *     <li>bean-discovery-mode 'annotated' reads the class annotations only and drops classes without
+ *     any annotation right away, as they can't have a bean defining annotation</li>
+ * </ul>
+ *
+ * <p>Jars can optionally get mapped into memory and get read in one sequential pass
+ * instead of looking up each entry via the central directory. The mapping gets released
+ * right after the jar got read, so the file doesn't stay locked until the buffer gets garbage collected.</p>
+ */
+public class ParallelArchiveScanner
+{
+    private static final Logger logger = WebBeansLoggerFacade.getLogger(ParallelArchiveScanner.class);
+
+    private static final String CLASS_EXTENSION = ".class";
+
+    private static final int PARSING_OPTIONS = ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES;
+
+    /**
+     * {@code sun.misc.Unsafe#invokeCleaner(ByteBuffer)} to unmap the jars, {@code null} if it is not available.
+     */
+    private static final Method INVOKE_CLEANER;
+    private static final Object UNSAFE;
+
+    static
+    {
+        Method invokeCleaner = null;
+        Object unsafe = null;
+        try
+        {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        }
+        catch (Exception | LinkageError e)
+        {
+            logger.log(Level.FINE, "Can't unmap memory mapped jars, they get released by the garbage collector", e);
+        }
+        INVOKE_CLEANER = invokeCleaner;
+        UNSAFE = unsafe;
+    }
+
+    private final boolean memoryMapped;
+
+    public ParallelArchiveScanner(boolean memoryMapped)
+    {
+        this.memoryMapped = memoryMapped;
+    }
+
+    /**
+     * @return the given url as local jar file or directory, {@code null} if it can't be read by this scanner
+     */
+    public static File toScannableFile(URL url)
+    {
+        try
+        {
+            File file = Files.toFile(url);
+            return file != null && (file.isDirectory() || file.isFile()) ? file : null;
+        }
+        catch (RuntimeException e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Reads all given archives in parallel.
+     *
+     * @param archives the archive files with the bean-discovery-mode of each, as returned by {@link #toScannableFile(URL)}
+     * @return the annotation names per class name for each archive, in the iteration order of the given map
+     */
+    public Map<File, Map<String, List<String>>> scan(Map<File, BeanDiscoveryMode> archives)
+    {
+        List<Map.Entry<File, BeanDiscoveryMode>> entries = new ArrayList<>(archives.entrySet());
+        @SuppressWarnings("unchecked")
+        Map<String, List<String>>[] results = new Map[entries.size()];
+
+        // the workers use the TCCL of the deployment like the sequential scanning does
+        ForkJoinPool pool = ForkJoinPoolUtil.newForkJoinPool("OpenWebBeans-scanning-", Thread.currentThread().getContextClassLoader());
+        try
+        {
+            pool.submit(() -> IntStream.range(0, results.length).parallel().forEach(i ->
+            {
+                Map.Entry<File, BeanDiscoveryMode> entry = entries.get(i);
+                results[i] = scan(entry.getKey(), entry.getValue());
+            })).get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new WebBeansDeploymentException(e);
+        }
+        catch (ExecutionException e)
+        {
+            throw ExceptionUtil.throwAsRuntimeException(e.getCause());
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+
+        Map<File, Map<String, List<String>>> annotationsPerArchive = new LinkedHashMap<>();
+        for (int i = 0; i < results.length; i++)
+        {
+            annotationsPerArchive.put(entries.get(i).getKey(), results[i]);
+        }
+        return annotationsPerArchive;
+    }
+
+    /**
+     * @return the annotation names per class name of a single archive
+     */
+    public Map<String, List<String>> scan(File archive, BeanDiscoveryMode discoveryMode)
+    {
+        ClassCollector collector = new ClassCollector(discoveryMode == BeanDiscoveryMode.ANNOTATED);
+        try
+        {
+            if (archive.isDirectory())
+            {
+                scanDirectory(archive.toPath(), collector);
+            }
+            else if (memoryMapped)
+            {
+                scanMappedJar(archive, collector);
+            }
+            else
+            {
+                scanJar(archive, collector);
+            }
+        }
+        catch (IOException e)
+        {
+            throw new WebBeansDeploymentException("Can't scan " + archive, e);
+        }
+        return collector.annotationsPerClass;
+    }
+
+    private void scanDirectory(Path root, ClassCollector collector) throws IOException
+    {
+        try (Stream<Path> files = java.nio.file.Files.walk(root))
+        {
+            for (Path file : (Iterable<Path>) files::iterator)
+            {
+                String path = root.relativize(file).toString().replace(File.separatorChar, '/');
+                if (isClassEntry(path) && java.nio.file.Files.isRegularFile(file))
+                {
+                    collector.add(path, collector.needsBytecode() ? java.nio.file.Files.readAllBytes(file) : null);
+                }
+            }
+        }
+    }
+
+    private void scanJar(File jar, ClassCollector collector) throws IOException
+    {
+        try (ZipFile zip = new ZipFile(jar))
+        {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements())
+            {
+                ZipEntry entry = entries.nextElement();
+                if (!entry.isDirectory() && isClassEntry(entry.getName()))
+                {
+                    if (collector.needsBytecode())
+                    {
+                        try (InputStream stream = zip.getInputStream(entry))
+                        {
+                            collector.add(entry.getName(), stream.readAllBytes());
+                        }
+                    }
+                    else
+                    {
+                        collector.add(entry.getName(), null);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Streams over the local entries of the memory mapped jar.
+     * Falls back to {@link #scanJar(File, ClassCollector)} for jars which can't be read that way,
+     * e.g. stored entries with a data descriptor.
+     */
+    private void scanMappedJar(File jar, ClassCollector collector) throws IOException
+    {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(jar.toPath(), StandardOpenOption.READ))
+        {
+            if (channel.size() > Integer.MAX_VALUE)
+            {
+                scanJar(jar, collector);
+                return;
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        ClassCollector mappedCollector = new ClassCollector(collector.annotatedOnly);
+        try (ZipInputStream zip = new ZipInputStream(new ByteBufferInputStream(buffer)))
+        {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null)
+            {
+                if (!entry.isDirectory() && isClassEntry(entry.getName()))
+                {
+                    mappedCollector.add(entry.getName(), mappedCollector.needsBytecode() ? zip.readAllBytes() : null);
+                }
+            }
+        }
+        catch (ZipException e)
+        {
+            logger.log(Level.FINE, "Can't stream over " + jar + ", reading it via its central directory", e);
+            unmap(buffer);
+            scanJar(jar, collector);
+            return;
+        }
+        finally
+        {
+            // the bytecode got copied, nothing references the buffer anymore
+            unmap(buffer);
+        }
+        collector.annotationsPerClass.putAll(mappedCollector.annotationsPerClass);
+    }
+
+    /**
+     * Releases the mapping right away instead of waiting for the garbage collector.
+     * The buffer must not get accessed afterwards, unmapping it twice is fine.
+     */
+    private static void unmap(MappedByteBuffer buffer)
+    {
+        if (INVOKE_CLEANER == null)
+        {
+            return;
+        }
+        try
+        {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        }
+        catch (Exception e)
+        {
+            logger.log(Level.FINE, "Can't unmap a memory mapped jar", e);
+        }
+    }
+
+    private static boolean isClassEntry(String path)
+    {
+        return path.endsWith(CLASS_EXTENSION)
+                && !path.startsWith("META-INF/")
+                && !path.endsWith("package-info.class")
+                && !path.endsWith("module-info.class");
+    }
+
+    /**
+     * Collects the classes of a single archive, only used by one thread.
+     */
+    private static final class ClassCollector
+    {
+        private final boolean annotatedOnly;
+        private final Map<String, List<String>> annotationsPerClass = new LinkedHashMap<>();
+
+        private ClassCollector(boolean annotatedOnly)
+        {
+            this.annotatedOnly = annotatedOnly;
+        }
+
+        private boolean needsBytecode()
+        {
+            return annotatedOnly;
+        }
+
+        private void add(String path, byte[] bytecode)
+        {
+            String className = path.substring(0, path.length() - CLASS_EXTENSION.length()).replace('/', '.');
+            if (!annotatedOnly)
+            {
+                annotationsPerClass.put(className, Collections.emptyList());
+                return;
+            }
+
+            List<String> annotations = readAnnotations(bytecode);
+            if (!annotations.isEmpty())
+            {
+                annotationsPerClass.put(className, annotations);
+            }
+        }
+
+        private static List<String> readAnnotations(byte[] bytecode)
+        {
+            List<String> annotations = new ArrayList<>(2);
+            new ClassReader(bytecode).accept(new ClassVisitor(Opcodes.ASM9)
+            {
+                @Override
+                public AnnotationVisitor visitAnnotation(String descriptor, boolean visible)
+                {
+                    if (visible)
+                    {
+                        annotations.add(Type.getType(descriptor).getClassName());
+                    }
+                    return null;
+                }
+            }, PARSING_OPTIONS);
+            return annotations;
+        }
+    }
+
+    /**
+     * Reads a memory mapped file without copying it to the heap first.
+     */
+    private static final class ByteBufferInputStream extends InputStream
+    {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer)
+        {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read()
+        {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length)
+        {
+            if (!buffer.hasRemaining())
+            {
+                return -1;
+            }
+            int read = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, read);
+            return read;
+        }
+
+        @Override
+        public long skip(long n)
+        {
+            int skipped = (int) Math.min(n, buffer.remaining());
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available()
+        {
+            return buffer.remaining();
+        }
+    }
+}
@@ -37,6 +37,7 @@ import org.apache.webbeans.annotation.InitializedLiteral;
 import org.apache.webbeans.config.WebBeansContext;
 import org.apache.webbeans.context.AbstractContextsService;
 import org.apache.webbeans.context.ApplicationContext;
+import org.apache.webbeans.context.CapturedContexts;
 import org.apache.webbeans.context.ConversationContext;
 import org.apache.webbeans.context.DependentContext;
 import org.apache.webbeans.context.RequestContext;
@@ -191,30 +192,27 @@ public abstract class BaseSeContextsService extends AbstractContextsService
     @Override
     public void destroy(Object destroyObject)
     {
-        RequestContext requestCtx = requestContext.get();
+        RequestContext requestCtx = getBoundRequestContext();
         if (requestCtx != null)
         {
             requestCtx.destroy();
             RequestScopedBeanInterceptorHandler.removeThreadLocals();
-            requestContext.set(null);
-            requestContext.remove();
+            bindRequestContext(null);
         }
 
-        SessionContext sessionCtx = sessionContext.get();
+        SessionContext sessionCtx = getBoundSessionContext();
         if (sessionCtx != null)
         {
             sessionCtx.destroy();
             SessionScopedBeanInterceptorHandler.removeThreadLocals();
-            sessionContext.set(null);
-            sessionContext.remove();
+            bindSessionContext(null);
         }
 
-        ConversationContext conversationCtx = conversationContext.get();
+        ConversationContext conversationCtx = getBoundConversationContext();
         if (conversationCtx != null)
         {
             conversationCtx.destroy();
-            conversationContext.set(null);
-            conversationContext.remove();
+            bindConversationContext(null);
         }
 
         dependentContext.set(null);
@@ -223,6 +221,117 @@ public abstract class BaseSeContextsService extends AbstractContextsService
         destroyGlobalContexts();
     }
 
+    @Override
+    public Object captureContexts()
+    {
+        return captureContexts(true);
+    }
+
+    @Override
+    public Object captureContexts(boolean includeRequestContext)
+    {
+        return new CapturedContexts(includeRequestContext ? getBoundRequestContext() : null,
+                getBoundSessionContext(), getBoundConversationContext());
+    }
+
+    @Override
+    public Object activateContexts(Object capturedContexts)
+    {
+        CapturedContexts captured = (CapturedContexts) capturedContexts;
+        RequestContext handedOver = captured.getRequestContext();
+        if (handedOver != null)
+        {
+            handedOver.beginHandOver();
+        }
+        CapturedContexts previous = new CapturedContexts(
+                getBoundRequestContext(), getBoundSessionContext(), getBoundConversationContext(), handedOver);
+        bindContexts(captured);
+        return previous;
+    }
+
+    @Override
+    public void restoreContexts(Object previousContexts)
+    {
+        CapturedContexts previous = (CapturedContexts) previousContexts;
+        bindContexts(previous);
+        if (previous.getHandedOverRequestContext() != null)
+        {
+            previous.getHandedOverRequestContext().endHandOver();
+        }
+    }
+
+    private void bindContexts(CapturedContexts contexts)
+    {
+        bindRequestContext(contexts.getRequestContext());
+        bindSessionContext(contexts.getSessionContext());
+        bindConversationContext(contexts.getConversationContext());
+
+        // the proxies cache contextual instances per thread
+        RequestScopedBeanInterceptorHandler.removeThreadLocals();
+        SessionScopedBeanInterceptorHandler.removeThreadLocals();
+    }
+
+    /**
+     * @return the RequestContext bound to the current thread or {@code null}
+     */
+    protected RequestContext getBoundRequestContext()
+    {
+        return requestContext.get();
+    }
+
+    /**
+     * Bind the given RequestContext to the current thread, {@code null} unbinds it.
+     */
+    protected void bindRequestContext(RequestContext ctx)
+    {
+        bind(requestContext, ctx);
+    }
+
+    /**
+     * @return the SessionContext bound to the current thread or {@code null}
+     */
+    protected SessionContext getBoundSessionContext()
+    {
+        return sessionContext.get();
+    }
+
+    /**
+     * Bind the given SessionContext to the current thread, {@code null} unbinds it.
+     */
+    protected void bindSessionContext(SessionContext ctx)
+    {
+        bind(sessionContext, ctx);
+    }
+
+    /**
+     * @return the ConversationContext bound to the current thread or {@code null}
+     */
+    protected ConversationContext getBoundConversationContext()
+    {
+        return conversationContext.get();
+    }
+
+    /**
+     * Bind the given ConversationContext to the current thread, {@code null} unbinds it.
+     */
+    protected void bindConversationContext(ConversationContext ctx)
+    {
+        bind(conversationContext, ctx);
+    }
+
+    private static <T> void bind(ThreadLocal<T> threadLocal, T value)
+    {
+        if (value == null)
+        {
+            threadLocal.set(null);
+            threadLocal.remove();
+        }
+        else
+        {
+            threadLocal.set(value);
+        }
+    }
+
     protected void destroyGlobalContexts()
     {
         if (applicationContext != null)
@@ -235,11 +344,11 @@ public abstract class BaseSeContextsService extends AbstractContextsService
 
     private Context getCurrentConversationContext()
     {
-        ConversationContext conversationCtx = conversationContext.get();
+        ConversationContext conversationCtx = getBoundConversationContext();
         if (conversationCtx == null)
         {
-            conversationCtx = webBeansContext.getConversationManager().getConversationContext(getCurrentSessionContext());
-            conversationContext.set(conversationCtx);
+            conversationCtx = webBeansContext.getConversationManager().getConversationContext(getBoundSessionContext());
+            bindConversationContext(conversationCtx);
 
             // check for busy and non-existing conversations
             String conversationId = webBeansContext.getConversationService().getConversationId();
@@ -274,13 +383,13 @@ public abstract class BaseSeContextsService extends AbstractContextsService
     
     private Context getCurrentRequestContext()
     {        
-        return requestContext.get();
+        return getBoundRequestContext();
     }
 
     
     private Context getCurrentSessionContext()
     {
-        return sessionContext.get();
+        return getBoundSessionContext();
     }
     
     private void startApplicationContext()
@@ -312,9 +421,9 @@ public abstract class BaseSeContextsService extends AbstractContextsService
             return;
         }
         ConversationManager conversationManager = webBeansContext.getConversationManager();
-        ConversationContext ctx = conversationManager.getConversationContext(getCurrentSessionContext());
+        ConversationContext ctx = conversationManager.getConversationContext(getBoundSessionContext());
         ctx.setActive(true);
-        conversationContext.set(ctx);
+        bindConversationContext(ctx);
 
         final ConversationImpl conversation = ctx.getConversation();
         if (conversation.isTransient())
@@ -335,7 +444,7 @@ public abstract class BaseSeContextsService extends AbstractContextsService
         RequestContext ctx = new RequestContext();
         ctx.setActive(true);
         
-        requestContext.set(ctx);
+        bindRequestContext(ctx);
         if (shouldFireRequestLifecycleEvents())
         {
             webBeansContext.getBeanManagerImpl().fireContextLifecyleEvent(
@@ -349,7 +458,7 @@ public abstract class BaseSeContextsService extends AbstractContextsService
         SessionContext ctx = new SessionContext();
         ctx.setActive(true);
         
-        sessionContext.set(ctx);
+        bindSessionContext(ctx);
         webBeansContext.getBeanManagerImpl().fireContextLifecyleEvent(
             new Object(), InitializedLiteral.INSTANCE_SESSION_SCOPED);
     }
@@ -401,13 +510,13 @@ public abstract class BaseSeContextsService extends AbstractContextsService
         {
             return;
         }
-        if(conversationContext.get() != null)
+        ConversationContext conversationCtx = getBoundConversationContext();
+        if(conversationCtx != null)
         {
-            conversationContext.get().destroy();   
+            conversationCtx.destroy();   
         }
 
-        conversationContext.set(null);
-        conversationContext.remove();
+        bindConversationContext(null);
     }
 
     
@@ -416,13 +525,12 @@ public abstract class BaseSeContextsService extends AbstractContextsService
         // cleanup open conversations first
         if (supportsConversation)
         {
-            destroyOutdatedConversations(conversationContext.get());
-            conversationContext.set(null);
-            conversationContext.remove();
+            destroyOutdatedConversations(getBoundConversationContext());
+            bindConversationContext(null);
         }
 
 
-        final RequestContext ctx = BaseSeContextsService.requestContext.get();
+        final RequestContext ctx = getBoundRequestContext();
         if (ctx != null && shouldFireRequestLifecycleEvents())
         {
             webBeansContext.getBeanManagerImpl().fireContextLifecyleEvent(
@@ -434,8 +542,7 @@ public abstract class BaseSeContextsService extends AbstractContextsService
             ctx.destroy();
         }
 
-        BaseSeContextsService.requestContext.set(null);
-        BaseSeContextsService.requestContext.remove();
+        bindRequestContext(null);
         RequestScopedBeanInterceptorHandler.removeThreadLocals();
 
         if (ctx != null && shouldFireRequestLifecycleEvents())
@@ -450,14 +557,13 @@ public abstract class BaseSeContextsService extends AbstractContextsService
     {
         webBeansContext.getBeanManagerImpl().fireContextLifecyleEvent(
                 new Object(), BeforeDestroyedLiteral.INSTANCE_SESSION_SCOPED);
-        SessionContext activeContext = sessionContext.get();
+        SessionContext activeContext = getBoundSessionContext();
         if(activeContext != null)
         {
             activeContext.destroy();   
         }
 
-        sessionContext.set(null);
-        sessionContext.remove();
+        bindSessionContext(null);
         SessionScopedBeanInterceptorHandler.removeThreadLocals();
         if (activeContext != null)
         {
@@ -0,0 +1,532 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.corespi.se;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.Callable;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jakarta.enterprise.context.spi.Context;
+
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.context.ConversationContext;
+import org.apache.webbeans.context.RequestContext;
+import org.apache.webbeans.context.SessionContext;
+import org.apache.webbeans.context.SingletonContext;
+import org.apache.webbeans.intercept.RequestScopedBeanInterceptorHandler;
+import org.apache.webbeans.intercept.SessionScopedBeanInterceptorHandler;
+import org.apache.webbeans.logger.WebBeansLoggerFacade;
+
+/**
+ * A standalone {@link org.apache.webbeans.spi.ContextsService} which keeps the request, session
+ * and conversation context of a thread in a single immutable {@link ContextScope}.
+ *
+ * <p>Instead of one ThreadLocal per scope there is exactly one binding per thread.
+ * A {@link ContextScope} can be handed to a child task via {@link #runWithScope(ContextScope, Runnable)}
+ * and {@link #callWithScope(ContextScope, Callable)}. The child then works on the very same
+ * context instances for the duration of the task, nothing gets copied.</p>
+ *
+ * <p>A {@link RequestContext} has no locking, so a ContextScope only gets handed over sequentially:
+ * while a task runs with it no other task may run with it, this is enforced via
+ * {@link RequestContext#beginHandOver()}. The thread which handed it over must not use its
+ * request scoped beans until the task completed. Child tasks must not end contexts they got
+ * handed over. Starting a new context inside a child task only rebinds the scope of the child.</p>
+ *
+ * <p>On Java 25+ {@link #runWithScope(ContextScope, Runnable)} and {@link #callWithScope(ContextScope, Callable)}
+ * bind the scope via {@code java.lang.ScopedValue}, otherwise via a ThreadLocal. A ScopedValue binding
+ * inherited by forked subtasks is ignored, they have to run with the scope explicitly.</p>
+ *
+ * Enable it via
+ * <pre>org.apache.webbeans.spi.ContextsService=org.apache.webbeans.corespi.se.ScopedContextsService</pre>
+ */
+public class ScopedContextsService extends BaseSeContextsService
+{
+    private static final Logger logger = WebBeansLoggerFacade.getLogger(ScopedContextsService.class);
+
+    /**
+     * The scope bound via {@link #activateContexts(Object)} or by starting a context.
+     * It wins over a {@link #scopedBinding}.
+     */
+    private final ThreadLocal<ContextScope> threadBinding = new ThreadLocal<>();
+
+    /**
+     * Bindings of {@link #runWithScope(ContextScope, Runnable)}, {@code null} before Java 25.
+     */
+    private final ScopedValueBinding scopedBinding = ScopedValueBinding.create();
+
+    private SingletonContext singletonContext;
+
+    public ScopedContextsService(WebBeansContext webBeansContext)
+    {
+        super(webBeansContext);
+    }
+
+    /**
+     * @return the contexts bound to the current thread, never {@code null}
+     */
+    public ContextScope currentScope()
+    {
+        ContextScope current = threadBinding.get();
+        if (current != null)
+        {
+            return current;
+        }
+        if (scopedBinding != null)
+        {
+            current = scopedBinding.get();
+            if (current != null)
+            {
+                return current;
+            }
+        }
+        return ContextScope.EMPTY;
+    }
+
+    /**
+     * Run the given task with the given contexts bound to the current thread.
+     * The previous binding gets restored afterwards.
+     *
+     * @throws IllegalStateException if the request context of the scope is handed over to another thread right now
+     */
+    public void runWithScope(ContextScope contextScope, Runnable task)
+    {
+        RequestContext requestContext = beginHandOver(contextScope);
+        ContextScope previous = threadBinding.get();
+        try
+        {
+            if (scopedBinding != null)
+            {
+                threadBinding.remove();
+                clearCachedInstances();
+                scopedBinding.run(contextScope, task);
+            }
+            else
+            {
+                bind(contextScope);
+                task.run();
+            }
+        }
+        finally
+        {
+            restore(previous);
+            endHandOver(requestContext);
+        }
+    }
+
+    /**
+     * Call the given task with the given contexts bound to the current thread.
+     * The previous binding gets restored afterwards.
+     *
+     * @throws IllegalStateException if the request context of the scope is handed over to another thread right now
+     */
+    public <T> T callWithScope(ContextScope contextScope, Callable<T> task) throws Exception
+    {
+        if (scopedBinding != null)
+        {
+            Object[] result = new Object[1];
+            Exception[] failure = new Exception[1];
+            runWithScope(contextScope, () ->
+            {
+                try
+                {
+                    result[0] = task.call();
+                }
+                catch (Exception e)
+                {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null)
+            {
+                throw failure[0];
+            }
+            return (T) result[0];
+        }
+
+        RequestContext requestContext = beginHandOver(contextScope);
+        ContextScope previous = bind(contextScope);
+        try
+        {
+            return task.call();
+        }
+        finally
+        {
+            restore(previous);
+            endHandOver(requestContext);
+        }
+    }
+
+    @Override
+    public Object captureContexts()
+    {
+        return currentScope();
+    }
+
+    @Override
+    public Object captureContexts(boolean includeRequestContext)
+    {
+        return includeRequestContext ? currentScope() : currentScope().withRequestContext(null);
+    }
+
+    @Override
+    public Object activateContexts(Object capturedContexts)
+    {
+        ContextScope activated = (ContextScope) capturedContexts;
+        RequestContext requestContext = beginHandOver(activated);
+        return new Activation(bind(activated), requestContext);
+    }
+
+    @Override
+    public void restoreContexts(Object previousContexts)
+    {
+        Activation activation = (Activation) previousContexts;
+        restore(activation.previous);
+        endHandOver(activation.handedOver);
+    }
+
+    @Override
+    public void removeThreadLocals()
+    {
+        threadBinding.remove();
+        clearCachedInstances();
+    }
+
+    @Override
+    protected RequestContext getBoundRequestContext()
+    {
+        return currentScope().getRequestContext();
+    }
+
+    @Override
+    protected void bindRequestContext(RequestContext ctx)
+    {
+        rebind(currentScope().withRequestContext(ctx));
+        RequestScopedBeanInterceptorHandler.removeThreadLocals();
+    }
+
+    @Override
+    protected SessionContext getBoundSessionContext()
+    {
+        return currentScope().getSessionContext();
+    }
+
+    @Override
+    protected void bindSessionContext(SessionContext ctx)
+    {
+        rebind(currentScope().withSessionContext(ctx));
+        SessionScopedBeanInterceptorHandler.removeThreadLocals();
+    }
+
+    @Override
+    protected ConversationContext getBoundConversationContext()
+    {
+        return currentScope().getConversationContext();
+    }
+
+    @Override
+    protected void bindConversationContext(ConversationContext ctx)
+    {
+        rebind(currentScope().withConversationContext(ctx));
+    }
+
+    @Override
+    protected void createSingletonContext()
+    {
+        singletonContext = new SingletonContext();
+        singletonContext.setActive(true);
+    }
+
+    @Override
+    protected Context getCurrentSingletonContext()
+    {
+        return singletonContext;
+    }
+
+    @Override
+    protected void destroySingletonContext()
+    {
+        if (singletonContext != null)
+        {
+            singletonContext.destroy();
+        }
+    }
+
+    @Override
+    protected void destroyGlobalContexts()
+    {
+        if (singletonContext != null)
+        {
+            singletonContext.destroy();
+            singletonContext = null;
+        }
+        super.destroyGlobalContexts();
+    }
+
+    private ContextScope bind(ContextScope contextScope)
+    {
+        ContextScope previous = threadBinding.get();
+        threadBinding.set(contextScope);
+        // the proxies cache contextual instances per thread, they must not leak between scopes
+        clearCachedInstances();
+        return previous;
+    }
+
+    private void restore(ContextScope previous)
+    {
+        if (previous == null)
+        {
+            threadBinding.remove();
+        }
+        else
+        {
+            threadBinding.set(previous);
+        }
+        clearCachedInstances();
+    }
+
+    /**
+     * Don't keep an empty scope bound to a thread which might be pooled.
+     * Inside of a ScopedValue binding an empty scope has to hide the bound one though.
+     */
+    private void rebind(ContextScope contextScope)
+    {
+        if (contextScope.isEmpty() && (scopedBinding == null || scopedBinding.get() == null))
+        {
+            threadBinding.remove();
+        }
+        else
+        {
+            threadBinding.set(contextScope);
+        }
+    }
+
+    private static RequestContext beginHandOver(ContextScope contextScope)
+    {
+        RequestContext requestContext = contextScope.getRequestContext();
+        if (requestContext != null)
+        {
+            requestContext.beginHandOver();
+        }
+        return requestContext;
+    }
+
+    private static void endHandOver(RequestContext requestContext)
+    {
+        if (requestContext != null)
+        {
+            requestContext.endHandOver();
+        }
+    }
+
+    private static void clearCachedInstances()
+    {
+        RequestScopedBeanInterceptorHandler.removeThreadLocals();
+        SessionScopedBeanInterceptorHandler.removeThreadLocals();
+    }
+
+    /**
+     * The handle returned by {@link #activateContexts(Object)}.
+     */
+    private static final class Activation
+    {
+        private final ContextScope previous;
+        private final RequestContext handedOver;
+
+        private Activation(ContextScope previous, RequestContext handedOver)
+        {
+            this.previous = previous;
+            this.handedOver = handedOver;
+        }
+    }
+
+    /**
+     * A {@code java.lang.ScopedValue} accessed via MethodHandles as long as Java 11 is the baseline.
+     * The bound scope is only visible to the thread which bound it.
+     */
+    private static final class ScopedValueBinding
+    {
+        private static final MethodHandle NEW_INSTANCE;
+        private static final MethodHandle WHERE;
+        private static final MethodHandle RUN;
+        private static final MethodHandle OR_ELSE;
+
+        static
+        {
+            MethodHandle newInstance = null;
+            MethodHandle where = null;
+            MethodHandle run = null;
+            MethodHandle orElse = null;
+            if (Runtime.version().feature() >= 25)
+            {
+                try
+                {
+                    MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+                    Class<?> scopedValue = Class.forName("java.lang.ScopedValue");
+                    Class<?> carrier = Class.forName("java.lang.ScopedValue$Carrier");
+                    newInstance = lookup.findStatic(scopedValue, "newInstance", MethodType.methodType(scopedValue));
+                    where = lookup.findStatic(scopedValue, "where", MethodType.methodType(carrier, scopedValue, Object.class));
+                    run = lookup.findVirtual(carrier, "run", MethodType.methodType(void.class, Runnable.class));
+                    orElse = lookup.findVirtual(scopedValue, "orElse", MethodType.methodType(Object.class, Object.class));
+                }
+                catch (ReflectiveOperationException | RuntimeException | LinkageError e)
+                {
+                    logger.log(Level.FINE, "java.lang.ScopedValue is not usable, falling back to a ThreadLocal", e);
+                    newInstance = null;
+                }
+            }
+            NEW_INSTANCE = newInstance;
+            WHERE = where;
+            RUN = run;
+            OR_ELSE = orElse;
+        }
+
+        private final Object scopedValue;
+
+        private ScopedValueBinding(Object scopedValue)
+        {
+            this.scopedValue = scopedValue;
+        }
+
+        /**
+         * @return a new binding or {@code null} if ScopedValue is not available
+         */
+        static ScopedValueBinding create()
+        {
+            if (NEW_INSTANCE == null)
+            {
+                return null;
+            }
+            try
+            {
+                return new ScopedValueBinding(NEW_INSTANCE.invoke());
+            }
+            catch (Throwable t)
+            {
+                logger.log(Level.FINE, "java.lang.ScopedValue is not usable, falling back to a ThreadLocal", t);
+                return null;
+            }
+        }
+
+        ContextScope get()
+        {
+            try
+            {
+                Bound bound = (Bound) OR_ELSE.invoke(scopedValue, (Object) null);
+                return bound != null && bound.thread == Thread.currentThread() ? bound.scope : null;
+            }
+            catch (RuntimeException | Error e)
+            {
+                throw e;
+            }
+            catch (Throwable t)
+            {
+                throw new IllegalStateException(t);
+            }
+        }
+
+        void run(ContextScope contextScope, Runnable task)
+        {
+            try
+            {
+                Object carrier = WHERE.invoke(scopedValue, (Object) new Bound(contextScope, Thread.currentThread()));
+                RUN.invoke(carrier, task);
+            }
+            catch (RuntimeException | Error e)
+            {
+                throw e;
+            }
+            catch (Throwable t)
+            {
+                throw new IllegalStateException(t);
+            }
+        }
+
+        private static final class Bound
+        {
+            private final ContextScope scope;
+            private final Thread thread;
+
+            private Bound(ContextScope scope, Thread thread)
+            {
+                this.scope = scope;
+                this.thread = thread;
+            }
+        }
+    }
+
+    /**
+     * The immutable set of thread bound contexts.
+     * Starting or ending a context creates a new instance, so a ContextScope
+     * which got handed over to another task never changes.
+     */
+    public static final class ContextScope
+    {
+        static final ContextScope EMPTY = new ContextScope(null, null, null);
+
+        private final RequestContext requestContext;
+        private final SessionContext sessionContext;
+        private final ConversationContext conversationContext;
+
+        private ContextScope(RequestContext requestContext, SessionContext sessionContext,
+                             ConversationContext conversationContext)
+        {
+            this.requestContext = requestContext;
+            this.sessionContext = sessionContext;
+            this.conversationContext = conversationContext;
+        }
+
+        public RequestContext getRequestContext()
+        {
+            return requestContext;
+        }
+
+        public SessionContext getSessionContext()
+        {
+            return sessionContext;
+        }
+
+        public ConversationContext getConversationContext()
+        {
+            return conversationContext;
+        }
+
+        public boolean isEmpty()
+        {
+            return requestContext == null && sessionContext == null && conversationContext == null;
+        }
+
+        ContextScope withRequestContext(RequestContext ctx)
+        {
+            return new ContextScope(ctx, sessionContext, conversationContext);
+        }
+
+        ContextScope withSessionContext(SessionContext ctx)
+        {
+            return new ContextScope(requestContext, ctx, conversationContext);
+        }
+
+        ContextScope withConversationContext(ConversationContext ctx)
+        {
+            return new ContextScope(requestContext, sessionContext, ctx);
+        }
+    }
+}
@@ -22,7 +22,6 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
@@ -176,9 +175,8 @@ public class EventImpl<T> implements Event<T>, Serializable
         {
             if (defaultMetadataObservers == null)
             {
-                final List<ObserverMethod<? super Object>> tmp = new ArrayList<>( // faster than LinkedList
-                        notificationManager.resolveObservers(event, metadata, false));
-                notificationManager.prepareObserverListForFire(false, false, tmp);
+                final List<ObserverMethod<? super Object>> tmp =
+                        notificationManager.resolveObserversForFire(event, metadata, false);
                 this.defaultMetadataObservers = tmp;
             }
             observerMethods = defaultMetadataObservers;
@@ -205,9 +203,7 @@ public class EventImpl<T> implements Event<T>, Serializable
             observerMethods = observers.get(key);
             if (observerMethods == null)
             {
-                observerMethods = new ArrayList<>( // faster than LinkedList
-                        notificationManager.resolveObservers(event, metadata, false));
-                notificationManager.prepareObserverListForFire(false, false, observerMethods);
+                observerMethods = notificationManager.resolveObserversForFire(event, metadata, false);
                 this.observers.putIfAbsent(key, observerMethods);
             }
         }
@@ -222,9 +218,8 @@ public class EventImpl<T> implements Event<T>, Serializable
         {
             if (defaultMetadataAsyncObservers == null)
             {
-                final List<ObserverMethod<? super Object>> tmp = new ArrayList<>( // faster than LinkedList
-                        notificationManager.resolveObservers(event, metadata, false));
-                notificationManager.prepareObserverListForFire(false, true, tmp);
+                final List<ObserverMethod<? super Object>> tmp =
+                        notificationManager.resolveObserversForFire(event, metadata, true);
                 this.defaultMetadataAsyncObservers = tmp;
             }
             observerMethods = defaultMetadataAsyncObservers;
@@ -251,9 +246,7 @@ public class EventImpl<T> implements Event<T>, Serializable
             observerMethods = asyncObservers.get(key);
             if (observerMethods == null)
             {
-                observerMethods = new ArrayList<>( // faster than LinkedList
-                        notificationManager.resolveObservers(event, metadata, false));
-                notificationManager.prepareObserverListForFire(false, true, observerMethods);
+                observerMethods = notificationManager.resolveObserversForFire(event, metadata, true);
                 this.asyncObservers.putIfAbsent(key, observerMethods);
             }
         }
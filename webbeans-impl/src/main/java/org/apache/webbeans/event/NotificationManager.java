@@ -47,6 +47,8 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import jakarta.enterprise.context.RequestScoped;
+import jakarta.enterprise.context.spi.Context;
+import jakarta.enterprise.context.spi.Contextual;
 import jakarta.enterprise.event.NotificationOptions;
 import jakarta.enterprise.event.ObserverException;
 import jakarta.enterprise.event.TransactionPhase;
@@ -76,6 +78,7 @@ import jakarta.enterprise.inject.spi.ProcessSyntheticObserverMethod;
 import org.apache.webbeans.component.AbstractOwbBean;
 import org.apache.webbeans.config.OWBLogConst;
 import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.context.RequestContext;
 import org.apache.webbeans.exception.WebBeansConfigurationException;
 import org.apache.webbeans.exception.WebBeansDeploymentException;
 import org.apache.webbeans.exception.WebBeansException;
@@ -116,6 +119,13 @@ public class NotificationManager
     private final ConcurrentHashMap<Class<?>, Set<ObserverMethod<?>>> observersByRawType
         = new ConcurrentHashMap<>();
 
+    /**
+     * Precomputed observers for runtime events, keyed by event class, type and qualifiers.
+     * Only filled once the container got started and replaced as a whole when an observer gets added.
+     */
+    private volatile ConcurrentMap<ObserverDispatchTable.Key, ObserverDispatchTable> dispatchTables
+        = new ConcurrentHashMap<>();
+
     // this is actually faster than a lambda Comparator.comparingInt(ObserverMethod::getPriority)
     private Comparator<? super ObserverMethod<? super Object>> observerMethodComparator
         = new Comparator<ObserverMethod<? super Object>>()
@@ -142,6 +152,11 @@ public class NotificationManager
     private Map<Type, Set<ObserverMethod<?>>> processSyntheticBeanObservers;
     private Map<Type, Set<ObserverMethod<?>>> processSyntheticObserverMethodObservers;
 
+    /**
+     * Lazily read from the configuration as the NotificationManager gets created early.
+     */
+    private Boolean propagateContextsToAsyncObservers;
+
     public NotificationManager(WebBeansContext webBeansContext)
     {
         this.webBeansContext = webBeansContext;
@@ -167,6 +182,7 @@ public class NotificationManager
     {
         observersByRawType.clear();
         hasContextLifecycleEventObservers.clear();
+        dispatchTables = new ConcurrentHashMap<>();
 
         processAnnotatedTypeObservers = null;
         processBeanAttributesObservers = null;
@@ -227,6 +243,69 @@ public class NotificationManager
         Set<ObserverMethod<?>> set = observers.computeIfAbsent(observer.getObservedType(), k -> new HashSet<>());
 
         set.add(observer);
+
+        // the observer is visible now, tables built from the new map will contain it
+        observersByRawType.clear();
+        dispatchTables = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Resolve the observers which need to get notified for the given runtime event.
+     * Once the container got started this is a single lookup in a precomputed dispatch table.
+     *
+     * @param async whether the asynchronous or the synchronous observers should get returned
+     * @return the observers sorted by priority. The returned list must not be modified.
+     */
+    public List<ObserverMethod<? super Object>> resolveObserversForFire(Object event, EventMetadataImpl metadata, boolean async)
+    {
+        if (!webBeansContext.getBeanManagerImpl().isAfterDeploymentValidationFired())
+        {
+            List<ObserverMethod<? super Object>> observerMethods = new ArrayList<>(resolveObservers(event, metadata, false));
+            prepareObserverListForFire(false, async, observerMethods);
+            return observerMethods;
+        }
+
+        // capture the map first so a table built concurrently to addObserver never survives in the new map
+        ConcurrentMap<ObserverDispatchTable.Key, ObserverDispatchTable> tables = dispatchTables;
+        ObserverDispatchTable.Key key = new ObserverDispatchTable.Key(event.getClass(), metadata.validatedType(), metadata.getQualifiers());
+        ObserverDispatchTable table = tables.get(key);
+        if (table == null)
+        {
+            table = createDispatchTable(event, metadata);
+            ObserverDispatchTable existing = tables.putIfAbsent(key, table);
+            if (existing != null)
+            {
+                table = existing;
+            }
+        }
+        return table.getObservers(async);
+    }
+
+    private ObserverDispatchTable createDispatchTable(Object event, EventMetadataImpl metadata)
+    {
+        Collection<ObserverMethod<? super Object>> observerMethods = resolveObservers(event, metadata, false);
+        List<ObserverMethod<? super Object>> syncObservers = new ArrayList<>(observerMethods.size());
+        List<ObserverMethod<? super Object>> asyncObservers = new ArrayList<>(observerMethods.size());
+        for (ObserverMethod<? super Object> observerMethod : observerMethods)
+        {
+            if (observerMethod.isAsync())
+            {
+                asyncObservers.add(observerMethod);
+            }
+            else
+            {
+                syncObservers.add(observerMethod);
+            }
+        }
+        if (syncObservers.size() > 1)
+        {
+            syncObservers.sort(observerMethodComparator);
+        }
+        if (asyncObservers.size() > 1)
+        {
+            asyncObservers.sort(observerMethodComparator);
+        }
+        return new ObserverDispatchTable(syncObservers, asyncObservers);
     }
 
     public boolean hasProcessAnnotatedTypeObservers()
@@ -925,6 +1004,21 @@ public class NotificationManager
         {
             throw new IllegalArgumentException("Firing container events is forbidden");
         }
+        if (!isLifecycleEvent)
+        {
+            List<ObserverMethod<? super Object>> observerMethods = resolveObserversForFire(event, metadata, async);
+            if (observerMethods.isEmpty())
+            {
+                return async ? completedFuture((T) event) : null;
+            }
+            EventContextImpl<Object> context = new EventContextImpl<>(event, metadata);
+            if (async)
+            {
+                return doFireAsync(context, false, notificationOptions, observerMethods);
+            }
+            doFireSync(context, false, observerMethods);
+            return null;
+        }
         return doFireEvent(
                 event, metadata, isLifecycleEvent, notificationOptions, async,
                 new ArrayList<>(resolveObservers(event, metadata, isLifecycleEvent)));
@@ -959,6 +1053,9 @@ public class NotificationManager
                                               List<ObserverMethod<? super Object>> observerMethods)
     {
         List<CompletableFuture<Void>> completableFutures = new ArrayList<>();
+        AsyncContexts asyncContexts = !observerMethods.isEmpty() && isPropagateContextsToAsyncObservers()
+                ? captureAsyncContexts()
+                : null;
         for (ObserverMethod<? super Object> observer : observerMethods)
         {
             try
@@ -967,7 +1064,7 @@ public class NotificationManager
 
                 if (phase == null || phase == TransactionPhase.IN_PROGRESS)
                 {
-                    completableFutures.add(invokeObserverMethodAsync(context, observer, notificationOptions));
+                    completableFutures.add(invokeObserverMethodAsync(context, observer, notificationOptions, asyncContexts));
                 }
                 else
                 {
@@ -1109,13 +1206,14 @@ public class NotificationManager
 
     private CompletableFuture invokeObserverMethodAsync(EventContext<?> context,
                                            ObserverMethod<? super Object> observer,
-                                           NotificationOptions notificationOptions)
+                                           NotificationOptions notificationOptions,
+                                           AsyncContexts asyncContexts)
     {
         CompletableFuture<?> future = new CompletableFuture<>();
         CompletableFuture.runAsync(() -> {
             try
             {
-                runAsync(context, observer);
+                runAsync(context, observer, asyncContexts);
                 future.complete(null);
             }
             catch (WebBeansException wbe)
@@ -1126,18 +1224,69 @@ public class NotificationManager
         return future;
     }
 
-    private void runAsync(EventContext<?> context, ObserverMethod<? super Object> observer)
+    private boolean isPropagateContextsToAsyncObservers()
+    {
+        if (propagateContextsToAsyncObservers == null)
+        {
+            propagateContextsToAsyncObservers = webBeansContext.getOpenWebBeansConfiguration().isPropagateContextsToAsyncObservers();
+        }
+        return propagateContextsToAsyncObservers;
+    }
+
+    /**
+     * Captures the contexts of the firing thread once for all observers of an event.
+     * The observers run in parallel, so the RequestContext of the firing thread must not be handed over,
+     * only a snapshot of its instances. The session and conversation context are shared.
+     */
+    private AsyncContexts captureAsyncContexts()
+    {
+        ContextsService contextsService = webBeansContext.getContextsService();
+        Context requestContext = contextsService.getCurrentContext(RequestScoped.class);
+        if (requestContext instanceof RequestContext && requestContext.isActive())
+        {
+            RequestContext source = (RequestContext) requestContext;
+            return new AsyncContexts(contextsService.captureContexts(false), source, source.snapshotInstances());
+        }
+        return new AsyncContexts(contextsService.captureContexts(false), null, null);
+    }
+
+    /**
+     * Each delivery runs in its own request context.
+     *
+     * @param asyncContexts the contexts of the firing thread to make visible or {@code null}
+     */
+    private void runAsync(EventContext<?> context, ObserverMethod<? super Object> observer, AsyncContexts asyncContexts)
     {
-        //X TODO set up threads, requestcontext etc
         final ContextsService contextsService = webBeansContext.getContextsService();
-        contextsService.startContext(RequestScoped.class, null);
+        Object previousContexts = asyncContexts != null && asyncContexts.sharedContexts != null
+                ? contextsService.activateContexts(asyncContexts.sharedContexts)
+                : null;
         try
         {
-            invokeObserverMethod(context, observer);
+            contextsService.startContext(RequestScoped.class, null);
+            try
+            {
+                if (asyncContexts != null && asyncContexts.requestContext != null)
+                {
+                    Context requestContext = contextsService.getCurrentContext(RequestScoped.class);
+                    if (requestContext instanceof RequestContext)
+                    {
+                        ((RequestContext) requestContext).inheritInstances(asyncContexts.requestContext, asyncContexts.requestInstances);
+                    }
+                }
+                invokeObserverMethod(context, observer);
+            }
+            finally
+            {
+                contextsService.endContext(RequestScoped.class, null);
+            }
         }
         finally
         {
-            contextsService.endContext(RequestScoped.class, null);
+            if (previousContexts != null)
+            {
+                contextsService.restoreContexts(previousContexts);
+            }
         }
     }
 
@@ -1285,4 +1434,21 @@ public class NotificationManager
             });
         }
     }
+
+    /**
+     * The contexts of the thread firing an async event, captured once for all its observers.
+     */
+    private static final class AsyncContexts
+    {
+        private final Object sharedContexts;
+        private final RequestContext requestContext;
+        private final Map<Contextual<?>, Object> requestInstances;
+
+        private AsyncContexts(Object sharedContexts, RequestContext requestContext, Map<Contextual<?>, Object> requestInstances)
+        {
+            this.sharedContexts = sharedContexts;
+            this.requestContext = requestContext;
+            this.requestInstances = requestInstances;
+        }
+    }
 }
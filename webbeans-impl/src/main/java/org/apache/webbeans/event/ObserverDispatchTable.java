@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.event;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import jakarta.enterprise.inject.spi.ObserverMethod;
+
+/**
+ * Immutable dispatch information for a single runtime event class and qualifier set.
+ *
+ * The observers are already resolved by type and qualifiers, split into synchronous
+ * and asynchronous observers and sorted by their priority.
+ * Instances get created by the {@link NotificationManager} once the container got started.
+ */
+final class ObserverDispatchTable
+{
+    private final List<ObserverMethod<? super Object>> syncObservers;
+    private final List<ObserverMethod<? super Object>> asyncObservers;
+
+    ObserverDispatchTable(Collection<ObserverMethod<? super Object>> sortedSync,
+                          Collection<ObserverMethod<? super Object>> sortedAsync)
+    {
+        this.syncObservers = freeze(sortedSync);
+        this.asyncObservers = freeze(sortedAsync);
+    }
+
+    /**
+     * @return the sorted and unmodifiable list of observers to notify
+     */
+    List<ObserverMethod<? super Object>> getObservers(boolean async)
+    {
+        return async ? asyncObservers : syncObservers;
+    }
+
+    private static List<ObserverMethod<? super Object>> freeze(Collection<ObserverMethod<? super Object>> observers)
+    {
+        if (observers.isEmpty())
+        {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(new ArrayList<>(observers));
+    }
+
+    /**
+     * Key of a dispatch table: the runtime class of the event,
+     * the validated event type and the event qualifiers.
+     */
+    static final class Key
+    {
+        private final Class<?> eventClass;
+        private final Type type;
+        private final Set<Annotation> qualifiers;
+        private final int hash;
+
+        Key(Class<?> eventClass, Type type, Set<Annotation> qualifiers)
+        {
+            this.eventClass = eventClass;
+            this.type = type;
+            this.qualifiers = qualifiers;
+            this.hash = Objects.hash(eventClass, type, qualifiers);
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass())
+            {
+                return false;
+            }
+            Key that = (Key) o;
+            return eventClass == that.eventClass &&
+                    Objects.equals(type, that.type) &&
+                    Objects.equals(qualifiers, that.qualifiers);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hash;
+        }
+    }
+}
@@ -23,10 +23,8 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
-import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
-import java.util.List;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -60,6 +58,7 @@ import org.apache.webbeans.context.creational.CreationalContextImpl;
 import org.apache.webbeans.exception.WebBeansConfigurationException;
 import org.apache.webbeans.exception.WebBeansException;
 import org.apache.webbeans.logger.WebBeansLoggerFacade;
+import org.apache.webbeans.proxy.MethodInvoker;
 import org.apache.webbeans.proxy.OwbNormalScopeProxy;
 import org.apache.webbeans.spi.plugins.OpenWebBeansEjbPlugin;
 
@@ -110,6 +109,15 @@ public class ObserverMethodImpl<T> implements OwbObserverMethod<T>
 
     private final Method view;
 
+    /** generated invoker for the {@link #view} or {@code null} if reflection gets used */
+    private final MethodInvoker invoker;
+
+    /**
+     * One slot per observer method parameter in declaration order.
+     * The slot of the observed event parameter has no InjectionPoint.
+     */
+    private final ParameterSlot[] parameterSlots;
+
     /**Annotated method*/
     private AnnotatedMethod<T> annotatedObserverMethod;
     
@@ -120,6 +128,20 @@ public class ObserverMethodImpl<T> implements OwbObserverMethod<T>
 
     private boolean isAsync;
     
+    private static final class ParameterSlot
+    {
+        private final InjectionPoint injectionPoint;
+
+        private final boolean beanManager;
+
+        private ParameterSlot(InjectionPoint injectionPoint)
+        {
+            this.injectionPoint = injectionPoint;
+            this.beanManager = injectionPoint != null && injectionPoint.getType() == BeanManager.class &&
+                    injectionPoint.getQualifiers().contains(DefaultLiteral.INSTANCE);
+        }
+    }
+
     private static class ObserverParams
     {
         private Bean<Object> bean;
@@ -192,12 +214,16 @@ public class ObserverMethodImpl<T> implements OwbObserverMethod<T>
         }
 
         injectionPoints = new LinkedHashSet<>();
+        parameterSlots = new ParameterSlot[annotatedObserverMethod.getParameters().size()];
         for (AnnotatedParameter<?> parameter: annotatedObserverMethod.getParameters())
         {
+            InjectionPoint injectionPoint = null;
             if (!parameter.isAnnotationPresent(observerAnnotation))
             {
-                injectionPoints.add(getWebBeansContext().getInjectionPointFactory().buildInjectionPoint(ownerBean, parameter, fireEvent));
+                injectionPoint = getWebBeansContext().getInjectionPointFactory().buildInjectionPoint(ownerBean, parameter, fireEvent);
+                injectionPoints.add(injectionPoint);
             }
+            parameterSlots[parameter.getPosition()] = new ParameterSlot(injectionPoint);
         }
 
         checkObserverCondition(annotatedObservesParameter);
@@ -206,6 +232,15 @@ public class ObserverMethodImpl<T> implements OwbObserverMethod<T>
         {
             ownerBean.getWebBeansContext().getSecurityService().doPrivilegedSetAccessible(view, true);
         }
+
+        if (getWebBeansContext().getOpenWebBeansConfiguration().isGeneratedObserverInvokers())
+        {
+            invoker = getWebBeansContext().getMethodInvokerFactory().getMethodInvoker(view);
+        }
+        else
+        {
+            invoker = null;
+        }
     }
 
     protected void checkObserverCondition(AnnotatedParameter<T> annotatedObservesParameter)
@@ -272,7 +307,7 @@ public class ObserverMethodImpl<T> implements OwbObserverMethod<T>
 
         Object object = null;
         
-        List<ObserverParams> methodArgsMap = getMethodArguments(event, metadata);
+        ObserverParams[] obargs = getMethodArguments(event, metadata);
         
         BeanManagerImpl manager = ownerBean.getWebBeansContext().getBeanManagerImpl();
         CreationalContextImpl<Object> creationalContext = manager.createCreationalContext(component);
@@ -282,23 +317,19 @@ public class ObserverMethodImpl<T> implements OwbObserverMethod<T>
             creationalContext.putEventMetadata(metadata);
         }
         
-        ObserverParams[] obargs = null;
         try
         {
             Object[] args;
-            if (methodArgsMap == null)
+            if (obargs == null)
             {
                 args = new Object[]{event};
             }
             else
             {
-                args = new Object[methodArgsMap.size()];
-                obargs = new ObserverParams[args.length];
-                obargs = methodArgsMap.toArray(obargs);
-                int i = 0;
-                for (ObserverParams param : obargs)
+                args = new Object[obargs.length];
+                for (int i = 0; i < obargs.length; i++)
                 {
-                    args[i++] = param.instance;
+                    args[i] = obargs[i].instance;
                 }
             }
 
@@ -306,7 +337,7 @@ public class ObserverMethodImpl<T> implements OwbObserverMethod<T>
             if (Modifier.isStatic(view.getModifiers()))
             {
                 //Invoke Method
-                view.invoke(null, args);
+                invokeView(null, args);
             }
             else
             {
@@ -391,7 +422,7 @@ public class ObserverMethodImpl<T> implements OwbObserverMethod<T>
             }
             
             //Destroy observer method dependent instances
-            if(methodArgsMap != null && obargs != null)
+            if(obargs != null)
             {
                 for(ObserverParams param : obargs)
                 {
@@ -407,37 +438,59 @@ public class ObserverMethodImpl<T> implements OwbObserverMethod<T>
 
     protected void invoke(Object object, Object[] args) throws IllegalAccessException, InvocationTargetException
     {
-        view.invoke(object, args);
+        invokeView(object, args);
+    }
+
+    private void invokeView(Object object, Object[] args) throws IllegalAccessException, InvocationTargetException
+    {
+        if (invoker == null)
+        {
+            view.invoke(object, args);
+            return;
+        }
+
+        try
+        {
+            invoker.invoke(object, args);
+        }
+        catch (Throwable t)
+        {
+            // same contract as Method#invoke
+            throw new InvocationTargetException(t);
+        }
     }
 
     /**
      * Gets observer method parameters.
      * @param event event payload
-     * @return observer method parameters
+     * @return observer method parameters in the order of the method parameters
+     *         or {@code null} if the event is the only parameter
      */
-    protected List<ObserverParams> getMethodArguments(Object event, EventMetadata metadata)
+    protected ObserverParams[] getMethodArguments(Object event, EventMetadata metadata)
     {
-        if (injectionPoints.isEmpty() && annotatedObservesParameter.getPosition() == 0)
+        if (parameterSlots.length == 1 && parameterSlots[0].injectionPoint == null)
         {
             return null; // special handling
         }
 
-        List<ObserverParams> list = new ArrayList<>();
-        if (annotatedObservesParameter.getPosition() == 0)
-        {
-            ObserverParams param = new ObserverParams();
-            param.instance = event;
-            list.add(param);
-        }
+        ObserverParams[] params = new ObserverParams[parameterSlots.length];
         WebBeansContext webBeansContext = ownerBean.getWebBeansContext();
         BeanManagerImpl manager = webBeansContext.getBeanManagerImpl();
 
-        for (InjectionPoint injectionPoint: injectionPoints)
+        for (int i = 0; i < parameterSlots.length; i++)
         {
+            ParameterSlot slot = parameterSlots[i];
+            InjectionPoint injectionPoint = slot.injectionPoint;
             ObserverParams param = new ObserverParams();
+            params[i] = param;
+            if (injectionPoint == null)
+            {
+                param.instance = event;
+                continue;
+            }
+
             param.isBean = true;
-            if (injectionPoint.getType() == BeanManager.class &&
-                    injectionPoint.getQualifiers().contains(DefaultLiteral.INSTANCE))
+            if (slot.beanManager)
             {
                 param.instance = webBeansContext.getInjectableBeanManager();
                 param.isBean = false; // no need to release
@@ -466,18 +519,9 @@ public class ObserverMethodImpl<T> implements OwbObserverMethod<T>
                 param.instance = instance;
                 param.bean = injectedBean;
             }
-
-            list.add(param);
-
-            if (list.size() == annotatedObservesParameter.getPosition())
-            {
-                param = new ObserverParams();
-                param.instance = event;
-                list.add(param);                 
-            }
         }
-                
-        return list;
+
+        return params;
     }
 
     /**
@@ -21,6 +21,9 @@ package org.apache.webbeans.inject;
 import jakarta.enterprise.context.spi.CreationalContext;
 import jakarta.enterprise.inject.spi.AnnotatedType;
 import jakarta.enterprise.inject.spi.BeanManager;
+import jakarta.enterprise.inject.spi.InjectionTarget;
+
+import org.apache.webbeans.container.BeanManagerImpl;
 
 /**
  * Injects dependencies of the given Java EE component
@@ -38,6 +41,8 @@ public final class OWBInjector
 
     /**
      * Inject dependencies of given instance.
+     * If the given BeanManager is a {@link BeanManagerImpl} the InjectionTarget
+     * of the instance class gets reused, see {@link BeanManagerImpl#getNonContextualInjectionTarget(Class)}.
      * @param beanManager the BeanManager to use
      * @param instanceUnderInjection instance
      * @param ownerCreationalContext CreationalContext of the owner
@@ -52,9 +57,16 @@ public final class OWBInjector
             creationalContext = beanManager.createCreationalContext(null);
         }
 
+        if (beanManager instanceof BeanManagerImpl)
+        {
+            InjectionTarget injectionTarget
+                = ((BeanManagerImpl) beanManager).getNonContextualInjectionTarget(instanceUnderInjection.getClass());
+            injectionTarget.inject(instanceUnderInjection, creationalContext);
+            return;
+        }
+
         AnnotatedType annotatedType = beanManager.createAnnotatedType(instanceUnderInjection.getClass());
         beanManager.getInjectionTargetFactory(annotatedType).createInjectionTarget(null).inject(instanceUnderInjection, creationalContext);
     }
 
-
 }
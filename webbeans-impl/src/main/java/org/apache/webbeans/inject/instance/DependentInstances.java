@@ -0,0 +1,373 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.inject.instance;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import jakarta.enterprise.context.spi.Contextual;
+import jakarta.enterprise.context.spi.CreationalContext;
+import jakarta.enterprise.inject.spi.Bean;
+
+import org.apache.webbeans.component.InjectionTargetBean;
+import org.apache.webbeans.context.creational.CreationalContextImpl;
+import org.apache.webbeans.portable.InjectionTargetImpl;
+import org.apache.webbeans.proxy.OwbInterceptorProxy;
+import org.apache.webbeans.proxy.OwbNormalScopeProxy;
+
+/**
+ * The instances an {@link InstanceImpl} created together with their CreationalContexts,
+ * kept according to the configured {@link DependentTracking}.
+ */
+final class DependentInstances
+{
+    private final DependentTracking tracking;
+
+    /**
+     * Used for {@link DependentTracking#STRONG} and {@link DependentTracking#DESTROYABLE}.
+     */
+    private Map<Object, CreationalContextImpl<?>> creationalContexts;
+
+    /**
+     * Used for {@link DependentTracking#WEAK}, the references of collected instances get enqueued in {@link #collected}.
+     */
+    private Map<InstanceReference, CreationalContextImpl<?>> weakCreationalContexts;
+    private ReferenceQueue<Object> collected;
+
+    /**
+     * The instances which did not get tracked as destroying them does nothing beside dropping them.
+     * They are only kept weakly to tell them apart from instances this Instance did not create.
+     */
+    private Set<InstanceReference> untracked;
+
+    DependentInstances(DependentTracking tracking)
+    {
+        this.tracking = tracking;
+    }
+
+    void track(Bean<?> bean, Object reference, CreationalContextImpl<?> creationalContext)
+    {
+        if (tracking != DependentTracking.STRONG && reference instanceof OwbNormalScopeProxy)
+        {
+            // destroy() goes through the context for those
+            return;
+        }
+
+        boolean needsDestroy = tracking == DependentTracking.STRONG || needsDestroy(bean, reference, creationalContext);
+        List<CreationalContextImpl<?>> released = null;
+        synchronized (this)
+        {
+            if (!needsDestroy)
+            {
+                released = expunge();
+                if (untracked == null)
+                {
+                    untracked = new HashSet<>();
+                }
+                untracked.add(new InstanceReference(reference, getCollected()));
+            }
+            else if (tracking == DependentTracking.WEAK)
+            {
+                released = expunge();
+                if (weakCreationalContexts == null)
+                {
+                    weakCreationalContexts = new HashMap<>();
+                }
+                // the CreationalContext must not keep the instance reachable, only its own dependent objects
+                creationalContext.removeDependent(bean, reference);
+                weakCreationalContexts.put(new InstanceReference(reference, getCollected()), creationalContext);
+            }
+            else
+            {
+                if (creationalContexts == null)
+                {
+                    creationalContexts = new IdentityHashMap<>();
+                }
+                creationalContexts.put(reference, creationalContext);
+            }
+        }
+        release(released);
+    }
+
+    private ReferenceQueue<Object> getCollected()
+    {
+        if (collected == null)
+        {
+            collected = new ReferenceQueue<>();
+        }
+        return collected;
+    }
+
+    /**
+     * Destroys the given instance together with its dependent objects.
+     *
+     * @return {@code false} if the instance did not get created by this Instance or got destroyed already
+     */
+    boolean destroy(Object instance)
+    {
+        CreationalContextImpl<?> creationalContext;
+        synchronized (this)
+        {
+            if (tracking == DependentTracking.WEAK)
+            {
+                creationalContext = weakCreationalContexts == null ? null : weakCreationalContexts.remove(new InstanceReference(instance, null));
+            }
+            else
+            {
+                creationalContext = creationalContexts == null ? null : creationalContexts.remove(instance);
+            }
+            if (creationalContext == null)
+            {
+                // nothing to destroy, but it has to be known
+                return untracked != null && untracked.remove(new InstanceReference(instance, null));
+            }
+        }
+
+        if (tracking == DependentTracking.WEAK)
+        {
+            destroy(instance, creationalContext);
+        }
+        else
+        {
+            creationalContext.destroyDependent(instance);
+        }
+        return true;
+    }
+
+    /**
+     * Destroys a weakly tracked instance, it is no dependent object of its CreationalContext anymore.
+     */
+    private static void destroy(Object instance, CreationalContextImpl<?> creationalContext)
+    {
+        Contextual<Object> contextual = (Contextual<Object>) creationalContext.getContextual();
+        if (contextual != null)
+        {
+            contextual.destroy(instance, (CreationalContext<Object>) creationalContext);
+        }
+        else
+        {
+            creationalContext.release();
+        }
+    }
+
+    void releaseAll()
+    {
+        List<CreationalContextImpl<?>> released;
+        Map<InstanceReference, CreationalContextImpl<?>> weaklyTracked = null;
+        synchronized (this)
+        {
+            if (untracked != null)
+            {
+                untracked.clear();
+            }
+            if (creationalContexts != null)
+            {
+                released = new ArrayList<>(creationalContexts.values());
+                creationalContexts.clear();
+            }
+            else if (weakCreationalContexts != null)
+            {
+                released = expunge();
+                weaklyTracked = new HashMap<>(weakCreationalContexts);
+                weakCreationalContexts.clear();
+            }
+            else
+            {
+                return;
+            }
+        }
+        release(released);
+
+        if (weaklyTracked != null)
+        {
+            for (Map.Entry<InstanceReference, CreationalContextImpl<?>> entry : weaklyTracked.entrySet())
+            {
+                Object instance = entry.getKey().get();
+                if (instance != null)
+                {
+                    destroy(instance, entry.getValue());
+                }
+                else
+                {
+                    entry.getValue().release();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of currently tracked instances, instances which got garbage collected don't count
+     */
+    int size()
+    {
+        List<CreationalContextImpl<?>> released;
+        int size;
+        synchronized (this)
+        {
+            released = expunge();
+            if (creationalContexts != null)
+            {
+                size = creationalContexts.size();
+            }
+            else if (weakCreationalContexts != null)
+            {
+                // the references of collected instances get cleared before they get enqueued
+                for (Iterator<Map.Entry<InstanceReference, CreationalContextImpl<?>>> it = weakCreationalContexts.entrySet().iterator(); it.hasNext();)
+                {
+                    Map.Entry<InstanceReference, CreationalContextImpl<?>> entry = it.next();
+                    if (entry.getKey().get() == null)
+                    {
+                        it.remove();
+                        if (released == null)
+                        {
+                            released = new ArrayList<>();
+                        }
+                        released.add(entry.getValue());
+                    }
+                }
+                size = weakCreationalContexts.size();
+            }
+            else
+            {
+                size = 0;
+            }
+        }
+        release(released);
+        return size;
+    }
+
+    /**
+     * Releases the CreationalContexts of the garbage collected instances.
+     */
+    void expungeCollected()
+    {
+        if (collected != null)
+        {
+            List<CreationalContextImpl<?>> released;
+            synchronized (this)
+            {
+                released = expunge();
+            }
+            release(released);
+        }
+    }
+
+    private List<CreationalContextImpl<?>> expunge()
+    {
+        if (collected == null)
+        {
+            return null;
+        }
+
+        List<CreationalContextImpl<?>> released = null;
+        Object reference;
+        while ((reference = collected.poll()) != null)
+        {
+            if (untracked != null && untracked.remove(reference))
+            {
+                continue;
+            }
+            CreationalContextImpl<?> creationalContext = weakCreationalContexts == null ? null : weakCreationalContexts.remove(reference);
+            if (creationalContext != null)
+            {
+                if (released == null)
+                {
+                    released = new ArrayList<>();
+                }
+                released.add(creationalContext);
+            }
+        }
+        return released;
+    }
+
+    /**
+     * The CreationalContexts get released outside of the lock as this calls the &#064;PreDestroy callbacks.
+     */
+    private static void release(List<CreationalContextImpl<?>> creationalContexts)
+    {
+        if (creationalContexts != null)
+        {
+            for (CreationalContextImpl<?> creationalContext : creationalContexts)
+            {
+                creationalContext.release();
+            }
+        }
+    }
+
+    /**
+     * Whether destroying the given instance would do anything beside dropping it.
+     * Unknown Producers count as destroyable.
+     */
+    private static boolean needsDestroy(Bean<?> bean, Object reference, CreationalContextImpl<?> creationalContext)
+    {
+        if (reference instanceof OwbInterceptorProxy || creationalContext.hasDependentsOtherThan(reference))
+        {
+            return true;
+        }
+        if (bean instanceof InjectionTargetBean)
+        {
+            Object producer = ((InjectionTargetBean<?>) bean).getProducer();
+            return !(producer instanceof InjectionTargetImpl) || ((InjectionTargetImpl<?>) producer).hasPreDestroy();
+        }
+        return true;
+    }
+
+    /**
+     * Weak reference with the identity of the referenced instance, lookups use a reference without queue.
+     */
+    private static final class InstanceReference extends WeakReference<Object>
+    {
+        private final int hashCode;
+
+        private InstanceReference(Object instance, ReferenceQueue<Object> queue)
+        {
+            super(instance, queue);
+            hashCode = System.identityHashCode(instance);
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof InstanceReference))
+            {
+                return false;
+            }
+            Object instance = get();
+            return instance != null && instance == ((InstanceReference) o).get();
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.inject.instance;
+
+/**
+ * How an {@link jakarta.enterprise.inject.Instance} keeps track of the &#064;Dependent instances
+ * it created, see {@link org.apache.webbeans.config.OpenWebBeansConfiguration#INSTANCE_DEPENDENT_TRACKING}.
+ */
+public enum DependentTracking
+{
+    /**
+     * Every instance is kept until it gets destroyed or the Instance gets released. This is the default.
+     */
+    STRONG,
+
+    /**
+     * Instances are only weakly referenced. Once an instance got garbage collected, the dependent
+     * objects it owned get destroyed with the next call to the Instance. The &#064;PreDestroy callback of
+     * the collected instance itself can't be invoked anymore. Decorated instances stay reachable.
+     */
+    WEAK,
+
+    /**
+     * Instances are only kept if destroying them does anything, i.e. if they have a &#064;PreDestroy callback,
+     * a disposer method, interceptors, decorators or dependent objects on their own.
+     * The other instances are only weakly referenced, so destroying an instance the Instance did not create still fails.
+     */
+    DESTROYABLE
+}
@@ -28,10 +28,13 @@ import java.lang.reflect.Type;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -66,6 +69,11 @@ public class InstanceImpl<T> implements Instance<T>, Serializable
 {
     private static final long serialVersionUID = -8401944412490389024L;
 
+    /**
+     * Maximum number of distinct {@code select(...)} results kept per Instance.
+     */
+    private static final int MAX_SELECTED_CHILDREN = 16;
+
     /** Injected class type */
     private Type injectionClazz;
 
@@ -79,10 +87,29 @@ public class InstanceImpl<T> implements Instance<T>, Serializable
 
     private WebBeansContext webBeansContext;
 
-    private Map<Object, CreationalContextImpl<?>> creationalContexts;
+    /**
+     * The created instances and their CreationalContexts, created with the first instance.
+     */
+    private transient volatile DependentInstances dependentInstances;
 
     private boolean strictValidation;
 
+    /**
+     * The bean {@link #get()} resolved to, kept once the container got started.
+     */
+    private transient volatile Bean<?> resolvedBean;
+
+    /**
+     * The client proxy if {@link #resolvedBean} is normal scoped, it doesn't depend on the CreationalContext.
+     */
+    private transient volatile T normalScopedReference;
+
+    /**
+     * Memoized results of {@code select(...)}, keyed by the requested type and the effective qualifiers.
+     * {@link Optional#empty()} marks selections which must not get memoized.
+     */
+    private transient volatile Map<SelectionKey, Optional<InstanceImpl<?>>> selectedChildren;
+
     /**
      * Creates new instance.
      * 
@@ -132,17 +159,34 @@ public class InstanceImpl<T> implements Instance<T>, Serializable
     @Override
     public T get()
     {
+        T reference = normalScopedReference;
+        if (reference != null)
+        {
+            return reference;
+        }
 
         Bean<?> bean = getBean();
 
-        return create(bean);
+        reference = create(bean);
+        if (resolvedBean == bean && reference instanceof OwbNormalScopeProxy
+                && webBeansContext.getBeanManagerImpl().isNormalScope(bean.getScope()))
+        {
+            normalScopedReference = reference;
+        }
+        return reference;
     }
 
     private Bean<?> getBean()
     {
+        Bean<?> bean = resolvedBean;
+        if (bean != null)
+        {
+            return bean;
+        }
+
         Set<Bean<?>> beans = resolveBeans();
 
-        Bean<?> bean = webBeansContext.getBeanManagerImpl().resolve(beans);
+        bean = webBeansContext.getBeanManagerImpl().resolve(beans);
 
         if (bean == null)
         {
@@ -150,6 +194,11 @@ public class InstanceImpl<T> implements Instance<T>, Serializable
             anns = qualifierAnnotations.toArray(anns);
             InjectionExceptionUtil.throwUnsatisfiedResolutionException(ClassUtil.getClazz(injectionClazz), injectionPoint, anns);
         }
+
+        if (!webBeansContext.getBeanManagerImpl().getInjectionResolver().isStartup())
+        {
+            resolvedBean = bean;
+        }
         return bean;
     }
 
@@ -212,9 +261,9 @@ public class InstanceImpl<T> implements Instance<T>, Serializable
         final Annotation[] newQualifiersArray = qualifiers.length == 0?
                 qualifierAnnotations.toArray(new Annotation[0]) :
                 concatenateQualifiers(qualifiers);
-        return new InstanceImpl<>(
+        return selectChild(new SelectionKey(null, newQualifiersArray), () -> new InstanceImpl<>(
             injectionClazz, injectionPoint == null ? null : new InstanceInjectionPoint(injectionPoint, newQualifiersArray),
-            webBeansContext, newQualifiersArray);
+            webBeansContext, newQualifiersArray));
     }
 
     /**
@@ -237,7 +286,78 @@ public class InstanceImpl<T> implements Instance<T>, Serializable
         final Annotation[] effectiveQualifiers = qualifiers != null && qualifiers.length > 0
             ? concatenateQualifiers(qualifiers)
             : qualifierAnnotations.toArray(new Annotation[0]);
-        return new InstanceImpl<>(sub, injectionPoint, webBeansContext, effectiveQualifiers);
+        Type selectedType = sub;
+        return selectChild(new SelectionKey(selectedType, effectiveQualifiers),
+            () -> new InstanceImpl<>(selectedType, injectionPoint, webBeansContext, effectiveQualifiers));
+    }
+
+    /**
+     * Returns the memoized child for the given selection, so repeated {@code select(...).get()} calls
+     * neither create a new Instance nor resolve the bean again.
+     * Only the first {@value #MAX_SELECTED_CHILDREN} selections get kept.
+     *
+     * Selections which resolve to pseudo scoped beans, e.g. &#064;Dependent ones, always get a new child.
+     * The child keeps the instances it created until they get destroyed, a memoized child would
+     * keep them for the whole lifetime of this Instance even if the caller dropped the child.
+     */
+    private <U> Instance<U> selectChild(SelectionKey key, Supplier<InstanceImpl<U>> factory)
+    {
+        Map<SelectionKey, Optional<InstanceImpl<?>>> children = selectedChildren;
+        if (children == null)
+        {
+            if (webBeansContext.getBeanManagerImpl().getInjectionResolver().isStartup())
+            {
+                return factory.get();
+            }
+            synchronized (this)
+            {
+                children = selectedChildren;
+                if (children == null)
+                {
+                    children = new ConcurrentHashMap<>();
+                    selectedChildren = children;
+                }
+            }
+        }
+
+        Optional<InstanceImpl<?>> memoized = children.get(key);
+        if (memoized != null)
+        {
+            return memoized.isPresent() ? (InstanceImpl<U>) memoized.get() : factory.get();
+        }
+
+        InstanceImpl<U> child = factory.get();
+        if (children.size() < MAX_SELECTED_CHILDREN)
+        {
+            Optional<InstanceImpl<?>> existing = children.putIfAbsent(key,
+                    child.resolvesToNormalScopedBeans() ? Optional.of(child) : Optional.empty());
+            if (existing != null && existing.isPresent())
+            {
+                child = (InstanceImpl<U>) existing.get();
+            }
+        }
+        return child;
+    }
+
+    /**
+     * @return whether all beans this Instance resolves to are normal scoped, so it never keeps any instances
+     */
+    private boolean resolvesToNormalScopedBeans()
+    {
+        Set<Bean<?>> beans = resolveBeans();
+        if (beans.isEmpty())
+        {
+            return false;
+        }
+        BeanManagerImpl beanManager = webBeansContext.getBeanManagerImpl();
+        for (Bean<?> bean : beans)
+        {
+            if (!beanManager.isNormalScope(bean.getScope()))
+            {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -310,14 +430,13 @@ public class InstanceImpl<T> implements Instance<T>, Serializable
         }
         else
         {
-            if (creationalContexts != null)
+            DependentInstances dependents = dependentInstances;
+            if (dependents != null)
             {
-                CreationalContextImpl<?> creationalContext = creationalContexts.remove(instance);
-                if (creationalContext == null)
+                if (!dependents.destroy(instance))
                 {
                     throw new IllegalArgumentException("instance " + instance + " not produced with this Instance<?>");
                 }
-                creationalContext.destroyDependent(instance);
             }
         }
     }
@@ -332,11 +451,7 @@ public class InstanceImpl<T> implements Instance<T>, Serializable
         try
         {
             T reference = (T) beanManager.getReference(bean, injectionClazz, creationalContext);
-            if (creationalContexts == null)
-            {
-                creationalContexts = new IdentityHashMap<>();
-            }
-            creationalContexts.put(reference, creationalContext);
+            getDependentInstances().track(bean, reference, creationalContext);
             return reference;
         }
         finally
@@ -345,6 +460,38 @@ public class InstanceImpl<T> implements Instance<T>, Serializable
         }
     }
     
+    private DependentInstances getDependentInstances()
+    {
+        DependentInstances dependents = dependentInstances;
+        if (dependents == null)
+        {
+            synchronized (this)
+            {
+                dependents = dependentInstances;
+                if (dependents == null)
+                {
+                    dependents = new DependentInstances(webBeansContext.getOpenWebBeansConfiguration().getInstanceDependentTracking());
+                    dependentInstances = dependents;
+                }
+            }
+        }
+        else
+        {
+            dependents.expungeCollected();
+        }
+        return dependents;
+    }
+
+    /**
+     * @return the number of instances created by this Instance which are kept until they get destroyed,
+     *         instances created by {@code select(...)} results are not included
+     */
+    public int getTrackedDependentCount()
+    {
+        DependentInstances dependents = dependentInstances;
+        return dependents == null ? 0 : dependents.size();
+    }
+
     private void writeObject(java.io.ObjectOutputStream op) throws IOException
     {
         ObjectOutputStream oos = new ObjectOutputStream(op);
@@ -391,15 +538,60 @@ public class InstanceImpl<T> implements Instance<T>, Serializable
 
     public void release()
     {
-        if (creationalContexts != null)
+        DependentInstances dependents = dependentInstances;
+        if (dependents != null)
         {
-            for (CreationalContextImpl<?> creationalContext : creationalContexts.values())
+            dependents.releaseAll();
+        }
+        Map<SelectionKey, Optional<InstanceImpl<?>>> children = selectedChildren;
+        if (children != null)
+        {
+            for (Optional<InstanceImpl<?>> child : children.values())
             {
-                creationalContext.release();
+                child.ifPresent(InstanceImpl::release);
             }
         }
     }
 
+    /**
+     * Key of a memoized {@code select(...)} result.
+     * The qualifiers are compared in their order, a different order only costs another child.
+     */
+    private static final class SelectionKey
+    {
+        private final Type type;
+        private final Annotation[] qualifiers;
+        private final int hashCode;
+
+        private SelectionKey(Type type, Annotation[] qualifiers)
+        {
+            this.type = type;
+            this.qualifiers = qualifiers;
+            hashCode = 31 * Objects.hashCode(type) + Arrays.hashCode(qualifiers);
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof SelectionKey))
+            {
+                return false;
+            }
+            SelectionKey other = (SelectionKey) o;
+            return Objects.equals(type, other.type) && Arrays.equals(qualifiers, other.qualifiers);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return hashCode;
+        }
+    }
+
     private static class InstanceInjectionPoint implements InjectionPoint, Serializable
     {
         private InjectionPoint delegate;
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.intercept;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.enterprise.inject.spi.InterceptionType;
+import jakarta.enterprise.inject.spi.Interceptor;
+
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.proxy.MethodInvoker;
+import org.apache.webbeans.proxy.MethodInvokerFactory;
+
+/**
+ * The precomputed around-invoke chain of a single intercepted business method.
+ *
+ * Interceptors which do not intercept {@link InterceptionType#AROUND_INVOKE} are already
+ * filtered out and the target method gets invoked via a generated {@link MethodInvoker}
+ * if possible. Instances are immutable and shared between all contextual instances of a bean.
+ *
+ * @see org.apache.webbeans.config.OpenWebBeansConfiguration#COMPILED_INTERCEPTOR_CHAINS
+ */
+public final class CompiledInterceptorChain
+{
+    private final Method method;
+    private final Interceptor<?>[] interceptors;
+    private final MethodInvoker invoker;
+
+    private CompiledInterceptorChain(Method method, Interceptor<?>[] interceptors, MethodInvoker invoker)
+    {
+        this.method = method;
+        this.interceptors = interceptors;
+        this.invoker = invoker;
+    }
+
+    public Method getMethod()
+    {
+        return method;
+    }
+
+    public Interceptor<?>[] getInterceptors()
+    {
+        return interceptors;
+    }
+
+    /**
+     * @return the generated invoker for the target method or {@code null} if reflection has to be used
+     */
+    public MethodInvoker getInvoker()
+    {
+        return invoker;
+    }
+
+    /**
+     * Compile the chains for all the given methods.
+     *
+     * @param methodInterceptors the interceptors of each intercepted method as created by
+     *                           {@link InterceptorResolutionService#createMethodInterceptors}
+     * @param webBeansContext provides the {@link MethodInvokerFactory} for the target invokers
+     */
+    public static Map<Method, CompiledInterceptorChain> compile(Map<Method, List<Interceptor<?>>> methodInterceptors,
+                                                                WebBeansContext webBeansContext)
+    {
+        MethodInvokerFactory invokerFactory = webBeansContext.getMethodInvokerFactory();
+        Map<Method, CompiledInterceptorChain> chains = new HashMap<>(methodInterceptors.size() * 2);
+        for (Map.Entry<Method, List<Interceptor<?>>> entry : methodInterceptors.entrySet())
+        {
+            Method method = entry.getKey();
+            List<Interceptor<?>> aroundInvoke = new ArrayList<>(entry.getValue().size());
+            for (Interceptor<?> interceptor : entry.getValue())
+            {
+                if (interceptor.intercepts(InterceptionType.AROUND_INVOKE))
+                {
+                    aroundInvoke.add(interceptor);
+                }
+            }
+
+            // the reflection fallback needs it, only done once per method
+            webBeansContext.getSecurityService().doPrivilegedSetAccessible(method, true);
+
+            chains.put(method, new CompiledInterceptorChain(
+                    method, aroundInvoke.toArray(new Interceptor<?>[0]), invokerFactory.getMethodInvoker(method)));
+        }
+        return chains;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.intercept;
+
+import java.util.Map;
+
+import jakarta.enterprise.inject.spi.InterceptionType;
+import jakarta.enterprise.inject.spi.Interceptor;
+import jakarta.inject.Provider;
+
+import org.apache.webbeans.proxy.MethodInvoker;
+
+/**
+ * InvocationContext for business method interceptors which walks a precomputed
+ * {@link CompiledInterceptorChain} instead of the interceptor List.
+ */
+public class CompiledInterceptorInvocationContext<T> extends AbstractInvocationContext<T>
+{
+    private final Interceptor<?>[] interceptors;
+    private final MethodInvoker invoker;
+    private final Map<Interceptor<?>, ?> instances;
+    private int index;
+
+    public CompiledInterceptorInvocationContext(Provider<T> provider, CompiledInterceptorChain chain,
+                                                Map<Interceptor<?>, ?> instances, Object[] parameters)
+    {
+        super(provider, chain.getMethod(), parameters);
+        this.interceptors = chain.getInterceptors();
+        this.invoker = chain.getInvoker();
+        this.instances = instances;
+    }
+
+    @Override
+    public Object proceed() throws Exception
+    {
+        if (index < interceptors.length)
+        {
+            Interceptor interceptor = interceptors[index++];
+            try
+            {
+                return interceptor.intercept(InterceptionType.AROUND_INVOKE, instances.get(interceptor), this);
+            }
+            catch (Exception e)
+            {
+                // restore the original location, see InterceptorInvocationContext
+                index--;
+                throw e;
+            }
+        }
+        return directProceed();
+    }
+
+    @Override
+    public Object directProceed() throws Exception
+    {
+        if (invoker == null)
+        {
+            return super.directProceed();
+        }
+        // the generated invoker doesn't wrap exceptions, so there is nothing to unpack
+        return invoker.invoke(target.get(), parameters);
+    }
+}
@@ -75,6 +75,18 @@ public class DefaultInterceptorHandler<T> implements InterceptorHandler, Externa
     private Map<Method, List<Interceptor<?>>> interceptors;
     private Map<Interceptor<?>, ?> instances;
 
+    /**
+     * The precomputed interceptor chains for each method or {@code null}
+     * if {@link #interceptors} shall get evaluated on each invocation.
+     */
+    private Map<Method, CompiledInterceptorChain> chains;
+
+    /**
+     * Provides the {@link #delegate} to the InvocationContexts.
+     * Created once to not allocate it on each invocation.
+     */
+    private Provider<T> delegateProvider;
+
     /**
      * InterceptorHandler wich gets used in our InjectionTargets which
      * support interceptors and decorators
@@ -89,12 +101,29 @@ public class DefaultInterceptorHandler<T> implements InterceptorHandler, Externa
                                      Map<Method, List<Interceptor<?>>> interceptors,
                                      Map<Interceptor<?>, ?> instances,
                                      String beanPassivationId)
+    {
+        this(target, delegate, interceptors, null, instances, beanPassivationId);
+    }
+
+    /**
+     * @param chains the precomputed chains for the methods in {@code interceptors}
+     *               or {@code null} to evaluate {@code interceptors} on each invocation
+     * @see #DefaultInterceptorHandler(Object, Object, Map, Map, String)
+     */
+    public DefaultInterceptorHandler(T target,
+                                     T delegate,
+                                     Map<Method, List<Interceptor<?>>> interceptors,
+                                     Map<Method, CompiledInterceptorChain> chains,
+                                     Map<Interceptor<?>, ?> instances,
+                                     String beanPassivationId)
     {
         this.target = target;
         this.delegate = delegate;
         this.instances = instances;
         this.interceptors = interceptors;
+        this.chains = chains;
         this.beanPassivationId = beanPassivationId;
+        this.delegateProvider = new InstanceProvider<>(delegate);
     }
 
     public DefaultInterceptorHandler()
@@ -127,6 +156,15 @@ public class DefaultInterceptorHandler<T> implements InterceptorHandler, Externa
     {
         try
         {
+            if (chains != null)
+            {
+                CompiledInterceptorChain chain = chains.get(method);
+                if (chain != null)
+                {
+                    return new CompiledInterceptorInvocationContext<>(delegateProvider, chain, instances, parameters).proceed();
+                }
+            }
+
             List<Interceptor<?>> methodInterceptors = interceptors.get(method);
             if (methodInterceptors == null)
             {
@@ -134,7 +172,7 @@ public class DefaultInterceptorHandler<T> implements InterceptorHandler, Externa
             }
 
             InterceptorInvocationContext<T> ctx
-                = new InterceptorInvocationContext<T>(new InstanceProvider(delegate), InterceptionType.AROUND_INVOKE, methodInterceptors, instances, method, parameters);
+                = new InterceptorInvocationContext<T>(delegateProvider, InterceptionType.AROUND_INVOKE, methodInterceptors, instances, method, parameters);
 
             return ctx.proceed();
         }
@@ -225,6 +263,7 @@ public class DefaultInterceptorHandler<T> implements InterceptorHandler, Externa
         {
             delegate = (T) in.readObject();
         }
+        delegateProvider = new InstanceProvider<>(delegate);
 
         int instancesSize = in.readInt();
         WebBeansContext webBeansContext = WebBeansContext.getInstance();
@@ -272,6 +311,11 @@ public class DefaultInterceptorHandler<T> implements InterceptorHandler, Externa
             interceptors.put(method, interceptorList);
         }
 
+        if (webBeansContext.getOpenWebBeansConfiguration().isCompiledInterceptorChains())
+        {
+            chains = CompiledInterceptorChain.compile(interceptors, webBeansContext);
+        }
+
         beanPassivationId = in.readUTF();
     }
 
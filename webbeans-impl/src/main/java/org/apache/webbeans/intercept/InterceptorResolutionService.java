@@ -802,6 +802,19 @@ public class InterceptorResolutionService
         return methodInterceptors;
     }
 
+    /**
+     * @return the precomputed chains for the given method interceptors or {@code null}
+     *         if {@link OpenWebBeansConfiguration#COMPILED_INTERCEPTOR_CHAINS} is disabled.
+     */
+    public Map<Method, CompiledInterceptorChain> compileMethodInterceptors(Map<Method, List<Interceptor<?>>> methodInterceptors)
+    {
+        if (!webBeansContext.getOpenWebBeansConfiguration().isCompiledInterceptorChains())
+        {
+            return null;
+        }
+        return CompiledInterceptorChain.compile(methodInterceptors, webBeansContext);
+    }
+
     public <T> Map<Interceptor<?>, Object> createInterceptorInstances(BeanInterceptorInfo interceptorInfo,
                                                                       CreationalContextImpl<T> creationalContextImpl)
     {
@@ -862,7 +875,8 @@ public class InterceptorResolutionService
                         new DecoratorHandler(interceptorInfo, decorators, instances, i - 1, instance, passivationId));
             }
         }
-        InterceptorHandler interceptorHandler = new DefaultInterceptorHandler<>(instance, delegate, methodInterceptors, interceptorInstances, passivationId);
+        InterceptorHandler interceptorHandler = new DefaultInterceptorHandler<>(instance, delegate, methodInterceptors,
+                interceptorInfo.getCompiledInterceptorChains(), interceptorInstances, passivationId);
 
         return webBeansContext.getInterceptorDecoratorProxyFactory().createProxyInstance(proxyClass, instance, interceptorHandler);
     }
@@ -945,6 +959,11 @@ public class InterceptorResolutionService
          */
         private Map<InterceptionType, LifecycleMethodInfo> lifecycleMethodInterceptorInfos;
 
+        /**
+         * The precomputed around-invoke chains of the intercepted methods
+         * or {@code null} if they get evaluated on each invocation.
+         */
+        private Map<Method, CompiledInterceptorChain> compiledInterceptorChains;
 
         public List<Decorator<?>> getDecorators()
         {
@@ -995,6 +1014,16 @@ public class InterceptorResolutionService
         {
             return lifecycleMethodInterceptorInfos;
         }
+
+        public Map<Method, CompiledInterceptorChain> getCompiledInterceptorChains()
+        {
+            return compiledInterceptorChains;
+        }
+
+        public void setCompiledInterceptorChains(Map<Method, CompiledInterceptorChain> compiledInterceptorChains)
+        {
+            this.compiledInterceptorChains = compiledInterceptorChains;
+        }
     }
 
     /**
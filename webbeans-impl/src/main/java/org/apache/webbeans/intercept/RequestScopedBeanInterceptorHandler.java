@@ -20,7 +20,9 @@ package org.apache.webbeans.intercept;
 
 import jakarta.enterprise.inject.spi.Bean;
 import jakarta.enterprise.inject.spi.BeanManager;
-import java.util.HashMap;
+import java.util.Arrays;
+
+import org.apache.webbeans.component.AbstractOwbBean;
 
 
 /**
@@ -37,9 +39,11 @@ public class RequestScopedBeanInterceptorHandler extends NormalScopedBeanInterce
     private static final long serialVersionUID = 1L;
 
     /**
-     * Cached bean instance for each thread
+     * Cached bean instances for each thread. The instance of a bean is stored at twice its
+     * request scoped ordinal, followed by the bean itself as the ordinals of different applications
+     * sharing the thread overlap.
      */
-    private static ThreadLocal<HashMap<Bean<?>, Object>> cachedInstances = new ThreadLocal<>();
+    private static ThreadLocal<Object[]> cachedInstances = new ThreadLocal<>();
 
 
     public static void removeThreadLocals()
@@ -62,20 +66,32 @@ public class RequestScopedBeanInterceptorHandler extends NormalScopedBeanInterce
     @Override
     protected Object getContextualInstance()
     {
-        HashMap<Bean<?>, Object> beanMap = cachedInstances.get();
-        if (beanMap == null)
+        int ordinal = bean instanceof AbstractOwbBean ? ((AbstractOwbBean<?>) bean).getRequestScopedOrdinal() : -1;
+        if (ordinal < 0)
         {
-            beanMap = new HashMap<>();
-            cachedInstances.set(beanMap);
+            // not yet used in a RequestContext or a custom Bean
+            return super.getContextualInstance();
         }
 
-        Object cachedInstance = beanMap.get(bean);
-        if (cachedInstance == null)
+        int slot = ordinal * 2;
+        Object[] instances = cachedInstances.get();
+        if (instances != null && slot < instances.length && instances[slot + 1] == bean)
         {
+            return instances[slot];
+        }
 
-            cachedInstance = super.getContextualInstance();
-            beanMap.put(bean, cachedInstance);
+        Object cachedInstance = super.getContextualInstance();
+
+        instances = cachedInstances.get();
+        if (instances == null || slot >= instances.length)
+        {
+            int length = Math.max(ordinal + 1,
+                    ((AbstractOwbBean<?>) bean).getWebBeansContext().getBeanManagerImpl().getRequestScopedBeanCount()) * 2;
+            instances = instances == null ? new Object[length] : Arrays.copyOf(instances, length);
+            cachedInstances.set(instances);
         }
+        instances[slot] = cachedInstance;
+        instances[slot + 1] = bean;
 
         return cachedInstance;
     }
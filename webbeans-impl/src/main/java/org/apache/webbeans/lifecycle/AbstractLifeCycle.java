@@ -161,6 +161,7 @@ public abstract class AbstractLifeCycle implements ContainerLifecycle
             beanManager.fireLifecycleEvent(new BeforeShutdownImpl());
 
             contextsService.destroy(endObject);
+            webBeansContext.getConversationManager().shutdown();
 
             //Unbind BeanManager
             jndiService.unbind(WebBeansConstants.WEB_BEANS_MANAGER_JNDI_NAME);
@@ -96,6 +96,9 @@ public abstract class AbstractProducer<T> implements Producer<T>
 
         if (needsProxy())
         {
+            interceptorInfo.setCompiledInterceptorChains(
+                    webBeansContext.getInterceptorResolutionService().compileMethodInterceptors(methodInterceptors));
+
             // we only need to create a proxy class for intercepted or decorated Beans
             InterceptorDecoratorProxyFactory pf = webBeansContext.getInterceptorDecoratorProxyFactory();
 
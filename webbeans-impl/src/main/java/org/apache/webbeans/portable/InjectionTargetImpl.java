@@ -332,6 +332,15 @@ public class InjectionTargetImpl<T> extends AbstractProducer<T> implements Injec
         }
     }
 
+    /**
+     * @return whether {@link #preDestroy(Object)} invokes any callback or interceptor
+     */
+    public boolean hasPreDestroy()
+    {
+        return (preDestroyMethods != null && !preDestroyMethods.isEmpty())
+            || (preDestroyInterceptors != null && !preDestroyInterceptors.isEmpty());
+    }
+
     @Override
     public void preDestroy(T instance)
     {
@@ -35,8 +35,8 @@ import org.apache.webbeans.config.WebBeansContext;
 import org.apache.webbeans.exception.ProxyGenerationException;
 import org.apache.webbeans.exception.WebBeansException;
 import org.apache.webbeans.hash.XxHash64;
+import org.apache.webbeans.service.HiddenClassProxyService;
 import org.apache.webbeans.spi.DefiningClassService;
-import org.apache.webbeans.spi.InstantiatingClassService;
 import org.apache.xbean.asm9.ClassReader;
 import org.apache.xbean.asm9.ClassWriter;
 import org.apache.xbean.asm9.MethodVisitor;
@@ -62,8 +62,8 @@ public abstract class AbstractProxyFactory
 
     protected final Unsafe unsafe;
 
+    private final ClassDefiner classDefiner;
     private final DefiningClassService definingService;
-    private final InstantiatingClassService instantiatingService;
 
     private final boolean useStaticNames;
     private final boolean useXXhash64;
@@ -81,24 +81,32 @@ public abstract class AbstractProxyFactory
     public static final String FIELD_BEAN_PASSIVATION_ID = "owbBeanPassivationId";
 
 
+    /**
+     * Proxies of distinct classes get generated in parallel, but for the same class picking a free proxy class name
+     * and defining the proxy class must not interleave.
+     */
+    private static final ClassValue<Object> PROXY_NAME_LOCKS = new ClassValue<Object>()
+    {
+        @Override
+        protected Object computeValue(Class<?> type)
+        {
+            return new Object();
+        }
+    };
+
     protected AbstractProxyFactory(WebBeansContext webBeansContext)
     {
         this.webBeansContext = webBeansContext;
         javaVersion = determineDefaultJavaVersion();
-        definingService = webBeansContext.getService(DefiningClassService.class);
-
-        // if defining service implements both, we don't need to lookup the second service
-        instantiatingService = (definingService instanceof InstantiatingClassService)
-                               ? (InstantiatingClassService) definingService
-                               : webBeansContext.getService(InstantiatingClassService.class);
+        classDefiner = new ClassDefiner(webBeansContext);
+        definingService = classDefiner.getDefiningService();
 
         useStaticNames = Boolean.parseBoolean(webBeansContext.getOpenWebBeansConfiguration()
                 .getProperty("org.apache.webbeans.proxy.useStaticNames"));
         useXXhash64 = Boolean.parseBoolean(webBeansContext.getOpenWebBeansConfiguration()
                 .getProperty("org.apache.webbeans.proxy.staticNames.useXxHash64"));
 
-        // we have fallbacks bellow to try Unsafe anyways if we can't do otherwise
-        unsafe = definingService == null || instantiatingService == null ? new Unsafe() : null;
+        unsafe = classDefiner.getUnsafe();
     }
 
     private int determineDefaultJavaVersion()
@@ -158,11 +166,7 @@ public abstract class AbstractProxyFactory
 
     protected ClassLoader getProxyClassLoader(Class<?> beanClass)
     {
-        if (definingService != null)
-        {
-            return definingService.getProxyClassLoader(beanClass);
-        }
-        return webBeansContext.getApplicationBoundaryService().getBoundaryClassLoader(beanClass);
+        return classDefiner.getProxyClassLoader(beanClass);
     }
 
     /**
@@ -252,6 +256,30 @@ public abstract class AbstractProxyFactory
         return getUnusedProxyClassName(classLoader, proxyClassName);
     }
 
+    /**
+     * Like {@link #getUnusedProxyClassName(ClassLoader, String, Method[], Method[])} but without probing
+     * for a free name if the proxy gets defined as hidden class since those never clash.
+     */
+    protected String getUnusedProxyClassName(ClassLoader classLoader, Class<?> classToProxy, String proxyClassName,
+                                             Method[] proxiedMethods, Method[] notProxiedMethods)
+    {
+        if (!useStaticNames && definingService instanceof HiddenClassProxyService
+                && ((HiddenClassProxyService) definingService).isHiddenClassHost(classToProxy)
+                && fixPreservedPackages(proxyClassName).equals(proxyClassName))
+        {
+            return proxyClassName + 0;
+        }
+        return getUnusedProxyClassName(classLoader, proxyClassName, proxiedMethods, notProxiedMethods);
+    }
+
+    /**
+     * @return the monitor to hold from picking the proxy class name for the given class until its proxy class got defined
+     */
+    protected Object getProxyNameLock(Class<?> classToProxy)
+    {
+        return PROXY_NAME_LOCKS.get(classToProxy);
+    }
+
     protected String uniqueHash(Method[] proxiedMethods, Method[] notProxiedMethods)
     {
         if (useXXhash64)
@@ -283,30 +311,7 @@ public abstract class AbstractProxyFactory
 
     protected String fixPreservedPackages(final String proxyClassName)
     {
-        return webBeansContext.getOpenWebBeansConfiguration().getProxyReservedPackages().stream()
-                .filter(proxyClassName::startsWith)
-                .findFirst() // can only be one, you can't start with 2 of them
-                .map(it -> fixPreservedPackage(proxyClassName, it))
-                .orElse(proxyClassName);
-    }
-
-    /**
-     * Detect if the provided className is in the forbidden package.
-     * If so, move it to org.apache.webbeans.custom.
-     * @param forbiddenPackagePrefix including the '.', e.g. 'javax.'
-     */
-    private String fixPreservedPackage(String className, String forbiddenPackagePrefix)
-    {
-        String fixedClassName = className;
-
-        if (className.startsWith(forbiddenPackagePrefix))
-        {
-            fixedClassName = "org.apache.webbeans.custom." +
-                    className.substring(className.lastIndexOf('.') + 1) +
-                    Math.abs(className.hashCode()); // to include somehow the package too even if unlikely
-        }
-
-        return fixedClassName;
+        return classDefiner.fixPreservedPackages(proxyClassName);
     }
 
     protected <T> Class<T> createProxyClass(ClassLoader classLoader, String proxyClassName, Class<T> classToProxy,
@@ -329,6 +334,15 @@ public abstract class AbstractProxyFactory
                                                       Constructor<T> constructor)
             throws ProxyGenerationException
     {
+        if (definingService != null)
+        {
+            Class<T> existing = definingService.findProxyClass(proxyClassName, classToProxy);
+            if (existing != null)
+            {
+                return existing;
+            }
+        }
+
         String proxyClassFileName = proxyClassName.replace('.', '/');
 
         byte[] proxyBytes = generateProxy(classLoader,
@@ -339,20 +353,32 @@ public abstract class AbstractProxyFactory
                 sortOutDuplicateMethods(nonInterceptedMethods),
                 constructor);
 
-        if (definingService != null)
-        {
-            return definingService.defineAndLoad(proxyClassName, proxyBytes, classToProxy);
-        }
-        return unsafe.defineAndLoadClass(classLoader, proxyClassName, proxyBytes, classToProxy);
+        return defineAndLoadClass(classLoader, proxyClassName, proxyBytes, classToProxy);
+    }
+
+    /**
+     * Define the given bytecode either via the configured {@link DefiningClassService} or via {@link Unsafe}.
+     *
+     * @param classLoader the classloader to define the class in if no DefiningClassService is configured
+     * @param forClass the class the generated class belongs to
+     */
+    protected <T> Class<T> defineAndLoadClass(ClassLoader classLoader, String className, byte[] bytes, Class<?> forClass)
+            throws ProxyGenerationException
+    {
+        return classDefiner.defineAndLoadClass(classLoader, className, bytes, forClass);
+    }
+
+    /**
+     * @return the configured DefiningClassService or {@code null} if classes get defined via {@link Unsafe}
+     */
+    protected DefiningClassService getDefiningService()
+    {
+        return definingService;
     }
 
     protected <T> T newInstance(final Class<? extends T> proxyClass)
     {
-        if (instantiatingService != null)
-        {
-            return instantiatingService.newInstance(proxyClass);
-        }
-        return unsafe.unsafeNewInstance(proxyClass);
+        return classDefiner.newInstance(proxyClass);
     }
 
     private Method[] sortOutDuplicateMethods(Method[] methods)
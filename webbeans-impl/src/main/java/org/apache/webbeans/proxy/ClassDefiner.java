@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.proxy;
+
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.exception.ProxyGenerationException;
+import org.apache.webbeans.spi.DefiningClassService;
+import org.apache.webbeans.spi.InstantiatingClassService;
+
+/**
+ * Defines and instantiates classes generated at runtime, either via the configured
+ * {@link DefiningClassService} and {@link InstantiatingClassService} or via {@link Unsafe}.
+ *
+ * Shared by the proxy factories and the {@link MethodInvokerFactory}.
+ */
+public class ClassDefiner
+{
+    private final WebBeansContext webBeansContext;
+
+    private final DefiningClassService definingService;
+    private final InstantiatingClassService instantiatingService;
+
+    private final Unsafe unsafe;
+
+    public ClassDefiner(WebBeansContext webBeansContext)
+    {
+        this.webBeansContext = webBeansContext;
+        definingService = webBeansContext.getService(DefiningClassService.class);
+
+        // if defining service implements both, we don't need to lookup the second service
+        instantiatingService = (definingService instanceof InstantiatingClassService)
+                               ? (InstantiatingClassService) definingService
+                               : webBeansContext.getService(InstantiatingClassService.class);
+
+        // we have fallbacks bellow to try Unsafe anyways if we can't do otherwise
+        unsafe = definingService == null || instantiatingService == null ? new Unsafe() : null;
+    }
+
+    /**
+     * @return the configured DefiningClassService or {@code null} if classes get defined via {@link Unsafe}
+     */
+    public DefiningClassService getDefiningService()
+    {
+        return definingService;
+    }
+
+    /**
+     * @return the Unsafe fallback or {@code null} if both services are configured
+     */
+    Unsafe getUnsafe()
+    {
+        return unsafe;
+    }
+
+    public ClassLoader getProxyClassLoader(Class<?> beanClass)
+    {
+        if (definingService != null)
+        {
+            return definingService.getProxyClassLoader(beanClass);
+        }
+        return webBeansContext.getApplicationBoundaryService().getBoundaryClassLoader(beanClass);
+    }
+
+    /**
+     * Define the given bytecode either via the configured {@link DefiningClassService} or via {@link Unsafe}.
+     *
+     * @param classLoader the classloader to define the class in if no DefiningClassService is configured
+     * @param forClass the class the generated class belongs to
+     */
+    public <T> Class<T> defineAndLoadClass(ClassLoader classLoader, String className, byte[] bytes, Class<?> forClass)
+            throws ProxyGenerationException
+    {
+        if (definingService != null)
+        {
+            return (Class<T>) definingService.defineAndLoad(className, bytes, forClass);
+        }
+        return unsafe.defineAndLoadClass(classLoader, className, bytes, forClass);
+    }
+
+    public <T> T newInstance(final Class<? extends T> proxyClass)
+    {
+        if (instantiatingService != null)
+        {
+            return instantiatingService.newInstance(proxyClass);
+        }
+        return unsafe.unsafeNewInstance(proxyClass);
+    }
+
+    /**
+     * @return the given class name or a name moved to org.apache.webbeans.custom
+     *         if it lies in one of the reserved packages like java.*
+     */
+    public String fixPreservedPackages(final String className)
+    {
+        return webBeansContext.getOpenWebBeansConfiguration().getProxyReservedPackages().stream()
+                .filter(className::startsWith)
+                .findFirst() // can only be one, you can't start with 2 of them
+                .map(it -> fixPreservedPackage(className, it))
+                .orElse(className);
+    }
+
+    /**
+     * Detect if the provided className is in the forbidden package.
+     * If so, move it to org.apache.webbeans.custom.
+     * @param forbiddenPackagePrefix including the '.', e.g. 'javax.'
+     */
+    private String fixPreservedPackage(String className, String forbiddenPackagePrefix)
+    {
+        String fixedClassName = className;
+
+        if (className.startsWith(forbiddenPackagePrefix))
+        {
+            fixedClassName = "org.apache.webbeans.custom." +
+                    className.substring(className.lastIndexOf('.') + 1) +
+                    Math.abs(className.hashCode()); // to include somehow the package too even if unlikely
+        }
+
+        return fixedClassName;
+    }
+}
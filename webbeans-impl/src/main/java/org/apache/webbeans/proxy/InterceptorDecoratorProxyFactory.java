@@ -39,8 +39,6 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Collection;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 /**
  * Generate a dynamic subclass which has exactly 1 delegation point instance
@@ -66,8 +64,8 @@ public class InterceptorDecoratorProxyFactory extends AbstractProxyFactory
      * Caches the proxy classes for each bean.
      * We need this to prevent filling up the ClassLoaders by
      */
-    private ConcurrentMap<Bean<?>, Class<?>> cachedProxyClasses = new ConcurrentHashMap<>();
-    private ConcurrentMap<AnnotatedType<?>, Class<?>> cachedProxyClassesByAt = new ConcurrentHashMap<>();
+    private final ProxyClassCache<Bean<?>> cachedProxyClasses = new ProxyClassCache<>();
+    private final ProxyClassCache<AnnotatedType<?>> cachedProxyClassesByAt = new ProxyClassCache<>();
 
 
     public InterceptorDecoratorProxyFactory(WebBeansContext webBeansContext)
@@ -172,59 +170,61 @@ public class InterceptorDecoratorProxyFactory extends AbstractProxyFactory
      * @param <T>
      * @return the proxy class
      */
-    public synchronized <T> Class<T> createProxyClass(Bean<T> bean, ClassLoader classLoader, Class<T> classToProxy,
-                                                      Method[] interceptedMethods, Method[] nonInterceptedMethods)
+    public <T> Class<T> createProxyClass(Bean<T> bean, ClassLoader classLoader, Class<T> classToProxy,
+                                         Method[] interceptedMethods, Method[] nonInterceptedMethods)
             throws ProxyGenerationException
     {
-        Class<T> proxyClass = createProxyClass(classLoader, classToProxy, interceptedMethods, nonInterceptedMethods);
-        cachedProxyClasses.put(bean, proxyClass);
-        return proxyClass;
+        return cachedProxyClasses.computeIfAbsent(bean, new Object[] {classToProxy, interceptedMethods, nonInterceptedMethods},
+            () -> createProxyClass(classLoader, classToProxy, interceptedMethods, nonInterceptedMethods));
     }
 
-    public synchronized <T> Class<T> createProxyClass(InterceptorResolutionService.BeanInterceptorInfo interceptorInfo,
-                                                      AnnotatedType<T> at, ClassLoader classLoader)
+    public <T> Class<T> createProxyClass(InterceptorResolutionService.BeanInterceptorInfo interceptorInfo,
+                                         AnnotatedType<T> at, ClassLoader classLoader)
             throws ProxyGenerationException
     {
         Collection<Method> intercepted = interceptorInfo.getBusinessMethodsInfo().keySet();
         Collection<Method> others = interceptorInfo.getNonInterceptedMethods();
+        Method[] interceptedMethods = intercepted.toArray(new Method[intercepted.size()]);
+        Method[] nonInterceptedMethods = others.toArray(new Method[others.size()]);
 
-        Class<T> proxyClass = createProxyClass(
-                classLoader, at.getJavaClass(),
-                intercepted.toArray(new Method[intercepted.size()]), others.toArray(new Method[others.size()]));
-        cachedProxyClassesByAt.put(at, proxyClass);
-        return proxyClass;
+        return cachedProxyClassesByAt.computeIfAbsent(at, new Object[] {interceptedMethods, nonInterceptedMethods},
+            () -> createProxyClass(classLoader, at.getJavaClass(), interceptedMethods, nonInterceptedMethods));
     }
 
     private <T> Class<T> createProxyClass(ClassLoader classLoader, Class<T> classToProxy,
                                           Method[] interceptedMethods, Method[] nonInterceptedMethods)
             throws ProxyGenerationException
     {
-        String proxyClassName = getUnusedProxyClassName(
-                classLoader,
-                (classToProxy.getSigners() != null ? getSignedClassProxyName(classToProxy) : classToProxy.getName()) + "$$OwbInterceptProxy",
-                interceptedMethods, nonInterceptedMethods);
+        synchronized (getProxyNameLock(classToProxy))
+        {
+            String proxyClassName = getUnusedProxyClassName(
+                    classLoader,
+                    classToProxy,
+                    (classToProxy.getSigners() != null ? getSignedClassProxyName(classToProxy) : classToProxy.getName()) + "$$OwbInterceptProxy",
+                    interceptedMethods, nonInterceptedMethods);
 
 
-        Class<T> clazz = createProxyClass(classLoader, proxyClassName, classToProxy, interceptedMethods, nonInterceptedMethods);
+            Class<T> clazz = createProxyClass(classLoader, proxyClassName, classToProxy, interceptedMethods, nonInterceptedMethods);
 
-        try
-        {
-            Field interceptedMethodsField = clazz.getDeclaredField(FIELD_INTERCEPTED_METHODS);
-            interceptedMethodsField.setAccessible(true);
-            interceptedMethodsField.set(null, interceptedMethods);
-        }
-        catch (Exception e)
-        {
-            throw new ProxyGenerationException(e);
-        }
+            try
+            {
+                Field interceptedMethodsField = clazz.getDeclaredField(FIELD_INTERCEPTED_METHODS);
+                interceptedMethodsField.setAccessible(true);
+                interceptedMethodsField.set(null, interceptedMethods);
+            }
+            catch (Exception e)
+            {
+                throw new ProxyGenerationException(e);
+            }
 
-        return clazz;
+            return clazz;
+        }
     }
 
     public <T> Class<T> getCachedProxyClass(InterceptorResolutionService.BeanInterceptorInfo interceptorInfo,
                                             AnnotatedType<T> at, ClassLoader classLoader)
     {
-        Class<T> value = (Class<T>) cachedProxyClassesByAt.get(at);
+        Class<T> value = cachedProxyClassesByAt.get(at);
         if (value == null)
         {
             value = createProxyClass(interceptorInfo, at, classLoader);
@@ -234,7 +234,7 @@ public class InterceptorDecoratorProxyFactory extends AbstractProxyFactory
 
     public <T> Class<T> getCachedProxyClass(Bean<T> bean)
     {
-        return (Class<T>) cachedProxyClasses.get(bean);
+        return cachedProxyClasses.get(bean);
     }
 
     @Override
@@ -0,0 +1,37 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.proxy;
+
+/**
+ * Invokes a single method without reflection.
+ * Implementations get generated by the {@link MethodInvokerFactory}.
+ *
+ * In contrast to {@link java.lang.reflect.Method#invoke(Object, Object...)} any exception
+ * thrown by the invoked method gets propagated as is and does not get wrapped
+ * into an {@link java.lang.reflect.InvocationTargetException}.
+ */
+public interface MethodInvoker
+{
+    /**
+     * @param instance the instance to invoke the method on, ignored for static methods
+     * @param args the method parameters
+     * @return the value returned by the method, boxed for primitives and {@code null} for void methods
+     */
+    Object invoke(Object instance, Object[] args) throws Exception;
+}
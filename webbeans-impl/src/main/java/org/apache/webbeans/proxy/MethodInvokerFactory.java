@@ -0,0 +1,308 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.proxy;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.hash.XxHash64;
+import org.apache.webbeans.logger.WebBeansLoggerFacade;
+import org.apache.webbeans.util.ClassUtil;
+import org.apache.xbean.asm9.ClassWriter;
+import org.apache.xbean.asm9.MethodVisitor;
+import org.apache.xbean.asm9.Opcodes;
+import org.apache.xbean.asm9.Type;
+
+/**
+ * Generates a small {@link MethodInvoker} class per method which invokes the
+ * method with a plain invokevirtual, invokeinterface or invokestatic instruction.
+ *
+ * The generated class gets defined in the package of the class declaring the method.
+ * Its name only depends on the method, so an invoker class another container defined
+ * in the same ClassLoader already gets reused.
+ * Methods which cannot be reached from there (private methods, non public methods if the
+ * class gets defined in another ClassLoader, classes in reserved packages like java.*)
+ * do not get an invoker and the caller has to fall back to reflection.
+ */
+public class MethodInvokerFactory
+{
+    private static final Logger logger = WebBeansLoggerFacade.getLogger(MethodInvokerFactory.class);
+
+    private static final String INVOKER_CLASS_NAME_SUFFIX = "$$OwbMethodInvoker";
+
+    private static final String INVOKE_DESCRIPTOR = "(Ljava/lang/Object;[Ljava/lang/Object;)Ljava/lang/Object;";
+
+    /**
+     * Generated invokers per method. {@link Optional#empty()} marks methods which need reflection.
+     */
+    private final ConcurrentMap<Method, Optional<MethodInvoker>> invokers = new ConcurrentHashMap<>();
+
+    private final ClassDefiner classDefiner;
+
+    public MethodInvokerFactory(WebBeansContext webBeansContext)
+    {
+        classDefiner = new ClassDefiner(webBeansContext);
+    }
+
+    /**
+     * @return a generated invoker for the given method or {@code null} if the method
+     *         cannot get invoked directly and reflection has to be used instead.
+     */
+    public MethodInvoker getMethodInvoker(Method method)
+    {
+        Optional<MethodInvoker> invoker = invokers.get(method);
+        if (invoker == null)
+        {
+            invoker = Optional.ofNullable(createMethodInvoker(method));
+            Optional<MethodInvoker> existing = invokers.putIfAbsent(method, invoker);
+            if (existing != null)
+            {
+                invoker = existing;
+            }
+        }
+        return invoker.orElse(null);
+    }
+
+    private MethodInvoker createMethodInvoker(Method method)
+    {
+        Class<?> declaringClass = method.getDeclaringClass();
+        ClassLoader classLoader = classDefiner.getDefiningService() != null
+                ? classDefiner.getProxyClassLoader(declaringClass)
+                : declaringClass.getClassLoader();
+        if (classLoader == null || !isInvokable(method, classLoader == declaringClass.getClassLoader()))
+        {
+            return null;
+        }
+
+        String invokerClassName = declaringClass.getName() + INVOKER_CLASS_NAME_SUFFIX
+                + Math.abs(XxHash64.apply(method.toGenericString()));
+        if (!classDefiner.fixPreservedPackages(invokerClassName).equals(invokerClassName))
+        {
+            // we must not define classes in java.*, jakarta.*, etc
+            return null;
+        }
+
+        try
+        {
+            Class<?> invokerClass = findInvokerClass(classLoader, invokerClassName);
+            if (invokerClass == null)
+            {
+                invokerClass = defineInvokerClass(classLoader, invokerClassName, method);
+            }
+            return (MethodInvoker) invokerClass.getConstructor().newInstance();
+        }
+        catch (Exception | LinkageError e)
+        {
+            logger.log(Level.WARNING, "Cannot generate a MethodInvoker for " + method + ", falling back to reflection", e);
+            return null;
+        }
+    }
+
+    private Class<?> defineInvokerClass(ClassLoader classLoader, String invokerClassName, Method method) throws Exception
+    {
+        byte[] bytes = generateInvoker(invokerClassName.replace('.', '/'), method);
+        try
+        {
+            return classDefiner.defineAndLoadClass(classLoader, invokerClassName, bytes, method.getDeclaringClass());
+        }
+        catch (LinkageError e)
+        {
+            // another container defined it concurrently
+            Class<?> invokerClass = findInvokerClass(classLoader, invokerClassName);
+            if (invokerClass == null)
+            {
+                throw e;
+            }
+            return invokerClass;
+        }
+    }
+
+    /**
+     * @return the invoker class if it got defined in the given ClassLoader already, e.g. by another container
+     */
+    private static Class<?> findInvokerClass(ClassLoader classLoader, String invokerClassName)
+    {
+        try
+        {
+            Class<?> invokerClass = Class.forName(invokerClassName, false, classLoader);
+            return MethodInvoker.class.isAssignableFrom(invokerClass) ? invokerClass : null;
+        }
+        catch (ClassNotFoundException e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * @param samePackage whether the invoker ends up in the same runtime package as the declaring class
+     */
+    private boolean isInvokable(Method method, boolean samePackage)
+    {
+        int modifiers = method.getModifiers();
+        if (Modifier.isPrivate(modifiers) || method.isBridge())
+        {
+            return false;
+        }
+
+        Class<?> declaringClass = method.getDeclaringClass();
+        if (!samePackage && !(Modifier.isPublic(modifiers) && Modifier.isPublic(declaringClass.getModifiers())))
+        {
+            return false;
+        }
+
+        if (!isAccessible(declaringClass, declaringClass, samePackage))
+        {
+            return false;
+        }
+        for (Class<?> parameterType : method.getParameterTypes())
+        {
+            if (!isAccessible(parameterType, declaringClass, samePackage))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isAccessible(Class<?> type, Class<?> declaringClass, boolean samePackage)
+    {
+        while (type.isArray())
+        {
+            type = type.getComponentType();
+        }
+        if (type.isPrimitive() || Modifier.isPublic(type.getModifiers()))
+        {
+            return true;
+        }
+        return samePackage
+                && type.getClassLoader() == declaringClass.getClassLoader()
+                && type.getPackage() != null
+                && type.getPackage().equals(declaringClass.getPackage());
+    }
+
+    private byte[] generateInvoker(String invokerClassFileName, Method method)
+    {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC + Opcodes.ACC_FINAL + Opcodes.ACC_SUPER + Opcodes.ACC_SYNTHETIC,
+                invokerClassFileName, null, Type.getInternalName(Object.class),
+                new String[]{Type.getInternalName(MethodInvoker.class)});
+
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, Type.getInternalName(Object.class), "<init>", "()V", false);
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(-1, -1);
+        mv.visitEnd();
+
+        Class<?> declaringClass = method.getDeclaringClass();
+        String owner = Type.getInternalName(declaringClass);
+        boolean isStatic = Modifier.isStatic(method.getModifiers());
+
+        mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "invoke", INVOKE_DESCRIPTOR,
+                null, new String[]{Type.getInternalName(Exception.class)});
+        mv.visitCode();
+
+        if (!isStatic)
+        {
+            mv.visitVarInsn(Opcodes.ALOAD, 1);
+            mv.visitTypeInsn(Opcodes.CHECKCAST, owner);
+        }
+
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++)
+        {
+            mv.visitVarInsn(Opcodes.ALOAD, 2);
+            pushInt(mv, i);
+            mv.visitInsn(Opcodes.AALOAD);
+
+            Class<?> parameterType = parameterTypes[i];
+            if (parameterType.isPrimitive())
+            {
+                String wrapperType = getWrapperType(parameterType);
+                mv.visitTypeInsn(Opcodes.CHECKCAST, wrapperType);
+                mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, wrapperType, parameterType.getName() + "Value",
+                        "()" + Type.getDescriptor(parameterType), false);
+            }
+            else
+            {
+                mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(parameterType));
+            }
+        }
+
+        if (isStatic)
+        {
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, owner, method.getName(), Type.getMethodDescriptor(method),
+                    declaringClass.isInterface());
+        }
+        else if (declaringClass.isInterface())
+        {
+            mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, owner, method.getName(), Type.getMethodDescriptor(method), true);
+        }
+        else
+        {
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, owner, method.getName(), Type.getMethodDescriptor(method), false);
+        }
+
+        Class<?> returnType = method.getReturnType();
+        if (returnType == void.class)
+        {
+            mv.visitInsn(Opcodes.ACONST_NULL);
+        }
+        else if (returnType.isPrimitive())
+        {
+            String wrapperType = getWrapperType(returnType);
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, wrapperType, "valueOf",
+                    "(" + Type.getDescriptor(returnType) + ")L" + wrapperType + ";", false);
+        }
+        mv.visitInsn(Opcodes.ARETURN);
+        mv.visitMaxs(-1, -1);
+        mv.visitEnd();
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private static String getWrapperType(Class<?> primitiveType)
+    {
+        return Type.getInternalName(ClassUtil.getPrimitiveWrapper(primitiveType));
+    }
+
+    private static void pushInt(MethodVisitor mv, int i)
+    {
+        if (i <= 5)
+        {
+            mv.visitInsn(Opcodes.ICONST_0 + i);
+        }
+        else if (i <= Byte.MAX_VALUE)
+        {
+            mv.visitIntInsn(Opcodes.BIPUSH, i);
+        }
+        else
+        {
+            mv.visitIntInsn(Opcodes.SIPUSH, i);
+        }
+    }
+}
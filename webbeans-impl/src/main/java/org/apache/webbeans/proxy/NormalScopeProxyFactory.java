@@ -28,9 +28,13 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import org.apache.webbeans.component.OwbBean;
 import org.apache.webbeans.config.OpenWebBeansConfiguration;
@@ -38,6 +42,7 @@ import org.apache.webbeans.config.WebBeansContext;
 import org.apache.webbeans.exception.ProxyGenerationException;
 import org.apache.webbeans.exception.WebBeansConfigurationException;
 import org.apache.webbeans.intercept.NormalScopedBeanInterceptorHandler;
+import org.apache.webbeans.logger.WebBeansLoggerFacade;
 import org.apache.webbeans.util.ClassUtil;
 import org.apache.webbeans.util.ExceptionUtil;
 import org.apache.webbeans.util.WebBeansUtil;
@@ -53,6 +58,8 @@ import org.apache.xbean.asm9.Type;
  */
 public class NormalScopeProxyFactory extends AbstractProxyFactory
 {
+    private static final Logger logger = WebBeansLoggerFacade.getLogger(NormalScopeProxyFactory.class);
+
     /** the name of the field which stores the {@link Provider} for the Contextual Instance */
     public static final String FIELD_INSTANCE_PROVIDER = "owbContextualInstanceProvider";
 
@@ -63,7 +70,7 @@ public class NormalScopeProxyFactory extends AbstractProxyFactory
      * Caches the proxy classes for each bean.
      * We need this to prevent filling up the ClassLoaders by
      */
-    private ConcurrentMap<Bean<?>, Class<?>> cachedProxyClasses = new ConcurrentHashMap<>();
+    private final ProxyClassCache<Bean<?>> cachedProxyClasses = new ProxyClassCache<>();
 
 
     public NormalScopeProxyFactory(WebBeansContext webBeansContext)
@@ -117,18 +124,52 @@ public class NormalScopeProxyFactory extends AbstractProxyFactory
 
     public <T> T createNormalScopeProxy(Bean<T> bean)
     {
-        ClassLoader classLoader;
-        if (bean.getBeanClass() != null)
+        ClassLoader classLoader = getProxyClassLoader(bean);
+        return createProxyInstance(getProxyClass(bean, classLoader), getInstanceProvider(classLoader, bean));
+    }
+
+    /**
+     * Generates the proxy classes of the given normal scoped beans upfront, in parallel on the given pool,
+     * instead of on the first access of each bean.
+     * A proxy which can't get generated is only logged, it will fail again on the first access.
+     *
+     * @return the number of beans which have their proxy class now
+     */
+    public int warmUp(Collection<Bean<?>> beans, ForkJoinPool pool)
+    {
+        LongAdder generated = new LongAdder();
+        try
         {
-            classLoader = getProxyClassLoader(bean.getBeanClass());
+            pool.submit(() -> beans.parallelStream().forEach(bean ->
+            {
+                try
+                {
+                    getProxyClass(bean, getProxyClassLoader(bean));
+                    generated.increment();
+                }
+                catch (RuntimeException e)
+                {
+                    logger.log(Level.FINE, "Can't generate the proxy of " + bean + " upfront", e);
+                }
+            })).get();
         }
-        else if (OwbBean.class.isInstance(bean) && OwbBean.class.cast(bean).getReturnType() != null)
+        catch (InterruptedException e)
         {
-            classLoader = getProxyClassLoader(OwbBean.class.cast(bean).getReturnType());
+            Thread.currentThread().interrupt();
         }
-        else
+        catch (ExecutionException e)
         {
-            classLoader = WebBeansUtil.getCurrentClassLoader();
+            throw ExceptionUtil.throwAsRuntimeException(e.getCause());
+        }
+        return generated.intValue();
+    }
+
+    private <T> Class<? extends T> getProxyClass(Bean<T> bean, ClassLoader classLoader)
+    {
+        Class<? extends T> proxyClass = cachedProxyClasses.get(bean);
+        if (proxyClass != null)
+        {
+            return proxyClass;
         }
 
         Class<T> classToProxy;
@@ -141,15 +182,25 @@ public class NormalScopeProxyFactory extends AbstractProxyFactory
             // TODO: that might be wrong sometimes
             classToProxy = (Class<T>) bean.getBeanClass();
         }
+        return createProxyClass(bean, classLoader, classToProxy);
+    }
 
-        Class<? extends T> proxyClass = (Class<? extends T>) cachedProxyClasses.get(bean);
-
-        if (proxyClass == null)
+    private ClassLoader getProxyClassLoader(Bean<?> bean)
+    {
+        ClassLoader classLoader;
+        if (bean.getBeanClass() != null)
         {
-            proxyClass = createProxyClass(bean, classLoader, classToProxy);
+            classLoader = getProxyClassLoader(bean.getBeanClass());
         }
-
-        return createProxyInstance(proxyClass, getInstanceProvider(classLoader, bean));
+        else if (OwbBean.class.isInstance(bean) && OwbBean.class.cast(bean).getReturnType() != null)
+        {
+            classLoader = getProxyClassLoader(OwbBean.class.cast(bean).getReturnType());
+        }
+        else
+        {
+            classLoader = WebBeansUtil.getCurrentClassLoader();
+        }
+        return classLoader;
     }
 
     public Provider getInstanceProvider(ClassLoader classLoader, Bean<?> bean)
@@ -183,17 +234,9 @@ public class NormalScopeProxyFactory extends AbstractProxyFactory
         }
     }
 
-    public synchronized <T> Class<T> createProxyClass(Bean<T> bean, ClassLoader classLoader, Class<T> classToProxy)
+    public <T> Class<T> createProxyClass(Bean<T> bean, ClassLoader classLoader, Class<T> classToProxy)
     {
-        Class<T> proxyClass = (Class<T>) cachedProxyClasses.get(bean);
-
-        if (proxyClass == null)
-        {
-            proxyClass = createProxyClass(classLoader, classToProxy);
-            cachedProxyClasses.putIfAbsent(bean, proxyClass);
-        }
-
-        return proxyClass;
+        return cachedProxyClasses.computeIfAbsent(bean, null, () -> createProxyClass(classLoader, classToProxy));
     }
 
     @Override
@@ -256,27 +299,31 @@ public class NormalScopeProxyFactory extends AbstractProxyFactory
             interceptedMethods = protectedMethods.toArray(new Method[protectedMethods.size()]);
         }
 
-        String proxyClassName = getUnusedProxyClassName(
-                classLoader,
-                (classToProxy.getSigners() != null ? getSignedClassProxyName(classToProxy) : classToProxy.getName()) + "$$OwbNormalScopeProxy",
-                interceptedMethods, nonInterceptedMethods);
+        synchronized (getProxyNameLock(classToProxy))
+        {
+            String proxyClassName = getUnusedProxyClassName(
+                    classLoader,
+                    classToProxy,
+                    (classToProxy.getSigners() != null ? getSignedClassProxyName(classToProxy) : classToProxy.getName()) + "$$OwbNormalScopeProxy",
+                    interceptedMethods, nonInterceptedMethods);
 
-        Class<T> clazz = createProxyClass(classLoader, proxyClassName, classToProxy, interceptedMethods, nonInterceptedMethods);
+            Class<T> clazz = createProxyClass(classLoader, proxyClassName, classToProxy, interceptedMethods, nonInterceptedMethods);
 
-        if (interceptedMethods != null && interceptedMethods.length > 0)
-        {
-            try
+            if (interceptedMethods != null && interceptedMethods.length > 0)
             {
-                Field protectedMethodsField = clazz.getDeclaredField(FIELD_PROTECTED_METHODS);
-                protectedMethodsField.setAccessible(true);
-                protectedMethodsField.set(null, interceptedMethods);
-            }
-            catch (Exception e)
-            {
-                throw new ProxyGenerationException(e);
+                try
+                {
+                    Field protectedMethodsField = clazz.getDeclaredField(FIELD_PROTECTED_METHODS);
+                    protectedMethodsField.setAccessible(true);
+                    protectedMethodsField.set(null, interceptedMethods);
+                }
+                catch (Exception e)
+                {
+                    throw new ProxyGenerationException(e);
+                }
             }
+            return clazz;
         }
-        return clazz;
     }
 
     public <T> T createProxyInstance(Class<T> proxyClass, Provider provider)
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.proxy;
+
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Supplier;
+
+import org.apache.webbeans.exception.ProxyGenerationException;
+
+/**
+ * Caches the generated proxy classes of a factory.
+ *
+ * <p>Each proxy class gets generated at most once: concurrent requests for the same key wait for the
+ * one generation in progress while proxies for other keys get generated in parallel.
+ * The signature, e.g. the intercepted methods, identifies the proxy class for a key.
+ * A request with another signature than the cached one generates a new proxy class which replaces the old one.</p>
+ *
+ * @param <K> the key, e.g. the Bean the proxy serves for
+ */
+final class ProxyClassCache<K>
+{
+    private final ConcurrentMap<K, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * @return the proxy class for the key, waits if it is generated right now, {@code null} if there is none
+     */
+    <T> Class<T> get(K key)
+    {
+        Entry entry = entries.get(key);
+        return entry == null ? null : (Class<T>) getClass(key, entry);
+    }
+
+    /**
+     * @param signature identifies the proxy class for this key, {@code null} if there is only one for the key
+     * @param generator generates the proxy class if there is none for the key and signature yet
+     */
+    <T> Class<T> computeIfAbsent(K key, Object[] signature, Supplier<Class<T>> generator)
+    {
+        Entry entry = entries.get(key);
+        if (entry == null || !entry.matches(signature))
+        {
+            // only creates the task, the generation runs outside of the map lock
+            entry = entries.compute(key, (k, current) ->
+                    current != null && current.matches(signature) ? current : new Entry(signature, generator::get));
+        }
+        return (Class<T>) getClass(key, entry);
+    }
+
+    private Class<?> getClass(K key, Entry entry)
+    {
+        // no-op if another thread already runs or ran the generation
+        entry.task.run();
+        try
+        {
+            return entry.task.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new ProxyGenerationException(e);
+        }
+        catch (ExecutionException e)
+        {
+            // let the next request try again
+            entries.remove(key, entry);
+
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error)
+            {
+                throw (Error) cause;
+            }
+            throw new ProxyGenerationException(cause);
+        }
+    }
+
+    private static final class Entry
+    {
+        private final Object[] signature;
+        private final FutureTask<Class<?>> task;
+
+        private Entry(Object[] signature, Callable<Class<?>> generator)
+        {
+            this.signature = signature;
+            task = new FutureTask<>(generator);
+        }
+
+        private boolean matches(Object[] otherSignature)
+        {
+            return Arrays.deepEquals(signature, otherSignature);
+        }
+    }
+}
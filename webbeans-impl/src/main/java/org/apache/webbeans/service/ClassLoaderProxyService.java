@@ -18,9 +18,15 @@
  */
 package org.apache.webbeans.service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
 import java.security.ProtectionDomain;
-import java.util.HashMap;
+import java.util.Enumeration;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -32,6 +38,12 @@ import org.apache.webbeans.spi.InstantiatingClassService;
 
 public class ClassLoaderProxyService implements DefiningClassService, InstantiatingClassService
 {
+    /**
+     * Lists the proxy classes generated at build time, one {@code proxyClassName=proxiedClassName} entry per proxy.
+     * @see ProxyClassGenerator
+     */
+    public static final String PROXIES_MANIFEST = "META-INF/openwebbeans/proxies.properties";
+
     private final ProxiesClassLoader loader;
 
     public ClassLoaderProxyService(final WebBeansContext context)
@@ -76,7 +88,8 @@ public class ClassLoaderProxyService implements DefiningClassService, Instantiat
     // for build tools - @Experimental
     public static class Spy extends ClassLoaderProxyService
     {
-        private final Map<String, byte[]> proxies = new HashMap<>();
+        private final Map<String, byte[]> proxies = new ConcurrentHashMap<>();
+        private final Map<String, String> proxiedClasses = new ConcurrentHashMap<>();
 
         public Spy(final WebBeansContext context)
         {
@@ -88,10 +101,19 @@ public class ClassLoaderProxyService implements DefiningClassService, Instantiat
             return proxies;
         }
 
+        /**
+         * @return the name of the proxied class for each proxy class name, this is the content of {@link #PROXIES_MANIFEST}
+         */
+        public Map<String, String> getProxiedClasses()
+        {
+            return proxiedClasses;
+        }
+
         @Override
         public <T> Class<T> defineAndLoad(final String name, final byte[] bytecode, final Class<T> proxiedClass)
         {
             proxies.put(name, bytecode);
+            proxiedClasses.put(name, proxiedClass.getName());
             return super.defineAndLoad(name, bytecode, proxiedClass);
         }
     }
@@ -99,22 +121,45 @@ public class ClassLoaderProxyService implements DefiningClassService, Instantiat
     // runtime companion of Spy - @Experimental
     public static class LoadFirst extends ClassLoaderProxyService
     {
+        /**
+         * Proxies listed in the {@link #PROXIES_MANIFEST}s or {@code null} if there is no manifest at all.
+         */
+        private final Set<String> prebuiltProxies;
+
         public LoadFirst(final WebBeansContext context)
         {
             super(context);
+            prebuiltProxies = readManifests(context.getApplicationBoundaryService().getApplicationClassLoader());
+        }
+
+        @Override
+        public <T> Class<T> findProxyClass(final String name, final Class<T> proxiedClass)
+        {
+            if (prebuiltProxies != null && !prebuiltProxies.contains(name))
+            {
+                return null;
+            }
+            try
+            {
+                return (Class<T>) getLoader(proxiedClass).loadClass(name);
+            }
+            catch (final ClassNotFoundException e)
+            {
+                return null;
+            }
         }
 
         @Override
         public <T> Class<T> defineAndLoad(final String name, final byte[] bytecode, final Class<T> proxiedClass)
         {
-            ClassLoader proxyClassLoader = getProxyClassLoader(proxiedClass);
-            if (proxyClassLoader == null)
+            if (prebuiltProxies != null && !prebuiltProxies.contains(name))
             {
-                proxyClassLoader = Thread.currentThread().getContextClassLoader();
+                // not generated at build time, no need to try to load it
+                return super.defineAndLoad(name, bytecode, proxiedClass);
             }
             try
             {
-                return (Class<T>) proxyClassLoader.loadClass(name);
+                return (Class<T>) getLoader(proxiedClass).loadClass(name);
             }
             catch (final ClassNotFoundException e)
             {
@@ -122,6 +167,40 @@ public class ClassLoaderProxyService implements DefiningClassService, Instantiat
                 return super.defineAndLoad(name, bytecode, proxiedClass);
             }
         }
+
+        private ClassLoader getLoader(final Class<?> proxiedClass)
+        {
+            final ClassLoader proxyClassLoader = getProxyClassLoader(proxiedClass);
+            return proxyClassLoader != null ? proxyClassLoader : Thread.currentThread().getContextClassLoader();
+        }
+
+        private static Set<String> readManifests(final ClassLoader loader)
+        {
+            try
+            {
+                final Enumeration<URL> manifests = loader.getResources(PROXIES_MANIFEST);
+                if (!manifests.hasMoreElements())
+                {
+                    return null;
+                }
+
+                final Set<String> names = new HashSet<>();
+                while (manifests.hasMoreElements())
+                {
+                    final Properties properties = new Properties();
+                    try (InputStream stream = manifests.nextElement().openStream())
+                    {
+                        properties.load(stream);
+                    }
+                    names.addAll(properties.stringPropertyNames());
+                }
+                return names;
+            }
+            catch (final IOException e)
+            {
+                throw new WebBeansException("Can't read " + PROXIES_MANIFEST, e);
+            }
+        }
     }
 
     // strict load only impl, it changes LoadFirst by not creating a classloader at all (nice in graalvm) -@Experimental
@@ -133,6 +212,19 @@ public class ClassLoaderProxyService implements DefiningClassService, Instantiat
             return Thread.currentThread().getContextClassLoader();
         }
 
+        @Override
+        public <T> Class<T> findProxyClass(final String name, final Class<T> proxiedClass)
+        {
+            try
+            {
+                return (Class<T>) getProxyClassLoader(null).loadClass(name);
+            }
+            catch (final ClassNotFoundException e)
+            {
+                return null;
+            }
+        }
+
         @Override
         public <T> Class<T> defineAndLoad(final String name, final byte[] bytecode, final Class<T> proxiedClass)
         {
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.service;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.exception.WebBeansException;
+import org.apache.webbeans.logger.WebBeansLoggerFacade;
+import org.apache.webbeans.spi.DefiningClassService;
+import org.apache.webbeans.spi.InstantiatingClassService;
+
+/**
+ * Defines the proxies as hidden classes of the proxied class via {@code MethodHandles.Lookup#defineHiddenClass}.
+ *
+ * <p>Hidden classes can't be found by name, so there is no need to probe for a free proxy class name,
+ * and they get unloaded as soon as they are not used anymore instead of living as long as their classloader.</p>
+ *
+ * <p>A hidden class can only be defined with a full privilege lookup on a class of the same package.
+ * Classes for which we can't get one, e.g. because they are in another module or another classloader than
+ * OpenWebBeans, the JDK classes and signed classes, as well as all classes on a JVM before Java 15
+ * get their proxies from a {@link ClassLoaderProxyService}.</p>
+ */
+public class HiddenClassProxyService implements DefiningClassService, InstantiatingClassService
+{
+    private static final Logger logger = WebBeansLoggerFacade.getLogger(HiddenClassProxyService.class);
+
+    /**
+     * {@code Lookup#defineHiddenClass(byte[], boolean, ClassOption...)} bound to no option,
+     * {@code null} if the JVM doesn't support hidden classes.
+     */
+    private static final MethodHandle DEFINE_HIDDEN_CLASS = findDefineHiddenClass();
+
+    private final ClassLoaderProxyService fallback;
+
+    public HiddenClassProxyService(final WebBeansContext context)
+    {
+        fallback = new ClassLoaderProxyService(context);
+    }
+
+    /**
+     * @return whether the proxies of the given class get defined as hidden classes
+     */
+    public boolean isHiddenClassHost(final Class<?> proxiedClass)
+    {
+        return getHostLookup(proxiedClass) != null;
+    }
+
+    @Override
+    public ClassLoader getProxyClassLoader(final Class<?> forClass)
+    {
+        if (forClass != null && isHiddenClassHost(forClass))
+        {
+            return forClass.getClassLoader();
+        }
+        return fallback.getProxyClassLoader(forClass);
+    }
+
+    @Override
+    public <T> Class<T> defineAndLoad(final String name, final byte[] bytecode, final Class<T> proxiedClass)
+    {
+        final MethodHandles.Lookup host = getHostLookup(proxiedClass);
+        if (host == null || !isSamePackage(name, proxiedClass))
+        {
+            return fallback.defineAndLoad(name, bytecode, proxiedClass);
+        }
+
+        try
+        {
+            return (Class<T>) ((MethodHandles.Lookup) DEFINE_HIDDEN_CLASS.invoke(host, bytecode)).lookupClass();
+        }
+        catch (final RuntimeException | Error e)
+        {
+            throw e;
+        }
+        catch (final Throwable e)
+        {
+            throw new WebBeansException("Can't define the hidden proxy class " + name, e);
+        }
+    }
+
+    @Override
+    public <T> T newInstance(final Class<? extends T> proxyClass)
+    {
+        return fallback.newInstance(proxyClass);
+    }
+
+    private static MethodHandles.Lookup getHostLookup(final Class<?> proxiedClass)
+    {
+        if (DEFINE_HIDDEN_CLASS == null || proxiedClass.isPrimitive() || proxiedClass.isArray() || proxiedClass.getSigners() != null)
+        {
+            return null;
+        }
+
+        try
+        {
+            final MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(proxiedClass, MethodHandles.lookup());
+
+            // defineHiddenClass needs full privilege access which we only get within our own module
+            if ((lookup.lookupModes() & MethodHandles.Lookup.MODULE) == 0 || (lookup.lookupModes() & MethodHandles.Lookup.PRIVATE) == 0)
+            {
+                return null;
+            }
+            return lookup;
+        }
+        catch (final IllegalAccessException | SecurityException e)
+        {
+            return null;
+        }
+    }
+
+    private static boolean isSamePackage(final String proxyClassName, final Class<?> proxiedClass)
+    {
+        final String className = proxyClassName.replace('/', '.');
+        final int lastDot = className.lastIndexOf('.');
+        return (lastDot < 0 ? "" : className.substring(0, lastDot)).equals(proxiedClass.getPackageName());
+    }
+
+    private static MethodHandle findDefineHiddenClass()
+    {
+        try
+        {
+            final Class<?> classOption = Class.forName("java.lang.invoke.MethodHandles$Lookup$ClassOption");
+            final Class<?> classOptions = Array.newInstance(classOption, 0).getClass();
+            final MethodHandle defineHiddenClass = MethodHandles.publicLookup().findVirtual(
+                    MethodHandles.Lookup.class, "defineHiddenClass",
+                    MethodType.methodType(MethodHandles.Lookup.class, byte[].class, boolean.class, classOptions));
+
+            // initialized, without NESTMATE or STRONG so the proxy can get unloaded on its own
+            return MethodHandles.insertArguments(defineHiddenClass, 2, true, Array.newInstance(classOption, 0));
+        }
+        catch (final ClassNotFoundException | NoSuchMethodException | IllegalAccessException e)
+        {
+            logger.log(Level.FINE, "Hidden classes are not supported, proxies get defined in a ClassLoader", e);
+            return null;
+        }
+    }
+}
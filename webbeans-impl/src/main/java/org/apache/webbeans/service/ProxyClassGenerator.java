@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jakarta.enterprise.inject.spi.Bean;
+
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.config.WebBeansFinder;
+import org.apache.webbeans.container.BeanManagerImpl;
+import org.apache.webbeans.corespi.DefaultSingletonService;
+import org.apache.webbeans.lifecycle.StandaloneLifeCycle;
+import org.apache.webbeans.logger.WebBeansLoggerFacade;
+import org.apache.webbeans.spi.DefiningClassService;
+import org.apache.webbeans.spi.SingletonService;
+import org.apache.webbeans.util.WebBeansUtil;
+
+/**
+ * Generates all normal scope and interceptor/decorator proxies of an application at build time.
+ *
+ * <p>The container gets booted once with {@link ClassLoaderProxyService.Spy} on the current classpath.
+ * All proxy classes get written as {@code .class} files into the output directory together with
+ * the {@link ClassLoaderProxyService#PROXIES_MANIFEST}. Package the output directory into the
+ * application and use {@link ClassLoaderProxyService.LoadFirst} or {@link ClassLoaderProxyService.LoadOnly}
+ * at runtime, then no proxy bytecode gets generated anymore.</p>
+ *
+ * <p>The proxy names must be stable between build and runtime, so the runtime has to be configured with
+ * {@code org.apache.webbeans.proxy.useStaticNames=true} and
+ * {@code org.apache.webbeans.proxy.staticNames.useXxHash64=true} as well.</p>
+ *
+ * <p>The output is reproducible: the manifest lists the proxies sorted and has no timestamp.</p>
+ *
+ * <p>Usage, e.g. from the exec-maven-plugin ({@code java} goal in the {@code process-classes} phase)
+ * or a Gradle {@code JavaExec} task depending on {@code classes}, both with the runtime classpath of the application:
+ * {@code java -cp <application classpath> org.apache.webbeans.service.ProxyClassGenerator target/classes}</p>
+ */
+public class ProxyClassGenerator
+{
+    private static final Logger logger = WebBeansLoggerFacade.getLogger(ProxyClassGenerator.class);
+
+    private final Properties configuration = new Properties();
+
+    public ProxyClassGenerator()
+    {
+        configuration.setProperty(DefiningClassService.class.getName(), ClassLoaderProxyService.Spy.class.getName());
+        configuration.setProperty("org.apache.webbeans.proxy.useStaticNames", "true");
+        configuration.setProperty("org.apache.webbeans.proxy.staticNames.useXxHash64", "true");
+    }
+
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length != 1)
+        {
+            throw new IllegalArgumentException("Usage: " + ProxyClassGenerator.class.getName() + " <output directory>");
+        }
+        Map<String, String> proxies = new ProxyClassGenerator().generate(Paths.get(args[0]));
+        logger.info("Generated " + proxies.size() + " proxy classes into " + args[0]);
+    }
+
+    /**
+     * Additional container configuration for the build, e.g. a ScannerService.
+     */
+    public ProxyClassGenerator withConfiguration(String key, String value)
+    {
+        configuration.setProperty(key, value);
+        return this;
+    }
+
+    /**
+     * Boot the container, write all proxies and the manifest into the given directory.
+     *
+     * @return the proxied class name for each written proxy class name
+     */
+    public Map<String, String> generate(Path outputDirectory) throws IOException
+    {
+        ClassLoader classLoader = WebBeansUtil.getCurrentClassLoader();
+        SingletonService<WebBeansContext> singletonService = WebBeansFinder.getSingletonService();
+        if (!DefaultSingletonService.class.isInstance(singletonService))
+        {
+            throw new IllegalStateException("ProxyClassGenerator needs the " + DefaultSingletonService.class.getName());
+        }
+
+        WebBeansContext webBeansContext = new WebBeansContext(Collections.emptyMap(), configuration);
+        DefaultSingletonService.class.cast(singletonService).register(classLoader, webBeansContext);
+
+        StandaloneLifeCycle lifecycle = new StandaloneLifeCycle();
+        try
+        {
+            lifecycle.startApplication(null);
+
+            // interceptor and decorator proxies got created during the deployment, normal scope proxies are lazy
+            createNormalScopeProxies(webBeansContext);
+
+            ClassLoaderProxyService.Spy spy = (ClassLoaderProxyService.Spy) webBeansContext.getService(DefiningClassService.class);
+            return write(spy, outputDirectory);
+        }
+        finally
+        {
+            lifecycle.stopApplication(null);
+            WebBeansFinder.clearInstances(classLoader);
+        }
+    }
+
+    private void createNormalScopeProxies(WebBeansContext webBeansContext)
+    {
+        BeanManagerImpl beanManager = webBeansContext.getBeanManagerImpl();
+        for (Bean<?> bean : beanManager.getBeans())
+        {
+            if (!beanManager.isNormalScope(bean.getScope()))
+            {
+                continue;
+            }
+            try
+            {
+                webBeansContext.getNormalScopeProxyFactory().createNormalScopeProxy(bean);
+            }
+            catch (RuntimeException e)
+            {
+                // it will get generated at runtime then
+                logger.log(Level.WARNING, "Can't generate a proxy for " + bean, e);
+            }
+        }
+    }
+
+    private Map<String, String> write(ClassLoaderProxyService.Spy spy, Path outputDirectory) throws IOException
+    {
+        Map<String, String> proxiedClasses = new TreeMap<>(spy.getProxiedClasses());
+        for (Map.Entry<String, byte[]> proxy : spy.getProxies().entrySet())
+        {
+            Path classFile = outputDirectory.resolve(proxy.getKey().replace('.', '/') + ".class");
+            Files.createDirectories(classFile.getParent());
+            Files.write(classFile, proxy.getValue());
+        }
+
+        Path manifest = outputDirectory.resolve(ClassLoaderProxyService.PROXIES_MANIFEST);
+        Files.createDirectories(manifest.getParent());
+        // not Properties#store, it writes the current date which breaks reproducible builds
+        try (Writer writer = Files.newBufferedWriter(manifest, StandardCharsets.ISO_8859_1))
+        {
+            writer.write("# proxy class = proxied class, generated by " + ProxyClassGenerator.class.getName() + "\n");
+            for (Map.Entry<String, String> proxy : proxiedClasses.entrySet())
+            {
+                writer.write(escape(proxy.getKey()) + '=' + escape(proxy.getValue()) + '\n');
+            }
+        }
+        return proxiedClasses;
+    }
+
+    /**
+     * Class names never contain any of the property separators, but they might not be Latin-1.
+     */
+    private static String escape(String className)
+    {
+        StringBuilder escaped = new StringBuilder(className.length());
+        for (int i = 0; i < className.length(); i++)
+        {
+            char c = className.charAt(i);
+            if (c > 0x7e)
+            {
+                escaped.append(String.format("\\u%04x", (int) c));
+            }
+            else
+            {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * Creates the ForkJoinPools used to run parts of the deployment in parallel.
+ */
+public final class ForkJoinPoolUtil
+{
+    private ForkJoinPoolUtil()
+    {
+        // prevent instantiation
+    }
+
+    /**
+     * @param threadNamePrefix prefix of the worker thread names, the pool index gets appended
+     * @param loader TCCL of the workers, usually the one of the deployment so they find the same WebBeansContext
+     * @return a pool with one worker per available processor, the caller has to shut it down
+     */
+    public static ForkJoinPool newForkJoinPool(String threadNamePrefix, ClassLoader loader)
+    {
+        return new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool ->
+        {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(threadNamePrefix + thread.getPoolIndex());
+            thread.setContextClassLoader(loader);
+            return thread;
+        }, null, false);
+    }
+}
@@ -33,9 +33,13 @@ public class PriorityClasses
      * value: the priority. Alternatives from beans.xml have -1 as they are lowest prio.
      */
     private final List<PriorityClass> raw = new ArrayList<>();
-    private List<Class<?>> sorted;
+    /**
+     * Lazily sorted view of {@link #raw}. Volatile as it gets read from the parallel
+     * validation threads of the {@link org.apache.webbeans.config.BeansDeployer}.
+     */
+    private volatile List<Class<?>> sorted;
 
-    public OptionalInt getPriority(final Class<?> type)
+    public synchronized OptionalInt getPriority(final Class<?> type)
     {
         return raw.stream().filter(it -> it.getClazz() == type).mapToInt(PriorityClass::getPriority).findFirst();
     }
@@ -43,7 +47,7 @@ public class PriorityClasses
     /**
      * Used for Classes which are annotated with &#064;Priority
      */
-    public void add(Class<?> clazz, Priority priority)
+    public synchronized void add(Class<?> clazz, Priority priority)
     {
         raw.add(new PriorityClass(clazz, priority.value()));
         sorted = null;
@@ -53,7 +57,7 @@ public class PriorityClasses
      * Used for Classes which are added by Beans which implement the
      * {@link jakarta.enterprise.inject.spi.Prioritized} interface
      */
-    public void add(Class<?> clazz, int priority)
+    public synchronized void add(Class<?> clazz, int priority)
     {
         raw.add(new PriorityClass(clazz, priority));
         sorted = null;
@@ -61,20 +65,35 @@ public class PriorityClasses
 
     public List<Class<?>> getSorted()
     {
-        if (sorted == null)
+        List<Class<?>> result = sorted;
+        if (result == null)
+        {
+            result = sort();
+        }
+
+        return result;
+    }
+
+    private synchronized List<Class<?>> sort()
+    {
+        List<Class<?>> result = sorted;
+        if (result == null)
         {
             Collections.sort(raw);
 
-            sorted = new ArrayList<>(raw.size());
+            result = new ArrayList<>(raw.size());
 
             for (PriorityClass priorityAlternative : raw)
             {
                 // add in reverse order
-                sorted.add(priorityAlternative.getClazz());
+                result.add(priorityAlternative.getClazz());
             }
+
+            // only publish the fully populated list
+            sorted = result;
         }
 
-        return sorted;
+        return result;
     }
 
     public boolean contains(Class<?> beanType)
@@ -82,7 +101,7 @@ public class PriorityClasses
         return getSorted().contains(beanType);
     }
 
-    public void clear()
+    public synchronized void clear()
     {
         raw.clear();
         sorted = null;
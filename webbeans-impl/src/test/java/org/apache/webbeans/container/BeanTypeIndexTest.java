@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.container;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.function.Supplier;
+
+import jakarta.enterprise.context.Dependent;
+import jakarta.enterprise.inject.Produces;
+import jakarta.enterprise.inject.spi.AnnotatedType;
+import jakarta.enterprise.inject.spi.Bean;
+import jakarta.enterprise.util.TypeLiteral;
+
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Test;
+
+public class BeanTypeIndexTest extends AbstractUnitTest
+{
+    @Test
+    public void candidatesByRawType()
+    {
+        startContainer(StringSupplier.class, IntegerSupplier.class, Numbers.class);
+
+        BeanManagerImpl beanManager = getWebBeansContext().getBeanManagerImpl();
+        BeanTypeIndex index = new BeanTypeIndex(beanManager.getBeans(), beanManager.getBeansModificationCount());
+
+        // both suppliers share the raw type, the generic check is left to the resolver
+        List<Bean<?>> suppliers = index.getCandidates(new TypeLiteral<Supplier<String>>() {}.getType());
+        assertEquals(2, suppliers.size());
+
+        // primitives and their wrappers share the same entry
+        assertEquals(index.getCandidates(Integer.class), index.getCandidates(int.class));
+        assertEquals(1, index.getCandidates(long.class).size());
+
+        assertTrue(index.getCandidates(Runnable.class).isEmpty());
+    }
+
+    @Test
+    public void resolution()
+    {
+        startContainer(StringSupplier.class, IntegerSupplier.class, Numbers.class);
+
+        assertEquals(StringSupplier.class, getBean(new TypeLiteral<Supplier<String>>() {}.getType()).getBeanClass());
+        assertEquals(IntegerSupplier.class, getBean(new TypeLiteral<Supplier<Integer>>() {}.getType()).getBeanClass());
+        assertEquals(42L, getBeanManager().getReference(getBean(Long.class), Long.class,
+                getBeanManager().createCreationalContext(null)));
+        assertEquals(StringSupplier.class, getBean(new TypeLiteral<Supplier<? extends CharSequence>>() {}.getType()).getBeanClass());
+    }
+
+    @Test
+    public void outdatedIfBeansGetReplaced()
+    {
+        startContainer(StringSupplier.class, IntegerSupplier.class, Numbers.class);
+
+        BeanManagerImpl beanManager = getWebBeansContext().getBeanManagerImpl();
+        int modificationCount = beanManager.getBeansModificationCount();
+        BeanTypeIndex index = new BeanTypeIndex(beanManager.getBeans(), modificationCount);
+        assertTrue(index.isUpToDate(modificationCount));
+
+        // the same number of beans as before
+        Bean<?> integerSupplier = getBean(new TypeLiteral<Supplier<Integer>>() {}.getType());
+        beanManager.removeBeans(bean -> bean == integerSupplier);
+        AnnotatedType<LongSupplier> longSupplier = beanManager.createAnnotatedType(LongSupplier.class);
+        beanManager.addBean(beanManager.createBean(beanManager.createBeanAttributes(longSupplier), LongSupplier.class,
+                beanManager.getInjectionTargetFactory(longSupplier)));
+        assertFalse(index.isUpToDate(beanManager.getBeansModificationCount()));
+    }
+
+    private Bean<?> getBean(Type type)
+    {
+        return getBeanManager().resolve(getBeanManager().getBeans(type));
+    }
+
+    @Dependent
+    public static class StringSupplier implements Supplier<String>
+    {
+        @Override
+        public String get()
+        {
+            return "a";
+        }
+    }
+
+    @Dependent
+    public static class IntegerSupplier implements Supplier<Integer>
+    {
+        @Override
+        public Integer get()
+        {
+            return 1;
+        }
+    }
+
+    @Dependent
+    public static class LongSupplier implements Supplier<Long>
+    {
+        @Override
+        public Long get()
+        {
+            return 1L;
+        }
+    }
+
+    @Dependent
+    public static class Numbers
+    {
+        @Produces
+        public long answer()
+        {
+            return 42L;
+        }
+    }
+}
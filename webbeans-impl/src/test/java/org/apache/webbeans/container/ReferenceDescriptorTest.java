@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.container;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.Serializable;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Dependent;
+import jakarta.enterprise.inject.spi.Bean;
+
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Test;
+
+public class ReferenceDescriptorTest extends AbstractUnitTest
+{
+    @Test
+    public void normalScopedProxyIsReused()
+    {
+        startContainer(Service.class, Worker.class);
+
+        BeanManagerImpl beanManager = getWebBeansContext().getBeanManagerImpl();
+        Bean<?> bean = beanManager.resolve(beanManager.getBeans(Service.class));
+
+        Object proxy = beanManager.getReference(bean, Service.class, beanManager.createCreationalContext(bean));
+        assertSame(proxy, beanManager.getReference(bean, Service.class, beanManager.createCreationalContext(bean)));
+        assertSame(proxy, beanManager.getReference(bean, Serializable.class, beanManager.createCreationalContext(bean)));
+        assertSame(proxy, beanManager.getReference(bean, null, beanManager.createCreationalContext(bean)));
+
+        // types which were never validated still get checked
+        try
+        {
+            beanManager.getReference(bean, Runnable.class, beanManager.createCreationalContext(bean));
+            fail("Runnable is no type of " + bean);
+        }
+        catch (IllegalArgumentException e)
+        {
+            // expected
+        }
+
+        beanManager.clearCacheProxies();
+        Object newProxy = beanManager.getReference(bean, Service.class, beanManager.createCreationalContext(bean));
+        assertNotSame(proxy, newProxy);
+        assertEquals("ok", ((Service) newProxy).ping());
+    }
+
+    @Test
+    public void dependentGetsNewInstances()
+    {
+        startContainer(Service.class, Worker.class);
+
+        BeanManagerImpl beanManager = getWebBeansContext().getBeanManagerImpl();
+        Bean<?> bean = beanManager.resolve(beanManager.getBeans(Worker.class));
+
+        Object first = beanManager.getReference(bean, Worker.class, beanManager.createCreationalContext(bean));
+        assertNotSame(first, beanManager.getReference(bean, Worker.class, beanManager.createCreationalContext(bean)));
+    }
+
+    @ApplicationScoped
+    public static class Service implements Serializable
+    {
+        public String ping()
+        {
+            return "ok";
+        }
+    }
+
+    @Dependent
+    public static class Worker
+    {
+    }
+}
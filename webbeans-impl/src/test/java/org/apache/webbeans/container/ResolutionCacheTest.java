@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.container;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import jakarta.enterprise.context.Dependent;
+import jakarta.inject.Named;
+
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Test;
+
+public class ResolutionCacheTest extends AbstractUnitTest
+{
+    @Test
+    public void boundedWithCounters()
+    {
+        ResolutionCache<Integer, String> cache = new ResolutionCache<>(10);
+        for (int i = 0; i < 100; i++)
+        {
+            cache.put(i, "v" + i);
+        }
+
+        assertEquals(10, cache.size());
+        assertNull(cache.get(0));
+        assertEquals("v99", cache.get(99));
+
+        ResolutionCache.Statistics statistics = cache.getStatistics();
+        assertEquals(1, statistics.getHits());
+        assertEquals(1, statistics.getMisses());
+        assertEquals(90, statistics.getEvictions());
+        assertEquals(10, statistics.getSize());
+        assertEquals(10, statistics.getMaximumSize());
+    }
+
+    @Test
+    public void frequentlyUsedEntriesSurviveAScan()
+    {
+        ResolutionCache<Integer, String> cache = new ResolutionCache<>(10);
+        for (int i = 0; i < 5; i++)
+        {
+            cache.put(i, "hot" + i);
+            cache.get(i);
+        }
+
+        // keys which get resolved only once must not flush the hot entries
+        for (int i = 100; i < 1000; i++)
+        {
+            cache.put(i, "cold" + i);
+        }
+
+        for (int i = 0; i < 5; i++)
+        {
+            assertEquals("hot" + i, cache.get(i));
+        }
+        assertEquals(10, cache.size());
+    }
+
+    @Test
+    public void unbounded()
+    {
+        ResolutionCache<Integer, String> cache = new ResolutionCache<>(0);
+        for (int i = 0; i < 100; i++)
+        {
+            cache.put(i, "v" + i);
+        }
+        assertEquals(100, cache.size());
+
+        // the limit only applies to the next insertion
+        cache.setMaximumSize(20);
+        cache.put(100, "v100");
+        assertEquals(20, cache.size());
+        assertEquals(81, cache.getStatistics().getEvictions());
+        assertEquals("v100", cache.get(100));
+        assertNull(cache.get(0));
+
+        // unbounded again, entries added now get tracked as soon as there is a limit
+        cache.setMaximumSize(0);
+        for (int i = 200; i < 230; i++)
+        {
+            cache.put(i, "v" + i);
+        }
+        assertEquals(50, cache.size());
+        cache.setMaximumSize(10);
+        cache.put(300, "v300");
+        assertEquals(10, cache.size());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void resolverStatistics()
+    {
+        addConfiguration(OpenWebBeansConfiguration.RESOLUTION_CACHE_SIZE, "50");
+        startContainer(Named1.class);
+
+        InjectionResolver resolver = getWebBeansContext().getBeanManagerImpl().getInjectionResolver();
+        long typeHits = resolver.getResolvedBeansByTypeStatistics().getHits();
+        assertEquals(50, resolver.getResolvedBeansByTypeStatistics().getMaximumSize());
+
+        assertNotNull(getInstance(Named1.class));
+        assertNotNull(getInstance(Named1.class));
+        assertTrue(resolver.getResolvedBeansByTypeStatistics().getHits() > typeHits);
+
+        assertEquals(1, getBeanManager().getBeans("named1").size());
+        assertEquals(1, getBeanManager().getBeans("named1").size());
+        ResolutionCache.Statistics byName = resolver.getResolvedBeansByNameStatistics();
+        assertTrue(byName.getHits() >= 1);
+        assertTrue(byName.getSize() <= 50);
+    }
+
+    @Dependent
+    @Named("named1")
+    public static class Named1
+    {
+    }
+}
@@ -0,0 +1,294 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.conversation;
+
+import java.io.Serializable;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.Conversation;
+import jakarta.enterprise.context.ConversationScoped;
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.enterprise.context.SessionScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.context.Destroyed;
+import jakarta.inject.Inject;
+
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.context.ConversationContext;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The reaper gets driven by a manual clock and manual ticks, so the tests don't depend on the timing.
+ */
+public class ConversationReaperTest extends AbstractUnitTest
+{
+    private final AtomicLong now = new AtomicLong(System.currentTimeMillis());
+
+    @Before
+    public void resetCounter()
+    {
+        ReapedBean.destroyed.set(0);
+        ReaperContextsBean.seenOnDestroy.set(null);
+        ReaperContextsBean.seenByObserver.set(null);
+    }
+
+    @Test
+    public void testTimedOutConversationGetsReaped()
+    {
+        startWithReaper("100");
+
+        ReapedBean bean = getInstance(ReapedBean.class);
+        bean.begin();
+
+        // ends the request, the conversation stays in the session
+        restartContext(RequestScoped.class);
+
+        Set<ConversationContext> conversations = getSessionConversations();
+        Assert.assertEquals(1, conversations.size());
+
+        ConversationReaper reaper = getConversationReaper();
+        advance(reaper, 100);
+        Assert.assertEquals(1, conversations.size());
+        Assert.assertEquals(0, reaper.getStatistics().getReapedConversations());
+
+        // the bucket of the expiry time
+        advance(reaper, 40);
+        Assert.assertTrue(conversations.isEmpty());
+        Assert.assertEquals(1, ReapedBean.destroyed.get());
+
+        ConversationReaper.Statistics statistics = reaper.getStatistics();
+        Assert.assertEquals(0, statistics.getTrackedConversations());
+        Assert.assertEquals(1, statistics.getReapedConversations());
+        Assert.assertTrue(statistics.getReapRate() > 0);
+    }
+
+    @Test
+    public void testUsedConversationGetsRescheduled()
+    {
+        startWithReaper("300");
+
+        ReapedBean bean = getInstance(ReapedBean.class);
+        bean.begin();
+        restartContext(RequestScoped.class);
+
+        Set<ConversationContext> conversations = getSessionConversations();
+        ConversationContext conversationContext = conversations.iterator().next();
+        ConversationReaper reaper = getConversationReaper();
+
+        // keep it alive for more than its timeout, like requests which resume it would do
+        for (int i = 0; i < 7; i++)
+        {
+            now.addAndGet(100);
+            conversationContext.getConversation().updateLastAccessTime();
+            reaper.tick();
+        }
+
+        Assert.assertEquals(1, conversations.size());
+        Assert.assertEquals(0, ReapedBean.destroyed.get());
+        Assert.assertTrue(reaper.getStatistics().getRescheduledConversations() > 0);
+        Assert.assertEquals(1, reaper.getStatistics().getTrackedConversations());
+
+        advance(reaper, 400);
+        Assert.assertTrue(conversations.isEmpty());
+        Assert.assertEquals(1, ReapedBean.destroyed.get());
+        Assert.assertEquals(1, reaper.getStatistics().getReapedConversations());
+    }
+
+    @Test
+    public void testEndedConversationIsNotReaped()
+    {
+        startWithReaper("100");
+
+        ReapedBean bean = getInstance(ReapedBean.class);
+        bean.begin();
+        bean.end();
+        restartContext(RequestScoped.class);
+        Assert.assertEquals(1, ReapedBean.destroyed.get());
+
+        ConversationReaper reaper = getConversationReaper();
+        advance(reaper, 200);
+
+        Assert.assertEquals(0, reaper.getStatistics().getTrackedConversations());
+        Assert.assertEquals(0, reaper.getStatistics().getReapedConversations());
+        Assert.assertEquals(1, ReapedBean.destroyed.get());
+    }
+
+    @Test
+    public void testReapedConversationGetsRequestAndSessionContexts() throws Exception
+    {
+        addConfiguration(OpenWebBeansConfiguration.APPLICATION_SUPPORTS_CONVERSATION, "true");
+        addConfiguration(OpenWebBeansConfiguration.CONVERSATION_TIMEOUT_INTERVAL, "100");
+        addConfiguration(OpenWebBeansConfiguration.CONVERSATION_REAPER_INTERVAL, "20");
+        startContainer(ReaperContextsBean.class, RequestData.class, UserData.class);
+        getConversationManager().setClock(now::get);
+
+        getInstance(UserData.class).setName("owner");
+        getInstance(ReaperContextsBean.class).begin();
+        restartContext(RequestScoped.class);
+
+        // like the reaper thread no contexts are active on another thread
+        ConversationReaper reaper = getConversationReaper();
+        now.addAndGet(200);
+        Thread reaperThread = new Thread(reaper::tick);
+        reaperThread.start();
+        reaperThread.join(10000);
+
+        Assert.assertEquals(1, reaper.getStatistics().getReapedConversations());
+        Assert.assertEquals("request of owner", ReaperContextsBean.seenOnDestroy.get());
+        Assert.assertEquals("request of owner", ReaperContextsBean.seenByObserver.get());
+
+        // the contexts of the reaper thread don't leak into the ones of the caller
+        Assert.assertEquals("owner", getInstance(UserData.class).getName());
+    }
+
+    @Test
+    public void testDisabledByDefault()
+    {
+        addConfiguration(OpenWebBeansConfiguration.APPLICATION_SUPPORTS_CONVERSATION, "true");
+        startContainer(ReapedBean.class);
+
+        getInstance(ReapedBean.class).begin();
+
+        Assert.assertNull(getConversationManager().getConversationReaper(true));
+    }
+
+    private void startWithReaper(String timeout)
+    {
+        addConfiguration(OpenWebBeansConfiguration.APPLICATION_SUPPORTS_CONVERSATION, "true");
+        addConfiguration(OpenWebBeansConfiguration.CONVERSATION_TIMEOUT_INTERVAL, timeout);
+        addConfiguration(OpenWebBeansConfiguration.CONVERSATION_REAPER_INTERVAL, "20");
+        startContainer(ReapedBean.class);
+
+        // before the reaper gets started with the first long running conversation
+        getConversationManager().setClock(now::get);
+    }
+
+    private void advance(ConversationReaper reaper, long millis)
+    {
+        now.addAndGet(millis);
+        reaper.tick();
+    }
+
+    private ConversationReaper getConversationReaper()
+    {
+        ConversationReaper reaper = getConversationManager().getConversationReaper(false);
+        Assert.assertNotNull(reaper);
+        return reaper;
+    }
+
+    private Set<ConversationContext> getSessionConversations()
+    {
+        return getConversationManager().getSessionConversations(
+                getWebBeansContext().getContextsService().getCurrentContext(SessionScoped.class), false);
+    }
+
+    private ConversationManager getConversationManager()
+    {
+        return getWebBeansContext().getConversationManager();
+    }
+
+    @ConversationScoped
+    public static class ReapedBean implements Serializable
+    {
+        static final AtomicInteger destroyed = new AtomicInteger();
+
+        @Inject
+        private Conversation conversation;
+
+        public void begin()
+        {
+            conversation.begin();
+        }
+
+        public void end()
+        {
+            conversation.end();
+        }
+
+        @PreDestroy
+        public void destroy()
+        {
+            destroyed.incrementAndGet();
+        }
+    }
+
+    @ConversationScoped
+    public static class ReaperContextsBean implements Serializable
+    {
+        static final AtomicReference<String> seenOnDestroy = new AtomicReference<>();
+        static final AtomicReference<String> seenByObserver = new AtomicReference<>();
+
+        @Inject
+        private Conversation conversation;
+
+        @Inject
+        private RequestData requestData;
+
+        public void begin()
+        {
+            conversation.begin();
+        }
+
+        @PreDestroy
+        public void destroy()
+        {
+            seenOnDestroy.set(requestData.describe());
+        }
+
+        public static void onDestroyed(@Observes @Destroyed(ConversationScoped.class) Object payload, RequestData requestData)
+        {
+            seenByObserver.set(requestData.describe());
+        }
+    }
+
+    @RequestScoped
+    public static class RequestData
+    {
+        @Inject
+        private UserData userData;
+
+        public String describe()
+        {
+            return "request of " + userData.getName();
+        }
+    }
+
+    @SessionScoped
+    public static class UserData implements Serializable
+    {
+        private String name;
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public void setName(String name)
+        {
+            this.name = name;
+        }
+    }
+}
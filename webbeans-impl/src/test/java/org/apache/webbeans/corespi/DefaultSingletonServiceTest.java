@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.corespi;
+
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.webbeans.config.WebBeansContext;
+import org.junit.Test;
+
+public class DefaultSingletonServiceTest
+{
+    @Test
+    public void registerGetClear()
+    {
+        DefaultSingletonService service = new DefaultSingletonService();
+        ClassLoader first = new URLClassLoader(new URL[0]);
+        ClassLoader second = new URLClassLoader(new URL[0]);
+        WebBeansContext firstContext = new WebBeansContext(emptyMap(), new Properties());
+        WebBeansContext secondContext = new WebBeansContext(emptyMap(), new Properties());
+
+        assertFalse(service.exists(first));
+        service.register(first, firstContext);
+        assertTrue(service.exists(first));
+        assertFalse(service.exists(second));
+
+        // only one context registered, served by the fast path
+        assertSame(firstContext, service.get(first));
+
+        service.register(second, secondContext);
+        assertSame(firstContext, service.get(first));
+        assertSame(secondContext, service.get(second));
+
+        service.clear(first);
+        assertFalse(service.exists(first));
+        assertSame(secondContext, service.get(second));
+
+        service.clear(second);
+        assertFalse(service.exists(second));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void registerTwice()
+    {
+        DefaultSingletonService service = new DefaultSingletonService();
+        ClassLoader loader = new URLClassLoader(new URL[0]);
+        service.register(loader, new WebBeansContext(emptyMap(), new Properties()));
+        service.register(loader, new WebBeansContext(emptyMap(), new Properties()));
+    }
+
+    @Test
+    public void concurrentGetCreatesOneContext() throws Exception
+    {
+        DefaultSingletonService service = new DefaultSingletonService();
+        ClassLoader loader = new URLClassLoader(new URL[0]);
+        ClassLoader other = new URLClassLoader(new URL[0]);
+        service.register(other, new WebBeansContext(emptyMap(), new Properties()));
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try
+        {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<WebBeansContext>> contexts = new ArrayList<>();
+            for (int i = 0; i < threads; i++)
+            {
+                contexts.add(executor.submit(() ->
+                {
+                    start.await();
+                    return service.get(loader);
+                }));
+            }
+            start.countDown();
+
+            WebBeansContext context = contexts.get(0).get();
+            for (Future<WebBeansContext> future : contexts)
+            {
+                assertSame(context, future.get());
+            }
+            assertNotSame(service.get(other), context);
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void doesNotLeakClassLoaders() throws Exception
+    {
+        DefaultSingletonService service = new DefaultSingletonService();
+        ClassLoader loader = new URLClassLoader(new URL[0]);
+        WeakReference<ClassLoader> loaderReference = new WeakReference<>(loader);
+        service.register(loader, new WebBeansContext(emptyMap(), new Properties()));
+        loader = null;
+
+        for (int i = 0; i < 20 && loaderReference.get() != null; i++)
+        {
+            System.gc();
+            Thread.sleep(50);
+        }
+        assertNull(loaderReference.get());
+    }
+}
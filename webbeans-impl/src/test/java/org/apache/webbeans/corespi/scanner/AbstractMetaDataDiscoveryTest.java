@@ -19,27 +19,39 @@
 package org.apache.webbeans.corespi.scanner;
 
 import static java.util.Collections.emptyEnumeration;
+import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
 import static org.apache.xbean.asm9.ClassWriter.COMPUTE_FRAMES;
 import static org.apache.xbean.asm9.Opcodes.ACC_PUBLIC;
+import static org.apache.xbean.asm9.Opcodes.ACC_STATIC;
 import static org.apache.xbean.asm9.Opcodes.ACC_SUPER;
 import static org.apache.xbean.asm9.Opcodes.ALOAD;
 import static org.apache.xbean.asm9.Opcodes.INVOKESPECIAL;
+import static org.apache.xbean.asm9.Opcodes.INVOKESTATIC;
+import static org.apache.xbean.asm9.Opcodes.POP;
 import static org.apache.xbean.asm9.Opcodes.RETURN;
 import static org.apache.xbean.asm9.Opcodes.V1_8;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.reflect.Method;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.file.Files;
 import java.nio.charset.StandardCharsets;
 import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.jar.JarEntry;
@@ -50,9 +62,13 @@ import jakarta.enterprise.inject.spi.Bean;
 import jakarta.enterprise.inject.spi.BeanManager;
 import jakarta.enterprise.inject.spi.Extension;
 
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
 import org.apache.webbeans.config.WebBeansContext;
 import org.apache.webbeans.config.WebBeansFinder;
 import org.apache.webbeans.corespi.DefaultSingletonService;
+import org.apache.webbeans.corespi.scanner.xbean.BeanArchiveIndex;
+import org.apache.webbeans.corespi.scanner.xbean.ParallelArchiveScanner;
+import org.apache.webbeans.spi.BeanArchiveService.BeanDiscoveryMode;
 import org.apache.webbeans.spi.ContainerLifecycle;
 import org.apache.xbean.asm9.ClassWriter;
 import org.apache.xbean.asm9.MethodVisitor;
@@ -97,36 +113,7 @@ public class AbstractMetaDataDiscoveryTest
         final Thread thread = Thread.currentThread();
         final ClassLoader oldLoader = thread.getContextClassLoader();
         final URL[] urls = {scannedModule, extensionModule};
-        try (final URLClassLoader loader = new URLClassLoader(urls, new ClassLoader() {
-            @Override
-            public Class<?> loadClass(final String name) throws ClassNotFoundException
-            {
-                return oldLoader.loadClass(name);
-            }
-
-            @Override
-            public URL getResource(final String name)
-            {
-                return oldLoader.getResource(name);
-            }
-
-            @Override
-            public Enumeration<URL> getResources(final String name) throws IOException
-            {
-                if ("META-INF".equals(name) || "".equals(name)) // scanning
-                {
-                    return emptyEnumeration();
-                }
-                return oldLoader.getResources(name);
-            }
-        })
-        {
-            @Override
-            public URL[] getURLs()
-            {
-                return urls;
-            }
-        })
+        try (final URLClassLoader loader = newModuleLoader(oldLoader, urls))
         {
             thread.setContextClassLoader(loader);
 
@@ -170,6 +157,318 @@ public class AbstractMetaDataDiscoveryTest
         }
     }
 
+    @Test
+    public void deploymentSnapshot() throws Exception
+    {
+        final URL scannedModule = createScannedModule();
+        final File snapshot = new File(temp.getRoot(), "snapshot/owb.snapshot");
+        final String foo = "org.apache.openwebbeans.generated.test.Foo";
+
+        // first boot scans and writes the snapshot
+        assertEquals(1, countBeans(scannedModule, snapshot, foo));
+        final DeploymentSnapshot written = DeploymentSnapshot.read(snapshot.toPath());
+        assertNotNull(written);
+        assertEquals(singletonList(foo), written.getArchives().get(scannedModule.toExternalForm()).getClassNames());
+
+        // an unchanged deployment uses the snapshot instead of scanning, we prove it by dropping Foo from it
+        final Map<String, DeploymentSnapshot.Archive> withoutFoo = new HashMap<>();
+        withoutFoo.put(scannedModule.toExternalForm(), new DeploymentSnapshot.Archive(scannedModule, emptyList()));
+        new DeploymentSnapshot(written.getChecksum(), withoutFoo).write(snapshot.toPath());
+        assertEquals(0, countBeans(scannedModule, snapshot, foo));
+
+        // so does a changed scan configuration
+        final Properties changedConfig = new Properties();
+        changedConfig.setProperty("org.apache.webbeans.scanner.deploymentSnapshot", snapshot.getAbsolutePath());
+        changedConfig.setProperty("org.apache.webbeans.spi.deployer.skipNoClassDefFoundTriggers", "false");
+        assertEquals(1, countBeans(scannedModule, changedConfig, foo));
+        new DeploymentSnapshot(written.getChecksum(), withoutFoo).write(snapshot.toPath());
+
+        // a changed archive invalidates the snapshot
+        final File jar = new File(scannedModule.toURI());
+        assertTrue(jar.setLastModified(jar.lastModified() - 60000));
+        assertEquals(1, countBeans(scannedModule, snapshot, foo));
+        assertEquals(singletonList(foo), DeploymentSnapshot.read(snapshot.toPath())
+                .getArchives().get(scannedModule.toExternalForm()).getClassNames());
+    }
+
+    @Test
+    public void deploymentSnapshotFinder() throws Exception
+    {
+        final URL scannedModule = createScannedModule();
+        final File snapshot = new File(temp.getRoot(), "snapshot/owb.snapshot");
+        final String foo = "org.apache.openwebbeans.generated.test.Foo";
+        assertEquals(1, countBeans(scannedModule, snapshot, foo));
+
+        final Thread thread = Thread.currentThread();
+        final ClassLoader oldLoader = thread.getContextClassLoader();
+        try (final URLClassLoader loader = newModuleLoader(oldLoader, new URL[]{ scannedModule }))
+        {
+            thread.setContextClassLoader(loader);
+
+            final Properties config = new Properties();
+            config.setProperty("org.apache.webbeans.scanner.deploymentSnapshot", snapshot.getAbsolutePath());
+            config.setProperty("org.apache.webbeans.scanExclusionPaths", "/classes,/test-classes," +
+                    "/xbean,/ham,/junit-,/junit5-,/debugger,/idea,/openwebbeans,/geronimo");
+            final WebBeansContext context = new WebBeansContext(emptyMap(), config);
+            final DefaultSingletonService singletonService = DefaultSingletonService.class.cast(
+                    WebBeansFinder.getSingletonService());
+            singletonService.register(loader, context);
+            try
+            {
+                final AbstractMetaDataDiscovery scanner = AbstractMetaDataDiscovery.class.cast(context.getScannerService());
+                scanner.scan();
+                assertNull(scanner.finder);
+
+                // the finder users still get the scanned archives
+                assertNotNull(scanner.getOrInitFinder().getClassInfo(foo));
+                assertEquals(1, scanner.getBeanClassesPerBda().values().stream().mapToInt(Set::size).sum());
+            }
+            finally
+            {
+                singletonService.clear(loader);
+            }
+        }
+        finally
+        {
+            thread.setContextClassLoader(oldLoader);
+        }
+    }
+
+    @Test
+    public void beanArchiveIndex() throws Exception
+    {
+        final File module = temp.newFolder("indexed-module");
+        final File bean = new File(module, "org/apache/openwebbeans/generated/test/Foo.class");
+        assertTrue(bean.getParentFile().mkdirs());
+        Files.write(bean.toPath(), createBean("org/apache/openwebbeans/generated/test/Foo.class", null));
+        assertTrue(new File(module, "META-INF").mkdirs());
+        Files.write(new File(module, "META-INF/beans.xml").toPath(), new byte[0]);
+        final URL moduleUrl = module.toURI().toURL();
+        final String foo = "org.apache.openwebbeans.generated.test.Foo";
+
+        final BeanArchiveIndex index = new BeanArchiveIndexGenerator().generate(module.toPath());
+        assertEquals(BeanDiscoveryMode.ALL, index.getDiscoveryMode());
+        assertEquals(singletonList(ApplicationScoped.class.getName()), index.getAnnotationsPerClass().get(foo));
+        try (InputStream stream = Files.newInputStream(module.toPath().resolve(BeanArchiveIndex.INDEX_LOCATION)))
+        {
+            assertEquals(index.getAnnotationsPerClass(), BeanArchiveIndex.read(stream).getAnnotationsPerClass());
+        }
+        assertEquals(1, countBeans(moduleUrl, null, foo));
+
+        // the runtime only sees the classes of the index, we prove it by dropping Foo from it
+        final Long checksum = BeanArchiveIndex.checksum(moduleUrl);
+        assertEquals(checksum, index.getChecksum());
+        writeIndex(module, new BeanArchiveIndex(BeanDiscoveryMode.ALL, checksum, emptyMap()));
+        assertEquals(0, countBeans(moduleUrl, null, foo));
+
+        // unless the indexes are disabled
+        final Properties noIndex = new Properties();
+        noIndex.setProperty(OpenWebBeansConfiguration.USE_BEAN_ARCHIVE_INDEX, "false");
+        assertEquals(1, countBeans(moduleUrl, noIndex, foo));
+
+        // an index without checksum gets ignored
+        writeIndex(module, new BeanArchiveIndex(BeanDiscoveryMode.ALL, null, emptyMap()));
+        assertEquals(1, countBeans(moduleUrl, null, foo));
+
+        // as well as an index of changed classes
+        writeIndex(module, new BeanArchiveIndex(BeanDiscoveryMode.ALL, checksum, emptyMap()));
+        final File bar = new File(module, "org/apache/openwebbeans/generated/test/Bar.class");
+        Files.write(bar.toPath(), createBean("org/apache/openwebbeans/generated/test/Bar.class", null));
+        assertEquals(1, countBeans(moduleUrl, null, foo));
+        assertTrue(bar.delete());
+        assertEquals(0, countBeans(moduleUrl, null, foo));
+
+        // an index for another bean-discovery-mode gets ignored
+        writeIndex(module, new BeanArchiveIndex(BeanDiscoveryMode.ANNOTATED, checksum, emptyMap()));
+        assertEquals(1, countBeans(moduleUrl, null, foo));
+    }
+
+    @Test
+    public void parallelClassLoading() throws Exception
+    {
+        final File file = temp.newFile("test-parallel.jar");
+        final String[] beanClasses = new String[20];
+        try (final JarOutputStream outputStream = new JarOutputStream(new FileOutputStream(file)))
+        {
+            for (int i = 0; i < beanClasses.length; i++)
+            {
+                beanClasses[i] = "org.apache.openwebbeans.generated.test.Foo" + i;
+                createBean(outputStream, beanClasses[i].replace('.', '/') + ".class", null);
+            }
+            // its superclass is missing, it has to get skipped like in the sequential mode
+            outputStream.putNextEntry(new JarEntry("org/apache/openwebbeans/generated/test/Broken.class"));
+            outputStream.write(createBean("org/apache/openwebbeans/generated/test/Broken.class",
+                    "org/apache/openwebbeans/generated/test/Missing", null));
+            outputStream.closeEntry();
+            outputStream.putNextEntry(new JarEntry("META-INF/beans.xml"));
+            outputStream.closeEntry();
+        }
+
+        final Properties config = new Properties();
+        config.setProperty("org.apache.webbeans.scanner.parallelClassLoading", "true");
+        assertEquals(beanClasses.length, countBeans(file.toURI().toURL(), config, beanClasses));
+    }
+
+    @Test
+    public void parallelClassLoadingInitializesLikeSequential() throws Exception
+    {
+        final String initialized = "org.apache.openwebbeans.generated.test.Initialized";
+        final String property = AbstractMetaDataDiscoveryTest.class.getName() + ".initialized";
+        final File file = temp.newFile("test-parallel-init.jar");
+        try (final JarOutputStream outputStream = new JarOutputStream(new FileOutputStream(file)))
+        {
+            final String resource = initialized.replace('.', '/') + ".class";
+            outputStream.putNextEntry(new JarEntry(resource));
+            outputStream.write(createInitializedBean(resource, property));
+            outputStream.closeEntry();
+            outputStream.putNextEntry(new JarEntry("META-INF/beans.xml"));
+            outputStream.closeEntry();
+        }
+
+        for (final String parallel : new String[]{ "false", "true" })
+        {
+            System.clearProperty(property);
+            try
+            {
+                final Properties config = new Properties();
+                config.setProperty("org.apache.webbeans.scanner.parallelClassLoading", parallel);
+                assertEquals(1, countBeans(file.toURI().toURL(), config, initialized));
+                assertEquals("parallel=" + parallel, "true", System.getProperty(property));
+            }
+            finally
+            {
+                System.clearProperty(property);
+            }
+        }
+    }
+
+    @Test
+    public void parallelScanning() throws Exception
+    {
+        final String foo = "org.apache.openwebbeans.generated.test.Foo";
+        final String plain = "org.apache.openwebbeans.generated.test.Plain";
+        final File all = createParallelModule("test-parallel-all.jar", "");
+        final File annotated = createParallelModule("test-parallel-annotated.jar",
+                "<beans bean-discovery-mode=\"annotated\"/>");
+
+        // 'all' only lists the classes, 'annotated' drops the class without annotations right away
+        final ParallelArchiveScanner scanner = new ParallelArchiveScanner(false);
+        assertEquals(emptyList(), scanner.scan(all, BeanDiscoveryMode.ALL).get(plain));
+        assertTrue(scanner.scan(all, BeanDiscoveryMode.ALL).containsKey(foo));
+        final Map<String, List<String>> annotatedClasses = scanner.scan(annotated, BeanDiscoveryMode.ANNOTATED);
+        assertEquals(singletonList(ApplicationScoped.class.getName()), annotatedClasses.get(foo));
+        assertFalse(annotatedClasses.containsKey(plain));
+        assertEquals(annotatedClasses, new ParallelArchiveScanner(true).scan(annotated, BeanDiscoveryMode.ANNOTATED));
+
+        for (final String memoryMapped : new String[]{ "false", "true" })
+        {
+            final Properties config = new Properties();
+            config.setProperty("org.apache.webbeans.scanner.parallelScanning", "true");
+            config.setProperty("org.apache.webbeans.scanner.memoryMappedJars", memoryMapped);
+            assertEquals(2, countBeans(all.toURI().toURL(), config, foo, plain));
+            assertEquals(1, countBeans(annotated.toURI().toURL(), config, foo, plain));
+        }
+    }
+
+    private File createParallelModule(final String name, final String beansXml) throws IOException
+    {
+        final File file = temp.newFile(name);
+        try (final JarOutputStream outputStream = new JarOutputStream(new FileOutputStream(file)))
+        {
+            createBean(outputStream, "org/apache/openwebbeans/generated/test/Foo.class", null);
+            outputStream.putNextEntry(new JarEntry("org/apache/openwebbeans/generated/test/Plain.class"));
+            outputStream.write(createBean("org/apache/openwebbeans/generated/test/Plain.class",
+                    Type.getInternalName(Object.class), null, false));
+            outputStream.closeEntry();
+            outputStream.putNextEntry(new JarEntry("META-INF/beans.xml"));
+            outputStream.write(beansXml.getBytes(StandardCharsets.UTF_8));
+            outputStream.closeEntry();
+        }
+        return file;
+    }
+
+    private void writeIndex(final File module, final BeanArchiveIndex index) throws IOException
+    {
+        try (OutputStream stream = Files.newOutputStream(module.toPath().resolve(BeanArchiveIndex.INDEX_LOCATION)))
+        {
+            index.write(stream);
+        }
+    }
+
+    private int countBeans(final URL module, final File snapshot, final String beanClass) throws Exception
+    {
+        final Properties config = new Properties();
+        if (snapshot != null)
+        {
+            config.setProperty("org.apache.webbeans.scanner.deploymentSnapshot", snapshot.getAbsolutePath());
+        }
+        return countBeans(module, config, beanClass);
+    }
+
+    private int countBeans(final URL module, final Properties config, final String... beanClasses) throws Exception
+    {
+        final Thread thread = Thread.currentThread();
+        final ClassLoader oldLoader = thread.getContextClassLoader();
+        try (final URLClassLoader loader = newModuleLoader(oldLoader, new URL[]{ module }))
+        {
+            thread.setContextClassLoader(loader);
+
+            config.setProperty("org.apache.webbeans.scanExclusionPaths", "/classes,/test-classes," +
+                    "/xbean,/ham,/junit-,/junit5-,/debugger,/idea,/openwebbeans,/geronimo");
+            final WebBeansContext context = new WebBeansContext(emptyMap(), config);
+            final DefaultSingletonService singletonService = DefaultSingletonService.class.cast(
+                    WebBeansFinder.getSingletonService());
+            singletonService.register(loader, context);
+            final ContainerLifecycle lifecycle = context.getService(ContainerLifecycle.class);
+            lifecycle.startApplication(null);
+            try
+            {
+                int beans = 0;
+                for (final String beanClass : beanClasses)
+                {
+                    beans += context.getBeanManagerImpl().getBeans(loader.loadClass(beanClass)).size();
+                }
+                return beans;
+            }
+            finally
+            {
+                lifecycle.stopApplication(null);
+                singletonService.clear(loader);
+            }
+        }
+        finally
+        {
+            thread.setContextClassLoader(oldLoader);
+        }
+    }
+
+    private URLClassLoader newModuleLoader(final ClassLoader oldLoader, final URL[] urls)
+    {
+        return new ModuleLoader(urls, new ClassLoader() {
+            @Override
+            public Class<?> loadClass(final String name) throws ClassNotFoundException
+            {
+                return oldLoader.loadClass(name);
+            }
+
+            @Override
+            public URL getResource(final String name)
+            {
+                return oldLoader.getResource(name);
+            }
+
+            @Override
+            public Enumeration<URL> getResources(final String name) throws IOException
+            {
+                if ("META-INF".equals(name) || "".equals(name)) // scanning
+                {
+                    return emptyEnumeration();
+                }
+                return oldLoader.getResources(name);
+            }
+        });
+    }
+
     private URL createScannedModule() throws IOException
     {
         final File file = temp.newFile("test-scanned.jar");
@@ -200,22 +499,93 @@ public class AbstractMetaDataDiscoveryTest
             throws IOException
     {
         outputStream.putNextEntry(new JarEntry(resource));
+        outputStream.write(createBean(resource, itf));
+        outputStream.closeEntry();
+    }
+
+    private byte[] createBean(final String resource, final Class<?> itf)
+    {
+        return createBean(resource, Type.getInternalName(Object.class), itf);
+    }
+
+    private byte[] createBean(final String resource, final String superName, final Class<?> itf)
+    {
+        return createBean(resource, superName, itf, true);
+    }
+
+    private byte[] createBean(final String resource, final String superName, final Class<?> itf, final boolean annotated)
+    {
         final ClassWriter writer = new ClassWriter(COMPUTE_FRAMES);
-        // make it count for annotated mode
-        writer.visitAnnotation(Type.getDescriptor(ApplicationScoped.class), true).visitEnd();
+        if (annotated)
+        {
+            // make it count for annotated mode
+            writer.visitAnnotation(Type.getDescriptor(ApplicationScoped.class), true).visitEnd();
+        }
         writer.visit(V1_8, ACC_PUBLIC + ACC_SUPER,
                 resource.substring(0, resource.length() - ".class".length()), null,
-                Type.getInternalName(Object.class), itf == null ? null : new String[]{ Type.getInternalName(itf) });
+                superName, itf == null ? null : new String[]{ Type.getInternalName(itf) });
         writer.visitSource(resource.replace(".class", ".java"), null);
         final MethodVisitor constructor = writer.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
         constructor.visitCode();
         constructor.visitVarInsn(ALOAD, 0);
-        constructor.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        constructor.visitMethodInsn(INVOKESPECIAL, superName, "<init>", "()V", false);
         constructor.visitInsn(RETURN);
         constructor.visitMaxs(1, 1);
         constructor.visitEnd();
         writer.visitEnd();
-        outputStream.write(writer.toByteArray());
-        outputStream.closeEntry();
+        return writer.toByteArray();
+    }
+
+    /**
+     * @return a bean class which sets the given system property in its static initializer
+     */
+    private byte[] createInitializedBean(final String resource, final String property)
+    {
+        final ClassWriter writer = new ClassWriter(COMPUTE_FRAMES);
+        writer.visitAnnotation(Type.getDescriptor(ApplicationScoped.class), true).visitEnd();
+        writer.visit(V1_8, ACC_PUBLIC + ACC_SUPER, resource.substring(0, resource.length() - ".class".length()), null,
+                Type.getInternalName(Object.class), null);
+        final MethodVisitor constructor = writer.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(ALOAD, 0);
+        constructor.visitMethodInsn(INVOKESPECIAL, Type.getInternalName(Object.class), "<init>", "()V", false);
+        constructor.visitInsn(RETURN);
+        constructor.visitMaxs(1, 1);
+        constructor.visitEnd();
+        final MethodVisitor initializer = writer.visitMethod(ACC_STATIC, "<clinit>", "()V", null, null);
+        initializer.visitCode();
+        initializer.visitLdcInsn(property);
+        initializer.visitLdcInsn("true");
+        initializer.visitMethodInsn(INVOKESTATIC, Type.getInternalName(System.class), "setProperty",
+                "(Ljava/lang/String;Ljava/lang/String;)Ljava/lang/String;", false);
+        initializer.visitInsn(POP);
+        initializer.visitInsn(RETURN);
+        initializer.visitMaxs(2, 0);
+        initializer.visitEnd();
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    private static final class ModuleLoader extends URLClassLoader
+    {
+        static
+        {
+            // allows the parallel class loading of the scanner
+            registerAsParallelCapable();
+        }
+
+        private final URL[] urls;
+
+        private ModuleLoader(final URL[] urls, final ClassLoader parent)
+        {
+            super(urls, parent);
+            this.urls = urls;
+        }
+
+        @Override
+        public URL[] getURLs()
+        {
+            return urls;
+        }
     }
 }
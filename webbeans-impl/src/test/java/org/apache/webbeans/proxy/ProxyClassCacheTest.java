@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.proxy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class ProxyClassCacheTest
+{
+    @Test
+    public void generatesOncePerKey() throws Exception
+    {
+        ProxyClassCache<String> cache = new ProxyClassCache<>();
+        AtomicInteger generations = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try
+        {
+            List<Future<Class<Object>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++)
+            {
+                results.add(executor.submit(() ->
+                {
+                    start.await();
+                    return cache.computeIfAbsent("bean", null, () ->
+                    {
+                        generations.incrementAndGet();
+                        sleep();
+                        return Object.class;
+                    });
+                }));
+            }
+            start.countDown();
+
+            for (Future<Class<Object>> result : results)
+            {
+                assertSame(Object.class, result.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(1, generations.get());
+            assertSame(Object.class, cache.get("bean"));
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void otherSignatureReplaces()
+    {
+        ProxyClassCache<String> cache = new ProxyClassCache<>();
+        Object[] signature = {new String[] {"a"}};
+
+        assertSame(Object.class, cache.computeIfAbsent("bean", signature, () -> Object.class));
+        assertSame(Object.class, cache.computeIfAbsent("bean", new Object[] {new String[] {"a"}}, () -> String.class));
+        assertSame(String.class, cache.computeIfAbsent("bean", new Object[] {new String[] {"b"}}, () -> String.class));
+        assertSame(String.class, cache.get("bean"));
+    }
+
+    @Test
+    public void failedGenerationGetsRetried()
+    {
+        ProxyClassCache<String> cache = new ProxyClassCache<>();
+        try
+        {
+            cache.computeIfAbsent("bean", null, () ->
+            {
+                throw new IllegalStateException("broken");
+            });
+            fail();
+        }
+        catch (IllegalStateException e)
+        {
+            assertEquals("broken", e.getMessage());
+        }
+
+        assertNull(cache.get("bean"));
+        assertSame(Object.class, cache.computeIfAbsent("bean", null, () -> Object.class));
+    }
+
+    private static void sleep()
+    {
+        try
+        {
+            Thread.sleep(50);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.service;
+
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Properties;
+
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.proxy.NormalScopeProxyFactory;
+import org.apache.webbeans.spi.DefiningClassService;
+import org.junit.Test;
+
+public class HiddenClassProxyServiceTest
+{
+    @Test
+    public void defineHidden() throws Exception
+    {
+        final WebBeansContext context = newContext();
+        final NormalScopeProxyFactory factory = new NormalScopeProxyFactory(context);
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+
+        final Class<MyBean> proxyClass = factory.createProxyClass(contextClassLoader, MyBean.class);
+        assertTrue(isHidden(proxyClass));
+        assertEquals(MyBean.class.getClassLoader(), proxyClass.getClassLoader());
+        assertEquals(MyBean.class.getPackage().getName(), proxyClass.getPackage().getName());
+
+        final MyBean proxy = factory.createProxyInstance(proxyClass, () -> new MyBean());
+        assertEquals(">a<", proxy.ok("a"));
+
+        // no name probing, a second proxy of the same class gets the same name but another class
+        final Class<MyBean> otherProxyClass = new NormalScopeProxyFactory(context).createProxyClass(contextClassLoader, MyBean.class);
+        assertNotSame(proxyClass, otherProxyClass);
+        assertEquals(nameOf(proxyClass), nameOf(otherProxyClass));
+    }
+
+    @Test
+    public void fallbackForJdkClasses() throws Exception
+    {
+        final WebBeansContext context = newContext();
+        final NormalScopeProxyFactory factory = new NormalScopeProxyFactory(context);
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+
+        final Class<ArrayList> proxyClass = factory.createProxyClass(contextClassLoader, ArrayList.class);
+        assertFalse(isHidden(proxyClass));
+        assertNotEquals(contextClassLoader, proxyClass.getClassLoader());
+        assertEquals(context.getService(DefiningClassService.class).getProxyClassLoader(ArrayList.class), proxyClass.getClassLoader());
+    }
+
+    private static WebBeansContext newContext()
+    {
+        final Properties config = new Properties();
+        config.setProperty(DefiningClassService.class.getName(), HiddenClassProxyService.class.getName());
+        return new WebBeansContext(emptyMap(), config);
+    }
+
+    // the JVM appends /suffix to the name of hidden classes
+    private static boolean isHidden(final Class<?> clazz)
+    {
+        return clazz.getName().indexOf('/') > 0;
+    }
+
+    private static String nameOf(final Class<?> hiddenClass)
+    {
+        return hiddenClass.getName().substring(0, hiddenClass.getName().indexOf('/'));
+    }
+
+    public static class MyBean
+    {
+        public String ok(final String value)
+        {
+            return ">" + value + "<";
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.service;
+
+import static java.util.Collections.emptyMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import org.apache.webbeans.config.WebBeansContext;
+import org.apache.webbeans.lifecycle.test.OpenWebBeansTestMetaDataDiscoveryService;
+import org.apache.webbeans.proxy.NormalScopeProxyFactory;
+import org.apache.webbeans.spi.DefiningClassService;
+import org.apache.webbeans.spi.ScannerService;
+import org.junit.Test;
+
+public class ProxyClassGeneratorTest
+{
+    @Test
+    public void generateAndLoadFirst() throws Exception
+    {
+        // the output has to be on the classpath for the runtime part
+        Path classes = Paths.get(ProxyClassGeneratorTest.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        Path manifest = classes.resolve(ClassLoaderProxyService.PROXIES_MANIFEST);
+        Map<String, String> proxies = Collections.emptyMap();
+        try
+        {
+            proxies = new ProxyClassGenerator()
+                    .withConfiguration(ScannerService.class.getName(), SingleBeanScanner.class.getName())
+                    .generate(classes);
+
+            // built-in normal scoped beans get their proxies generated as well
+            String proxyName = proxies.entrySet().stream()
+                    .filter(e -> ScopedBean.class.getName().equals(e.getValue()))
+                    .map(Map.Entry::getKey)
+                    .findFirst()
+                    .orElseThrow(() -> new AssertionError("no proxy generated for " + ScopedBean.class.getName()));
+            assertTrue(proxyName.startsWith(ScopedBean.class.getName() + "$$OwbNormalScopeProxy"));
+            assertTrue(Files.exists(manifest));
+            assertTrue(Files.exists(classes.resolve(proxyName.replace('.', '/') + ".class")));
+
+            // reproducible: sorted entries and no timestamp
+            List<String> lines = Files.readAllLines(manifest, StandardCharsets.ISO_8859_1);
+            assertEquals(proxies.size() + 1, lines.size());
+            assertTrue(lines.get(0).startsWith("# "));
+            int i = 1;
+            for (Map.Entry<String, String> proxy : proxies.entrySet())
+            {
+                assertEquals(proxy.getKey() + '=' + proxy.getValue(), lines.get(i++));
+            }
+            Properties loaded = new Properties();
+            try (InputStream stream = Files.newInputStream(manifest))
+            {
+                loaded.load(stream);
+            }
+            assertEquals(proxies, loaded);
+
+            Properties config = new Properties();
+            config.setProperty(DefiningClassService.class.getName(), ClassLoaderProxyService.LoadFirst.class.getName());
+            config.setProperty("org.apache.webbeans.proxy.useStaticNames", "true");
+            config.setProperty("org.apache.webbeans.proxy.staticNames.useXxHash64", "true");
+            WebBeansContext context = new WebBeansContext(emptyMap(), config);
+            ClassLoader loader = Thread.currentThread().getContextClassLoader();
+
+            // the prebuilt class gets used as is, a generated one would live in the proxies ClassLoader
+            Class<ScopedBean> proxyClass = new NormalScopeProxyFactory(context).createProxyClass(loader, ScopedBean.class);
+            assertEquals(proxyName, proxyClass.getName());
+            assertEquals(ScopedBean.class.getClassLoader(), proxyClass.getClassLoader());
+
+            // not listed in the manifest, so it gets generated
+            Class<OtherBean> otherProxy = new NormalScopeProxyFactory(context).createProxyClass(loader, OtherBean.class);
+            assertNotEquals(OtherBean.class.getClassLoader(), otherProxy.getClassLoader());
+        }
+        finally
+        {
+            Files.deleteIfExists(manifest);
+            for (String proxy : proxies.keySet())
+            {
+                Files.deleteIfExists(classes.resolve(proxy.replace('.', '/') + ".class"));
+            }
+        }
+        assertFalse(Files.exists(manifest));
+    }
+
+    public static class SingleBeanScanner extends OpenWebBeansTestMetaDataDiscoveryService
+    {
+        public SingleBeanScanner()
+        {
+            deployClasses(Collections.singletonList(ScopedBean.class));
+        }
+    }
+
+    @ApplicationScoped
+    public static class ScopedBean
+    {
+        public String ok(final String value)
+        {
+            return ">" + value + "<";
+        }
+    }
+
+    public static class OtherBean
+    {
+        public String ok(final String value)
+        {
+            return value;
+        }
+    }
+}
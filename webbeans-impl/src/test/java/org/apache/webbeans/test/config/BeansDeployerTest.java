@@ -22,7 +22,9 @@ import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static java.util.logging.Level.FINE;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -34,11 +36,16 @@ import java.util.logging.Logger;
 
 import jakarta.annotation.Priority;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.Alternative;
+import jakarta.enterprise.inject.UnsatisfiedResolutionException;
+import jakarta.inject.Inject;
 import jakarta.interceptor.AroundInvoke;
 import jakarta.interceptor.Interceptor;
 import jakarta.interceptor.InvocationContext;
 
 import org.apache.webbeans.config.BeansDeployer;
+import org.apache.webbeans.exception.WebBeansConfigurationException;
 import org.apache.webbeans.test.AbstractUnitTest;
 import org.apache.webbeans.test.component.intercept.webbeans.bindings.Transactional;
 import org.junit.Rule;
@@ -61,6 +68,52 @@ public class BeansDeployerTest extends AbstractUnitTest
         assertEquals("tx", getInstance(MyService.class).tx());
     }
 
+    @Test
+    public void parallelDeployment()
+    {
+        addConfiguration("org.apache.webbeans.spi.deployer.parallelDeployment", "true");
+        startContainer(asList(TransactionalInterceptor.class, MyService.class, MyClient.class),
+                singletonList(Thread.currentThread().getContextClassLoader()
+                        .getResource(getClass().getName().replace('.', '/') + "/interceptorLogging/beans.xml")
+                        .toExternalForm()));
+        assertEquals("tx", getInstance(MyClient.class).call());
+    }
+
+    @Test
+    public void parallelDeploymentValidationError()
+    {
+        addConfiguration("org.apache.webbeans.spi.deployer.parallelDeployment", "true");
+        try
+        {
+            startContainer(MyService.class, MyClient.class, BrokenClient.class);
+            fail("BrokenClient has an unsatisfied injection point");
+        }
+        catch (WebBeansConfigurationException e)
+        {
+            Throwable cause = e;
+            while (cause != null && !UnsatisfiedResolutionException.class.isInstance(cause))
+            {
+                cause = cause.getCause();
+            }
+            assertNotNull(cause);
+            assertTrue(cause.getMessage(), cause.getMessage().contains(BrokenClient.class.getName()));
+        }
+    }
+
+    @Test
+    public void parallelDeploymentResolvesAlternativesAndObservers()
+    {
+        addConfiguration("org.apache.webbeans.spi.deployer.parallelDeployment", "true");
+        startContainer(DefaultGreeter.class, PriorityGreeter.class,
+                GreeterClient.class, OtherGreeterClient.class, GreetingObserver.class);
+
+        assertEquals("priority", getInstance(GreeterClient.class).greet());
+        assertEquals("priority", getInstance(OtherGreeterClient.class).greet());
+
+        getBeanManager().getEvent().select(Greeting.class).fire(new Greeting());
+        assertEquals("priority", getInstance(GreetingObserver.class).getLastGreeting());
+    }
+
     @Test
     public void interceptorLogging()
     {
@@ -129,6 +182,101 @@ public class BeansDeployerTest extends AbstractUnitTest
         }
     }
 
+    @ApplicationScoped
+    public static class MyClient
+    {
+        @Inject
+        private MyService service;
+
+        public String call()
+        {
+            return service.tx();
+        }
+    }
+
+    @ApplicationScoped
+    public static class BrokenClient
+    {
+        @Inject
+        private Runnable missing;
+    }
+
+    public interface Greeter
+    {
+        String greet();
+    }
+
+    @ApplicationScoped
+    public static class DefaultGreeter implements Greeter
+    {
+        @Override
+        public String greet()
+        {
+            return "default";
+        }
+    }
+
+    @Alternative
+    @Priority(100)
+    @ApplicationScoped
+    public static class PriorityGreeter implements Greeter
+    {
+        @Override
+        public String greet()
+        {
+            return "priority";
+        }
+    }
+
+    @ApplicationScoped
+    public static class GreeterClient
+    {
+        @Inject
+        private Greeter greeter;
+
+        public String greet()
+        {
+            return greeter.greet();
+        }
+    }
+
+    @ApplicationScoped
+    public static class OtherGreeterClient
+    {
+        private Greeter greeter;
+
+        @Inject
+        public void setGreeter(Greeter greeter)
+        {
+            this.greeter = greeter;
+        }
+
+        public String greet()
+        {
+            return greeter.greet();
+        }
+    }
+
+    public static class Greeting
+    {
+    }
+
+    @ApplicationScoped
+    public static class GreetingObserver
+    {
+        private volatile String lastGreeting;
+
+        public void onGreeting(@Observes Greeting greeting, Greeter greeter)
+        {
+            lastGreeting = greeter.greet();
+        }
+
+        public String getLastGreeting()
+        {
+            return lastGreeting;
+        }
+    }
+
     @Interceptor
     @Transactional
     @Priority(Interceptor.Priority.LIBRARY_BEFORE)
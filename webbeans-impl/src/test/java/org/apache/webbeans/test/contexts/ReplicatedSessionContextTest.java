@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.contexts;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.enterprise.context.SessionScoped;
+import jakarta.enterprise.inject.spi.Bean;
+
+import org.apache.webbeans.context.ReplicatedSessionContext;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.apache.webbeans.util.WebBeansUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ReplicatedSessionContextTest extends AbstractUnitTest
+{
+    @Test
+    public void onlyUsedBeansGetReplicated() throws Exception
+    {
+        startContainer(Cart.class, Preferences.class);
+
+        Bean<Cart> cartBean = bean(Cart.class);
+        Bean<Preferences> preferencesBean = bean(Preferences.class);
+        String cartAttribute = attributeName(cartBean);
+
+        ReplicatedSessionContext context = new ReplicatedSessionContext();
+        context.setActive(true);
+        Map<String, Object> session = new HashMap<>();
+        List<String> written = new ArrayList<>();
+
+        // first request uses both beans
+        context.get(cartBean, getBeanManager().createCreationalContext(cartBean)).add("book");
+        context.get(preferencesBean, getBeanManager().createCreationalContext(preferencesBean));
+        replicate(context, session, written);
+        Assert.assertEquals(2, written.size());
+        Assert.assertTrue(written.contains(cartAttribute));
+
+        // second request only uses the cart
+        written.clear();
+        context.get(cartBean).add("pen");
+        replicate(context, session, written);
+        Assert.assertEquals(1, written.size());
+        Assert.assertEquals(cartAttribute, written.get(0));
+
+        // nothing used, nothing replicated
+        written.clear();
+        replicate(context, session, written);
+        Assert.assertTrue(written.isEmpty());
+
+        // explicitly marked
+        context.markDirty(preferencesBean);
+        replicate(context, session, written);
+        Assert.assertEquals(1, written.size());
+        Assert.assertEquals(attributeName(preferencesBean), written.get(0));
+
+        // failover: the context gets replicated without its beans and restored from the attributes
+        ReplicatedSessionContext failedOver = (ReplicatedSessionContext) deserialize(serialize(context));
+        Assert.assertTrue(failedOver.isRestoreNeeded());
+        failedOver.setActive(true);
+        Map<String, Object> failedOverSession = new HashMap<>();
+        for (Map.Entry<String, Object> attribute : session.entrySet())
+        {
+            failedOverSession.put(attribute.getKey(), deserialize(serialize(attribute.getValue())));
+        }
+        failedOver.restore(failedOverSession.keySet(), failedOverSession::get);
+        Assert.assertFalse(failedOver.isRestoreNeeded());
+        Cart restoredCart = failedOver.get(cartBean);
+        Assert.assertNotNull(restoredCart);
+        Assert.assertEquals(2, restoredCart.getItems().size());
+
+        // destroyed beans get removed from the session
+        written.clear();
+        context.destroy(cartBean);
+        replicate(context, session, written);
+        Assert.assertFalse(session.containsKey(cartAttribute));
+        Assert.assertTrue(session.containsKey(attributeName(preferencesBean)));
+    }
+
+    @Test
+    public void concurrentRequestsReplicateTheirOwnBeans() throws Exception
+    {
+        startContainer(Cart.class, Preferences.class);
+
+        Bean<Cart> cartBean = bean(Cart.class);
+        Bean<Preferences> preferencesBean = bean(Preferences.class);
+
+        ReplicatedSessionContext context = new ReplicatedSessionContext();
+        context.setActive(true);
+        Map<String, Object> session = new HashMap<>();
+        List<String> written = new ArrayList<>();
+
+        // this request uses the cart
+        context.get(cartBean, getBeanManager().createCreationalContext(cartBean)).add("book");
+
+        // another request of the same session only uses the preferences and ends first
+        List<String> writtenByOther = new ArrayList<>();
+        Thread otherRequest = new Thread(() ->
+        {
+            context.get(preferencesBean, getBeanManager().createCreationalContext(preferencesBean));
+            replicate(context, session, writtenByOther);
+        });
+        otherRequest.start();
+        otherRequest.join();
+        Assert.assertEquals(1, writtenByOther.size());
+        Assert.assertEquals(attributeName(preferencesBean), writtenByOther.get(0));
+
+        // the cart still gets written at the end of this request
+        replicate(context, session, written);
+        Assert.assertEquals(1, written.size());
+        Assert.assertEquals(attributeName(cartBean), written.get(0));
+    }
+
+    @Test
+    public void deferredBeansGetReplicatedByTheNextRequest() throws Exception
+    {
+        startContainer(Cart.class);
+
+        Bean<Cart> cartBean = bean(Cart.class);
+
+        ReplicatedSessionContext context = new ReplicatedSessionContext();
+        context.setActive(true);
+        Map<String, Object> session = new HashMap<>();
+        List<String> written = new ArrayList<>();
+
+        // a request which ends without access to the session
+        context.get(cartBean, getBeanManager().createCreationalContext(cartBean)).add("book");
+        context.deferReplication();
+
+        Thread nextRequest = new Thread(() -> replicate(context, session, written));
+        nextRequest.start();
+        nextRequest.join();
+        Assert.assertEquals(1, written.size());
+        Assert.assertEquals(attributeName(cartBean), written.get(0));
+    }
+
+    private void replicate(ReplicatedSessionContext context, Map<String, Object> session, List<String> written)
+    {
+        context.replicate((name, value) ->
+        {
+            written.add(name);
+            session.put(name, value);
+        }, session::remove);
+    }
+
+    private String attributeName(Bean<?> bean)
+    {
+        return ReplicatedSessionContext.BEAN_ATTRIBUTE_PREFIX + WebBeansUtil.getPassivationId(bean);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Bean<T> bean(Class<T> type)
+    {
+        return (Bean<T>) getBeanManager().resolve(getBeanManager().getBeans(type));
+    }
+
+    private static byte[] serialize(Object instance) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes))
+        {
+            out.writeObject(instance);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException
+    {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes)))
+        {
+            return in.readObject();
+        }
+    }
+
+    @SessionScoped
+    public static class Cart implements Serializable
+    {
+        private final List<String> items = new ArrayList<>();
+
+        public void add(String item)
+        {
+            items.add(item);
+        }
+
+        public List<String> getItems()
+        {
+            return items;
+        }
+    }
+
+    @SessionScoped
+    public static class Preferences implements Serializable
+    {
+        private String locale = "en";
+
+        public String getLocale()
+        {
+            return locale;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.contexts;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.enterprise.context.spi.AlterableContext;
+import jakarta.enterprise.context.spi.Context;
+import jakarta.enterprise.context.spi.Contextual;
+import jakarta.enterprise.context.spi.CreationalContext;
+
+import org.apache.webbeans.component.AbstractOwbBean;
+import org.apache.webbeans.context.RequestContext;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Test;
+
+public class RequestContextSlotsTest extends AbstractUnitTest
+{
+    @Test
+    public void ordinalsGetAssignedAtDeployment()
+    {
+        startContainer(First.class, Second.class, Application.class);
+
+        int first = ((AbstractOwbBean<?>) getBean(First.class)).getRequestScopedOrdinal();
+        int second = ((AbstractOwbBean<?>) getBean(Second.class)).getRequestScopedOrdinal();
+        assertTrue(first >= 0);
+        assertTrue(second >= 0);
+        assertNotEquals(first, second);
+        assertTrue(Math.max(first, second) < getWebBeansContext().getBeanManagerImpl().getRequestScopedBeanCount());
+
+        assertEquals(-1, ((AbstractOwbBean<?>) getBean(Application.class)).getRequestScopedOrdinal());
+    }
+
+    @Test
+    public void instancesPerRequest()
+    {
+        startContainer(First.class, Second.class, Application.class);
+        First.destroyed.set(0);
+
+        First first = getInstance(First.class);
+        first.setValue("a");
+        assertEquals("a", getInstance(First.class).getValue());
+
+        Context context = getBeanManager().getContext(RequestScoped.class);
+        Object instance = context.get(getBean(First.class));
+        assertSame(instance, context.get(getBean(First.class)));
+        assertNull(context.get(getBean(Second.class)));
+
+        restartContext(RequestScoped.class);
+        assertEquals(1, First.destroyed.get());
+        assertNull(first.getValue());
+
+        // destroying a single instance
+        first.setValue("b");
+        ((AlterableContext) getBeanManager().getContext(RequestScoped.class)).destroy(getBean(First.class));
+        assertEquals(2, First.destroyed.get());
+        assertNull(first.getValue());
+
+        endContext(RequestScoped.class);
+        assertEquals(3, First.destroyed.get());
+    }
+
+    @Test
+    public void contextualsWithoutSlot()
+    {
+        startContainer(First.class, Second.class, Application.class);
+
+        AtomicInteger destroyed = new AtomicInteger();
+        Contextual<String> contextual = new Contextual<String>()
+        {
+            @Override
+            public String create(CreationalContext<String> creationalContext)
+            {
+                return "custom";
+            }
+
+            @Override
+            public void destroy(String instance, CreationalContext<String> creationalContext)
+            {
+                destroyed.incrementAndGet();
+            }
+        };
+
+        // the map for those only gets created with the first instance
+        RequestContext context = (RequestContext) getBeanManager().getContext(RequestScoped.class);
+        assertNull(context.get(contextual));
+        context.destroy(contextual);
+        assertTrue(context.snapshotInstances().isEmpty());
+
+        assertEquals("custom", context.get(contextual, getBeanManager().createCreationalContext(contextual)));
+        assertEquals("custom", context.get(contextual));
+        assertEquals("custom", context.snapshotInstances().get(contextual));
+
+        endContext(RequestScoped.class);
+        assertEquals(1, destroyed.get());
+    }
+
+    @RequestScoped
+    public static class First
+    {
+        private static final AtomicInteger destroyed = new AtomicInteger();
+
+        private String value;
+
+        public String getValue()
+        {
+            return value;
+        }
+
+        public void setValue(String value)
+        {
+            this.value = value;
+        }
+
+        @PreDestroy
+        public void destroy()
+        {
+            destroyed.incrementAndGet();
+        }
+    }
+
+    @RequestScoped
+    public static class Second
+    {
+    }
+
+    @ApplicationScoped
+    public static class Application
+    {
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.contexts;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.enterprise.context.SessionScoped;
+
+import org.apache.webbeans.corespi.se.ScopedContextsService;
+import org.apache.webbeans.corespi.se.ScopedContextsService.ContextScope;
+import org.apache.webbeans.spi.ContextsService;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ScopedContextsServiceTest extends AbstractUnitTest
+{
+    @Test
+    public void testRequestContextGetsHandedOver() throws Exception
+    {
+        addService(ContextsService.class, ScopedContextsService.class);
+        startContainer(RequestData.class);
+
+        ScopedContextsService contextsService = (ScopedContextsService) getWebBeansContext().getContextsService();
+        RequestData data = getInstance(RequestData.class);
+        data.setValue("parent");
+
+        ContextScope scope = contextsService.currentScope();
+        Assert.assertNotNull(scope.getRequestContext());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            // without handing over the scope there is no active request context
+            Assert.assertNull(executor.submit(() -> getWebBeansContext().getContextsService()
+                    .getCurrentContext(RequestScoped.class)).get());
+
+            Assert.assertEquals("parent", executor.submit(
+                    () -> contextsService.callWithScope(scope, () -> getInstance(RequestData.class).getValue())).get());
+
+            // a child starting its own request context doesn't touch the parent
+            executor.submit(() -> contextsService.runWithScope(scope, () ->
+            {
+                contextsService.startContext(RequestScoped.class, null);
+                getInstance(RequestData.class).setValue("child");
+                Assert.assertEquals("child", getInstance(RequestData.class).getValue());
+                contextsService.endContext(RequestScoped.class, null);
+            })).get();
+            Assert.assertEquals("parent", data.getValue());
+            Assert.assertSame(scope, contextsService.currentScope());
+
+            // the binding gets removed after the task
+            Assert.assertTrue(executor.submit(() -> contextsService.currentScope().isEmpty()).get());
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRequestContextGetsOnlyHandedOverSequentially() throws Exception
+    {
+        addService(ContextsService.class, ScopedContextsService.class);
+        startContainer(RequestData.class);
+
+        ScopedContextsService contextsService = (ScopedContextsService) getWebBeansContext().getContextsService();
+        ContextScope scope = contextsService.currentScope();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try
+        {
+            Future<?> first = executor.submit(() -> contextsService.runWithScope(scope, () ->
+            {
+                started.countDown();
+                try
+                {
+                    release.await();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            Assert.assertTrue(started.await(1, TimeUnit.MINUTES));
+
+            try
+            {
+                executor.submit(() -> contextsService.runWithScope(scope, () -> Assert.fail("must not run"))).get();
+                Assert.fail("the request context is still handed over to another thread");
+            }
+            catch (ExecutionException e)
+            {
+                Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+            }
+
+            release.countDown();
+            first.get();
+
+            // after the first task completed the scope can be handed over again
+            Assert.assertEquals("handed over", executor.submit(() -> contextsService.callWithScope(scope, () ->
+            {
+                getInstance(RequestData.class).setValue("handed over");
+                return getInstance(RequestData.class).getValue();
+            })).get());
+        }
+        finally
+        {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testEndingContextsUnbindsScope()
+    {
+        addService(ContextsService.class, ScopedContextsService.class);
+        startContainer(RequestData.class);
+
+        ScopedContextsService contextsService = (ScopedContextsService) getWebBeansContext().getContextsService();
+        contextsService.startContext(SessionScoped.class, null);
+        Assert.assertNotNull(contextsService.currentScope().getSessionContext());
+        Assert.assertSame(contextsService.currentScope().getSessionContext(),
+                contextsService.getCurrentContext(SessionScoped.class));
+
+        contextsService.endContext(SessionScoped.class, null);
+        Assert.assertNull(contextsService.getCurrentContext(SessionScoped.class));
+        Assert.assertNotNull(contextsService.currentScope().getRequestContext());
+
+        contextsService.endContext(RequestScoped.class, null);
+        Assert.assertNull(contextsService.getCurrentContext(RequestScoped.class));
+        Assert.assertTrue(contextsService.currentScope().isEmpty());
+    }
+
+    @RequestScoped
+    public static class RequestData
+    {
+        private String value;
+
+        public String getValue()
+        {
+            return value;
+        }
+
+        public void setValue(String value)
+        {
+            this.value = value;
+        }
+    }
+}
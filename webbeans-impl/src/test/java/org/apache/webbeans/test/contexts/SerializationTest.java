@@ -23,11 +23,14 @@ import static org.junit.Assert.assertTrue;
 
 import org.apache.webbeans.config.WebBeansContext;
 import org.apache.webbeans.container.SerializableBean;
+import org.apache.webbeans.context.RequestContext;
 import org.apache.webbeans.context.SessionContext;
 import org.apache.webbeans.service.ClassLoaderProxyService;
+import org.apache.webbeans.service.HiddenClassProxyService;
 import org.apache.webbeans.spi.DefiningClassService;
 import org.apache.webbeans.test.AbstractUnitTest;
 import org.apache.webbeans.test.contexts.serialize.AppScopedBean;
+import org.apache.webbeans.test.contexts.serialize.ReqScopedBean;
 import org.apache.webbeans.test.contexts.serialize.SessScopedBean;
 import org.apache.webbeans.test.contexts.session.common.PersonalDataBean;
 import org.apache.webbeans.test.decorators.multiple.Decorator1;
@@ -54,6 +57,7 @@ import org.junit.Test;
 import org.junit.rules.TestName;
 
 
+import jakarta.enterprise.context.RequestScoped;
 import jakarta.enterprise.context.SessionScoped;
 import jakarta.enterprise.context.spi.Context;
 import jakarta.enterprise.context.spi.CreationalContext;
@@ -161,6 +165,27 @@ public class SerializationTest extends AbstractUnitTest
         Assert.assertNotNull(sessContext2.get(pdbBean));
     }
 
+    @Test
+    public void testRequestContextSerialization() throws Exception
+    {
+        startContainer(ReqScopedBean.class);
+
+        getInstance(ReqScopedBean.class).setI(42);
+        Bean<ReqScopedBean> bean = getBean(ReqScopedBean.class);
+
+        Context requestContext = getWebBeansContext().getBeanManagerImpl().getContext(RequestScoped.class);
+        RequestContext requestContext2 = (RequestContext) deSerializeObject(serializeObject(requestContext));
+        requestContext2.setActive(true);
+
+        ReqScopedBean instance = requestContext2.get(bean);
+        Assert.assertNotNull(instance);
+        Assert.assertEquals(42, instance.getI());
+        Assert.assertSame(instance, requestContext2.get(bean, getBeanManager().createCreationalContext(bean)));
+
+        requestContext2.destroy();
+        Assert.assertFalse(requestContext2.isActive());
+    }
+
     @Test
     public void testProxySerialization() throws Exception
     {
@@ -176,6 +201,15 @@ public class SerializationTest extends AbstractUnitTest
                 getWebBeansContext().getService(DefiningClassService.class)));
     }
 
+    @Test
+    public void testProxySerializationWithHiddenClassProxy() throws Exception
+    {
+        addService(DefiningClassService.class, HiddenClassProxyService.class);
+        doProxySerialization();
+        assertTrue(HiddenClassProxyService.class.isInstance(
+                getWebBeansContext().getService(DefiningClassService.class)));
+    }
+
     private void doProxySerialization() throws IOException, ClassNotFoundException
     {
         Collection<Class<?>> classes = new ArrayList<Class<?>>();
@@ -18,6 +18,7 @@
  */
 package org.apache.webbeans.test.discovery;
 
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
 import org.apache.webbeans.corespi.scanner.xbean.CdiArchive;
 import org.apache.webbeans.corespi.se.DefaultScannerService;
 import org.apache.webbeans.spi.BeanArchiveService;
@@ -62,6 +63,17 @@ public class InterceptorAnnotatedDiscoveryTest extends AbstractUnitTest
         assertEquals("foo", getInstance(FooMe.class).foo());
     }
 
+    @Test
+    public void discoverWithParallelScanning()
+    {
+        // the finder has no ClassInfos for the classes the parallel scanner read
+        addConfiguration(OpenWebBeansConfiguration.PARALLEL_SCANNING, "true");
+        setClasses(FooInterceptor.class.getName(), FooMe.class.getName());
+
+        startContainer();
+        assertEquals("foo", getInstance(FooMe.class).foo());
+    }
+
     private void setClasses(final String... classes) {
         // replace the implicit BDA by an annotated one
         addService(ScannerService.class, new DefaultScannerService()
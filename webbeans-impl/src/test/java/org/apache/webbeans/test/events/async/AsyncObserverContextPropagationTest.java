@@ -0,0 +1,340 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.events.async;
+
+import java.io.Serializable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.annotation.PreDestroy;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.enterprise.context.SessionScoped;
+import jakarta.enterprise.context.spi.Context;
+import jakarta.enterprise.event.NotificationOptions;
+import jakarta.enterprise.event.ObservesAsync;
+import jakarta.enterprise.inject.spi.BeanManager;
+import jakarta.inject.Inject;
+
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.context.ContextPropagatingExecutor;
+import org.apache.webbeans.spi.ContextsService;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AsyncObserverContextPropagationTest extends AbstractUnitTest
+{
+    @Test
+    public void testAsyncObserverSeesCallerRequestContext() throws Exception
+    {
+        addConfiguration(OpenWebBeansConfiguration.PROPAGATE_CONTEXTS_TO_ASYNC_OBSERVERS, "true");
+        startContainer(RequestData.class, ObserverData.class, AsyncObserver.class);
+
+        getInstance(RequestData.class).setValue("caller");
+        getBeanManager().getEvent().fireAsync(new Ping()).toCompletableFuture().get(20, TimeUnit.SECONDS);
+
+        Assert.assertEquals("caller", getInstance(AsyncObserver.class).getSeen());
+        // the caller keeps its request context
+        Assert.assertEquals("caller", getInstance(RequestData.class).getValue());
+    }
+
+    @Test
+    public void testAsyncObserverRunsInOwnRequestContext() throws Exception
+    {
+        addConfiguration(OpenWebBeansConfiguration.PROPAGATE_CONTEXTS_TO_ASYNC_OBSERVERS, "true");
+        startContainer(RequestData.class, ObserverData.class, AsyncObserver.class);
+
+        Context callerContext = getWebBeansContext().getContextsService().getCurrentContext(RequestScoped.class);
+        getInstance(RequestData.class).setValue("caller");
+        ObserverData.DESTROYED.set(0);
+        RequestData.DESTROYED.set(0);
+
+        getBeanManager().getEvent().fireAsync(new Ping()).toCompletableFuture().get(20, TimeUnit.SECONDS);
+
+        AsyncObserver observer = getInstance(AsyncObserver.class);
+        Assert.assertNotSame(callerContext, observer.getContext());
+        // created by the delivery and destroyed with its request context, the inherited instance stays alive
+        Assert.assertEquals(1, ObserverData.DESTROYED.get());
+        Assert.assertEquals(0, RequestData.DESTROYED.get());
+        Assert.assertEquals("caller", getInstance(RequestData.class).getValue());
+        Assert.assertNull(callerContext.get(getBean(ObserverData.class)));
+    }
+
+    @Test
+    public void testAsyncObserverSeesCallerSessionContext() throws Exception
+    {
+        addConfiguration(OpenWebBeansConfiguration.PROPAGATE_CONTEXTS_TO_ASYNC_OBSERVERS, "true");
+        startContainer(RequestData.class, ObserverData.class, SessionData.class, SessionObserver.class);
+
+        getInstance(SessionData.class).setValue("session");
+        getBeanManager().getEvent().fireAsync(new Ping()).toCompletableFuture().get(20, TimeUnit.SECONDS);
+
+        Assert.assertEquals("session", getInstance(SessionObserver.class).getSeen());
+    }
+
+    @Test
+    public void testInheritedInstancesAreIgnoredAfterCallerRequestEnded() throws Exception
+    {
+        addConfiguration(OpenWebBeansConfiguration.PROPAGATE_CONTEXTS_TO_ASYNC_OBSERVERS, "true");
+        startContainer(RequestData.class, ObserverData.class, AsyncObserver.class);
+
+        getInstance(RequestData.class).setValue("caller");
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        CountDownLatch requestEnded = new CountDownLatch(1);
+        try
+        {
+            CompletableFuture<Ping> delivered = getBeanManager().getEvent().fireAsync(new Ping(), NotificationOptions.ofExecutor(command -> pool.execute(() ->
+            {
+                try
+                {
+                    requestEnded.await();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                command.run();
+            }))).toCompletableFuture();
+
+            getWebBeansContext().getContextsService().endContext(RequestScoped.class, null);
+            requestEnded.countDown();
+            delivered.get(20, TimeUnit.SECONDS);
+
+            // the destroyed instance of the caller is not visible anymore
+            Assert.assertNull(getInstance(AsyncObserver.class).getSeen());
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testNewRequestContextByDefault() throws Exception
+    {
+        startContainer(RequestData.class, ObserverData.class, AsyncObserver.class);
+
+        getInstance(RequestData.class).setValue("caller");
+        getBeanManager().getEvent().fireAsync(new Ping()).toCompletableFuture().get(20, TimeUnit.SECONDS);
+
+        Assert.assertNull(getInstance(AsyncObserver.class).getSeen());
+    }
+
+    @Test
+    public void testPropagatingExecutor() throws Exception
+    {
+        startContainer(RequestData.class);
+        getInstance(RequestData.class).setValue("caller");
+
+        ContextsService contextsService = getWebBeansContext().getContextsService();
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try
+        {
+            ContextPropagatingExecutor executor = new ContextPropagatingExecutor(contextsService, pool);
+            Assert.assertEquals("caller", CompletableFuture
+                    .supplyAsync(() -> getInstance(RequestData.class).getValue(), executor)
+                    .get(20, TimeUnit.SECONDS));
+
+            // the pooled thread doesn't keep the contexts after the task
+            Assert.assertNull(CompletableFuture
+                    .supplyAsync(() -> contextsService.getCurrentContext(RequestScoped.class), pool)
+                    .get(20, TimeUnit.SECONDS));
+        }
+        finally
+        {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRequestContextGetsOnlyHandedOverSequentially() throws Exception
+    {
+        startContainer(RequestData.class, SessionData.class);
+        getInstance(SessionData.class).setValue("session");
+
+        ContextsService contextsService = getWebBeansContext().getContextsService();
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try
+        {
+            ContextPropagatingExecutor executor = new ContextPropagatingExecutor(contextsService, pool);
+            CompletableFuture<Void> first = CompletableFuture.runAsync(() ->
+            {
+                started.countDown();
+                try
+                {
+                    release.await();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }, executor);
+            Assert.assertTrue(started.await(20, TimeUnit.SECONDS));
+
+            Future<?> second = pool.submit(ContextPropagatingExecutor.wrap(contextsService, () -> Assert.fail("must not run")));
+            try
+            {
+                second.get(20, TimeUnit.SECONDS);
+                Assert.fail("the request context is still handed over to another thread");
+            }
+            catch (ExecutionException e)
+            {
+                Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+            }
+
+            // without the request context tasks can run in parallel
+            ContextPropagatingExecutor parallel = new ContextPropagatingExecutor(contextsService, pool, false);
+            Assert.assertEquals("session", CompletableFuture
+                    .supplyAsync(() -> getInstance(SessionData.class).getValue(), parallel)
+                    .get(20, TimeUnit.SECONDS));
+
+            release.countDown();
+            first.get(20, TimeUnit.SECONDS);
+        }
+        finally
+        {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    public static class Ping
+    {
+    }
+
+    @RequestScoped
+    public static class RequestData
+    {
+        static final AtomicInteger DESTROYED = new AtomicInteger();
+
+        private String value;
+
+        @PreDestroy
+        public void destroy()
+        {
+            DESTROYED.incrementAndGet();
+        }
+
+        public String getValue()
+        {
+            return value;
+        }
+
+        public void setValue(String value)
+        {
+            this.value = value;
+        }
+    }
+
+    @RequestScoped
+    public static class ObserverData
+    {
+        static final AtomicInteger DESTROYED = new AtomicInteger();
+
+        public void touch()
+        {
+            // just to create the instance
+        }
+
+        @PreDestroy
+        public void destroy()
+        {
+            DESTROYED.incrementAndGet();
+        }
+    }
+
+    @SessionScoped
+    public static class SessionData implements Serializable
+    {
+        private String value;
+
+        public String getValue()
+        {
+            return value;
+        }
+
+        public void setValue(String value)
+        {
+            this.value = value;
+        }
+    }
+
+    @ApplicationScoped
+    public static class SessionObserver
+    {
+        @Inject
+        private SessionData sessionData;
+
+        private volatile String seen;
+
+        public void onPing(@ObservesAsync Ping ping)
+        {
+            seen = sessionData.getValue();
+        }
+
+        public String getSeen()
+        {
+            return seen;
+        }
+    }
+
+    @ApplicationScoped
+    public static class AsyncObserver
+    {
+        @Inject
+        private RequestData requestData;
+
+        @Inject
+        private ObserverData observerData;
+
+        @Inject
+        private BeanManager beanManager;
+
+        private volatile String seen;
+
+        private volatile Context context;
+
+        public void onPing(@ObservesAsync Ping ping)
+        {
+            seen = requestData.getValue();
+            observerData.touch();
+            context = beanManager.getContext(RequestScoped.class);
+        }
+
+        public String getSeen()
+        {
+            return seen;
+        }
+
+        public Context getContext()
+        {
+            return context;
+        }
+    }
+}
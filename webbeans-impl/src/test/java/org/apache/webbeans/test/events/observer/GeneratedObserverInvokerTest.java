@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.events.observer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Dependent;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.spi.BeanManager;
+
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.proxy.MethodInvoker;
+import org.apache.webbeans.proxy.MethodInvokerFactory;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GeneratedObserverInvokerTest extends AbstractUnitTest
+{
+    @Test
+    public void testObserversWithGeneratedInvokers() throws Exception
+    {
+        addConfiguration(OpenWebBeansConfiguration.GENERATED_OBSERVER_INVOKERS, "true");
+        startContainer(InvokedObserver.class, Helper.class);
+
+        Orange orange = new Orange();
+        getBeanManager().getEvent().fire(orange);
+
+        InvokedObserver observer = getInstance(InvokedObserver.class);
+        Assert.assertEquals(4, observer.getCalls().size());
+        Assert.assertTrue(observer.getCalls().contains("public"));
+        Assert.assertTrue(observer.getCalls().contains("package"));
+        Assert.assertTrue(observer.getCalls().contains("private"));
+        Assert.assertTrue(observer.getCalls().contains("injected"));
+        Assert.assertEquals(1, InvokedObserver.STATIC_CALLS.size());
+        Assert.assertSame(orange, InvokedObserver.STATIC_CALLS.get(0));
+
+        MethodInvokerFactory factory = getWebBeansContext().getMethodInvokerFactory();
+        Assert.assertNotNull(factory.getMethodInvoker(InvokedObserver.class.getMethod("observePublic", Orange.class)));
+        Assert.assertNull(factory.getMethodInvoker(InvokedObserver.class.getDeclaredMethod("observePrivate", Orange.class)));
+        Assert.assertSame(
+                factory.getMethodInvoker(InvokedObserver.class.getMethod("observePublic", Orange.class)),
+                factory.getMethodInvoker(InvokedObserver.class.getMethod("observePublic", Orange.class)));
+    }
+
+    @Test
+    public void testPrimitivesAndExceptions() throws Exception
+    {
+        startContainer();
+
+        MethodInvoker invoker = getWebBeansContext().getMethodInvokerFactory()
+                .getMethodInvoker(Helper.class.getMethod("add", int.class, long.class));
+        Assert.assertNotNull(invoker);
+        Assert.assertEquals(5L, invoker.invoke(new Helper(), new Object[]{2, 3L}));
+
+        MethodInvoker failing = getWebBeansContext().getMethodInvokerFactory()
+                .getMethodInvoker(Helper.class.getMethod("fail"));
+        try
+        {
+            failing.invoke(new Helper(), new Object[0]);
+            Assert.fail("exception must get propagated");
+        }
+        catch (IllegalStateException expected)
+        {
+            Assert.assertEquals("failed", expected.getMessage());
+        }
+    }
+
+    @Test
+    public void testInvokerClassGetsReusedByAnotherContainer() throws Exception
+    {
+        startContainer();
+
+        MethodInvoker invoker = getWebBeansContext().getMethodInvokerFactory()
+                .getMethodInvoker(Helper.class.getMethod("add", int.class, long.class));
+        Assert.assertNotNull(invoker);
+
+        // like a second container in the same ClassLoader, the class name is taken already
+        MethodInvoker other = new MethodInvokerFactory(getWebBeansContext())
+                .getMethodInvoker(Helper.class.getMethod("add", int.class, long.class));
+        Assert.assertNotNull(other);
+        Assert.assertSame(invoker.getClass(), other.getClass());
+        Assert.assertEquals(5L, other.invoke(new Helper(), new Object[]{2, 3L}));
+    }
+
+    @ApplicationScoped
+    public static class InvokedObserver
+    {
+        static final List<Object> STATIC_CALLS = new ArrayList<>();
+
+        private final List<String> calls = new ArrayList<>();
+
+        public void observePublic(@Observes Orange orange)
+        {
+            calls.add("public");
+        }
+
+        void observePackage(@Observes Orange orange)
+        {
+            calls.add("package");
+        }
+
+        private void observePrivate(@Observes Orange orange)
+        {
+            calls.add("private");
+        }
+
+        public void observeInjected(Helper helper, @Observes Orange orange, BeanManager beanManager)
+        {
+            Assert.assertNotNull(helper);
+            Assert.assertNotNull(beanManager);
+            calls.add("injected");
+        }
+
+        public static void observeStatic(@Observes Orange orange)
+        {
+            STATIC_CALLS.add(orange);
+        }
+
+        public List<String> getCalls()
+        {
+            return calls;
+        }
+    }
+
+    @Dependent
+    public static class Helper
+    {
+        public long add(int a, long b)
+        {
+            return a + b;
+        }
+
+        public void fail()
+        {
+            throw new IllegalStateException("failed");
+        }
+    }
+}
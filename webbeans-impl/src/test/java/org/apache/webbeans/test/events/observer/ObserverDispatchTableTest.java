@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.events.observer;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.ObservesAsync;
+import jakarta.enterprise.event.Reception;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.enterprise.inject.spi.ObserverMethod;
+import jakarta.enterprise.util.AnnotationLiteral;
+import jakarta.inject.Qualifier;
+
+import org.apache.webbeans.annotation.AnyLiteral;
+import org.apache.webbeans.event.EventMetadataImpl;
+import org.apache.webbeans.event.NotificationManager;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ObserverDispatchTableTest extends AbstractUnitTest
+{
+    @Test
+    public void testSortedAndSplitObservers()
+    {
+        startContainer(PrioritizedObserver.class);
+
+        getBeanManager().getEvent().fire(new Orange());
+        getBeanManager().getEvent().fire(new Orange());
+        getBeanManager().getEvent().select(new RedLiteral()).fire(new Orange());
+
+        PrioritizedObserver observer = getInstance(PrioritizedObserver.class);
+        Assert.assertEquals(
+                List.of("first", "second", "first", "second", "first", "red", "second"),
+                observer.getCalls());
+
+        NotificationManager notificationManager = getWebBeansContext().getNotificationManager();
+        EventMetadataImpl metadata = new EventMetadataImpl(null, Orange.class, null, new Annotation[0], getWebBeansContext());
+        List<ObserverMethod<? super Object>> sync = notificationManager.resolveObserversForFire(new Orange(), metadata, false);
+        List<ObserverMethod<? super Object>> async = notificationManager.resolveObserversForFire(new Orange(), metadata, true);
+
+        Assert.assertEquals(2, sync.size());
+        Assert.assertEquals(1, async.size());
+        Assert.assertTrue(async.get(0).isAsync());
+        Assert.assertSame(sync, notificationManager.resolveObserversForFire(new Orange(), metadata, false));
+    }
+
+    @Test
+    public void testInvalidatedWhenObserverGetsAdded()
+    {
+        startContainer(PrioritizedObserver.class);
+
+        NotificationManager notificationManager = getWebBeansContext().getNotificationManager();
+        EventMetadataImpl metadata = new EventMetadataImpl(null, Orange.class, null, new Annotation[0], getWebBeansContext());
+        List<ObserverMethod<? super Object>> before = notificationManager.resolveObserversForFire(new Orange(), metadata, false);
+        Assert.assertEquals(2, before.size());
+
+        List<Object> received = new ArrayList<>();
+        notificationManager.addObserver(new OrangeObserverMethod(received));
+
+        List<ObserverMethod<? super Object>> after = notificationManager.resolveObserversForFire(new Orange(), metadata, false);
+        Assert.assertEquals(3, after.size());
+
+        Orange orange = new Orange();
+        getBeanManager().getEvent().fire(orange);
+        Assert.assertEquals(1, received.size());
+        Assert.assertSame(orange, received.get(0));
+    }
+
+    @Qualifier
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Red
+    {
+    }
+
+    public static class RedLiteral extends AnnotationLiteral<Red> implements Red
+    {
+    }
+
+    @ApplicationScoped
+    public static class PrioritizedObserver
+    {
+        private final List<String> calls = new ArrayList<>();
+
+        public void second(@Observes @Priority(200) Orange orange)
+        {
+            calls.add("second");
+        }
+
+        public void first(@Observes @Priority(100) Orange orange)
+        {
+            calls.add("first");
+        }
+
+        public void red(@Observes @Priority(150) @Red Orange orange)
+        {
+            calls.add("red");
+        }
+
+        public void async(@ObservesAsync Orange orange)
+        {
+            // only there to be split from the synchronous observers
+        }
+
+        public List<String> getCalls()
+        {
+            return calls;
+        }
+    }
+
+    private static class OrangeObserverMethod implements ObserverMethod<Orange>
+    {
+        private final List<Object> received;
+
+        private OrangeObserverMethod(List<Object> received)
+        {
+            this.received = received;
+        }
+
+        @Override
+        public Class<?> getBeanClass()
+        {
+            return ObserverDispatchTableTest.class;
+        }
+
+        @Override
+        public Type getObservedType()
+        {
+            return Orange.class;
+        }
+
+        @Override
+        public Set<Annotation> getObservedQualifiers()
+        {
+            return Collections.singleton(AnyLiteral.INSTANCE);
+        }
+
+        @Override
+        public Reception getReception()
+        {
+            return Reception.ALWAYS;
+        }
+
+        @Override
+        public TransactionPhase getTransactionPhase()
+        {
+            return TransactionPhase.IN_PROGRESS;
+        }
+
+        @Override
+        public void notify(Orange event)
+        {
+            received.add(event);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.instance;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Dependent;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.inject.instance.InstanceImpl;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Test;
+
+public class InstanceDependentTrackingTest extends AbstractUnitTest
+{
+    @Test
+    public void strong()
+    {
+        addConfiguration(OpenWebBeansConfiguration.INSTANCE_DEPENDENT_TRACKING, "strong");
+        startContainer(Holder.class, Plain.class, Destroyable.class, Owner.class);
+        Holder holder = getInstance(Holder.class);
+
+        holder.getPlain().get();
+        holder.getPlain().get();
+        assertEquals(2, tracked(holder.getPlain()));
+
+        holder.getApplication().get();
+        assertEquals(1, tracked(holder.getApplication()));
+    }
+
+    @Test
+    public void destroyable()
+    {
+        addConfiguration(OpenWebBeansConfiguration.INSTANCE_DEPENDENT_TRACKING, "destroyable");
+        startContainer(Holder.class, Plain.class, Destroyable.class, Owner.class);
+        Holder holder = getInstance(Holder.class);
+
+        Plain plain = holder.getPlain().get();
+        holder.getPlain().get();
+        assertEquals(0, tracked(holder.getPlain()));
+        holder.getPlain().destroy(plain);
+        try
+        {
+            holder.getPlain().destroy(new Plain());
+            fail("instance not created by the Instance");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // expected
+        }
+
+        holder.getApplication().get();
+        assertEquals(0, tracked(holder.getApplication()));
+
+        Destroyable.destroyed.set(0);
+        Destroyable destroyable = holder.getDestroyable().get();
+        holder.getOwner().get();
+        assertEquals(1, tracked(holder.getDestroyable()));
+        assertEquals(1, tracked(holder.getOwner()));
+
+        holder.getDestroyable().destroy(destroyable);
+        assertEquals(1, Destroyable.destroyed.get());
+        assertEquals(0, tracked(holder.getDestroyable()));
+    }
+
+    @Test(timeout = 60000)
+    public void weak() throws InterruptedException
+    {
+        addConfiguration(OpenWebBeansConfiguration.INSTANCE_DEPENDENT_TRACKING, "weak");
+        startContainer(Holder.class, Plain.class, Destroyable.class, Owner.class);
+        Holder holder = getInstance(Holder.class);
+
+        Destroyable.destroyed.set(0);
+        Owner kept = holder.getOwner().get();
+        ReferenceQueue<Owner> queue = new ReferenceQueue<>();
+        List<Reference<Owner>> dropped = new ArrayList<>();
+        for (int i = 0; i < 10; i++)
+        {
+            dropped.add(new WeakReference<>(holder.getOwner().get(), queue));
+        }
+
+        // wait until all dropped owners got collected
+        int collected = 0;
+        while (collected < dropped.size())
+        {
+            System.gc();
+            if (queue.remove(100) != null)
+            {
+                collected++;
+            }
+        }
+
+        // the dependent objects of the collected owners get destroyed
+        assertEquals(1, tracked(holder.getOwner()));
+        try
+        {
+            holder.getOwner().destroy(new Owner());
+            fail("instance not created by the Instance");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // expected
+        }
+        assertEquals(10, Destroyable.destroyed.get());
+
+        holder.getOwner().destroy(kept);
+        assertEquals(11, Destroyable.destroyed.get());
+        assertEquals(0, tracked(holder.getOwner()));
+    }
+
+    private static int tracked(Instance<?> instance)
+    {
+        return ((InstanceImpl<?>) instance).getTrackedDependentCount();
+    }
+
+    @ApplicationScoped
+    public static class Holder
+    {
+        @Inject
+        private Instance<Plain> plain;
+
+        @Inject
+        private Instance<Destroyable> destroyable;
+
+        @Inject
+        private Instance<Owner> owner;
+
+        @Inject
+        private Instance<Holder> application;
+
+        public Instance<Plain> getPlain()
+        {
+            return plain;
+        }
+
+        public Instance<Destroyable> getDestroyable()
+        {
+            return destroyable;
+        }
+
+        public Instance<Owner> getOwner()
+        {
+            return owner;
+        }
+
+        public Instance<Holder> getApplication()
+        {
+            return application;
+        }
+    }
+
+    @Dependent
+    public static class Plain
+    {
+    }
+
+    @Dependent
+    public static class Destroyable
+    {
+        private static final AtomicInteger destroyed = new AtomicInteger();
+
+        @PreDestroy
+        public void destroy()
+        {
+            destroyed.incrementAndGet();
+        }
+    }
+
+    @Dependent
+    public static class Owner
+    {
+        @Inject
+        private Destroyable destroyable;
+    }
+}
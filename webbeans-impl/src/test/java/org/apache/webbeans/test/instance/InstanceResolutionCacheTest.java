@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.instance;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Dependent;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Instance;
+import jakarta.enterprise.util.TypeLiteral;
+import jakarta.inject.Inject;
+
+import org.apache.webbeans.container.InjectionResolver;
+import org.apache.webbeans.container.ResolutionCache;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Test;
+
+public class InstanceResolutionCacheTest extends AbstractUnitTest
+{
+    @Inject
+    private Instance<Object> instance;
+
+    @Test
+    public void normalScopedProxyIsKept()
+    {
+        startContainer(Service.class, Worker.class);
+        inject(this);
+
+        Instance<Service> services = instance.select(Service.class);
+        Service service = services.get();
+
+        InjectionResolver resolver = getWebBeansContext().getBeanManagerImpl().getInjectionResolver();
+        ResolutionCache.Statistics before = resolver.getResolvedBeansByTypeStatistics();
+        for (int i = 0; i < 10; i++)
+        {
+            assertSame(service, services.get());
+        }
+        ResolutionCache.Statistics after = resolver.getResolvedBeansByTypeStatistics();
+        assertEquals(before.getHits(), after.getHits());
+        assertEquals(before.getMisses(), after.getMisses());
+
+        assertEquals(1, service.increment());
+        assertEquals(2, services.get().increment());
+    }
+
+    @Test
+    public void selectIsMemoized()
+    {
+        startContainer(Service.class, Worker.class);
+        inject(this);
+
+        Instance<Service> services = instance.select(Service.class);
+        assertSame(services, instance.select(Service.class));
+        assertSame(services, instance.select(new TypeLiteral<Service>() {}));
+        assertNotSame(services, instance.select(Service.class, Any.Literal.INSTANCE));
+    }
+
+    @Test
+    public void dependentSelectionIsNotMemoized()
+    {
+        startContainer(Service.class, Worker.class);
+        inject(this);
+
+        // the child keeps the instances it created, the parent must not keep the child
+        Instance<Worker> workers = instance.select(Worker.class);
+        assertNotSame(workers, instance.select(Worker.class));
+
+        // dependent beans still get a new instance per call
+        Worker first = workers.get();
+        Worker second = instance.select(Worker.class).get();
+        assertNotSame(first, second);
+    }
+
+    @ApplicationScoped
+    public static class Service
+    {
+        private int counter;
+
+        public int increment()
+        {
+            return ++counter;
+        }
+    }
+
+    @Dependent
+    public static class Worker
+    {
+    }
+}
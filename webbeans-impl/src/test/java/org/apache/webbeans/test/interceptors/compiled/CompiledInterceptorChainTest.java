@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.interceptors.compiled;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.Dependent;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InterceptorBinding;
+import jakarta.interceptor.InvocationContext;
+
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.intercept.CompiledInterceptorChain;
+import org.apache.webbeans.intercept.DefaultInterceptorHandler;
+import org.apache.webbeans.proxy.OwbInterceptorProxy;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompiledInterceptorChainTest extends AbstractUnitTest
+{
+    @Test
+    public void testCompiledChain() throws Exception
+    {
+        addConfiguration(OpenWebBeansConfiguration.COMPILED_INTERCEPTOR_CHAINS, "true");
+        startContainer(Traced.class, OuterInterceptor.class, InnerInterceptor.class, TracedBean.class);
+
+        TracedBean bean = getInstance(TracedBean.class);
+        Assert.assertEquals("hello world", bean.greet("world"));
+        Assert.assertEquals(List.of("outer", "inner", "greet"), bean.getCalls());
+
+        // InnerInterceptor changes the parameter of primitive methods
+        Assert.assertEquals(6, bean.twice(2));
+
+        try
+        {
+            bean.fail();
+            Assert.fail("checked exception must get propagated");
+        }
+        catch (IOException expected)
+        {
+            Assert.assertEquals("failed", expected.getMessage());
+        }
+
+        TracedBean internal = getWebBeansContext().getInterceptorDecoratorProxyFactory().unwrapInstance(bean);
+        DefaultInterceptorHandler<?> handler = (DefaultInterceptorHandler<?>) getWebBeansContext()
+                .getInterceptorDecoratorProxyFactory().getInterceptorHandler((OwbInterceptorProxy) bean);
+        Assert.assertNotSame(internal, bean);
+        Assert.assertSame(internal, handler.getTarget());
+
+        CompiledInterceptorChain chain = getWebBeansContext().getInterceptorResolutionService()
+                .compileMethodInterceptors(handler.getInterceptors())
+                .get(TracedBean.class.getMethod("greet", String.class));
+        Assert.assertEquals(2, chain.getInterceptors().length);
+        Assert.assertNotNull(chain.getInvoker());
+    }
+
+    @Test
+    public void testDisabledByDefault()
+    {
+        startContainer(Traced.class, OuterInterceptor.class, InnerInterceptor.class, TracedBean.class);
+
+        TracedBean bean = getInstance(TracedBean.class);
+        Assert.assertEquals("hello world", bean.greet("world"));
+        Assert.assertEquals(List.of("outer", "inner", "greet"), bean.getCalls());
+        Assert.assertNull(getWebBeansContext().getInterceptorResolutionService()
+                .compileMethodInterceptors(new HashMap<>()));
+    }
+
+    @InterceptorBinding
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({ElementType.TYPE, ElementType.METHOD})
+    public @interface Traced
+    {
+    }
+
+    @Traced
+    @Dependent
+    public static class TracedBean implements Serializable
+    {
+        private final List<String> calls = new ArrayList<>();
+
+        public String greet(String name)
+        {
+            calls.add("greet");
+            return "hello " + name;
+        }
+
+        public int twice(int value)
+        {
+            return value * 2;
+        }
+
+        public void fail() throws IOException
+        {
+            throw new IOException("failed");
+        }
+
+        public List<String> getCalls()
+        {
+            return calls;
+        }
+
+        void record(String call)
+        {
+            calls.add(call);
+        }
+    }
+
+    @Traced
+    @Interceptor
+    @Priority(100)
+    public static class OuterInterceptor implements Serializable
+    {
+        @AroundInvoke
+        public Object intercept(InvocationContext ctx) throws Exception
+        {
+            if ("greet".equals(ctx.getMethod().getName()))
+            {
+                ((TracedBean) ctx.getTarget()).record("outer");
+            }
+            return ctx.proceed();
+        }
+    }
+
+    @Traced
+    @Interceptor
+    @Priority(200)
+    public static class InnerInterceptor implements Serializable
+    {
+        @AroundInvoke
+        public Object intercept(InvocationContext ctx) throws Exception
+        {
+            String method = ctx.getMethod().getName();
+            if ("greet".equals(method))
+            {
+                ((TracedBean) ctx.getTarget()).record("inner");
+            }
+            else if ("twice".equals(method))
+            {
+                ctx.setParameters(new Object[]{(Integer) ctx.getParameters()[0] + 1});
+            }
+            return ctx.proceed();
+        }
+    }
+}
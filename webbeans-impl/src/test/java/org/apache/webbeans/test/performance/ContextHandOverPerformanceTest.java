@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.performance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jakarta.enterprise.context.RequestScoped;
+
+import org.apache.webbeans.corespi.se.DefaultContextsService;
+import org.apache.webbeans.corespi.se.ScopedContextsService;
+import org.apache.webbeans.corespi.se.ScopedContextsService.ContextScope;
+import org.apache.webbeans.logger.WebBeansLoggerFacade;
+import org.apache.webbeans.spi.ContextsService;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Compares handing over a request context to many short tasks via the {@link ScopedContextsService}
+ * with starting a new request context per task on the ThreadLocal based default service.
+ * A request context only gets handed over sequentially, so the tasks run one after the other on a worker thread.
+ */
+public class ContextHandOverPerformanceTest extends AbstractUnitTest
+{
+    private static final Logger logger = WebBeansLoggerFacade.getLogger(ContextHandOverPerformanceTest.class);
+
+    private static final int TASKS = 10000;
+
+    @Test
+    public void testHandOverPerformance() throws Exception
+    {
+        addService(ContextsService.class, ScopedContextsService.class);
+        startContainer(RequestData.class);
+        ScopedContextsService scopedService = (ScopedContextsService) getWebBeansContext().getContextsService();
+        ContextScope scope = scopedService.currentScope();
+        getInstance(RequestData.class).setValue("shared");
+
+        long scoped = runTasks(() -> scopedService.callWithScope(scope, () -> getInstance(RequestData.class).getValue()));
+        shutDownContainer();
+
+        addService(ContextsService.class, DefaultContextsService.class);
+        startContainer(RequestData.class);
+        ContextsService defaultService = getWebBeansContext().getContextsService();
+
+        long threadLocal = runTasks(() ->
+        {
+            defaultService.startContext(RequestScoped.class, null);
+            try
+            {
+                getInstance(RequestData.class).setValue("shared");
+                return getInstance(RequestData.class).getValue();
+            }
+            finally
+            {
+                defaultService.endContext(RequestScoped.class, null);
+            }
+        });
+
+        logger.log(Level.INFO, "{0} tasks: handed over scope {1} ns, new request context {2} ns",
+                WebBeansLoggerFacade.args(TASKS, scoped, threadLocal));
+    }
+
+    private long runTasks(Callable<String> task) throws Exception
+    {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            long start = System.nanoTime();
+            List<Future<String>> results = new ArrayList<>(TASKS);
+            for (int i = 0; i < TASKS; i++)
+            {
+                results.add(executor.submit(task));
+            }
+            for (Future<String> result : results)
+            {
+                Assert.assertEquals("shared", result.get());
+            }
+            return System.nanoTime() - start;
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    @RequestScoped
+    public static class RequestData
+    {
+        private String value;
+
+        public String getValue()
+        {
+            return value;
+        }
+
+        public void setValue(String value)
+        {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.performance;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.spi.Context;
+import jakarta.enterprise.context.spi.Contextual;
+import jakarta.enterprise.context.spi.CreationalContext;
+import jakarta.enterprise.inject.spi.Bean;
+import jakarta.enterprise.inject.spi.BeanManager;
+
+import org.apache.webbeans.context.creational.BeanInstanceBag;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Test;
+
+/**
+ * Benchmarks the creation of contextual instances of normal scoped beans,
+ * the concurrent first access as well as the steady state access.
+ */
+public class ContextualInstanceCreationPerformanceTest extends AbstractUnitTest
+{
+    private static final Logger logger = Logger.getLogger(ContextualInstanceCreationPerformanceTest.class.getName());
+
+    private static final int THREADS = 8;
+
+    private static final int FIRST_ACCESS_ROUNDS = 2000;
+
+    // tune up to larger values to
+    private static final int BENCHMARK_ITERATIONS = 1000000;
+
+    @Test
+    public void testConcurrentFirstAccess() throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try
+        {
+            long duration = 0;
+            for (int round = 0; round < FIRST_ACCESS_ROUNDS; round++)
+            {
+                BeanInstanceBag<Object> bag = new BeanInstanceBag<>(null);
+                AtomicInteger created = new AtomicInteger();
+                CountingContextual contextual = new CountingContextual(created);
+                CountDownLatch start = new CountDownLatch(1);
+
+                List<Future<Object>> instances = new ArrayList<>();
+                for (int i = 0; i < THREADS; i++)
+                {
+                    instances.add(executor.submit(() ->
+                    {
+                        start.await();
+                        return bag.create(contextual);
+                    }));
+                }
+
+                long begin = System.nanoTime();
+                start.countDown();
+                Object instance = instances.get(0).get();
+                for (Future<Object> future : instances)
+                {
+                    assertEquals(instance, future.get());
+                }
+                duration += System.nanoTime() - begin;
+
+                assertEquals(1, created.get());
+            }
+            logger.info("Racing " + THREADS + " threads for the first instance " + FIRST_ACCESS_ROUNDS + " times took ms: "
+                    + TimeUnit.NANOSECONDS.toMillis(duration));
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testInterruptedThreadWaitsParked() throws Exception
+    {
+        BeanInstanceBag<Object> bag = new BeanInstanceBag<>(null);
+        Object instance = new Object();
+        CountDownLatch creating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Contextual<Object> contextual = new Contextual<Object>()
+        {
+            @Override
+            public Object create(CreationalContext<Object> creationalContext)
+            {
+                creating.countDown();
+                try
+                {
+                    release.await();
+                }
+                catch (InterruptedException e)
+                {
+                    throw new IllegalStateException(e);
+                }
+                return instance;
+            }
+
+            @Override
+            public void destroy(Object instance, CreationalContext<Object> creationalContext)
+            {
+                // nothing to do
+            }
+        };
+
+        Thread creator = new Thread(() -> bag.create(contextual));
+        creator.start();
+        assertTrue(creating.await(10, TimeUnit.SECONDS));
+
+        AtomicReference<Object> waited = new AtomicReference<>();
+        AtomicBoolean stillInterrupted = new AtomicBoolean();
+        Thread waiter = new Thread(() ->
+        {
+            Thread.currentThread().interrupt();
+            waited.set(bag.create(contextual));
+            stillInterrupted.set(Thread.currentThread().isInterrupted());
+        });
+        waiter.start();
+
+        // an interrupted thread must stay parked rather than spin until the instance exists
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        int parked = 0;
+        while (parked < 50 && System.nanoTime() < deadline)
+        {
+            parked = waiter.getState() == Thread.State.WAITING ? parked + 1 : 0;
+            Thread.sleep(1);
+        }
+        assertEquals(50, parked);
+
+        release.countDown();
+        creator.join(10000);
+        waiter.join(10000);
+        assertSame(instance, waited.get());
+        assertTrue(stillInterrupted.get());
+    }
+
+    @Test
+    public void testSteadyStateAccess() throws Exception
+    {
+        startContainer(Counter.class);
+        BeanManager bm = getBeanManager();
+        Bean<Counter> bean = (Bean<Counter>) bm.resolve(bm.getBeans(Counter.class));
+        Context context = bm.getContext(ApplicationScoped.class);
+        CreationalContext<Counter> creationalContext = bm.createCreationalContext(bean);
+        Counter counter = context.get(bean, creationalContext);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try
+        {
+            List<Future<?>> futures = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int i = 0; i < THREADS; i++)
+            {
+                futures.add(executor.submit(() ->
+                {
+                    for (int j = 0; j < BENCHMARK_ITERATIONS; j++)
+                    {
+                        if (context.get(bean, creationalContext) != counter)
+                        {
+                            throw new IllegalStateException("got another instance");
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures)
+            {
+                future.get();
+            }
+            long end = System.nanoTime();
+            logger.info("Getting an application scoped instance " + BENCHMARK_ITERATIONS + " times on " + THREADS + " threads took ms: "
+                    + TimeUnit.NANOSECONDS.toMillis(end - start));
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private static final class CountingContextual implements Contextual<Object>
+    {
+        private final AtomicInteger created;
+
+        private CountingContextual(AtomicInteger created)
+        {
+            this.created = created;
+        }
+
+        @Override
+        public Object create(CreationalContext<Object> creationalContext)
+        {
+            created.incrementAndGet();
+            return new Object();
+        }
+
+        @Override
+        public void destroy(Object instance, CreationalContext<Object> creationalContext)
+        {
+            // nothing to do
+        }
+    }
+
+    @ApplicationScoped
+    public static class Counter
+    {
+        // no content needed
+    }
+}
@@ -21,8 +21,12 @@ package org.apache.webbeans.test.portable.javaee;
 import java.util.ArrayList;
 import java.util.Collection;
 
+import jakarta.enterprise.inject.spi.InjectionTarget;
+
 import org.junit.Assert;
 
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.container.BeanManagerImpl;
 import org.apache.webbeans.inject.OWBInjector;
 import org.apache.webbeans.test.AbstractUnitTest;
 import org.junit.Test;
@@ -47,4 +51,66 @@ public class JavaEeInjectionTest extends AbstractUnitTest
         
     }
 
+    @Test
+    public void testInjectionTargetGetsCached()
+    {
+        Collection<Class<?>> classes = new ArrayList<Class<?>>();
+        classes.add(SampleBean.class);
+        startContainer(classes);
+
+        BeanManagerImpl beanManager = getWebBeansContext().getBeanManagerImpl();
+        InjectionTarget<MockInstance> injectionTarget = beanManager.getNonContextualInjectionTarget(MockInstance.class);
+        Assert.assertSame(injectionTarget, beanManager.getNonContextualInjectionTarget(MockInstance.class));
+
+        for (int i = 0; i < 3; i++)
+        {
+            MockInstance instance = new MockInstance();
+            OWBInjector.inject(getBeanManager(), instance, null);
+
+            Assert.assertNotNull(instance.getBeanManager());
+            Assert.assertNotNull(instance.getSample());
+            Assert.assertNotNull(instance.getViaMethod());
+        }
+        Assert.assertSame(injectionTarget, beanManager.getNonContextualInjectionTarget(MockInstance.class));
+
+        shutDownContainer();
+    }
+
+    @Test
+    public void testInjectionTargetCacheEvictsSingleClass()
+    {
+        addConfiguration(OpenWebBeansConfiguration.INJECTION_TARGET_CACHE_SIZE, "1");
+        Collection<Class<?>> classes = new ArrayList<Class<?>>();
+        classes.add(SampleBean.class);
+        startContainer(classes);
+
+        BeanManagerImpl beanManager = getWebBeansContext().getBeanManagerImpl();
+        InjectionTarget<MockInstance> mockTarget = beanManager.getNonContextualInjectionTarget(MockInstance.class);
+        InjectionTarget<SampleBean> sampleTarget = beanManager.getNonContextualInjectionTarget(SampleBean.class);
+
+        // the cache is full, so the older class got evicted but the latest stays cached
+        Assert.assertSame(sampleTarget, beanManager.getNonContextualInjectionTarget(SampleBean.class));
+        Assert.assertNotSame(mockTarget, beanManager.getNonContextualInjectionTarget(MockInstance.class));
+
+        shutDownContainer();
+    }
+
+    @Test
+    public void testInjectionTargetCacheDisabled()
+    {
+        addConfiguration(OpenWebBeansConfiguration.INJECTION_TARGET_CACHE_SIZE, "0");
+        Collection<Class<?>> classes = new ArrayList<Class<?>>();
+        classes.add(SampleBean.class);
+        startContainer(classes);
+
+        BeanManagerImpl beanManager = getWebBeansContext().getBeanManagerImpl();
+        Assert.assertNotSame(beanManager.getNonContextualInjectionTarget(MockInstance.class),
+                             beanManager.getNonContextualInjectionTarget(MockInstance.class));
+
+        MockInstance instance = new MockInstance();
+        OWBInjector.inject(getBeanManager(), instance, null);
+        Assert.assertNotNull(instance.getSample());
+
+        shutDownContainer();
+    }
 }
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.test.proxy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.enterprise.inject.spi.Bean;
+
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.proxy.NormalScopeProxyFactory;
+import org.apache.webbeans.service.ClassLoaderProxyService;
+import org.apache.webbeans.spi.DefiningClassService;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ProxyWarmUpTest extends AbstractUnitTest
+{
+    @Test
+    public void testWarmUp()
+    {
+        addConfiguration(OpenWebBeansConfiguration.PROXY_WARM_UP, "true");
+        addService(DefiningClassService.class, ClassLoaderProxyService.Spy.class);
+        startContainer(AppBean.class, RequestBean.class);
+
+        // generated during the deployment, before anybody used the beans
+        Assert.assertTrue(hasProxy(AppBean.class));
+        Assert.assertTrue(hasProxy(RequestBean.class));
+
+        Assert.assertEquals("app", getInstance(AppBean.class).name());
+        Assert.assertEquals("request", getInstance(RequestBean.class).name());
+    }
+
+    @Test
+    public void testLazyWithoutWarmUp()
+    {
+        addConfiguration(OpenWebBeansConfiguration.PROXY_WARM_UP, "false");
+        addService(DefiningClassService.class, ClassLoaderProxyService.Spy.class);
+        startContainer(AppBean.class, RequestBean.class);
+
+        Assert.assertFalse(hasProxy(AppBean.class));
+
+        Assert.assertEquals("app", getInstance(AppBean.class).name());
+        Assert.assertTrue(hasProxy(AppBean.class));
+    }
+
+    @Test
+    public void testConcurrentFirstAccessSharesTheProxyClass() throws Exception
+    {
+        startContainer(AppBean.class, RequestBean.class);
+
+        NormalScopeProxyFactory factory = getWebBeansContext().getNormalScopeProxyFactory();
+        List<Bean<?>> beans = new ArrayList<>();
+        for (int i = 0; i < 4; i++)
+        {
+            beans.add(getBean(AppBean.class));
+            beans.add(getBean(RequestBean.class));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try
+        {
+            List<Future<Class<?>>> proxyClasses = new ArrayList<>();
+            for (Bean<?> bean : beans)
+            {
+                proxyClasses.add(executor.submit((Callable<Class<?>>) () -> factory.createNormalScopeProxy(bean).getClass()));
+            }
+
+            Class<?> appProxyClass = proxyClasses.get(0).get(10, TimeUnit.SECONDS);
+            Class<?> requestProxyClass = proxyClasses.get(1).get(10, TimeUnit.SECONDS);
+            Assert.assertNotSame(appProxyClass, requestProxyClass);
+            for (int i = 0; i < proxyClasses.size(); i++)
+            {
+                Assert.assertSame(i % 2 == 0 ? appProxyClass : requestProxyClass, proxyClasses.get(i).get(10, TimeUnit.SECONDS));
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private boolean hasProxy(Class<?> beanClass)
+    {
+        ClassLoaderProxyService.Spy spy = (ClassLoaderProxyService.Spy) getWebBeansContext().getService(DefiningClassService.class);
+        return spy.getProxiedClasses().entrySet().stream()
+                .anyMatch(e -> e.getKey().contains("$$OwbNormalScopeProxy") && e.getValue().equals(beanClass.getName()));
+    }
+
+    @ApplicationScoped
+    public static class AppBean
+    {
+        public String name()
+        {
+            return "app";
+        }
+    }
+
+    @RequestScoped
+    public static class RequestBean
+    {
+        public String name()
+        {
+            return "request";
+        }
+    }
+}
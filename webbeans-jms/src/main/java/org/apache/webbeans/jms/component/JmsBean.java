@@ -18,6 +18,9 @@
  */
 package org.apache.webbeans.jms.component;
 
+import java.util.logging.Level;
+
+import jakarta.enterprise.context.spi.CreationalContext;
 import jakarta.enterprise.inject.spi.BeanAttributes;
 import jakarta.enterprise.inject.spi.Producer;
 import jakarta.jms.Destination;
@@ -25,8 +28,11 @@ import jakarta.jms.Destination;
 import org.apache.webbeans.component.AbstractOwbBean;
 import org.apache.webbeans.component.JmsBeanMarker;
 import org.apache.webbeans.component.WebBeansType;
+import org.apache.webbeans.config.OWBLogConst;
 import org.apache.webbeans.config.WebBeansContext;
 import org.apache.webbeans.jms.JMSModel;
+import org.apache.webbeans.jms.util.Closable;
+import org.apache.webbeans.logger.WebBeansLoggerFacade;
 
 public class JmsBean<T> extends AbstractOwbBean<T> implements JmsBeanMarker
 {
@@ -48,4 +54,23 @@ public class JmsBean<T> extends AbstractOwbBean<T> implements JmsBeanMarker
     {
         return null;
     }
+
+    /**
+     * Closes the JMS proxy, which gives its pooled session back.
+     */
+    @Override
+    public void destroy(T instance, CreationalContext<T> creationalContext)
+    {
+        if (instance instanceof Closable)
+        {
+            try
+            {
+                ((Closable) instance).closeJMSObject();
+            }
+            catch (Exception e)
+            {
+                getLogger().log(Level.SEVERE, WebBeansLoggerFacade.constructMessage(OWBLogConst.ERROR_0010), e);
+            }
+        }
+    }
 }
@@ -19,10 +19,10 @@
 package org.apache.webbeans.jms.util;
 
 import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 import jakarta.jms.Connection;
 import jakarta.jms.ConnectionFactory;
@@ -36,10 +36,13 @@ import jakarta.jms.Session;
 import jakarta.jms.TopicConnection;
 import jakarta.jms.TopicConnectionFactory;
 
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.config.WebBeansContext;
 import org.apache.webbeans.exception.WebBeansException;
 import org.apache.webbeans.jms.JMSModel;
 import org.apache.webbeans.jms.JMSModel.JMSType;
 import org.apache.webbeans.jms.component.JmsBean;
+import org.apache.webbeans.jms.util.JmsSessionPool.PooledSession;
 import org.apache.webbeans.util.ClassUtil;
 
 
@@ -49,16 +52,26 @@ public class JmsProxyHandler implements InvocationHandler
 
     private static volatile ConnectionFactory connectionFactory;
 
-    private AtomicBoolean cfSet = new AtomicBoolean(false);
-
     private static Map<JMSType, Connection> connections = new ConcurrentHashMap<>();
 
     private static Map<String, Destination> dests = new ConcurrentHashMap<>();
+
+    private static volatile JmsSessionPool sessionPool;
     
     private Object jmsObject;
     
     private Class<?> injectionClazz;
 
+    /**
+     * The session backing {@link #jmsObject} for sessions, producers and consumers.
+     */
+    private PooledSession pooledSession;
+
+    /**
+     * Whether the {@link #pooledSession} threw a JMSException and must not get reused.
+     */
+    private boolean broken;
+
     public JmsProxyHandler(JmsBean<?> jmsComponent, Class<?> injectionClazz)
     {
         this.jmsComponent = jmsComponent;
@@ -80,6 +93,16 @@ public class JmsProxyHandler implements InvocationHandler
             return null;
         }
         
+        if (method.getName().equals("close") && method.getParameterCount() == 0)
+        {
+            if (isPooled())
+            {
+                // the pooled session gets released when the bean instance gets destroyed
+                return null;
+            }
+            throw new UnsupportedOperationException("close method is not supported for JMS resources");
+        }
+
         if (!ClassUtil.isObjectMethod(method.getName()))
         {            
             Object cf = null;
@@ -114,11 +137,6 @@ public class JmsProxyHandler implements InvocationHandler
                     cf = createMessageConsumers();
                 }
 
-                if (method.getName().equals("close"))
-                {
-                    throw new UnsupportedOperationException("close method is not supported for JMS resources");
-                }
-
                 if (cf == null)
                 {
                     throw new WebBeansException("JMS Resource type is not correct!. Does not create JMS resource object to handle request");
@@ -131,7 +149,30 @@ public class JmsProxyHandler implements InvocationHandler
                 cf = this.jmsObject;
             }
 
-            return method.invoke(cf, arguments);
+            try
+            {
+                return method.invoke(cf, arguments);
+            }
+            catch (InvocationTargetException e)
+            {
+                if (pooledSession != null && e.getCause() instanceof JMSException)
+                {
+                    broken = true;
+                }
+                throw e.getCause();
+            }
+        }
+        else if (method.getName().equals("equals"))
+        {
+            return instance == arguments[0];
+        }
+        else if (method.getName().equals("hashCode"))
+        {
+            return System.identityHashCode(instance);
+        }
+        else if (method.getName().equals("toString"))
+        {
+            return "JMS proxy for " + injectionClazz.getName();
         }
         else
         {
@@ -139,71 +180,74 @@ public class JmsProxyHandler implements InvocationHandler
         }
     }
 
-    private Object createOrReturnConnectionFactory()
+    /**
+     * @return the session pool shared by all JMS proxies, created with the configured settings on first use
+     */
+    public static JmsSessionPool getSessionPool()
     {
-        if (connectionFactory != null)
-        {
-            return connectionFactory;
-        }
-        else
+        JmsSessionPool pool = sessionPool;
+        if (pool == null)
         {
-            if (cfSet.compareAndSet(false, true))
+            synchronized (JmsProxyHandler.class)
             {
-                connectionFactory = JmsUtil.getConnectionFactory();
-
-                return connectionFactory;
+                pool = sessionPool;
+                if (pool == null)
+                {
+                    OpenWebBeansConfiguration configuration = WebBeansContext.getInstance().getOpenWebBeansConfiguration();
+                    pool = new JmsSessionPool(JmsProxyHandler::createOrReturnConnection,
+                            Integer.parseInt(configuration.getProperty(JmsSessionPool.MAX_ACTIVE_SESSIONS, "64").trim()),
+                            Long.parseLong(configuration.getProperty(JmsSessionPool.MAX_WAIT, "5000").trim()),
+                            Integer.parseInt(configuration.getProperty(JmsSessionPool.MAX_IDLE_SESSIONS, "8").trim()),
+                            Integer.parseInt(configuration.getProperty(JmsSessionPool.MAX_PRODUCERS_PER_SESSION, "16").trim()),
+                            Long.parseLong(configuration.getProperty(JmsSessionPool.MAX_IDLE_TIME, "60000").trim()));
+                    sessionPool = pool;
+                }
             }
         }
+        return pool;
+    }
+
+    private static ConnectionFactory createOrReturnConnectionFactory()
+    {
+        ConnectionFactory factory = connectionFactory;
+        if (factory == null)
+        {
+            factory = JmsUtil.getConnectionFactory();
+            connectionFactory = factory;
+        }
 
-        return null;
+        return factory;
     }
 
     private Session createSession()
     {
-        Connection connection = null;
         try
         {
+            pooledSession = getSessionPool().borrow(this.jmsComponent.getJmsModel().getJmsType());
 
-            connection = createOrReturnQueueOrTopicConnection();
-
-            return connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            return pooledSession.getSession();
 
         }
         catch (JMSException e)
         {
-            ensureConnectionClosing(connection);
             throw new WebBeansException("Unable to create jms session", e);
         }
 
     }
 
-    private void ensureConnectionClosing(Connection connection)
-    {
-        if (connection != null)
-        {
-            try
-            {
-                connection.close();
-            }
-            catch (JMSException jmse)
-            {
-                // do nothing, we are already throwing up anyway...
-            }
-        }
-    }
-
     private MessageProducer createMessageProducers()
     {
-        Connection connection = null;
         try
         {
-            connection = createOrReturnQueueOrTopicConnection();
+            Destination destination = createOrReturnQueueOrTopic();
+            pooledSession = getSessionPool().borrow(this.jmsComponent.getJmsModel().getJmsType());
 
-            return connection.createSession(false, Session.AUTO_ACKNOWLEDGE).createProducer(createOrReturnQueueOrTopic());
+            return pooledSession.getProducer(getDestinationName(), destination);
         }
         catch (JMSException e)
         {
-            ensureConnectionClosing(connection);
+            broken = true;
+            releaseSession();
             throw new WebBeansException("Unable to create jms message producer", e);
         }
 
@@ -211,96 +255,135 @@ public class JmsProxyHandler implements InvocationHandler
 
     private MessageConsumer createMessageConsumers()
     {
-        Connection connection = null;
         try
         {
-            connection = createOrReturnQueueOrTopicConnection();
+            Destination destination = createOrReturnQueueOrTopic();
+            pooledSession = getSessionPool().borrow(this.jmsComponent.getJmsModel().getJmsType());
 
-            return connection.createSession(false, Session.AUTO_ACKNOWLEDGE).createConsumer(createOrReturnQueueOrTopic());
+            return pooledSession.getSession().createConsumer(destination);
         }
         catch (JMSException e)
         {
-            ensureConnectionClosing(connection);
-            throw new WebBeansException("Unable to create jms message producer", e);
+            broken = true;
+            releaseSession();
+            throw new WebBeansException("Unable to create jms message consumer", e);
         }
 
     }
 
     private Connection createOrReturnQueueOrTopicConnection()
     {
-        JMSModel jmsModel = this.jmsComponent.getJmsModel();
-
         try
         {
-            if (jmsModel.getJmsType() == JMSType.QUEUE)
+            return createOrReturnConnection(this.jmsComponent.getJmsModel().getJmsType());
+        }
+        catch (JMSException e)
+        {
+            throw new WebBeansException("Unable to create jms connection", e);
+        }
+    }
+
+    private static Connection createOrReturnConnection(JMSType jmsType) throws JMSException
+    {
+        Connection connection = connections.get(jmsType);
+        if (connection != null)
+        {
+            return connection;
+        }
+
+        synchronized (JmsProxyHandler.class)
+        {
+            connection = connections.get(jmsType);
+            if (connection == null)
             {
-                if (connections.containsKey(JMSType.QUEUE))
-                {
-                    return connections.get(JMSType.QUEUE);
-                }
-                else
+                if (jmsType == JMSType.QUEUE)
                 {
                     QueueConnectionFactory ccf = (QueueConnectionFactory) createOrReturnConnectionFactory();
                     QueueConnection qc = ccf.createQueueConnection();
                     connections.put(JMSType.QUEUE, qc);
-
-                    return qc;
-                }
-            }
-            else if (jmsModel.getJmsType() == JMSType.TOPIC)
-            {
-                if (connections.containsKey(JMSType.TOPIC))
-                {
-                    return connections.get(JMSType.TOPIC);
+                    connection = qc;
                 }
-                else
+                else if (jmsType == JMSType.TOPIC)
                 {
                     TopicConnectionFactory ccf = (TopicConnectionFactory) createOrReturnConnectionFactory();
                     TopicConnection qc = ccf.createTopicConnection();
                     connections.put(JMSType.TOPIC, qc);
-
-                    return qc;
+                    connection = qc;
                 }
-
             }
-
-        }
-        catch (JMSException e)
-        {
-            throw new WebBeansException("Unable to create jms connection", e);
+            return connection;
         }
-
-        return null;
     }
     
+    /**
+     * Gives the pooled session back. Connections and destinations are shared
+     * and only get closed with {@link #clearConnections()}.
+     */
     private void close()
     {
+        if (this.pooledSession == null)
+        {
+            this.jmsObject = null;
+            return;
+        }
+
         try
         {
-            if(this.jmsObject != null)
+            if (this.jmsObject instanceof MessageConsumer)
             {
-                Method method = this.jmsObject.getClass().getMethod("close");
-                
-                if(!method.isAccessible())
-                {
-                    jmsComponent.getWebBeansContext().getSecurityService().doPrivilegedSetAccessible(method, true);
-                }
-                
-                method.invoke(this.jmsObject);
+                ((MessageConsumer) this.jmsObject).close();
             }
-            
         }
-        catch (Exception e)
+        catch (JMSException e)
         {
-            throw new WebBeansException("Unable to close JMS resources");
+            broken = true;
+        }
+        finally
+        {
+            this.jmsObject = null;
+            releaseSession();
         }
-        
     }
 
-    private Destination createOrReturnQueueOrTopic()
+    /**
+     * @return whether the proxied object lives on a pooled session
+     */
+    private boolean isPooled()
+    {
+        return Session.class.isAssignableFrom(injectionClazz)
+                || MessageProducer.class.isAssignableFrom(injectionClazz)
+                || MessageConsumer.class.isAssignableFrom(injectionClazz);
+    }
+
+    /**
+     * Gives the pooled session back, or closes it if it threw a JMSException.
+     */
+    private void releaseSession()
+    {
+        if (this.pooledSession != null)
+        {
+            if (broken)
+            {
+                getSessionPool().invalidate(this.pooledSession);
+            }
+            else
+            {
+                getSessionPool().release(this.pooledSession);
+            }
+            this.pooledSession = null;
+            this.broken = false;
+        }
+    }
+
+    private String getDestinationName()
     {
         JMSModel jmsModel = this.jmsComponent.getJmsModel();
-        String jndiName = jmsModel.isJndiNameDefined() ? jmsModel.getJndiName() : jmsModel.getMappedName();
+        return jmsModel.isJndiNameDefined() ? jmsModel.getJndiName() : jmsModel.getMappedName();
+    }
+
+    private Destination createOrReturnQueueOrTopic()
+    {
+        String jndiName = getDestinationName();
 
         if (dests.get(jndiName) != null)
         {
@@ -319,6 +402,13 @@ public class JmsProxyHandler implements InvocationHandler
     {
         try
         {
+            JmsSessionPool pool = sessionPool;
+            if (pool != null)
+            {
+                pool.close();
+                sessionPool = null;
+            }
+
             connectionFactory = null;
 
             for (Connection connection : connections.values())
@@ -0,0 +1,518 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.jms.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jakarta.jms.Connection;
+import jakarta.jms.Destination;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
+
+import org.apache.webbeans.jms.JMSModel.JMSType;
+import org.apache.webbeans.logger.WebBeansLoggerFacade;
+
+/**
+ * Pool of non-transacted, auto-acknowledging JMS {@link Session}s per {@link JMSType}.
+ *
+ * <p>A borrowed session is exclusively owned by one JMS proxy until it gets released again.
+ * At most {@link #MAX_ACTIVE_SESSIONS} sessions per JMSType can be borrowed at the same time,
+ * further callers wait up to {@link #MAX_WAIT} milliseconds for a released one.
+ * Every pooled session also caches the {@link MessageProducer}s created for it per destination,
+ * so an injected producer gets reused across requests instead of being created for each injection.
+ * The message defaults of the producers get reset when their session gets released.</p>
+ *
+ * <p>At most {@link #MAX_IDLE_SESSIONS} sessions per JMSType are kept idle, further released sessions
+ * get closed. Idle sessions which did not get used for {@link #MAX_IDLE_TIME} milliseconds get
+ * evicted whenever a session gets borrowed or released.</p>
+ */
+public class JmsSessionPool
+{
+    /**
+     * Maximum number of borrowed sessions per JMSType. {@code 0} doesn't limit them.
+     */
+    public static final String MAX_ACTIVE_SESSIONS = "org.apache.webbeans.jms.pool.maxActiveSessions";
+
+    /**
+     * Time in milliseconds to wait for a session if {@link #MAX_ACTIVE_SESSIONS} are borrowed.
+     */
+    public static final String MAX_WAIT = "org.apache.webbeans.jms.pool.maxWait";
+
+    /**
+     * Maximum number of idle sessions kept per JMSType. {@code 0} disables the pooling.
+     */
+    public static final String MAX_IDLE_SESSIONS = "org.apache.webbeans.jms.pool.maxIdleSessions";
+
+    /**
+     * Maximum number of MessageProducers cached per pooled session.
+     */
+    public static final String MAX_PRODUCERS_PER_SESSION = "org.apache.webbeans.jms.pool.maxProducersPerSession";
+
+    /**
+     * Time in milliseconds after which an idle session gets closed. {@code 0} keeps idle sessions forever.
+     */
+    public static final String MAX_IDLE_TIME = "org.apache.webbeans.jms.pool.maxIdleTime";
+
+    private static final Logger logger = WebBeansLoggerFacade.getLogger(JmsSessionPool.class);
+
+    /**
+     * Provides the shared connection the sessions of a JMSType get created from.
+     */
+    @FunctionalInterface
+    public interface ConnectionProvider
+    {
+        Connection getConnection(JMSType type) throws JMSException;
+    }
+
+    private final ConnectionProvider connectionProvider;
+    private final long maxWaitNanos;
+    private final int maxIdleSessions;
+    private final int maxProducersPerSession;
+    private final long maxIdleNanos;
+    private final LongSupplier clock;
+
+    /**
+     * Idle sessions per JMSType, the most recently released session first.
+     * Guarded by itself.
+     */
+    private final Map<JMSType, Deque<PooledSession>> idleSessions = new EnumMap<>(JMSType.class);
+
+    /**
+     * Permits for borrowing a session per JMSType, empty if the active sessions are not limited.
+     */
+    private final Map<JMSType, Semaphore> activePermits = new EnumMap<>(JMSType.class);
+
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private final AtomicLong createdSessions = new AtomicLong();
+    private final AtomicLong reusedSessions = new AtomicLong();
+    private final AtomicLong evictedSessions = new AtomicLong();
+    private final AtomicLong discardedSessions = new AtomicLong();
+    private final AtomicLong createdProducers = new AtomicLong();
+    private final AtomicLong reusedProducers = new AtomicLong();
+
+    public JmsSessionPool(ConnectionProvider connectionProvider, int maxActiveSessions, long maxWaitMillis,
+                          int maxIdleSessions, int maxProducersPerSession, long maxIdleMillis)
+    {
+        this(connectionProvider, maxActiveSessions, maxWaitMillis, maxIdleSessions, maxProducersPerSession, maxIdleMillis, System::nanoTime);
+    }
+
+    JmsSessionPool(ConnectionProvider connectionProvider, int maxActiveSessions, long maxWaitMillis,
+                   int maxIdleSessions, int maxProducersPerSession, long maxIdleMillis, LongSupplier clock)
+    {
+        this.connectionProvider = connectionProvider;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        if (maxActiveSessions > 0)
+        {
+            for (JMSType type : JMSType.values())
+            {
+                activePermits.put(type, new Semaphore(maxActiveSessions, true));
+            }
+        }
+        this.maxIdleSessions = maxIdleSessions;
+        this.maxProducersPerSession = maxProducersPerSession;
+        this.maxIdleNanos = TimeUnit.MILLISECONDS.toNanos(maxIdleMillis);
+        this.clock = clock;
+    }
+
+    /**
+     * @return an idle session of the given type or a new one if there is none
+     * @throws JMSException if no session got released within {@link #MAX_WAIT}
+     */
+    public PooledSession borrow(JMSType type) throws JMSException
+    {
+        acquirePermit(type);
+        try
+        {
+            return borrowPermitted(type);
+        }
+        catch (JMSException | RuntimeException e)
+        {
+            releasePermit(type);
+            throw e;
+        }
+    }
+
+    private PooledSession borrowPermitted(JMSType type) throws JMSException
+    {
+        PooledSession pooledSession;
+        List<PooledSession> expired;
+        synchronized (idleSessions)
+        {
+            expired = expungeExpired(clock.getAsLong());
+            Deque<PooledSession> sessions = idleSessions.get(type);
+            pooledSession = sessions != null ? sessions.pollFirst() : null;
+        }
+        closeAll(expired);
+
+        if (pooledSession != null)
+        {
+            reusedSessions.incrementAndGet();
+        }
+        else
+        {
+            Session session = connectionProvider.getConnection(type).createSession(false, Session.AUTO_ACKNOWLEDGE);
+            pooledSession = new PooledSession(type, session);
+            createdSessions.incrementAndGet();
+        }
+        activeSessions.incrementAndGet();
+        return pooledSession;
+    }
+
+    /**
+     * Gives a borrowed session back to the pool.
+     * The caller must have closed all consumers it created on the session.
+     */
+    public void release(PooledSession pooledSession)
+    {
+        activeSessions.decrementAndGet();
+        releasePermit(pooledSession.type);
+        pooledSession.closeTransientProducers();
+        if (!pooledSession.resetProducers())
+        {
+            discardedSessions.incrementAndGet();
+            pooledSession.close();
+            return;
+        }
+
+        long now = clock.getAsLong();
+        boolean pooled = false;
+        List<PooledSession> expired;
+        synchronized (idleSessions)
+        {
+            expired = expungeExpired(now);
+            Deque<PooledSession> sessions = idleSessions.computeIfAbsent(pooledSession.type, t -> new ArrayDeque<>());
+            if (sessions.size() < maxIdleSessions)
+            {
+                pooledSession.lastUsed = now;
+                sessions.offerFirst(pooledSession);
+                pooled = true;
+            }
+        }
+        closeAll(expired);
+
+        if (!pooled)
+        {
+            discardedSessions.incrementAndGet();
+            pooledSession.close();
+        }
+    }
+
+    /**
+     * Closes a borrowed session instead of giving it back, e.g. because it threw a JMSException.
+     */
+    public void invalidate(PooledSession pooledSession)
+    {
+        activeSessions.decrementAndGet();
+        releasePermit(pooledSession.type);
+        discardedSessions.incrementAndGet();
+        pooledSession.close();
+    }
+
+    /**
+     * Closes all idle sessions.
+     */
+    public void close()
+    {
+        List<PooledSession> idle = new ArrayList<>();
+        synchronized (idleSessions)
+        {
+            for (Deque<PooledSession> sessions : idleSessions.values())
+            {
+                idle.addAll(sessions);
+            }
+            idleSessions.clear();
+        }
+        closeAll(idle);
+    }
+
+    public int getIdleSessions()
+    {
+        synchronized (idleSessions)
+        {
+            int idle = 0;
+            for (Deque<PooledSession> sessions : idleSessions.values())
+            {
+                idle += sessions.size();
+            }
+            return idle;
+        }
+    }
+
+    public int getActiveSessions()
+    {
+        return activeSessions.get();
+    }
+
+    public long getCreatedSessions()
+    {
+        return createdSessions.get();
+    }
+
+    public long getReusedSessions()
+    {
+        return reusedSessions.get();
+    }
+
+    /**
+     * @return number of idle sessions which got closed because they exceeded {@link #MAX_IDLE_TIME}
+     */
+    public long getEvictedSessions()
+    {
+        return evictedSessions.get();
+    }
+
+    /**
+     * @return number of released sessions which got closed because the pool was full or they were broken
+     */
+    public long getDiscardedSessions()
+    {
+        return discardedSessions.get();
+    }
+
+    public long getCreatedProducers()
+    {
+        return createdProducers.get();
+    }
+
+    public long getReusedProducers()
+    {
+        return reusedProducers.get();
+    }
+
+    private void acquirePermit(JMSType type) throws JMSException
+    {
+        Semaphore permits = activePermits.get(type);
+        if (permits == null)
+        {
+            return;
+        }
+
+        try
+        {
+            if (!permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS))
+            {
+                throw new JMSException("No pooled JMS session got available within " + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos)
+                        + "ms, all " + MAX_ACTIVE_SESSIONS + " sessions are in use");
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            JMSException jmsException = new JMSException("Interrupted while waiting for a pooled JMS session");
+            jmsException.setLinkedException(e);
+            throw jmsException;
+        }
+    }
+
+    private void releasePermit(JMSType type)
+    {
+        Semaphore permits = activePermits.get(type);
+        if (permits != null)
+        {
+            permits.release();
+        }
+    }
+
+    /**
+     * Must be called while holding the lock on {@link #idleSessions}.
+     * The oldest sessions are at the end of each deque.
+     */
+    private List<PooledSession> expungeExpired(long now)
+    {
+        if (maxIdleNanos <= 0)
+        {
+            return null;
+        }
+
+        List<PooledSession> expired = null;
+        for (Deque<PooledSession> sessions : idleSessions.values())
+        {
+            while (!sessions.isEmpty() && now - sessions.peekLast().lastUsed >= maxIdleNanos)
+            {
+                if (expired == null)
+                {
+                    expired = new ArrayList<>();
+                }
+                expired.add(sessions.pollLast());
+            }
+        }
+        if (expired != null)
+        {
+            evictedSessions.addAndGet(expired.size());
+        }
+        return expired;
+    }
+
+    private static void closeAll(List<PooledSession> sessions)
+    {
+        if (sessions != null)
+        {
+            for (PooledSession session : sessions)
+            {
+                session.close();
+            }
+        }
+    }
+
+    /**
+     * A pooled session together with the producers cached for it.
+     */
+    public final class PooledSession
+    {
+        private final JMSType type;
+        private final Session session;
+
+        /**
+         * Producers cached per destination name, kept open while the session is idle.
+         */
+        private final Map<String, MessageProducer> producers = new HashMap<>();
+
+        /**
+         * Producers which did not fit into {@link #producers}, closed on release.
+         */
+        private List<MessageProducer> transientProducers;
+
+        private long lastUsed;
+
+        private PooledSession(JMSType type, Session session)
+        {
+            this.type = type;
+            this.session = session;
+        }
+
+        public Session getSession()
+        {
+            return session;
+        }
+
+        /**
+         * @return the cached producer for the given destination or a new one
+         */
+        public MessageProducer getProducer(String destinationName, Destination destination) throws JMSException
+        {
+            MessageProducer producer = producers.get(destinationName);
+            if (producer != null)
+            {
+                reusedProducers.incrementAndGet();
+                return producer;
+            }
+
+            producer = session.createProducer(destination);
+            createdProducers.incrementAndGet();
+            if (producers.size() < maxProducersPerSession)
+            {
+                producers.put(destinationName, producer);
+            }
+            else
+            {
+                if (transientProducers == null)
+                {
+                    transientProducers = new ArrayList<>();
+                }
+                transientProducers.add(producer);
+            }
+            return producer;
+        }
+
+        /**
+         * Resets the message defaults a user might have changed on the cached producers.
+         *
+         * @return {@code false} if a producer failed, the session must not get reused then
+         */
+        private boolean resetProducers()
+        {
+            for (MessageProducer producer : producers.values())
+            {
+                try
+                {
+                    producer.setDeliveryMode(Message.DEFAULT_DELIVERY_MODE);
+                    producer.setPriority(Message.DEFAULT_PRIORITY);
+                    producer.setTimeToLive(Message.DEFAULT_TIME_TO_LIVE);
+                    producer.setDeliveryDelay(Message.DEFAULT_DELIVERY_DELAY);
+                    producer.setDisableMessageID(false);
+                    producer.setDisableMessageTimestamp(false);
+                }
+                catch (JMSException e)
+                {
+                    logger.log(Level.FINE, "Unable to reset pooled JMS message producer", e);
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void closeTransientProducers()
+        {
+            if (transientProducers != null)
+            {
+                for (MessageProducer producer : transientProducers)
+                {
+                    closeQuietly(producer);
+                }
+                transientProducers = null;
+            }
+        }
+
+        private void close()
+        {
+            closeTransientProducers();
+            for (MessageProducer producer : producers.values())
+            {
+                closeQuietly(producer);
+            }
+            producers.clear();
+
+            try
+            {
+                session.close();
+            }
+            catch (JMSException e)
+            {
+                logger.log(Level.FINE, "Unable to close pooled JMS session", e);
+            }
+        }
+
+        private void closeQuietly(MessageProducer producer)
+        {
+            try
+            {
+                producer.close();
+            }
+            catch (JMSException e)
+            {
+                logger.log(Level.FINE, "Unable to close pooled JMS message producer", e);
+            }
+        }
+    }
+}
@@ -19,6 +19,7 @@
 package org.apache.webbeans.jms.util;
 
 import java.io.Serializable;
+import java.lang.reflect.Proxy;
 
 import jakarta.jms.Connection;
 import jakarta.jms.ConnectionFactory;
@@ -142,8 +143,8 @@ public final class JmsUtil
         {
             Class<?>[] interfaces = {Closable.class, Serializable.class, intf};
 
-            //X TODO do we still need this?
-            throw new WebBeansException("Support got temporarily removed while moving from Javassist to ASM");
+            // all injectable JMS types are interfaces, so a JDK proxy is enough and we need no generated subclass
+            return Proxy.newProxyInstance(JmsUtil.class.getClassLoader(), interfaces, new JmsProxyHandler(jmsComponent, intf));
 
         }
         catch (Exception e)
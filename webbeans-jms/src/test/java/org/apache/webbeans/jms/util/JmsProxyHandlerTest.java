@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.jms.util;
+
+import jakarta.jms.JMSException;
+import jakarta.jms.Queue;
+import jakarta.jms.QueueConnection;
+import jakarta.jms.QueueSender;
+import jakarta.jms.QueueSession;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class JmsProxyHandlerTest
+{
+    @Test
+    public void closingPooledResourcesIsNoOp() throws JMSException
+    {
+        QueueSession session = (QueueSession) JmsUtil.createNewJmsProxy(null, QueueSession.class);
+        session.close();
+
+        QueueSender sender = (QueueSender) JmsUtil.createNewJmsProxy(null, QueueSender.class);
+        sender.close();
+        sender.close();
+
+        // nothing got borrowed, so there is nothing to give back
+        ((Closable) sender).closeJMSObject();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void sharedConnectionsMustNotGetClosed() throws JMSException
+    {
+        QueueConnection connection = (QueueConnection) JmsUtil.createNewJmsProxy(null, QueueConnection.class);
+        connection.close();
+    }
+
+    @Test
+    public void objectMethodsDontCreateResources()
+    {
+        Queue queue = (Queue) JmsUtil.createNewJmsProxy(null, Queue.class);
+        Assert.assertEquals(queue, queue);
+        Assert.assertEquals(System.identityHashCode(queue), queue.hashCode());
+        Assert.assertTrue(queue.toString().contains(Queue.class.getName()));
+    }
+}
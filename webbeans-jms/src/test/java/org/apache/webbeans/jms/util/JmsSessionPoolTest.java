@@ -0,0 +1,281 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.jms.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.jms.Connection;
+import jakarta.jms.DeliveryMode;
+import jakarta.jms.Destination;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Queue;
+import jakarta.jms.Session;
+
+import org.apache.webbeans.jms.JMSModel.JMSType;
+import org.apache.webbeans.jms.util.JmsSessionPool.PooledSession;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class JmsSessionPoolTest
+{
+    @Test
+    public void sessionsAndProducersGetReused() throws JMSException
+    {
+        InMemoryBroker broker = new InMemoryBroker();
+        JmsSessionPool pool = new JmsSessionPool(broker, 0, 0, 2, 4, 0);
+        Destination queue = broker.queue();
+
+        PooledSession first = pool.borrow(JMSType.QUEUE);
+        MessageProducer producer = first.getProducer("queue/test", queue);
+        pool.release(first);
+
+        PooledSession second = pool.borrow(JMSType.QUEUE);
+        Assert.assertSame(first, second);
+        Assert.assertSame(producer, second.getProducer("queue/test", queue));
+        pool.release(second);
+
+        Assert.assertEquals(1, broker.sessions.size());
+        Assert.assertEquals(1, broker.producers.size());
+        Assert.assertEquals(1, pool.getCreatedSessions());
+        Assert.assertEquals(1, pool.getReusedSessions());
+        Assert.assertEquals(1, pool.getCreatedProducers());
+        Assert.assertEquals(1, pool.getReusedProducers());
+        Assert.assertEquals(0, pool.getActiveSessions());
+        Assert.assertEquals(1, pool.getIdleSessions());
+
+        pool.close();
+        Assert.assertEquals(0, pool.getIdleSessions());
+        Assert.assertEquals(0, broker.openSessions());
+        Assert.assertEquals(0, broker.openProducers());
+    }
+
+    @Test
+    public void poolIsBounded() throws JMSException
+    {
+        InMemoryBroker broker = new InMemoryBroker();
+        JmsSessionPool pool = new JmsSessionPool(broker, 0, 0, 2, 1, 0);
+        Destination queue = broker.queue();
+
+        List<PooledSession> borrowed = new ArrayList<>();
+        for (int i = 0; i < 3; i++)
+        {
+            borrowed.add(pool.borrow(JMSType.QUEUE));
+        }
+        Assert.assertEquals(3, pool.getActiveSessions());
+
+        // only one producer gets cached per session, the second one is closed on release
+        borrowed.get(0).getProducer("queue/a", queue);
+        borrowed.get(0).getProducer("queue/b", queue);
+
+        for (PooledSession session : borrowed)
+        {
+            pool.release(session);
+        }
+
+        Assert.assertEquals(2, pool.getIdleSessions());
+        Assert.assertEquals(1, pool.getDiscardedSessions());
+        Assert.assertEquals(2, broker.openSessions());
+        Assert.assertEquals(1, broker.openProducers());
+
+        PooledSession broken = pool.borrow(JMSType.QUEUE);
+        pool.invalidate(broken);
+        Assert.assertEquals(1, broker.openSessions());
+        Assert.assertEquals(2, pool.getDiscardedSessions());
+    }
+
+    @Test
+    public void idleSessionsGetEvicted() throws JMSException
+    {
+        InMemoryBroker broker = new InMemoryBroker();
+        AtomicLong clock = new AtomicLong();
+        JmsSessionPool pool = new JmsSessionPool(broker, 0, 0, 4, 4, 1000, clock::get);
+
+        PooledSession first = pool.borrow(JMSType.QUEUE);
+        PooledSession second = pool.borrow(JMSType.TOPIC);
+        pool.release(first);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+        pool.release(second);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+
+        // the queue session idled for 1200ms, the topic session only for 600ms
+        PooledSession topic = pool.borrow(JMSType.TOPIC);
+        Assert.assertSame(second, topic);
+        Assert.assertEquals(1, pool.getEvictedSessions());
+        Assert.assertEquals(0, pool.getIdleSessions());
+        Assert.assertEquals(1, broker.openSessions());
+
+        PooledSession queue = pool.borrow(JMSType.QUEUE);
+        Assert.assertNotSame(first, queue);
+        Assert.assertEquals(3, pool.getCreatedSessions());
+    }
+
+    @Test
+    public void activeSessionsAreLimited() throws JMSException
+    {
+        InMemoryBroker broker = new InMemoryBroker();
+        JmsSessionPool pool = new JmsSessionPool(broker, 1, 0, 2, 4, 0);
+
+        PooledSession queue = pool.borrow(JMSType.QUEUE);
+        try
+        {
+            pool.borrow(JMSType.QUEUE);
+            Assert.fail("only one queue session may be active");
+        }
+        catch (JMSException e)
+        {
+            // expected
+        }
+
+        // the limit applies per JMSType
+        pool.release(pool.borrow(JMSType.TOPIC));
+
+        pool.release(queue);
+        Assert.assertSame(queue, pool.borrow(JMSType.QUEUE));
+        Assert.assertEquals(1, pool.getActiveSessions());
+    }
+
+    @Test
+    public void producerDefaultsGetReset() throws JMSException
+    {
+        InMemoryBroker broker = new InMemoryBroker();
+        JmsSessionPool pool = new JmsSessionPool(broker, 0, 0, 2, 4, 0);
+        Destination queue = broker.queue();
+
+        PooledSession session = pool.borrow(JMSType.QUEUE);
+        MessageProducer producer = session.getProducer("queue/test", queue);
+        producer.setDeliveryMode(DeliveryMode.NON_PERSISTENT);
+        producer.setPriority(9);
+        producer.setTimeToLive(1000);
+        pool.release(session);
+
+        Assert.assertEquals(Message.DEFAULT_DELIVERY_MODE, producer.getDeliveryMode());
+        Assert.assertEquals(Message.DEFAULT_PRIORITY, producer.getPriority());
+        Assert.assertEquals(Message.DEFAULT_TIME_TO_LIVE, producer.getTimeToLive());
+    }
+
+    /**
+     * Stand-in for a JMS broker which only tracks the sessions and producers created from it.
+     */
+    private static final class InMemoryBroker implements JmsSessionPool.ConnectionProvider
+    {
+        private final List<Resource> sessions = new ArrayList<>();
+        private final List<Resource> producers = new ArrayList<>();
+        private final Connection connection = proxy(Connection.class, (proxy, method, args) ->
+        {
+            if ("createSession".equals(method.getName()))
+            {
+                return newSession();
+            }
+            return null;
+        });
+
+        @Override
+        public Connection getConnection(JMSType type)
+        {
+            return connection;
+        }
+
+        private Destination queue()
+        {
+            return proxy(Queue.class, (proxy, method, args) -> "getQueueName".equals(method.getName()) ? "test" : null);
+        }
+
+        private int openSessions()
+        {
+            return count(sessions);
+        }
+
+        private int openProducers()
+        {
+            return count(producers);
+        }
+
+        private Session newSession()
+        {
+            Resource resource = new Resource();
+            sessions.add(resource);
+            return proxy(Session.class, (proxy, method, args) ->
+            {
+                if ("createProducer".equals(method.getName()))
+                {
+                    Resource producer = new Resource();
+                    producers.add(producer);
+                    return proxy(MessageProducer.class, (p, m, a) -> producer.invoke(m.getName(), a));
+                }
+                return "close".equals(method.getName()) ? resource.close() : null;
+            });
+        }
+
+        private static int count(List<Resource> resources)
+        {
+            int open = 0;
+            for (Resource resource : resources)
+            {
+                if (!resource.closed)
+                {
+                    open++;
+                }
+            }
+            return open;
+        }
+
+        private static <T> T proxy(Class<T> type, InvocationHandler handler)
+        {
+            return type.cast(Proxy.newProxyInstance(JmsSessionPoolTest.class.getClassLoader(), new Class<?>[]{type}, handler));
+        }
+    }
+
+    private static final class Resource
+    {
+        private final Map<String, Object> properties = new HashMap<>();
+        private boolean closed;
+
+        private Object close()
+        {
+            closed = true;
+            return null;
+        }
+
+        /**
+         * Keeps the values of setters to return them from the getters.
+         */
+        private Object invoke(String method, Object[] args)
+        {
+            if ("close".equals(method))
+            {
+                return close();
+            }
+            if (method.startsWith("set"))
+            {
+                properties.put(method.substring(3), args[0]);
+                return null;
+            }
+            return method.startsWith("get") ? properties.get(method.substring(3)) : null;
+        }
+    }
+}
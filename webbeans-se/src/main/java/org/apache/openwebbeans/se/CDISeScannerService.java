@@ -49,7 +49,7 @@ public class CDISeScannerService extends AbstractMetaDataDiscovery
 
     public OwbAnnotationFinder getFinder()
     {
-        return finder;
+        return getOrInitFinder();
     }
 
     public void loader(ClassLoader loader)
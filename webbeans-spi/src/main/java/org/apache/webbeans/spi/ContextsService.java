@@ -101,6 +101,60 @@ public interface ContextsService
      */
     void removeThreadLocals();
 
+    /**
+     * Captures the request, session and conversation context which are active for the current thread.
+     * The contexts do not get copied, the returned handle refers to the very same context instances.
+     * It can be activated in another thread via {@link #activateContexts(Object)}.
+     * The captured contexts must not be ended by the threads they got handed over to.
+     *
+     * <p>A request context must not be used by several threads at the same time, so only a sequential
+     * hand-over is supported: the capturing thread must not use its request context until the thread it got
+     * handed over to restored its previous contexts, and it can't be active in two such threads at once.
+     * Tasks which run in parallel, e.g. the stages of a CompletableFuture pipeline, have to use
+     * {@link #captureContexts(boolean)} without the request context and start their own.</p>
+     *
+     * @return an opaque handle or {@code null} if this ContextsService doesn't support context propagation
+     */
+    default Object captureContexts()
+    {
+        return null;
+    }
+
+    /**
+     * Like {@link #captureContexts()}, but optionally without the request context.
+     * The session and conversation contexts may be used by several threads at the same time,
+     * so a handle without the request context can be activated by parallel tasks.
+     *
+     * @param includeRequestContext whether the request context gets captured as well
+     * @return an opaque handle or {@code null} if this ContextsService doesn't support context propagation
+     */
+    default Object captureContexts(boolean includeRequestContext)
+    {
+        return includeRequestContext ? captureContexts() : null;
+    }
+
+    /**
+     * Activates previously captured contexts for the current thread.
+     *
+     * @param capturedContexts a handle created by {@link #captureContexts()}
+     * @throws IllegalStateException if the captured request context is active in another thread it got handed over to
+     * @return the contexts which were active before, to be passed to {@link #restoreContexts(Object)}
+     */
+    default Object activateContexts(Object capturedContexts)
+    {
+        return null;
+    }
+
+    /**
+     * Reinstates the contexts which were active before {@link #activateContexts(Object)} got invoked.
+     *
+     * @param previousContexts the handle returned by {@link #activateContexts(Object)}
+     */
+    default void restoreContexts(Object previousContexts)
+    {
+        // no context propagation by default
+    }
+
     /**
      * This method can be used to disable conversation support in core CDI.
      * This is needed as the spec defines that a user can define it's
@@ -40,4 +40,17 @@ public interface DefiningClassService
      * @return the proxy class
      */
     <T> Class<T> defineAndLoad(String name, byte[] bytecode, Class<T> proxiedClass);
+
+    /**
+     * Look up a proxy class which already got generated ahead of time, e.g. during the build.
+     * If a class gets returned then no bytecode gets generated for this proxy at runtime.
+     * @param name the proxy name
+     * @param proxiedClass the original class
+     * @param <T> type of the class to proxy
+     * @return the existing proxy class or {@code null} if it has to be generated
+     */
+    default <T> Class<T> findProxyClass(String name, Class<T> proxiedClass)
+    {
+        return null;
+    }
 }
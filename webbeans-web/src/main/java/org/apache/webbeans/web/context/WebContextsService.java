@@ -26,8 +26,10 @@ import org.apache.webbeans.config.OpenWebBeansConfiguration;
 import org.apache.webbeans.config.WebBeansContext;
 import org.apache.webbeans.context.AbstractContextsService;
 import org.apache.webbeans.context.ApplicationContext;
+import org.apache.webbeans.context.CapturedContexts;
 import org.apache.webbeans.context.ConversationContext;
 import org.apache.webbeans.context.DependentContext;
+import org.apache.webbeans.context.ReplicatedSessionContext;
 import org.apache.webbeans.context.RequestContext;
 import org.apache.webbeans.context.SessionContext;
 import org.apache.webbeans.context.SingletonContext;
@@ -50,6 +52,7 @@ import jakarta.servlet.ServletRequestEvent;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 import java.lang.annotation.Annotation;
+import java.util.Collections;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -97,6 +100,11 @@ public class WebContextsService extends AbstractContextsService
     protected Boolean eagerSessionInitialisation;
     protected Pattern eagerSessionPattern;
 
+    /**
+     * @see OpenWebBeansConfiguration#SESSION_BEAN_REPLICATION
+     */
+    protected boolean sessionBeanReplication;
+
 
     /**
      * Creates a new instance.
@@ -118,6 +126,7 @@ public class WebContextsService extends AbstractContextsService
         dependentContext.setActive(true);
 
         configureEagerSessionInitialisation(webBeansContext);
+        sessionBeanReplication = webBeansContext.getOpenWebBeansConfiguration().isSessionBeanReplication();
     }
 
     protected void configureEagerSessionInitialisation(WebBeansContext webBeansContext)
@@ -151,6 +160,70 @@ public class WebContextsService extends AbstractContextsService
         RequestScopedBeanInterceptorHandler.removeThreadLocals();
     }
 
+    @Override
+    public Object captureContexts()
+    {
+        return captureContexts(true);
+    }
+
+    @Override
+    public Object captureContexts(boolean includeRequestContext)
+    {
+        return new CapturedContexts(includeRequestContext ? requestContexts.get() : null,
+                sessionContexts.get(), conversationContexts.get());
+    }
+
+    @Override
+    public Object activateContexts(Object capturedContexts)
+    {
+        CapturedContexts captured = (CapturedContexts) capturedContexts;
+        RequestContext handedOver = captured.getRequestContext() instanceof ServletRequestContext
+                ? captured.getRequestContext() : null;
+        if (handedOver != null)
+        {
+            handedOver.beginHandOver();
+        }
+        CapturedContexts previous = new CapturedContexts(
+                requestContexts.get(), sessionContexts.get(), conversationContexts.get(), handedOver);
+        bindContexts(captured);
+        return previous;
+    }
+
+    @Override
+    public void restoreContexts(Object previousContexts)
+    {
+        CapturedContexts previous = (CapturedContexts) previousContexts;
+        bindContexts(previous);
+        if (previous.getHandedOverRequestContext() != null)
+        {
+            previous.getHandedOverRequestContext().endHandOver();
+        }
+    }
+
+    private void bindContexts(CapturedContexts contexts)
+    {
+        RequestContext requestContext = contexts.getRequestContext();
+        bind(requestContexts, requestContext instanceof ServletRequestContext ? (ServletRequestContext) requestContext : null);
+        bind(sessionContexts, contexts.getSessionContext());
+        bind(conversationContexts, contexts.getConversationContext());
+
+        // clean the proxy cache ThreadLocals
+        RequestScopedBeanInterceptorHandler.removeThreadLocals();
+        SessionScopedBeanInterceptorHandler.removeThreadLocals();
+    }
+
+    private static <T> void bind(ThreadLocal<T> threadLocal, T value)
+    {
+        if (value == null)
+        {
+            threadLocal.remove();
+        }
+        else
+        {
+            threadLocal.set(value);
+        }
+    }
+
 
     /**
      * {@inheritDoc}
@@ -444,6 +517,8 @@ public class WebContextsService extends AbstractContextsService
 
         }
 
+        // destroying the context drops the request, the replication still needs its session
+        HttpServletRequest servletRequest = context.getServletRequest();
 
         context.destroy();
 
@@ -460,6 +535,11 @@ public class WebContextsService extends AbstractContextsService
                 payload != null ? payload : new Object(), DestroyedLiteral.INSTANCE_REQUEST_SCOPED);
         }
 
+        if (sessionBeanReplication)
+        {
+            replicateSessionBeans(context, servletRequest);
+        }
+
         // clean the proxy cache ThreadLocals
         RequestScopedBeanInterceptorHandler.removeThreadLocals();
         SessionScopedBeanInterceptorHandler.removeThreadLocals();
@@ -469,6 +549,50 @@ public class WebContextsService extends AbstractContextsService
         requestContexts.remove();
     }
 
+    /**
+     * Sets the session attributes of all session scoped beans which got used during the request.
+     * A session which got destroyed with the request doesn't get replicated anymore.
+     * Every path has to end the tracking of the beans the request used, it is bound to the pooled thread.
+     *
+     * @param servletRequest the request of the already destroyed requestContext or {@code null}
+     */
+    protected void replicateSessionBeans(ServletRequestContext requestContext, HttpServletRequest servletRequest)
+    {
+        SessionContext sessionContext = sessionContexts.get();
+        if (!(sessionContext instanceof ReplicatedSessionContext))
+        {
+            return;
+        }
+
+        ReplicatedSessionContext replicatedSessionContext = (ReplicatedSessionContext) sessionContext;
+        if (sessionContext == requestContext.getPropagatedSessionContext())
+        {
+            replicatedSessionContext.discardReplication();
+            return;
+        }
+
+        HttpSession session = servletRequest != null ? servletRequest.getSession(false) : null;
+        if (session == null)
+        {
+            // let the next request of this session write them
+            replicatedSessionContext.deferReplication();
+            return;
+        }
+
+        try
+        {
+            replicatedSessionContext.replicate(session::setAttribute, session::removeAttribute);
+        }
+        catch (IllegalStateException e)
+        {
+            // session got invalidated meanwhile
+            if (logger.isLoggable(Level.FINE))
+            {
+                logger.log(Level.FINE, "Can't replicate the session scoped beans of an invalidated session", e);
+            }
+        }
+    }
+
 
     /**
      * Creates the session context at the session start.
@@ -493,7 +617,7 @@ public class WebContextsService extends AbstractContextsService
                     currentSessionContext = (SessionContext) session.getAttribute(OWB_SESSION_CONTEXT_ATTRIBUTE_NAME);
                     if (currentSessionContext == null)
                     {
-                        currentSessionContext = new SessionContext();
+                        currentSessionContext = sessionBeanReplication ? new ReplicatedSessionContext() : new SessionContext();
                         currentSessionContext.setActive(true);
                         
                         // init context before fire @Initialized(SessionScoped)
@@ -506,6 +630,19 @@ public class WebContextsService extends AbstractContextsService
                     }
                 }
             }
+            else if (currentSessionContext instanceof ReplicatedSessionContext)
+            {
+                // the beans get replicated individually at the end of the request
+                ReplicatedSessionContext replicatedSessionContext = (ReplicatedSessionContext) currentSessionContext;
+                if (replicatedSessionContext.isRestoreNeeded())
+                {
+                    replicatedSessionContext.restore(Collections.list(session.getAttributeNames()), session::getAttribute);
+                }
+                currentSessionContext.setActive(true);
+
+                //Set thread local
+                sessionContexts.set(currentSessionContext);
+            }
             else
             {
                 // we do that in any case.
@@ -63,7 +63,7 @@ public class WebScannerService extends AbstractMetaDataDiscovery
 
     public OwbAnnotationFinder getFinder()
     {
-        return finder;
+        return getOrInitFinder();
     }
 
     /**
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.webbeans.web.tests;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.enterprise.context.SessionScoped;
+import jakarta.servlet.ServletRequestEvent;
+import jakarta.servlet.http.HttpSession;
+
+import org.apache.webbeans.config.OpenWebBeansConfiguration;
+import org.apache.webbeans.context.ReplicatedSessionContext;
+import org.apache.webbeans.context.creational.BeanInstanceBag;
+import org.apache.webbeans.spi.ContextsService;
+import org.apache.webbeans.test.AbstractUnitTest;
+import org.apache.webbeans.web.lifecycle.test.MockServletContext;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * The replication of the session scoped beans by the {@link org.apache.webbeans.web.context.WebContextsService}
+ * at the end of each request.
+ */
+public class SessionBeanReplicationTest extends AbstractUnitTest
+{
+    @Test
+    public void testUsedBeansGetReplicated()
+    {
+        addConfiguration(OpenWebBeansConfiguration.SESSION_BEAN_REPLICATION, "true");
+        startContainer(Cart.class);
+        ContextsService contextsService = getWebBeansContext().getContextsService();
+        MockHttpSession session = new MockHttpSession();
+
+        ServletRequestEvent request = startRequest(contextsService, session, session);
+        getInstance(Cart.class).add("book");
+        contextsService.endContext(RequestScoped.class, request);
+
+        Assert.assertEquals(Collections.singletonList("book"), getReplicatedItems(session));
+        Assert.assertTrue(getSessionContext(contextsService, session).getDirtyBeans().isEmpty());
+    }
+
+    @Test
+    public void testReplicationGetsDeferredWithoutSession()
+    {
+        addConfiguration(OpenWebBeansConfiguration.SESSION_BEAN_REPLICATION, "true");
+        startContainer(Cart.class);
+        ContextsService contextsService = getWebBeansContext().getContextsService();
+        MockHttpSession session = new MockHttpSession();
+
+        // the request has no access to the session anymore when it ends
+        ServletRequestEvent request = startRequest(contextsService, session, null);
+        getInstance(Cart.class).add("book");
+        contextsService.endContext(RequestScoped.class, request);
+        Assert.assertNull(getReplicatedItems(session));
+
+        // the next request of the session writes it
+        request = startRequest(contextsService, session, session);
+        contextsService.endContext(RequestScoped.class, request);
+        Assert.assertEquals(Collections.singletonList("book"), getReplicatedItems(session));
+    }
+
+    @Test
+    public void testDestroyedSessionDoesNotKeepTrackedBeans()
+    {
+        addConfiguration(OpenWebBeansConfiguration.SESSION_BEAN_REPLICATION, "true");
+        startContainer(Cart.class);
+        ContextsService contextsService = getWebBeansContext().getContextsService();
+        MockHttpSession session = new MockHttpSession();
+
+        ServletRequestEvent request = startRequest(contextsService, session, session);
+        getInstance(Cart.class).add("book");
+        ReplicatedSessionContext sessionContext = getSessionContext(contextsService, session);
+
+        // the session gets destroyed with the end of the request
+        contextsService.endContext(SessionScoped.class, session);
+        contextsService.endContext(RequestScoped.class, request);
+
+        Assert.assertNull(getReplicatedItems(session));
+        // nothing of this request stays bound to the thread
+        Assert.assertTrue(sessionContext.getDirtyBeans().isEmpty());
+    }
+
+    private ServletRequestEvent startRequest(ContextsService contextsService, HttpSession session, HttpSession requestSession)
+    {
+        ServletRequestEvent request = new ServletRequestEvent(new MockServletContext(), new MockServletRequest()
+        {
+            @Override
+            public HttpSession getSession()
+            {
+                return requestSession;
+            }
+
+            @Override
+            public HttpSession getSession(boolean create)
+            {
+                return requestSession;
+            }
+        });
+        contextsService.startContext(RequestScoped.class, request);
+        contextsService.startContext(SessionScoped.class, session);
+        return request;
+    }
+
+    private ReplicatedSessionContext getSessionContext(ContextsService contextsService, HttpSession session)
+    {
+        return (ReplicatedSessionContext) session.getAttribute("openWebBeansSessionContext");
+    }
+
+    private List<String> getReplicatedItems(HttpSession session)
+    {
+        List<String> items = null;
+        for (String name : Collections.list(session.getAttributeNames()))
+        {
+            if (name.startsWith(ReplicatedSessionContext.BEAN_ATTRIBUTE_PREFIX))
+            {
+                Assert.assertNull("only one replicated bean expected", items);
+                items = ((Cart) ((BeanInstanceBag<?>) session.getAttribute(name)).getBeanInstance()).getItems();
+            }
+        }
+        return items;
+    }
+
+    @SessionScoped
+    public static class Cart implements Serializable
+    {
+        private final List<String> items = new ArrayList<>();
+
+        public void add(String item)
+        {
+            items.add(item);
+        }
+
+        public List<String> getItems()
+        {
+            return new ArrayList<>(items);
+        }
+    }
+}